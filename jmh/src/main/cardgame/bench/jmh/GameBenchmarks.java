@@ -0,0 +1,62 @@
+package main.cardgame.bench.jmh;
+
+import main.cardgame.bench.TurnScript;
+import main.cardgame.game.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of {@link Game#processTurn} on hard boards in both modes,
+ * playing the same scripted turns as the in-tree hot path suite, and of
+ * building a new game, which the turns do not include.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class GameBenchmarks {
+    @Param({"true", "false"})
+    public boolean timed;
+
+    private TurnScript script;
+
+    /**
+     * Starts the scripted games
+     */
+    @Setup
+    public void startScript() {
+        script = new TurnScript(timed);
+    }
+
+    /**
+     * Plays one scripted turn
+     * @return The turn's result as the script reports it
+     */
+    @Benchmark
+    public long processTurn() {
+        return script.playTurn();
+    }
+
+    /**
+     * Builds and starts a new game with all its cards
+     * @return The number of cards
+     */
+    @Benchmark
+    public long newGame() {
+        return script.newGame();
+    }
+}
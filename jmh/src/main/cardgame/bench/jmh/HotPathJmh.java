@@ -0,0 +1,29 @@
+package main.cardgame.bench.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH hot path benchmarks with the GC profiler, the same as
+ * {@code org.openjdk.jmh.Main -prof gc main.cardgame.bench.jmh}, so every
+ * result also reports bytes allocated per operation and collections.
+ * Run with: java -cp out:out-jmh:libs/gson-2.10.1.jar:libs/jmh/* main.cardgame.bench.jmh.HotPathJmh [regex]
+ */
+
+public class HotPathJmh {
+    /**
+     * Runs the benchmarks
+     * @param args Optional regular expression selecting benchmarks, every benchmark in this package by default
+     * @throws RunnerException If a benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : HotPathJmh.class.getPackageName() + ".")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
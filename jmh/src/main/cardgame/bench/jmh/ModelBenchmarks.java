@@ -0,0 +1,117 @@
+package main.cardgame.bench.jmh;
+
+import main.cardgame.bench.MatchScript;
+import main.cardgame.engine.Difficulty;
+import main.cardgame.model.Card;
+import main.cardgame.model.Deck;
+import main.cardgame.model.GameBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the model hot paths: deck creation per level and
+ * {@link GameBoard#checkMatch} on a miss and on a match. The match
+ * benchmark matches every pair of a board in turn through
+ * {@link MatchScript}, so every call takes the match path and the reset
+ * of a cleared board is spread over all its pairs.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ModelBenchmarks {
+    private static final long SEED = 42L;
+
+    /**
+     * The level a deck is created for
+     */
+    @State(Scope.Thread)
+    public static class DeckLevel {
+        @Param({"easy", "medium", "hard"})
+        public String level;
+    }
+
+    /**
+     * A hard board with two cards of different pairs
+     */
+    @State(Scope.Thread)
+    public static class Board {
+        GameBoard board;
+        Card first;
+        Card mismatch;
+
+        /**
+         * Deals the board and picks the cards
+         */
+        @Setup(Level.Trial)
+        public void deal() {
+            board = new GameBoard(Difficulty.HARD.getRows(), Difficulty.HARD.getCols(), SEED);
+            first = board.getCardAt(0);
+            for (int slot = 1; slot < board.size() && mismatch == null; slot++) {
+                if (board.getCardAt(slot).getPairKey() != first.getPairKey()) {
+                    mismatch = board.getCardAt(slot);
+                }
+            }
+        }
+    }
+
+    /**
+     * Matches the pairs of a board in turn, resetting it once every pair is matched
+     */
+    @State(Scope.Thread)
+    public static class Matches {
+        MatchScript script;
+
+        /**
+         * Deals the board
+         */
+        @Setup(Level.Trial)
+        public void deal() {
+            script = new MatchScript(SEED);
+        }
+    }
+
+    /**
+     * Creates a shuffled deck for a level
+     * @param deck The level
+     * @return The deck
+     */
+    @Benchmark
+    public Deck createDeckForLevel(DeckLevel deck) {
+        return Deck.createDeckForLevel(deck.level, SEED);
+    }
+
+    /**
+     * Compares two cards of different pairs
+     * @param board The board
+     * @return False
+     */
+    @Benchmark
+    public boolean checkMatchMiss(Board board) {
+        return board.board.checkMatch(board.first, board.mismatch);
+    }
+
+    /**
+     * Matches the next unmatched pair
+     * @param matches The script
+     * @return 1
+     */
+    @Benchmark
+    public long checkMatchMatch(Matches matches) {
+        return matches.script.matchNext();
+    }
+}
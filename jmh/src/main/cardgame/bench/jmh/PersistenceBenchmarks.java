@@ -0,0 +1,122 @@
+package main.cardgame.bench.jmh;
+
+import main.cardgame.profile.ProfileManager;
+import main.cardgame.profile.UserProfile;
+import main.cardgame.stats.GameStatistics;
+import main.cardgame.stats.StatisticsPersister;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of finishing a game's bookkeeping: updating the statistics
+ * with their queued save, queueing and writing a profile, and loading it.
+ * Each benchmark runs in its own forked JVM whose statistics file and
+ * profile directory point to a temporary directory, set before the
+ * statistics and profile classes are first used.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PersistenceBenchmarks {
+    private static final long SEED = 42L;
+
+    private Path dir;
+    private GameStatistics statistics;
+    private UserProfile profile;
+
+    /**
+     * Redirects persistence to a temporary directory and saves a profile to load
+     * @throws IOException If the directory or profile cannot be written
+     */
+    @Setup
+    public void redirect() throws IOException {
+        dir = Files.createTempDirectory("hotpath-jmh");
+        System.setProperty("cardgame.statsFile", dir.resolve("statistics.json").toString());
+        System.setProperty("cardgame.profileDir", dir.resolve("profiles").toString());
+        statistics = new GameStatistics();
+        profile = new UserProfile("bench");
+        profile.updateStatistics(statistics);
+        ProfileManager.saveProfile(profile);
+    }
+
+    /**
+     * Writes what is still queued and deletes the temporary directory
+     */
+    @TearDown
+    public void cleanUp() {
+        StatisticsPersister.flush();
+        deleteRecursively(dir.toFile());
+    }
+
+    /**
+     * Records a finished game, queueing the statistics save
+     * @return The number of games played
+     */
+    @Benchmark
+    public int updateGameStats() {
+        statistics.updateGameStats(15, 40, 95_000, 230, true, SEED);
+        return statistics.getTotalGames();
+    }
+
+    /**
+     * Serializes a profile and queues its save
+     * @throws IOException If the profile cannot be serialized
+     */
+    @Benchmark
+    public void saveProfileLater() throws IOException {
+        ProfileManager.saveProfileLater(profile);
+    }
+
+    /**
+     * Writes a profile to disk
+     * @throws IOException If the profile cannot be written
+     */
+    @Benchmark
+    public void saveProfile() throws IOException {
+        ProfileManager.saveProfile(profile);
+    }
+
+    /**
+     * Reads a profile from disk
+     * @return The profile
+     * @throws IOException If the profile cannot be read
+     * @throws ClassNotFoundException If the profile holds an unknown class
+     */
+    @Benchmark
+    public UserProfile loadProfile() throws IOException, ClassNotFoundException {
+        return ProfileManager.loadProfile("bench");
+    }
+
+    /**
+     * Deletes a file or a directory with its contents
+     * @param file The file or directory
+     */
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,154 @@
+package main.cardgame.bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Minimal benchmark harness shared by the benchmarks in this package.
+ * Runs an operation through a warmup phase and a timed phase on the
+ * current thread and reports throughput, bytes allocated per operation,
+ * read from the JVM's per-thread allocation counter, the allocation rate
+ * and the garbage collections during the timed phase.
+ * Phase lengths can be changed with the system properties
+ * {@code bench.warmupMillis} and {@code bench.measureMillis}.
+ */
+
+public final class BenchmarkRunner {
+    /** Warmup phase length in milliseconds */
+    private static final long WARMUP_MILLIS = Long.getLong("bench.warmupMillis", 1000);
+    /** Measured phase length in milliseconds */
+    private static final long MEASURE_MILLIS = Long.getLong("bench.measureMillis", 2000);
+
+    /** Sink for operation results so the JIT cannot drop the work */
+    private static volatile long blackhole;
+
+    /**
+     * A benchmarked operation
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * Runs the operation once
+         * @return Any value derived from the work, consumed by the harness
+         */
+        long run();
+    }
+
+    /**
+     * Result of one benchmark
+     * @param name The benchmark name
+     * @param opsPerSecond Operations per second in the measured phase
+     * @param bytesPerOp Bytes allocated per operation, or -1 if the JVM cannot tell
+     * @param gcCount Garbage collections during the measured phase
+     * @param gcMillis Time spent in those collections in milliseconds
+     */
+    public record Result(String name, double opsPerSecond, double bytesPerOp, long gcCount, long gcMillis) {
+        /**
+         * Gets the allocation rate of the measured phase
+         * @return Allocated megabytes per second, or -1 if the JVM cannot tell
+         */
+        public double allocationMegabytesPerSecond() {
+            return bytesPerOp < 0 ? -1 : bytesPerOp * opsPerSecond / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            String allocation = bytesPerOp < 0 ? "n/a" : String.format("%.1f B/op %9.1f MB/s",
+                    bytesPerOp, allocationMegabytesPerSecond());
+            return String.format("%-45s %,16.0f ops/s %26s %4d gc %5d ms", name, opsPerSecond, allocation,
+                    gcCount, gcMillis);
+        }
+    }
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs a benchmark and prints its result
+     * @param name The benchmark name
+     * @param operation The operation to measure
+     * @return The result
+     */
+    public static Result run(String name, Operation operation) {
+        long sink = 0;
+        // Grow the batch until one batch takes about a tenth of a millisecond,
+        // so fast operations are not dominated by reading the clock
+        int batch = 1;
+        long warmupEnd = System.nanoTime() + WARMUP_MILLIS * 1_000_000L;
+        long batchStart = System.nanoTime();
+        while (batchStart < warmupEnd) {
+            for (int i = 0; i < batch; i++) {
+                sink += operation.run();
+            }
+            long batchEnd = System.nanoTime();
+            if (batchEnd - batchStart < 100_000L && batch < (1 << 16)) {
+                batch <<= 1;
+            }
+            batchStart = batchEnd;
+        }
+
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long end = start + MEASURE_MILLIS * 1_000_000L;
+        long ops = 0;
+        long now;
+        do {
+            for (int i = 0; i < batch; i++) {
+                sink += operation.run();
+            }
+            ops += batch;
+            now = System.nanoTime();
+        } while (now < end);
+        long allocatedAfter = allocatedBytes();
+        long gcCountAfter = gcCount();
+        long gcMillisAfter = gcMillis();
+        blackhole = sink;
+
+        double seconds = (now - start) / 1e9;
+        double bytesPerOp = allocatedBefore < 0 ? -1 : (double) (allocatedAfter - allocatedBefore) / ops;
+        Result result = new Result(name, ops / seconds, bytesPerOp,
+                gcCountAfter - gcCountBefore, gcMillisAfter - gcMillisBefore);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Reads the number of garbage collections so far, summed over all collectors
+     * @return The collection count
+     */
+    static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(collector.getCollectionCount(), 0);
+        }
+        return count;
+    }
+
+    /**
+     * Reads the time spent in garbage collection so far, summed over all collectors
+     * @return The collection time in milliseconds
+     */
+    static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(collector.getCollectionTime(), 0);
+        }
+        return millis;
+    }
+
+    /**
+     * Reads the number of bytes allocated so far by the current thread
+     * @return The allocated bytes, or -1 if the JVM does not expose the counter
+     */
+    @SuppressWarnings("deprecation")
+    public static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,81 @@
+package main.cardgame.bench;
+
+import main.cardgame.engine.BoardState;
+import main.cardgame.model.Card;
+import main.cardgame.model.GameBoard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Measures the memory cost per cell of large boards.
+ * Compares the primitive board state, a chunked game board before and after
+ * cards are requested, and the old layout of one Card object per cell in a
+ * Card[rows][cols] grid. Sizes are read from the per-thread allocation
+ * counter, so they include headers and padding.
+ * Run with: java -cp out main.cardgame.bench.BoardMemoryBenchmark [rows] [cols]
+ */
+
+public class BoardMemoryBenchmark {
+    /** Keeps measured objects reachable until their size has been read */
+    private static Object retained;
+
+    /**
+     * Runs the benchmark
+     * @param args Optional rows and columns, 1000x1000 by default
+     */
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int cols = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long cells = (long) rows * cols;
+        System.out.println("Board " + rows + "x" + cols + " (" + cells + " cells)");
+
+        // Warm up class loading so it does not show up in the first measurement
+        new GameBoard(2, 2, new SplittableRandom(1)).getCardAt(0);
+
+        long before = BenchmarkRunner.allocatedBytes();
+        retained = new BoardState(rows, cols);
+        report("BoardState", BenchmarkRunner.allocatedBytes() - before, cells);
+
+        before = BenchmarkRunner.allocatedBytes();
+        GameBoard board = new GameBoard(rows, cols, new SplittableRandom(42));
+        retained = board;
+        report("GameBoard, no cards requested", BenchmarkRunner.allocatedBytes() - before, cells);
+
+        // A screenful of cards, as a UI scrolling over the board would request
+        int window = Math.min(32, Math.min(rows, cols));
+        before = BenchmarkRunner.allocatedBytes();
+        for (int row = 0; row < window; row++) {
+            for (int col = 0; col < window; col++) {
+                board.getCard(row, col);
+            }
+        }
+        report("GameBoard, +" + board.getMaterializedCardCount() + " cards requested",
+                BenchmarkRunner.allocatedBytes() - before, cells);
+
+        retained = null;
+        before = BenchmarkRunner.allocatedBytes();
+        Card[][] grid = new Card[rows][cols];
+        int id = 1;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                grid[row][col] = new Card(id, (id - 1) / 2);
+                id++;
+            }
+        }
+        retained = grid;
+        report("Card[rows][cols] with one Card per cell", BenchmarkRunner.allocatedBytes() - before, cells);
+
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        System.out.printf("Max heap %,d MB%n", maxHeap >> 20);
+    }
+
+    /**
+     * Prints the total and per-cell size of a measurement
+     * @param name The measured layout
+     * @param bytes The bytes allocated
+     * @param cells The number of cells
+     */
+    private static void report(String name, long bytes, long cells) {
+        System.out.printf("%-45s %,14d B %8.2f B/cell%n", name, bytes, (double) bytes / cells);
+    }
+}
@@ -0,0 +1,147 @@
+package main.cardgame.bench;
+
+import main.cardgame.bot.BotPlayer;
+import main.cardgame.bot.BotRunner;
+import main.cardgame.bot.BoundedMemoryBot;
+import main.cardgame.bot.PerfectMemoryBot;
+import main.cardgame.bot.RandomBot;
+import main.cardgame.engine.BoardState;
+import main.cardgame.engine.Difficulty;
+import main.cardgame.engine.EndlessEngine;
+import main.cardgame.model.Deck;
+import main.cardgame.model.GameBoard;
+import main.cardgame.time.ManualClock;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Plays many games per difficulty with every bot strategy and prints the
+ * distribution of moves per game: the baselines real players are compared
+ * against. Layouts are shuffled in place exactly as
+ * {@link Deck#createDeckForLevel(String, long)} shuffles them, so one
+ * board per difficulty serves every game; the first layout is checked
+ * against a real deck. Turns allocate nothing; the bytes per game are the
+ * engine and timer created for each game.
+ * Run with: java -cp out main.cardgame.bench.BotMoveDistribution [gamesPerBot] [seed]
+ */
+
+public class BotMoveDistribution {
+    private static final double[] PERCENTILES = {0.10, 0.50, 0.90, 0.99};
+
+    /**
+     * Runs the simulation
+     * @param args Optional number of games per bot and difficulty, 200000 by default, and a seed
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+
+        System.out.printf("%,d games per bot and difficulty, seed %d%n", games, seed);
+        System.out.printf("%-7s %-10s %8s %6s %6s %6s %6s %6s %10s %8s%n",
+                "level", "bot", "mean", "p10", "p50", "p90", "p99", "max", "us/game", "B/game");
+        for (Difficulty difficulty : Difficulty.values()) {
+            BotPlayer[] bots = {
+                    new RandomBot(new SplittableRandom(seed)),
+                    new BoundedMemoryBot(new SplittableRandom(seed), 2),
+                    new BoundedMemoryBot(new SplittableRandom(seed), 5),
+                    new PerfectMemoryBot(new SplittableRandom(seed))
+            };
+            for (BotPlayer bot : bots) {
+                run(difficulty, bot, games, seed);
+            }
+        }
+    }
+
+    /**
+     * Plays the games of one bot on one difficulty and prints their move distribution
+     * @param difficulty The difficulty
+     * @param bot The bot
+     * @param games The number of games
+     * @param seed The seed of the first layout; later layouts continue the same generator
+     */
+    private static void run(Difficulty difficulty, BotPlayer bot, int games, long seed) {
+        SplittableRandom layouts = new SplittableRandom(seed);
+        BoardState board = new BoardState(difficulty.getRows(), difficulty.getCols());
+        board.shuffle(layouts);
+        checkMatchesDeck(difficulty, board, seed);
+
+        ManualClock clock = new ManualClock();
+        long[] histogram = new long[4 * board.size()];
+        long totalMoves = 0;
+        long allocatedBefore = BenchmarkRunner.allocatedBytes();
+        long start = System.nanoTime();
+        for (int game = 0; game < games; game++) {
+            if (game > 0) {
+                board.shuffle(layouts);
+            }
+            EndlessEngine engine = new EndlessEngine(board, clock);
+            engine.play();
+            int moves = BotRunner.playGame(engine, bot);
+            if (moves >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, Math.max(2 * histogram.length, moves + 1));
+            }
+            histogram[moves]++;
+            totalMoves += moves;
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = BenchmarkRunner.allocatedBytes() - allocatedBefore;
+
+        StringBuilder line = new StringBuilder(String.format("%-7s %-10s %8.2f",
+                difficulty.getLevel(), bot.getName(), (double) totalMoves / games));
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(" %6d", percentile(histogram, games, percentile)));
+        }
+        line.append(String.format(" %6d %10.2f %8.1f", max(histogram), nanos / 1e3 / games,
+                allocatedBefore < 0 ? -1.0 : (double) allocated / games));
+        System.out.println(line);
+    }
+
+    /**
+     * Checks that the in-place shuffle deals the same layout as a deck of the level
+     * @param difficulty The difficulty
+     * @param board The board shuffled once from the seed
+     * @param seed The seed
+     * @throws IllegalStateException If the layouts differ
+     */
+    private static void checkMatchesDeck(Difficulty difficulty, BoardState board, long seed) {
+        Deck deck = Deck.createDeckForLevel(difficulty.getLevel(), seed);
+        GameBoard deckBoard = new GameBoard(difficulty.getLevel(), deck);
+        if (deckBoard.getState().layoutHash() != board.layoutHash()) {
+            throw new IllegalStateException("In-place shuffle no longer matches the " + difficulty.getLevel() + " deck");
+        }
+    }
+
+    /**
+     * Finds a percentile of a move histogram
+     * @param histogram Number of games per move count
+     * @param games The total number of games
+     * @param percentile The percentile, between 0 and 1
+     * @return The smallest move count with at least that share of games at or below it
+     */
+    private static int percentile(long[] histogram, long games, double percentile) {
+        long target = (long) Math.ceil(percentile * games);
+        long seen = 0;
+        for (int moves = 0; moves < histogram.length; moves++) {
+            seen += histogram[moves];
+            if (seen >= target && seen > 0) {
+                return moves;
+            }
+        }
+        return histogram.length - 1;
+    }
+
+    /**
+     * Finds the largest move count of a histogram
+     * @param histogram Number of games per move count
+     * @return The largest move count with at least one game
+     */
+    private static int max(long[] histogram) {
+        for (int moves = histogram.length - 1; moves > 0; moves--) {
+            if (histogram[moves] > 0) {
+                return moves;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,94 @@
+package main.cardgame.bench;
+
+import main.cardgame.model.Card;
+import main.cardgame.model.CardFace;
+import main.cardgame.model.GameBoard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Measures the heap footprint of card objects.
+ * Compares a replica of the old card, an Observable carrying its own
+ * observer Vector, flags and image path String (shared by the two cards of
+ * a pair, as the old deck built them), against the current slot-record card
+ * that points to an interned {@link CardFace}.
+ * Run with: java -cp out main.cardgame.bench.CardFootprintBenchmark [cards]
+ */
+
+public class CardFootprintBenchmark {
+    /** Keeps measured objects reachable until their size has been read */
+    private static Object retained;
+
+    /**
+     * Replica of the card as it was before cards shared faces and board state
+     */
+    @SuppressWarnings("deprecation")
+    private static class LegacyCard extends java.util.Observable {
+        private int id;
+        private String imagePath;
+        private boolean isMatched;
+        private boolean isFaceUp;
+
+        LegacyCard(int id, String imagePath) {
+            this.id = id;
+            this.imagePath = imagePath;
+        }
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args Optional number of cards, 100000 by default
+     */
+    public static void main(String[] args) {
+        int cards = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int pairs = cards / 2;
+        cards = pairs * 2;
+        System.out.println(cards + " cards, " + pairs + " pairs");
+
+        long before = BenchmarkRunner.allocatedBytes();
+        LegacyCard[] legacy = new LegacyCard[cards];
+        for (int pairKey = 0; pairKey < pairs; pairKey++) {
+            String imagePath = "file:src/main/resources/images/hard/card" + (pairKey + 1) + ".png";
+            legacy[2 * pairKey] = new LegacyCard(2 * pairKey + 1, imagePath);
+            legacy[2 * pairKey + 1] = new LegacyCard(2 * pairKey + 2, imagePath);
+        }
+        retained = legacy;
+        report("Observable card with image path", BenchmarkRunner.allocatedBytes() - before, cards);
+        retained = null;
+
+        before = BenchmarkRunner.allocatedBytes();
+        for (int pairKey = 0; pairKey < pairs; pairKey++) {
+            CardFace.of(pairKey);
+        }
+        report("CardFace table (once per pair key, shared)", BenchmarkRunner.allocatedBytes() - before, cards);
+
+        before = BenchmarkRunner.allocatedBytes();
+        Card[] compact = new Card[cards];
+        for (int pairKey = 0; pairKey < pairs; pairKey++) {
+            CardFace face = CardFace.of(pairKey);
+            compact[2 * pairKey] = new Card(2 * pairKey + 1, face);
+            compact[2 * pairKey + 1] = new Card(2 * pairKey + 2, face);
+        }
+        retained = compact;
+        report("Card slot record with shared face", BenchmarkRunner.allocatedBytes() - before, cards);
+        retained = null;
+
+        GameBoard board = new GameBoard(2, pairs, new SplittableRandom(42));
+        before = BenchmarkRunner.allocatedBytes();
+        for (int slot = 0; slot < board.size(); slot++) {
+            board.getCardAt(slot);
+        }
+        report("Cards created by a board, incl. chunks", BenchmarkRunner.allocatedBytes() - before, cards);
+        retained = board;
+    }
+
+    /**
+     * Prints the total and per-card size of a measurement
+     * @param name The measured layout
+     * @param bytes The bytes allocated
+     * @param cards The number of cards
+     */
+    private static void report(String name, long bytes, long cards) {
+        System.out.printf("%-45s %,14d B %8.2f B/card%n", name, bytes, (double) bytes / cards);
+    }
+}
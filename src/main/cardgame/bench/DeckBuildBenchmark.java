@@ -0,0 +1,115 @@
+package main.cardgame.bench;
+
+import main.cardgame.event.EventBus;
+import main.cardgame.event.GameEvent;
+import main.cardgame.model.Card;
+import main.cardgame.model.Deck;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Compares deck construction paths for growing deck sizes:
+ * the old path that re-sorted the whole deck and notified on every added
+ * card, {@link Deck#addCard} one card at a time, and {@link Deck.Builder}.
+ * Every path publishes to a bus with one subscriber so notification cost is
+ * included; the events per build are printed next to the throughput.
+ * Run with: java -cp out main.cardgame.bench.DeckBuildBenchmark
+ */
+
+public class DeckBuildBenchmark {
+    /** The old path is quadratic, so it is only run up to this size */
+    private static final int LEGACY_MAX_CARDS = 10_000;
+
+    private final EventBus bus = new EventBus();
+    private long events;
+
+    /**
+     * Creates the benchmark and subscribes an event counter to its bus
+     */
+    public DeckBuildBenchmark() {
+        bus.subscribe(batch -> events++, EnumSet.of(GameEvent.CARD_ADDED, GameEvent.DECK_SHUFFLED, GameEvent.DECK_BUILT));
+    }
+
+    /**
+     * Builds a deck the way createDeckForLevel used to: add, sort and notify per card, then shuffle
+     * @param pairs The number of pairs
+     * @return The deck size
+     */
+    long buildLegacy(int pairs) {
+        List<Card> cards = new ArrayList<>();
+        int uniqueId = 1;
+        for (int pairKey = 0; pairKey < pairs; pairKey++) {
+            for (int copy = 0; copy < 2; copy++) {
+                cards.add(new Card(uniqueId++, pairKey));
+                cards.sort((card1, card2) -> Integer.compare(card1.getId(), card2.getId()));
+                bus.publish(GameEvent.CARD_ADDED, cards);
+            }
+        }
+        Collections.shuffle(cards);
+        bus.publish(GameEvent.DECK_SHUFFLED, cards);
+        return cards.size();
+    }
+
+    /**
+     * Builds a deck with one addCard call per card, then shuffles it
+     * @param pairs The number of pairs
+     * @return The deck size
+     */
+    long buildWithAddCard(int pairs) {
+        Deck deck = new Deck(42);
+        deck.setEventBus(bus);
+        int uniqueId = 1;
+        for (int pairKey = 0; pairKey < pairs; pairKey++) {
+            deck.addCard(new Card(uniqueId++, pairKey));
+            deck.addCard(new Card(uniqueId++, pairKey));
+        }
+        return deck.shuffle().size();
+    }
+
+    /**
+     * Builds a shuffled deck with the bulk builder
+     * @param pairs The number of pairs
+     * @return The deck size
+     */
+    long buildWithBuilder(int pairs) {
+        return new Deck.Builder().seed(42).eventBus(bus).addPairs(pairs).shuffled().build().getCards().size();
+    }
+
+    /**
+     * Runs one path and prints the events it published per deck
+     * @param name The path name
+     * @param operation The path
+     */
+    private void run(String name, BenchmarkRunner.Operation operation) {
+        events = 0;
+        operation.run();
+        long perBuild = events;
+        BenchmarkRunner.Result result = BenchmarkRunner.run(name, operation);
+        System.out.printf("    %,d events/deck, %.3f ms/deck%n", perBuild, 1000 / result.opsPerSecond());
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args Optional deck sizes in cards, 1000 10000 100000 by default
+     */
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? new int[args.length] : new int[] {1_000, 10_000, 100_000};
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        DeckBuildBenchmark benchmark = new DeckBuildBenchmark();
+        for (int cards : sizes) {
+            int pairs = cards / 2;
+            System.out.println("Deck of " + (pairs * 2) + " cards");
+            if (cards <= LEGACY_MAX_CARDS) {
+                benchmark.run("legacy sort + notify per card", () -> benchmark.buildLegacy(pairs));
+            }
+            benchmark.run("Deck.addCard per card", () -> benchmark.buildWithAddCard(pairs));
+            benchmark.run("Deck.Builder", () -> benchmark.buildWithBuilder(pairs));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package main.cardgame.bench;
+
+import main.cardgame.engine.Difficulty;
+import main.cardgame.history.ColumnSummary;
+import main.cardgame.history.GameHistory;
+import main.cardgame.history.GameRecord;
+import main.cardgame.history.HistoryColumn;
+import main.cardgame.history.HistoryFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures a profile's {@link GameHistory} with millions of games:
+ * appending a game, "average moves on hard over the last 1000 hard
+ * games", the average score over every endless game, which reads the
+ * mode and score columns end to end, and the same average computed
+ * row by row from whole games, which reads every column. The history is
+ * written to a temporary directory that is deleted afterwards.
+ * Run with: java -cp out main.cardgame.bench.HistoryScanBenchmark [games]
+ */
+
+public class HistoryScanBenchmark {
+    /**
+     * Runs the benchmark
+     * @param args Optional number of games, 2000000 by default
+     * @throws IOException If the history cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Path dir = Files.createTempDirectory("history");
+        try (GameHistory history = new GameHistory(dir)) {
+            SplittableRandom random = new SplittableRandom(42);
+            Difficulty[] difficulties = Difficulty.values();
+            long[] now = {System.currentTimeMillis()};
+            long start = System.nanoTime();
+            for (int game = 0; game < games; game++) {
+                history.append(randomGame(random, difficulties, now[0]++));
+            }
+            long nanos = System.nanoTime() - start;
+            long bytes = 0;
+            for (HistoryColumn column : HistoryColumn.values()) {
+                bytes += Files.size(dir.resolve(column.getFileName()));
+            }
+            System.out.printf("%,d games appended in %.1f s, %.2f us/game, %,d bytes on disk%n",
+                    games, nanos / 1e9, nanos / 1e3 / games, bytes);
+
+            HistoryFilter hard = HistoryFilter.difficulty(Difficulty.HARD);
+            HistoryFilter endless = HistoryFilter.mode(false);
+            ColumnSummary recent = history.summarize(HistoryColumn.MOVES, hard, 1000);
+            ColumnSummary scores = history.summarize(HistoryColumn.SCORE, endless);
+            System.out.printf("last %,d hard games: %.1f moves; %,d endless games: %.1f points%n",
+                    recent.count(), recent.mean(), scores.count(), scores.mean());
+
+            BenchmarkRunner.run("append a game", () -> {
+                try {
+                    history.append(randomGame(random, difficulties, now[0]++));
+                    return history.size();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            BenchmarkRunner.run("average moves, last 1000 hard games", () -> {
+                try {
+                    return history.summarize(HistoryColumn.MOVES, hard, 1000).sum();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            BenchmarkRunner.Result columnar = BenchmarkRunner.run("average score, all endless, 2 columns", () -> {
+                try {
+                    return history.summarize(HistoryColumn.SCORE, endless).sum();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            BenchmarkRunner.Result rowWise = BenchmarkRunner.run("average score, all endless, whole games", () -> {
+                try {
+                    List<GameRecord> records = history.range(0, history.size());
+                    long sum = 0;
+                    for (GameRecord record : records) {
+                        if (!record.timed()) {
+                            sum += record.score();
+                        }
+                    }
+                    return sum;
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            System.out.printf("full scan: %.1f M games/s by column, %.1f M games/s by whole game%n",
+                    columnar.opsPerSecond() * history.size() / 1e6, rowWise.opsPerSecond() * history.size() / 1e6);
+        } finally {
+            deleteRecursively(dir.toFile());
+        }
+    }
+
+    /**
+     * Draws a plausible finished game
+     * @param random The random generator
+     * @param difficulties The difficulties to pick from
+     * @param finishedAtMillis When the game ended
+     * @return The game
+     */
+    private static GameRecord randomGame(SplittableRandom random, Difficulty[] difficulties, long finishedAtMillis) {
+        Difficulty difficulty = difficulties[random.nextInt(difficulties.length)];
+        int pairs = difficulty.getRows() * difficulty.getCols() / 2;
+        return new GameRecord(finishedAtMillis, random.nextBoolean(), difficulty, pairs + random.nextInt(3 * pairs),
+                pairs, 20_000 + random.nextInt(160_000), random.nextInt(1000));
+    }
+
+    /**
+     * Deletes a file or a directory with its contents
+     * @param file The file or directory
+     */
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
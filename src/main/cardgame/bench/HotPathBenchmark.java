@@ -0,0 +1,139 @@
+package main.cardgame.bench;
+
+import main.cardgame.engine.Difficulty;
+import main.cardgame.game.Game;
+import main.cardgame.model.Deck;
+import main.cardgame.model.GameBoard;
+import main.cardgame.profile.ProfileManager;
+import main.cardgame.profile.UserProfile;
+import main.cardgame.stats.GameStatistics;
+import main.cardgame.stats.StatisticsPersister;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Regression suite for the hot paths of the model, game, statistics and
+ * profile code: deck creation per level, {@link GameBoard#checkMatch},
+ * {@link Game#processTurn} in both modes, building a new game,
+ * {@link GameStatistics#updateGameStats}
+ * including queueing its save, the write-behind flush that follows, and
+ * saving and loading profiles.
+ * Every benchmark reports throughput, bytes and megabytes per second
+ * allocated, and the garbage collections of its timed phase.
+ * The statistics file and profile directory are redirected to a temporary
+ * directory, which is deleted afterwards, so real data is never touched.
+ * All benchmarks share one JVM and one harness call site, so a benchmark can
+ * be profiled differently depending on the ones that ran before it; pass a
+ * name filter to run one benchmark per JVM, or use the JMH benchmarks in
+ * jmh/ for forked, isolated measurements.
+ * Run with: java -cp out:libs/gson-2.10.1.jar main.cardgame.bench.HotPathBenchmark [name filter]
+ */
+
+public class HotPathBenchmark {
+    private static final long SEED = 42L;
+    /** Text a benchmark name must contain to run */
+    private static String filter = "";
+
+    /**
+     * Runs the suite
+     * @param args Optional text a benchmark name must contain to run, e.g. to run each benchmark in its own JVM
+     * @throws IOException If the temporary directory cannot be created
+     */
+    public static void main(String[] args) throws IOException {
+        filter = args.length > 0 ? args[0] : "";
+        // Redirect persistence before the statistics and profile classes are loaded
+        Path dir = Files.createTempDirectory("hotpath");
+        System.setProperty("cardgame.statsFile", dir.resolve("statistics.json").toString());
+        System.setProperty("cardgame.profileDir", dir.resolve("profiles").toString());
+
+        try {
+            for (Difficulty difficulty : Difficulty.values()) {
+                String level = difficulty.getLevel();
+                run("Deck.createDeckForLevel(" + level + ")",
+                        () -> Deck.createDeckForLevel(level, SEED).size());
+            }
+
+            MatchScript misses = new MatchScript(SEED);
+            run("GameBoard.checkMatch, miss", misses::missNext);
+            MatchScript matches = new MatchScript(SEED);
+            run("GameBoard.checkMatch, match", matches::matchNext);
+
+            TurnScript timed = new TurnScript(true);
+            run("Game.processTurn, timed hard", timed::playTurn);
+            TurnScript endless = new TurnScript(false);
+            run("Game.processTurn, endless hard", endless::playTurn);
+            TurnScript builds = new TurnScript(true);
+            run("new timed hard game", builds::newGame);
+
+            GameStatistics statistics = new GameStatistics();
+            run("GameStatistics.updateGameStats + queued save", () -> {
+                statistics.updateGameStats(15, 40, 95_000, 230, true, SEED);
+                return statistics.getTotalGames();
+            });
+            run("GameStatistics.updateGameStats + flush", () -> {
+                statistics.updateGameStats(15, 40, 95_000, 230, true, SEED);
+                StatisticsPersister.flush();
+                return statistics.getTotalGames();
+            });
+            if (StatisticsPersister.getMetrics().submitted() > 0) {
+                System.out.println(StatisticsPersister.getMetrics());
+            }
+
+            UserProfile profile = new UserProfile("bench");
+            profile.updateStatistics(statistics);
+            run("ProfileManager.saveProfileLater", () -> {
+                try {
+                    ProfileManager.saveProfileLater(profile);
+                    return 1;
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            run("ProfileManager.saveProfile", () -> {
+                try {
+                    ProfileManager.saveProfile(profile);
+                    return 1;
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            run("ProfileManager.loadProfile", () -> {
+                try {
+                    return ProfileManager.loadProfile("bench").getStatistics().getTotalGames();
+                } catch (IOException | ClassNotFoundException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } finally {
+            deleteRecursively(dir.toFile());
+        }
+    }
+
+    /**
+     * Runs one benchmark if its name passes the filter
+     * @param name The benchmark name
+     * @param operation The operation to measure
+     */
+    private static void run(String name, BenchmarkRunner.Operation operation) {
+        if (name.contains(filter)) {
+            BenchmarkRunner.run(name, operation);
+        }
+    }
+
+    /**
+     * Deletes a file or a directory with its contents
+     * @param file The file or directory
+     */
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,85 @@
+package main.cardgame.bench;
+
+import main.cardgame.engine.Difficulty;
+import main.cardgame.leaderboard.Leaderboard;
+import main.cardgame.leaderboard.LeaderboardManager;
+import main.cardgame.stats.StatisticsPersister;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Measures leaderboard queries and updates on a board of many players:
+ * improving a player's best, the rank of a player, the top ten and a
+ * page around the middle, against finding a rank by scanning every
+ * player's best score the way a profile scan would. Finally measures a
+ * recorded improvement including queueing its append to the leaderboard
+ * log, and the same with the append written before returning. The log is
+ * written to a temporary file that is deleted afterwards.
+ * Run with: java -cp out main.cardgame.bench.LeaderboardBenchmark [players]
+ */
+
+public class LeaderboardBenchmark {
+    /**
+     * Runs the benchmark
+     * @param args Optional number of players, 1000000 by default
+     * @throws IOException If the temporary log cannot be created
+     */
+    public static void main(String[] args) throws IOException {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] names = new String[players];
+        int[] scores = new int[players];
+        SplittableRandom random = new SplittableRandom(42);
+        Leaderboard board = new Leaderboard();
+        long start = System.nanoTime();
+        for (int i = 0; i < players; i++) {
+            names[i] = "player" + i;
+            scores[i] = random.nextInt(100_000);
+            board.submit(names[i], scores[i], i);
+        }
+        System.out.printf("%,d players loaded in %.0f ms%n", players, (System.nanoTime() - start) / 1e6);
+
+        long[] time = {players};
+        BenchmarkRunner.run("submit improved best", () -> {
+            int player = random.nextInt(players);
+            scores[player]++;
+            return board.submit(names[player], scores[player], time[0]++) ? 1 : 0;
+        });
+        BenchmarkRunner.run("rank of player", () -> board.rankOf(names[random.nextInt(players)]));
+        BenchmarkRunner.run("top 10", () -> board.top(10).size());
+        BenchmarkRunner.run("page of 20 around the middle", () -> board.range(players / 2, 20).size());
+        BenchmarkRunner.run("rank of player by scanning every best", () -> {
+            int player = random.nextInt(players);
+            int rank = 1;
+            for (int i = 0; i < players; i++) {
+                if (scores[i] > scores[player]) {
+                    rank++;
+                }
+            }
+            return rank;
+        });
+
+        Path file = Files.createTempFile("leaderboard", ".dat");
+        Files.delete(file);
+        System.setProperty("cardgame.leaderboardFile", file.toString());
+        try {
+            int[] best = new int[1];
+            BenchmarkRunner.run("record improvement + queued append", () ->
+                    LeaderboardManager.recordScore("player" + (best[0] & 1023), true, Difficulty.HARD, ++best[0])
+                            ? 1 : 0);
+            BenchmarkRunner.run("record improvement + flushed append", () -> {
+                boolean improved = LeaderboardManager.recordScore("player" + (best[0] & 1023), true,
+                        Difficulty.HARD, ++best[0]);
+                StatisticsPersister.flush();
+                return improved ? 1 : 0;
+            });
+            System.out.println(StatisticsPersister.getMetrics());
+            System.out.printf("log %,d bytes for %,d players%n", Files.size(file),
+                    LeaderboardManager.getLeaderboard(true, Difficulty.HARD).size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
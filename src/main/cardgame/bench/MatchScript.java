@@ -0,0 +1,76 @@
+package main.cardgame.bench;
+
+import main.cardgame.engine.Difficulty;
+import main.cardgame.model.Card;
+import main.cardgame.model.GameBoard;
+
+/**
+ * Matches the pairs of a hard board one after another through
+ * {@link GameBoard#checkMatch(Card, Card)}, so every call takes the match
+ * path: the pair is still unmatched, its flags are set and the board's
+ * match listener runs. Once every pair is matched the board is reset,
+ * once per {@code pairs} calls. It can also compare cards of neighbouring
+ * pairs in turn, so the miss path sees different cards on every call
+ * rather than one pair the compiler can fold away.
+ */
+
+public final class MatchScript {
+    private final GameBoard board;
+    /** Both cards of every pair: pairs[2 * key] and pairs[2 * key + 1] */
+    private final Card[] pairs;
+    private int nextPair;
+    private int nextMiss;
+
+    /**
+     * Creates the script on a shuffled hard board
+     * @param seed The shuffle seed
+     */
+    public MatchScript(long seed) {
+        board = new GameBoard(Difficulty.HARD.getRows(), Difficulty.HARD.getCols(), seed);
+        pairs = new Card[board.size()];
+        int[] found = new int[board.getTotalPairs()];
+        for (int slot = 0; slot < board.size(); slot++) {
+            Card card = board.getCardAt(slot);
+            int key = card.getPairKey();
+            pairs[2 * key + found[key]++] = card;
+        }
+    }
+
+    /**
+     * Matches the next pair, resetting the board first if every pair is matched
+     * @return 1 if the cards matched, which they always do
+     */
+    public long matchNext() {
+        if (nextPair == board.getTotalPairs()) {
+            reset();
+        }
+        int pair = nextPair++;
+        return board.checkMatch(pairs[2 * pair], pairs[2 * pair + 1]) ? 1 : 0;
+    }
+
+    /**
+     * Compares a card of one pair with a card of the next pair, moving on by one pair per call
+     * @return 0 if the cards did not match, which they never do
+     */
+    public long missNext() {
+        int pair = nextMiss;
+        nextMiss = pair + 1 == board.getTotalPairs() ? 0 : pair + 1;
+        return board.checkMatch(pairs[2 * pair + (pair & 1)], pairs[2 * nextMiss]) ? 1 : 0;
+    }
+
+    /**
+     * Clears every match, so the next call matches the first pair again
+     */
+    public void reset() {
+        board.getState().reset();
+        nextPair = 0;
+    }
+
+    /**
+     * Gets the number of pairs on the board
+     * @return The pair count
+     */
+    public int getPairCount() {
+        return board.getTotalPairs();
+    }
+}
@@ -0,0 +1,178 @@
+package main.cardgame.bench;
+
+import main.cardgame.bot.BotPlayer;
+import main.cardgame.bot.PerfectMemoryBot;
+import main.cardgame.engine.BoardState;
+import main.cardgame.engine.Difficulty;
+import main.cardgame.net.GameClient;
+import main.cardgame.net.GameServer;
+import main.cardgame.net.ServerMessage;
+import main.cardgame.net.ServerMetrics;
+import main.cardgame.session.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of a {@link GameServer} over loopback: many rooms of two
+ * clients, each client on its own virtual thread and played by a
+ * {@link PerfectMemoryBot} that only knows what the server showed it.
+ * When a game ends both clients join the next room of their pair, so
+ * every room stays busy. Prints server flip handling latency and the
+ * round trip seen by clients once per second.
+ * Run with: java -cp out main.cardgame.bench.MultiplayerLoadTest [rooms] [seconds] [difficulty]
+ */
+
+public class MultiplayerLoadTest {
+    /** Room ids of a client pair are spaced this far apart */
+    private static final long ROOMS_PER_PAIR = 1L << 32;
+
+    private final LatencyHistogram roundTrip = new LatencyHistogram();
+    private final LongAdder games = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile boolean stopping;
+
+    /**
+     * Runs the load test
+     * @param args Optional number of rooms (300), duration in seconds (10) and difficulty (HARD)
+     * @throws IOException If the server cannot be started
+     * @throws InterruptedException If interrupted while waiting for the clients
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        Difficulty difficulty = args.length > 2 ? Difficulty.valueOf(args[2]) : Difficulty.HARD;
+        new MultiplayerLoadTest().run(roomCount, seconds, difficulty);
+    }
+
+    /**
+     * Starts a loopback server and its clients, and reports until the time is up
+     * @param roomCount The number of rooms played at once
+     * @param seconds The duration
+     * @param difficulty The difficulty of every room
+     * @throws IOException If the server cannot be started
+     * @throws InterruptedException If interrupted while waiting for the clients
+     */
+    private void run(int roomCount, int seconds, Difficulty difficulty) throws IOException, InterruptedException {
+        try (GameServer server = new GameServer(difficulty, 2, 42)) {
+            InetSocketAddress address = server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            System.out.printf("%,d rooms of 2 on %s, %s, %d s%n", roomCount, address, difficulty, seconds);
+
+            List<GameClient> clients = new ArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int pair = 0; pair < roomCount; pair++) {
+                for (int member = 0; member < 2; member++) {
+                    GameClient client = GameClient.connect(address);
+                    long firstRoom = pair * ROOMS_PER_PAIR;
+                    long seed = 2L * pair + member;
+                    clients.add(client);
+                    threads.add(Thread.ofVirtual().name("player-" + pair + "-" + member)
+                            .start(() -> play(client, firstRoom, seed)));
+                }
+            }
+
+            long[] previous = new long[LatencyHistogram.bucketCount()];
+            long previousFlips = 0;
+            long previousGames = 0;
+            for (int second = 0; second < seconds; second++) {
+                TimeUnit.SECONDS.sleep(1);
+                ServerMetrics metrics = server.getMetrics();
+                long[] latency = new long[previous.length];
+                roundTrip.snapshot(latency);
+                long[] interval = new long[latency.length];
+                for (int i = 0; i < latency.length; i++) {
+                    interval[i] = latency[i] - previous[i];
+                }
+                System.out.printf("rooms %,5d  flips/s %,9d  games/s %,6d  server p50 %,7.1f us  p99 %,7.1f us"
+                                + "  round trip p50 %,7.1f us  p99 %,7.1f us%n",
+                        metrics.liveRooms(), metrics.flips() - previousFlips, (games.sum() - previousGames) / 2,
+                        metrics.p50FlipNanos() / 1e3, metrics.p99FlipNanos() / 1e3,
+                        LatencyHistogram.percentile(interval, 0.50) / 1e3,
+                        LatencyHistogram.percentile(interval, 0.99) / 1e3);
+                previous = latency;
+                previousFlips = metrics.flips();
+                previousGames = games.sum();
+            }
+
+            stopping = true;
+            for (GameClient client : clients) {
+                client.close();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            ServerMetrics last = server.getMetrics();
+            System.out.printf("%,d flips, %,d rejected, %,d games finished by clients, %,d client errors%n",
+                    last.flips(), last.rejectedFlips(), games.sum() / 2, errors.sum());
+        }
+    }
+
+    /**
+     * Plays games as one client until the client is closed
+     * @param client The connected client
+     * @param firstRoom The id of the pair's first room
+     * @param seed The bot's seed
+     */
+    private void play(GameClient client, long firstRoom, long seed) {
+        BotPlayer bot = new PerfectMemoryBot(new SplittableRandom(seed));
+        BoardState board = null;
+        long room = firstRoom;
+        int seat = -1;
+        long sentAt = 0;
+        try {
+            client.join(room, "bot-" + seed);
+            while (true) {
+                ServerMessage message = client.receive();
+                if (message instanceof ServerMessage.Joined joined) {
+                    seat = joined.seat();
+                    board = new BoardState(joined.rows(), joined.cols());
+                    bot.newGame(board);
+                } else if (message instanceof ServerMessage.Started started) {
+                    if (started.firstSeat() == seat) {
+                        sentAt = System.nanoTime();
+                        client.flip(bot.chooseFirst());
+                    }
+                } else if (message instanceof ServerMessage.Revealed revealed) {
+                    bot.reveal(revealed.slot(), revealed.pairKey());
+                    if (revealed.seat() == seat) {
+                        roundTrip.record(System.nanoTime() - sentAt);
+                        sentAt = System.nanoTime();
+                        client.flip(bot.chooseSecond(revealed.slot()));
+                    }
+                } else if (message instanceof ServerMessage.TurnResult result) {
+                    if (result.seat() == seat) {
+                        roundTrip.record(System.nanoTime() - sentAt);
+                    }
+                    bot.reveal(result.slot2(), result.pairKey2());
+                    if (result.match()) {
+                        board.setMatched(result.slot1(), true);
+                        board.setMatched(result.slot2(), true);
+                    }
+                    bot.turnEnded(result.slot1(), result.slot2(), result.match());
+                    if (result.nextSeat() == seat && board.getUnmatchedCount() > 0) {
+                        sentAt = System.nanoTime();
+                        client.flip(bot.chooseFirst());
+                    }
+                } else if (message instanceof ServerMessage.GameOver) {
+                    games.increment();
+                    room++;
+                    client.join(room, "bot-" + seed);
+                } else if (message instanceof ServerMessage.Error error) {
+                    errors.increment();
+                    System.err.println("Server refused a request with code " + error.code());
+                }
+            }
+        } catch (IOException e) {
+            if (!stopping) {
+                errors.increment();
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package main.cardgame.bench;
+
+import main.cardgame.engine.BoardState;
+import main.cardgame.engine.Difficulty;
+import main.cardgame.engine.EndlessEngine;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Compares turn throughput of matching by int pair keys against the old
+ * matching by image path strings.
+ * Every operation replays the same scripted hard-level game: a player that
+ * remembers revealed cards, so the script mixes misses and matches.
+ * Run with: java -cp out main.cardgame.bench.PairKeyBenchmark
+ */
+
+public class PairKeyBenchmark {
+    private final int[] pairKeys;
+    private final String[] imagePaths;
+    private final int[] script;
+
+    /**
+     * Builds the board and the turn script
+     * @param seed The seed for shuffling the board
+     */
+    public PairKeyBenchmark(long seed) {
+        BoardState board = BoardState.shuffled(Difficulty.HARD, new SplittableRandom(seed));
+        int size = board.size();
+        pairKeys = new int[size];
+        for (int slot = 0; slot < size; slot++) {
+            pairKeys[slot] = board.pairKeyAt(slot);
+        }
+
+        // One path string per pair shared by both cards, built the way the old deck did
+        String[] pathsByKey = new String[size / 2];
+        for (int key = 0; key < pathsByKey.length; key++) {
+            pathsByKey[key] = "file:src/main/resources/images/hard/card" + (key + 1) + ".png";
+        }
+        imagePaths = new String[size];
+        for (int slot = 0; slot < size; slot++) {
+            imagePaths[slot] = pathsByKey[pairKeys[slot]];
+        }
+
+        script = buildScript(pairKeys);
+    }
+
+    /**
+     * Builds the turns of a player with perfect memory who reveals cards in slot order
+     * @param keys The pair key of every slot
+     * @return The turns as consecutive slot pairs
+     */
+    private static int[] buildScript(int[] keys) {
+        int[] seenAt = new int[keys.length / 2];
+        Arrays.fill(seenAt, -1);
+        boolean[] matched = new boolean[keys.length];
+        int[] turns = new int[keys.length * 2];
+        int count = 0;
+        int next = 0;
+        while (next < keys.length) {
+            int first = next++;
+            if (matched[first]) continue;
+            int known = seenAt[keys[first]];
+            int second;
+            if (known >= 0) {
+                second = known;
+            } else {
+                seenAt[keys[first]] = first;
+                while (next < keys.length && matched[next]) next++;
+                if (next == keys.length) break;
+                second = next++;
+                if (keys[second] != keys[first] && seenAt[keys[second]] < 0) {
+                    seenAt[keys[second]] = second;
+                }
+            }
+            turns[count++] = first;
+            turns[count++] = second;
+            if (keys[first] == keys[second]) {
+                matched[first] = true;
+                matched[second] = true;
+            } else if (seenAt[keys[second]] >= 0 && seenAt[keys[second]] != second) {
+                // The second card completes a known pair: take it next turn
+                turns[count++] = seenAt[keys[second]];
+                turns[count++] = second;
+                matched[second] = true;
+                matched[seenAt[keys[second]]] = true;
+            }
+        }
+        return Arrays.copyOf(turns, count);
+    }
+
+    /**
+     * Replays the script with the old turn logic, matching on image path strings
+     * @return The final score
+     */
+    long playWithStrings() {
+        boolean[] matched = new boolean[imagePaths.length];
+        int score = 0;
+        int moves = 0;
+        int matchedPairs = 0;
+        for (int i = 0; i < script.length; i += 2) {
+            int slot1 = script[i];
+            int slot2 = script[i + 1];
+            moves++;
+            boolean isMatch = imagePaths[slot1].equals(imagePaths[slot2]);
+            if (isMatch && !matched[slot1] && !matched[slot2] && slot1 != slot2) {
+                matched[slot1] = true;
+                matched[slot2] = true;
+                matchedPairs++;
+            }
+            if (isMatch) {
+                score += 10;
+            }
+        }
+        return score + moves + matchedPairs;
+    }
+
+    /**
+     * Replays the script with the same turn logic, matching on int pair keys
+     * @return The final score
+     */
+    long playWithPairKeys() {
+        boolean[] matched = new boolean[pairKeys.length];
+        int score = 0;
+        int moves = 0;
+        int matchedPairs = 0;
+        for (int i = 0; i < script.length; i += 2) {
+            int slot1 = script[i];
+            int slot2 = script[i + 1];
+            moves++;
+            boolean isMatch = pairKeys[slot1] == pairKeys[slot2];
+            if (isMatch && !matched[slot1] && !matched[slot2] && slot1 != slot2) {
+                matched[slot1] = true;
+                matched[slot2] = true;
+                matchedPairs++;
+            }
+            if (isMatch) {
+                score += 10;
+            }
+        }
+        return score + moves + matchedPairs;
+    }
+
+    /**
+     * Replays the script through the real engine
+     * @param board A board reused across games; reloaded before every game
+     * @return The final score
+     */
+    long playWithEngine(BoardState board) {
+        board.load(pairKeys);
+        EndlessEngine engine = new EndlessEngine(board);
+        engine.play();
+        for (int i = 0; i < script.length; i += 2) {
+            engine.processTurn(script[i], script[i + 1]);
+        }
+        return engine.getScore();
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args Command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        PairKeyBenchmark benchmark = new PairKeyBenchmark(42);
+        BoardState board = new BoardState(Difficulty.HARD.getRows(), Difficulty.HARD.getCols());
+        int turns = benchmark.script.length / 2;
+        System.out.println("Hard board, " + turns + " turns per game (one op = one game)");
+
+        BenchmarkRunner.Result strings = BenchmarkRunner.run("processTurn, imagePath String.equals", benchmark::playWithStrings);
+        BenchmarkRunner.Result keys = BenchmarkRunner.run("processTurn, int pair keys", benchmark::playWithPairKeys);
+        BenchmarkRunner.Result engine = BenchmarkRunner.run("EndlessEngine.processTurn", () -> benchmark.playWithEngine(board));
+
+        System.out.printf("turns/s: strings %,.0f  pair keys %,.0f  engine %,.0f  (pair keys %.2fx strings)%n",
+                strings.opsPerSecond() * turns, keys.opsPerSecond() * turns, engine.opsPerSecond() * turns,
+                keys.opsPerSecond() / strings.opsPerSecond());
+    }
+}
@@ -0,0 +1,64 @@
+package main.cardgame.bench;
+
+import main.cardgame.engine.Difficulty;
+import main.cardgame.stats.GamePercentiles;
+import main.cardgame.stats.PercentileRank;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Measures ranking and recording finished games in {@link GamePercentiles}
+ * after tens of millions of games are already recorded, to show that
+ * both stay flat as the history grows. The distributions are mapped from
+ * a temporary file that is deleted afterwards.
+ * Run with: java -cp out main.cardgame.bench.PercentileBenchmark [games]
+ */
+
+public class PercentileBenchmark {
+    /**
+     * Runs the benchmark
+     * @param args Optional number of games to record first, 30000000 by default
+     * @throws IOException If the temporary file cannot be created
+     */
+    public static void main(String[] args) throws IOException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 30_000_000L;
+        Path file = Files.createTempFile("percentiles", ".dat");
+        Files.delete(file);
+        System.setProperty("cardgame.percentileFile", file.toString());
+        try {
+            SplittableRandom random = new SplittableRandom(42);
+            long start = System.nanoTime();
+            for (long game = 0; game < games; game++) {
+                GamePercentiles.record(false, Difficulty.HARD, score(random), 30_000 + random.nextInt(120_000),
+                        random.nextInt(4) != 0);
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.printf("%,d games recorded in %.1f s, %.0f ns/game, file %,d bytes%n",
+                    games, nanos / 1e9, (double) nanos / games, Files.size(file));
+
+            PercentileRank median = GamePercentiles.rank(false, Difficulty.HARD, 400, 75_000, true);
+            System.out.printf("score 400 beats %.1f%% of %,d games, 75 s beats %.1f%% of %,d cleared boards%n",
+                    median.scorePercent(), median.gamesCompared(), median.timePercent(),
+                    median.clearedGamesCompared());
+
+            BenchmarkRunner.run("rank a game", () -> (long) GamePercentiles.rank(false, Difficulty.HARD,
+                    score(random), random.nextInt(150_000), true).scorePercent());
+            BenchmarkRunner.run("rank and record a game", () -> (long) GamePercentiles.record(false,
+                    Difficulty.HARD, score(random), random.nextInt(150_000), true).scorePercent());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Draws a plausible hard endless score
+     * @param random The random generator
+     * @return A score around 400
+     */
+    private static int score(SplittableRandom random) {
+        return (int) Math.max(0, 400 + random.nextGaussian() * 120);
+    }
+}
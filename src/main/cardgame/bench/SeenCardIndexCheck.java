@@ -0,0 +1,157 @@
+package main.cardgame.bench;
+
+import main.cardgame.engine.BoardState;
+import main.cardgame.engine.EndlessEngine;
+import main.cardgame.engine.SeenCardIndex;
+import main.cardgame.time.ManualClock;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Checks {@link SeenCardIndex} against a brute-force recount after every
+ * turn of many games on boards up to 60x60. A player picks a random
+ * unmatched first card and takes its known partner half of the time, the
+ * first card is sometimes revealed before the turn as the UI does, and the
+ * check walks the whole board to recount the seen unmatched cards, the
+ * known pairs, every unmatched slot's seen partner and the hint.
+ * Run with: java -cp out main.cardgame.bench.SeenCardIndexCheck [gamesPerSize] [seed]
+ */
+
+public class SeenCardIndexCheck {
+    private static final int[][] SIZES = {{2, 2}, {4, 4}, {6, 6}, {8, 9}, {20, 20}, {60, 60}};
+
+    /**
+     * Runs the check
+     * @param args Optional number of games per board size, 20 by default, and a seed
+     * @throws IllegalStateException If the index disagrees with the recount
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        SplittableRandom random = new SplittableRandom(seed);
+        long turns = 0;
+        for (int[] size : SIZES) {
+            BoardState board = new BoardState(size[0], size[1]);
+            for (int game = 0; game < games; game++) {
+                board.shuffle(random);
+                turns += playGame(board, random);
+            }
+            System.out.printf("%dx%d: %d games agree with the recount%n", size[0], size[1], games);
+        }
+        System.out.printf("%,d turns checked, seed %d%n", turns, seed);
+    }
+
+    /**
+     * Plays one game, checking the index after every turn
+     * @param board The shuffled board
+     * @param random The random generator
+     * @return The number of turns
+     */
+    private static int playGame(BoardState board, SplittableRandom random) {
+        EndlessEngine engine = new EndlessEngine(board, new ManualClock());
+        SeenCardIndex index = engine.trackSeenCards();
+        engine.play();
+        int[] partners = partners(board);
+        boolean[] seen = new boolean[board.size()];
+        int turns = 0;
+        while (engine.isActive()) {
+            int slot1 = randomUnmatched(board, random, -1);
+            int slot2 = partners[slot1];
+            if (!seen[slot2] || random.nextBoolean()) {
+                slot2 = randomUnmatched(board, random, slot1);
+            }
+            if (random.nextInt(4) == 0) {
+                engine.reveal(slot1);
+            }
+            engine.processTurn(slot1, slot2);
+            seen[slot1] = true;
+            seen[slot2] = true;
+            turns++;
+            verify(board, index, partners, seen);
+        }
+        return turns;
+    }
+
+    /**
+     * Finds the other slot of every slot's pair
+     * @param board The board
+     * @return The partner of every slot
+     */
+    private static int[] partners(BoardState board) {
+        int[] partners = new int[board.size()];
+        int[] firstSlot = new int[board.getTotalPairs()];
+        Arrays.fill(firstSlot, -1);
+        for (int slot = 0; slot < board.size(); slot++) {
+            int key = board.pairKeyAt(slot);
+            if (firstSlot[key] < 0) {
+                firstSlot[key] = slot;
+            } else {
+                partners[slot] = firstSlot[key];
+                partners[firstSlot[key]] = slot;
+            }
+        }
+        return partners;
+    }
+
+    /**
+     * Picks a random unmatched slot
+     * @param board The board, with at least two unmatched slots
+     * @param random The random generator
+     * @param exclude A slot not to pick, or -1
+     * @return The slot
+     */
+    private static int randomUnmatched(BoardState board, SplittableRandom random, int exclude) {
+        while (true) {
+            int slot = board.nextUnmatchedSlot(random.nextInt(board.size()));
+            if (slot < 0) {
+                slot = board.nextUnmatchedSlot(0);
+            }
+            if (slot != exclude) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Recounts the seen cards by walking the board and compares the index with it
+     * @param board The board
+     * @param index The index
+     * @param partners The partner of every slot
+     * @param seen Which slots have been revealed
+     * @throws IllegalStateException If the index disagrees
+     */
+    private static void verify(BoardState board, SeenCardIndex index, int[] partners, boolean[] seen) {
+        int unmatchedSeen = 0;
+        int knownSlots = 0;
+        for (int slot = 0; slot < board.size(); slot++) {
+            boolean open = seen[slot] && !board.isMatched(slot);
+            int partner = partners[slot];
+            boolean partnerOpen = seen[partner] && !board.isMatched(partner);
+            if (open) {
+                unmatchedSeen++;
+            }
+            if (open && partnerOpen) {
+                knownSlots++;
+            }
+            // The partner is known once it was seen, whether or not the slot itself was
+            int expected = !board.isMatched(slot) && partnerOpen ? partner : -1;
+            if (index.knownPartner(slot) != expected) {
+                throw new IllegalStateException("Slot " + slot + ": index partner " + index.knownPartner(slot)
+                        + ", recount " + expected);
+            }
+        }
+        if (index.getKnownUnmatchedCount() != unmatchedSeen) {
+            throw new IllegalStateException("Index counts " + index.getKnownUnmatchedCount()
+                    + " seen cards, recount " + unmatchedSeen);
+        }
+        if (index.getKnownPairCount() != knownSlots / 2) {
+            throw new IllegalStateException("Index counts " + index.getKnownPairCount()
+                    + " known pairs, recount " + knownSlots / 2);
+        }
+        int hint = index.hintSlot();
+        if (knownSlots == 0 ? hint != -1 : hint < 0 || index.knownPartner(hint) != partners[hint]) {
+            throw new IllegalStateException("Hint slot " + hint + " is not a known pair");
+        }
+    }
+}
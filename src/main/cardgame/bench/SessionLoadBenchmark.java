@@ -0,0 +1,133 @@
+package main.cardgame.bench;
+
+import main.cardgame.engine.BoardState;
+import main.cardgame.engine.Difficulty;
+import main.cardgame.session.GameSession;
+import main.cardgame.session.GameSessionManager;
+import main.cardgame.session.SessionMetrics;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of a {@link GameSessionManager}: keeps a fixed number of
+ * sessions busy, each driven by its own client virtual thread. A client
+ * plays its game with three missed turns for every match, retires the
+ * session when the game is over and starts a new one, alternating timed
+ * and endless hard games. Metrics are printed once per second.
+ * Run with: java -cp out main.cardgame.bench.SessionLoadBenchmark [sessions] [seconds] [thinkMillis]
+ */
+
+public class SessionLoadBenchmark {
+    /**
+     * Runs the load test
+     * @param args Optional number of sessions (10000), duration in seconds (10)
+     *             and client think time per turn in milliseconds (0)
+     * @throws InterruptedException If interrupted while waiting for the clients
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long thinkMillis = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        try (GameSessionManager manager = new GameSessionManager()) {
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            CountDownLatch done = new CountDownLatch(sessionCount);
+            long[] games = new long[sessionCount];
+            for (int client = 0; client < sessionCount; client++) {
+                int index = client;
+                Thread.ofVirtual().name("client-" + client).start(() -> {
+                    try {
+                        games[index] = drive(manager, index, end, thinkMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            manager.getMetrics(); // Start the first interval
+            System.out.printf("%,d sessions, %d s, %d ms think time%n", sessionCount, seconds, thinkMillis);
+            while (!done.await(1, TimeUnit.SECONDS)) {
+                print(manager.getMetrics());
+            }
+            long totalGames = 0;
+            for (long count : games) {
+                totalGames += count;
+            }
+            SessionMetrics last = manager.getMetrics();
+            System.out.printf("%,d games finished, %,d sessions created, %,d retired%n",
+                    totalGames, last.createdSessions(), last.retiredSessions());
+        }
+    }
+
+    /**
+     * Plays games on fresh sessions until the end time
+     * @param manager The session manager
+     * @param client The client number, used for seeds and modes
+     * @param end The end time in System.nanoTime() units
+     * @param thinkMillis Pause before every turn
+     * @return The number of games played to the end
+     * @throws InterruptedException If interrupted while thinking
+     */
+    private static long drive(GameSessionManager manager, int client, long end, long thinkMillis)
+            throws InterruptedException {
+        long games = 0;
+        long seed = ThreadLocalRandom.current().nextLong();
+        while (System.nanoTime() < end) {
+            seed++;
+            GameSession session = (client + games) % 2 == 0
+                    ? manager.createTimedSession("client-" + client, Difficulty.HARD, seed)
+                    : manager.createEndlessSession("client-" + client, Difficulty.HARD, seed);
+            int[] slotsByKey = session.submit(game -> slotsByKey(game.getBoard().getState())).join();
+            int pairs = slotsByKey.length / 2;
+            int nextPair = 0;
+            int turn = 0;
+            boolean active = true;
+            while (active && System.nanoTime() < end) {
+                if (thinkMillis > 0) {
+                    Thread.sleep(thinkMillis);
+                }
+                if (turn++ % 4 == 3 || nextPair == pairs - 1) {
+                    session.submitTurn(slotsByKey[2 * nextPair], slotsByKey[2 * nextPair + 1]).join();
+                    nextPair++;
+                    active = nextPair < pairs;
+                } else {
+                    session.submitTurn(slotsByKey[2 * nextPair], slotsByKey[2 * nextPair + 2]).join();
+                }
+            }
+            if (!active) {
+                games++;
+            }
+            manager.retireSession(session.getId());
+        }
+        return games;
+    }
+
+    /**
+     * Lists both slots of every pair key: slots[2 * key] and slots[2 * key + 1]
+     * @param board The board state
+     * @return The slots by pair key
+     */
+    private static int[] slotsByKey(BoardState board) {
+        int[] slots = new int[board.size()];
+        int[] found = new int[board.getTotalPairs()];
+        for (int slot = 0; slot < board.size(); slot++) {
+            int key = board.pairKeyAt(slot);
+            slots[2 * key + found[key]++] = slot;
+        }
+        return slots;
+    }
+
+    /**
+     * Prints one metrics line
+     * @param metrics The metrics of the last interval
+     */
+    private static void print(SessionMetrics metrics) {
+        System.out.printf("live %,7d  turns/s %,12.0f  p50 %,9.1f us  p99 %,9.1f us  rejected %,d%n",
+                metrics.liveSessions(), metrics.turnsPerSecond(), metrics.p50TurnNanos() / 1e3,
+                metrics.p99TurnMicros(), metrics.rejectedTurns());
+    }
+}
@@ -0,0 +1,105 @@
+package main.cardgame.bench;
+
+import main.cardgame.engine.BoardState;
+import main.cardgame.engine.Difficulty;
+import main.cardgame.game.Game;
+import main.cardgame.game.GameSnapshot;
+import main.cardgame.game.TimedGame;
+import main.cardgame.model.GameBoard;
+import main.cardgame.model.Player;
+import main.cardgame.time.ManualClock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Measures saving and resuming a hard game halfway through: capturing and
+ * encoding a snapshot, decoding it and rebuilding the game, and the full
+ * round trip through a file the way {@link main.cardgame.game.SnapshotStore}
+ * writes it. The file is written to a temporary directory that is deleted
+ * afterwards.
+ * Run with: java -cp out main.cardgame.bench.SnapshotBenchmark
+ */
+
+public class SnapshotBenchmark {
+
+    /**
+     * Starts a hard timed game and matches half of its pairs, leaving one card face up
+     * @param clock The clock of the game
+     * @return The game in progress
+     */
+    static Game halfPlayedGame(ManualClock clock) {
+        Difficulty difficulty = Difficulty.HARD;
+        GameBoard board = new GameBoard(difficulty.getRows(), difficulty.getCols(), 42L);
+        Game game = new TimedGame(board, new Player("bench"), difficulty.getTimeLimitSeconds(), clock);
+        game.setStatistics(null);
+        game.play();
+
+        BoardState state = board.getState();
+        int[] firstSlot = new int[state.getTotalPairs()];
+        Arrays.fill(firstSlot, -1);
+        int matched = 0;
+        for (int slot = 0; slot < state.size() && matched < state.getTotalPairs() / 2; slot++) {
+            int key = state.pairKeyAt(slot);
+            if (firstSlot[key] < 0) {
+                firstSlot[key] = slot;
+            } else {
+                clock.advanceMillis(1500);
+                game.getEngine().processTurn(firstSlot[key], slot);
+                matched++;
+            }
+        }
+        state.flip(state.nextFaceDownSlot(0));
+        return game;
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args Unused
+     * @throws IOException If the temporary snapshot file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        ManualClock clock = new ManualClock();
+        Game game = halfPlayedGame(clock);
+        byte[] bytes = GameSnapshot.capture(game).toBytes();
+        System.out.printf("hard board snapshot: %d bytes, %d moves, score %d%n",
+                bytes.length, game.getEngine().getMoves(), game.getEngine().getScore());
+
+        BenchmarkRunner.run("capture + encode", () -> GameSnapshot.capture(game).toBytes().length);
+        BenchmarkRunner.run("decode + restore board and game", () -> {
+            GameSnapshot snapshot = GameSnapshot.fromBytes(bytes);
+            Game restored = snapshot.restore(new Player("bench"), clock);
+            return restored.getBoard().getMatchedPairsCount();
+        });
+
+        Path dir = Files.createTempDirectory("snapshots");
+        Path file = dir.resolve("autosave.snapshot");
+        Path temp = dir.resolve("autosave.snapshot.tmp");
+        try {
+            BenchmarkRunner.run("save to file (write + atomic move)", () -> {
+                try {
+                    Files.write(temp, GameSnapshot.capture(game).toBytes());
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    return 1;
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            BenchmarkRunner.run("load from file + restore", () -> {
+                try {
+                    GameSnapshot snapshot = GameSnapshot.fromBytes(Files.readAllBytes(file));
+                    return snapshot.restore(new Player("bench"), clock).getMoves();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } finally {
+            Files.deleteIfExists(temp);
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+    }
+}
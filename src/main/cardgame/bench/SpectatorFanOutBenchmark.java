@@ -0,0 +1,288 @@
+package main.cardgame.bench;
+
+import main.cardgame.engine.BoardState;
+import main.cardgame.game.EndlessGame;
+import main.cardgame.game.Game;
+import main.cardgame.model.GameBoard;
+import main.cardgame.model.Player;
+import main.cardgame.spectate.FeedMetrics;
+import main.cardgame.spectate.Spectator;
+import main.cardgame.spectate.SpectatorFeed;
+import main.cardgame.spectate.SpectatorListener;
+import main.cardgame.spectate.SpectatorSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fan-out of one live game to thousands of spectators through a
+ * {@link SpectatorFeed}. First measures what publishing adds to a turn,
+ * with and without subscribed spectators, then plays a large board at a
+ * fixed turn rate while spectators on virtual threads read at their own
+ * pace: most poll every few milliseconds, some are slow enough to be
+ * lapped and resync, and a few stall and are dropped. Every spectator
+ * checks that the moves it sees advance one at a time between resyncs.
+ * Run with: java -cp out main.cardgame.bench.SpectatorFanOutBenchmark [spectators] [seconds] [turnsPerSecond]
+ */
+
+public class SpectatorFanOutBenchmark {
+    private static final int ROWS = 200;
+    private static final int COLS = 200;
+    /** Spectators lagging further than this many ring lengths are dropped */
+    private static final int DROP_AFTER_LAPS = 8;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder gaps = new LongAdder();
+    private volatile boolean stopping;
+
+    /**
+     * Runs the benchmark
+     * @param args Optional number of spectators (2000), duration in seconds (5) and turns per second (5000)
+     * @throws InterruptedException If interrupted while waiting for the spectators
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int spectatorCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int turnsPerSecond = args.length > 2 ? Integer.parseInt(args[2]) : 5_000;
+
+        SpectatorFanOutBenchmark benchmark = new SpectatorFanOutBenchmark();
+        benchmark.measurePublishCost(spectatorCount);
+        benchmark.runLive(spectatorCount, seconds, turnsPerSecond);
+    }
+
+    /**
+     * Plays unpaced turns without a feed, with a feed and with idle spectators subscribed
+     * @param spectatorCount The number of idle spectators
+     */
+    private void measurePublishCost(int spectatorCount) {
+        double plain = Double.MAX_VALUE;
+        double published = Double.MAX_VALUE;
+        double watched = Double.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            plain = Math.min(plain, nanosPerTurn(newGame(round), null, 0));
+            published = Math.min(published, nanosPerTurn(newGame(round), new SpectatorFeed(boardOf(round)), 0));
+            watched = Math.min(watched, nanosPerTurn(newGame(round), new SpectatorFeed(boardOf(round)),
+                    spectatorCount));
+        }
+        System.out.printf("%-34s %8.1f ns/turn%n", "without feed", plain);
+        System.out.printf("%-34s %8.1f ns/turn%n", "with feed", published);
+        System.out.printf("%-34s %8.1f ns/turn%n", String.format("with feed, %,d spectators", spectatorCount),
+                watched);
+    }
+
+    /**
+     * Times a game played to the end as fast as possible
+     * @param game The game, not started
+     * @param feed The feed to attach, or null
+     * @param spectatorCount Spectators to subscribe without ever reading
+     * @return The mean time per turn
+     */
+    private static double nanosPerTurn(Game game, SpectatorFeed feed, int spectatorCount) {
+        if (feed != null) {
+            game.setSpectatorFeed(feed);
+            for (int i = 0; i < spectatorCount; i++) {
+                feed.subscribe();
+            }
+        }
+        game.play();
+        TurnScript script = new TurnScript(game);
+        long start = System.nanoTime();
+        int turns = 0;
+        while (script.playTurn()) {
+            turns++;
+        }
+        return (double) (System.nanoTime() - start) / turns;
+    }
+
+    /**
+     * Plays one game at a fixed rate while spectators watch
+     * @param spectatorCount The number of spectators
+     * @param seconds The duration
+     * @param turnsPerSecond The turn rate of the game
+     * @throws InterruptedException If interrupted while waiting for the spectators
+     */
+    private void runLive(int spectatorCount, int seconds, int turnsPerSecond) throws InterruptedException {
+        Game game = newGame(42);
+        SpectatorFeed feed = new SpectatorFeed(game.getBoard().getState());
+        game.setSpectatorFeed(feed);
+        game.play();
+        System.out.printf("%,d spectators, %,d turns/s on a %dx%d board, ring of %,d events%n",
+                spectatorCount, turnsPerSecond, ROWS, COLS, feed.getCapacity());
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < spectatorCount; i++) {
+            Spectator spectator = feed.subscribe();
+            long pollMillis = i % 500 == 499 ? -1 : i % 20 == 19 ? 500 : 5;
+            threads.add(Thread.ofVirtual().name("spectator-" + i).start(() -> watch(spectator, pollMillis)));
+        }
+
+        TurnScript script = new TurnScript(game);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long nextReport = start + TimeUnit.SECONDS.toNanos(1);
+        long turns = 0;
+        long previousPublished = 0;
+        long slowestTurn = 0;
+        boolean active = true;
+        while (active && System.nanoTime() < end) {
+            long due = (System.nanoTime() - start) * turnsPerSecond / 1_000_000_000L;
+            while (active && turns < due) {
+                long turnStart = System.nanoTime();
+                active = script.playTurn();
+                slowestTurn = Math.max(slowestTurn, System.nanoTime() - turnStart);
+                turns++;
+            }
+            long now = System.nanoTime();
+            if (now >= nextReport) {
+                int dropped = feed.dropLaggards((long) DROP_AFTER_LAPS * feed.getCapacity());
+                FeedMetrics metrics = feed.getMetrics();
+                System.out.printf("events/s %,8d  spectators %,6d  lag mean %,8.1f  max %,9d  resyncs %,6d"
+                                + "  dropped %,4d  slowest turn %,6.1f us%n",
+                        metrics.published() - previousPublished, metrics.spectators(), metrics.meanLag(),
+                        metrics.maxLag(), metrics.resyncs(), dropped, slowestTurn / 1e3);
+                previousPublished = metrics.published();
+                slowestTurn = 0;
+                nextReport += TimeUnit.SECONDS.toNanos(1);
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        stopping = true;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        FeedMetrics last = feed.getMetrics();
+        System.out.printf("%,d turns, %,d events published, %,d delivered, %,d resyncs, %,d dropped, %,d gaps%n",
+                turns, last.published(), delivered.sum(), last.resyncs(), last.dropped(), gaps.sum());
+    }
+
+    /**
+     * Reads a feed until the benchmark stops or the spectator is dropped
+     * @param spectator The spectator
+     * @param pollMillis Pause between reads, or -1 to never read
+     */
+    private void watch(Spectator spectator, long pollMillis) {
+        MovesChecker checker = new MovesChecker();
+        try {
+            while (!stopping) {
+                if (pollMillis < 0) {
+                    TimeUnit.MILLISECONDS.sleep(50);
+                    continue;
+                }
+                int count;
+                while ((count = spectator.poll(checker, 1024)) > 0) {
+                    delivered.add(count);
+                }
+                if (count < 0) {
+                    break;
+                }
+                TimeUnit.MILLISECONDS.sleep(pollMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        gaps.add(checker.gaps);
+    }
+
+    /**
+     * Creates an endless game on a large board that records no statistics
+     * @param seed The layout seed
+     * @return The game, not started
+     */
+    private static Game newGame(long seed) {
+        Game game = new EndlessGame(new GameBoard(ROWS, COLS, seed), new Player("Benchmark"));
+        game.setStatistics(null);
+        return game;
+    }
+
+    /**
+     * Creates the board state of the game {@link #newGame(long)} makes for a seed
+     * @param seed The layout seed
+     * @return The board state
+     */
+    private static BoardState boardOf(long seed) {
+        return new GameBoard(ROWS, COLS, seed).getState();
+    }
+
+    /**
+     * Plays a game three missed turns for every match, turning the first card over before each turn
+     */
+    private static final class TurnScript {
+        private final Game game;
+        private final GameBoard board;
+        private final int[] slotsByKey;
+        private int nextPair;
+        private int turn;
+
+        /**
+         * Creates the script for a game
+         * @param game The game
+         */
+        TurnScript(Game game) {
+            this.game = game;
+            this.board = game.getBoard();
+            BoardState state = board.getState();
+            this.slotsByKey = new int[state.size()];
+            int[] found = new int[state.getTotalPairs()];
+            for (int slot = 0; slot < state.size(); slot++) {
+                int key = state.pairKeyAt(slot);
+                slotsByKey[2 * key + found[key]++] = slot;
+            }
+        }
+
+        /**
+         * Plays the next turn
+         * @return True if the game is still active afterwards
+         */
+        boolean playTurn() {
+            int pairs = slotsByKey.length / 2;
+            int first = slotsByKey[2 * nextPair];
+            int second;
+            if (turn++ % 4 == 3 || nextPair == pairs - 1) {
+                second = slotsByKey[2 * nextPair + 1];
+                nextPair++;
+            } else {
+                second = slotsByKey[2 * nextPair + 2];
+            }
+            game.revealCard(board.getCardAt(first));
+            game.processTurn(board.getCardAt(first), board.getCardAt(second));
+            return game.isActive();
+        }
+    }
+
+    /**
+     * Counts places where a spectator saw the moves jump, which would mean a lost or repeated event
+     */
+    private static final class MovesChecker implements SpectatorListener {
+        private int moves = -1;
+        private long gaps;
+
+        @Override
+        public void onFlip(int slot, int pairKey) {
+        }
+
+        @Override
+        public void onTurn(int slot1, int pairKey1, int slot2, int pairKey2, boolean match) {
+        }
+
+        @Override
+        public void onScore(int score, int moves) {
+            if (this.moves >= 0 && moves != this.moves + 1) {
+                gaps++;
+            }
+            this.moves = moves;
+        }
+
+        @Override
+        public void onGameOver(int score, int moves) {
+        }
+
+        @Override
+        public void onResync(SpectatorSnapshot snapshot) {
+            moves = snapshot.moves();
+        }
+    }
+}
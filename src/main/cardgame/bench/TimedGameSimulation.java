@@ -0,0 +1,88 @@
+package main.cardgame.bench;
+
+import main.cardgame.engine.BoardState;
+import main.cardgame.engine.Difficulty;
+import main.cardgame.engine.TimedEngine;
+import main.cardgame.time.ManualClock;
+
+import java.util.SplittableRandom;
+
+/**
+ * Simulates full hard-level timed games on a manual clock.
+ * Each simulated turn takes a fixed amount of game time; the clock is
+ * advanced instead of waiting, so a three minute game, including its
+ * time-pressure and finishing bonuses, runs in microseconds.
+ * Run with: java -cp out main.cardgame.bench.TimedGameSimulation [secondsPerTurn]
+ */
+
+public class TimedGameSimulation {
+    private final int[] pairKeys;
+    /** Both slots of every pair key: slots[2 * key] and slots[2 * key + 1] */
+    private final int[] slotsByKey;
+    private final BoardState board;
+    private final long millisPerTurn;
+
+    /**
+     * Creates the simulation on a shuffled hard board
+     * @param seed The board seed
+     * @param millisPerTurn The game time every turn takes
+     */
+    public TimedGameSimulation(long seed, long millisPerTurn) {
+        this.board = BoardState.shuffled(Difficulty.HARD, new SplittableRandom(seed));
+        this.millisPerTurn = millisPerTurn;
+        this.pairKeys = new int[board.size()];
+        this.slotsByKey = new int[board.size()];
+        int[] found = new int[board.getTotalPairs()];
+        for (int slot = 0; slot < board.size(); slot++) {
+            int key = board.pairKeyAt(slot);
+            pairKeys[slot] = key;
+            slotsByKey[2 * key + found[key]++] = slot;
+        }
+    }
+
+    /**
+     * Plays one game: three missed turns, then one match, until the board is
+     * cleared or the countdown runs out
+     * @return The engine after the game has ended
+     */
+    TimedEngine play() {
+        board.load(pairKeys);
+        ManualClock clock = new ManualClock();
+        TimedEngine engine = new TimedEngine(board, Difficulty.HARD.getTimeLimitSeconds(), clock);
+        engine.play();
+
+        int pairs = board.getTotalPairs();
+        int nextPair = 0;
+        int turn = 0;
+        while (engine.isActive()) {
+            clock.advanceMillis(millisPerTurn);
+            if (engine.getTimer().checkExpired()) {
+                engine.endGame();
+            } else if (turn++ % 4 == 3 || nextPair == pairs - 1) {
+                engine.processTurn(slotsByKey[2 * nextPair], slotsByKey[2 * nextPair + 1]);
+                nextPair++;
+            } else {
+                engine.processTurn(slotsByKey[2 * nextPair], slotsByKey[2 * nextPair + 2]);
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * Runs the simulation
+     * @param args Optional game seconds per turn, 2 by default
+     */
+    public static void main(String[] args) {
+        long secondsPerTurn = args.length > 0 ? Long.parseLong(args[0]) : 2;
+        TimedGameSimulation simulation = new TimedGameSimulation(42, secondsPerTurn * 1000);
+
+        TimedEngine sample = simulation.play();
+        System.out.printf("Sample game: %d moves, %d/%d pairs, score %d, %.1f s of game time%n",
+                sample.getMoves(), sample.getMatches(), sample.getBoard().getTotalPairs(),
+                sample.getScore(), sample.getDuration() / 1000.0);
+
+        BenchmarkRunner.Result result = BenchmarkRunner.run("hard timed game on a manual clock",
+                () -> simulation.play().getScore());
+        System.out.printf("%.2f microseconds per simulated game%n", 1e6 / result.opsPerSecond());
+    }
+}
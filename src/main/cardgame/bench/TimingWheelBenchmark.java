@@ -0,0 +1,150 @@
+package main.cardgame.bench;
+
+import main.cardgame.model.Timer;
+import main.cardgame.time.ManualClock;
+import main.cardgame.time.TimingWheel;
+import main.cardgame.time.TimingWheelMetrics;
+
+import java.util.SplittableRandom;
+
+/**
+ * Compares ending many concurrent countdowns from one shared timing wheel
+ * with polling every countdown on every tick, as one UI timeline per game did.
+ * A manual clock steps through the games in 200 ms ticks; about one in ten
+ * games is paused and resumed along the way, which moves its deadline.
+ * Run with: java -cp out main.cardgame.bench.TimingWheelBenchmark [countdowns]
+ */
+
+public class TimingWheelBenchmark {
+    private static final int COUNTDOWN_SECONDS = 180;
+    private static final long STEP_MILLIS = 200;
+    /** Start offsets are spread over this many steps */
+    private static final int START_STEPS = 300;
+
+    private final int count;
+    private final int[] startStep;
+    private final int[] pauseStep;
+    private final int[] pauseSteps;
+
+    /**
+     * Creates the scenario: start offsets and pauses for every countdown
+     * @param count The number of concurrent countdowns
+     * @param seed The seed of the scenario
+     */
+    public TimingWheelBenchmark(int count, long seed) {
+        this.count = count;
+        this.startStep = new int[count];
+        this.pauseStep = new int[count];
+        this.pauseSteps = new int[count];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < count; i++) {
+            startStep[i] = 1 + random.nextInt(START_STEPS);
+            pauseStep[i] = random.nextInt(10) == 0 ? startStep[i] + 1 + random.nextInt(500) : -1;
+            pauseSteps[i] = 1 + random.nextInt(50);
+        }
+    }
+
+    /**
+     * Runs all countdowns to expiry
+     * @param useWheel True to end them from a timing wheel, false to poll each one per step
+     * @return The number of steps taken
+     */
+    long run(boolean useWheel) {
+        ManualClock clock = new ManualClock();
+        TimingWheel wheel = new TimingWheel(clock, 10);
+        Timer[] timers = new Timer[count];
+        int[] expired = new int[1];
+        Runnable onExpired = () -> expired[0]++;
+        for (int i = 0; i < count; i++) {
+            timers[i] = new Timer(COUNTDOWN_SECONDS, clock);
+            if (useWheel) {
+                timers[i].scheduleExpiry(wheel, onExpired);
+            }
+        }
+
+        int step = 0;
+        while (expired[0] < count) {
+            clock.advanceMillis(STEP_MILLIS);
+            step++;
+            // Starts, pauses and resumes happen in every run; only the expiry check differs
+            if (step <= START_STEPS + 552) {
+                for (int i = 0; i < count; i++) {
+                    if (startStep[i] == step) {
+                        timers[i].startTimer();
+                    } else if (pauseStep[i] == step) {
+                        timers[i].pauseTimer();
+                    } else if (pauseStep[i] + pauseSteps[i] == step && pauseStep[i] >= 0) {
+                        timers[i].resumeTimer();
+                    }
+                }
+            }
+            if (useWheel) {
+                wheel.advance();
+            } else {
+                for (int i = 0; i < count; i++) {
+                    if (timers[i].isRunning() && timers[i].checkExpired()) {
+                        expired[0]++;
+                    }
+                }
+            }
+        }
+        return step;
+    }
+
+    /**
+     * Times one full run
+     * @param useWheel True to use the timing wheel
+     * @return The run time in nanoseconds
+     */
+    private long time(boolean useWheel) {
+        long start = System.nanoTime();
+        run(useWheel);
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args Optional number of concurrent countdowns, 100000 by default
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        TimingWheelBenchmark benchmark = new TimingWheelBenchmark(count, 42);
+
+        long steps = benchmark.run(true);
+        for (int i = 0; i < 3; i++) {
+            benchmark.time(true);
+            benchmark.time(false);
+        }
+        long wheelNanos = Long.MAX_VALUE;
+        long pollNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            wheelNanos = Math.min(wheelNanos, benchmark.time(true));
+            pollNanos = Math.min(pollNanos, benchmark.time(false));
+        }
+        System.out.printf("%,d countdowns of %d s, %,d steps of %d ms%n", count, COUNTDOWN_SECONDS, steps, STEP_MILLIS);
+        System.out.printf("%-22s %10.1f ms total %10.1f us/step %8.1f ns/countdown%n", "per-timer polling",
+                pollNanos / 1e6, pollNanos / 1e3 / steps, (double) pollNanos / count);
+        System.out.printf("%-22s %10.1f ms total %10.1f us/step %8.1f ns/countdown%n", "shared timing wheel",
+                wheelNanos / 1e6, wheelNanos / 1e3 / steps, (double) wheelNanos / count);
+
+        // Scheduling cost with a realistic number of pending deadlines
+        ManualClock clock = new ManualClock();
+        TimingWheel wheel = new TimingWheel(clock, 10);
+        SplittableRandom random = new SplittableRandom(7);
+        TimingWheel.Timeout[] ring = new TimingWheel.Timeout[count];
+        Runnable task = () -> { };
+        for (int i = 0; i < count; i++) {
+            ring[i] = wheel.schedule(random.nextLong(COUNTDOWN_SECONDS * 1_000_000_000L), task);
+        }
+        int[] cursor = new int[1];
+        BenchmarkRunner.run("schedule + cancel, " + count + " pending", () -> {
+            int i = cursor[0]++ % ring.length;
+            ring[i].cancel();
+            ring[i] = wheel.schedule(random.nextLong(COUNTDOWN_SECONDS * 1_000_000_000L), task);
+            return i;
+        });
+
+        TimingWheelMetrics metrics = wheel.getMetrics();
+        System.out.println(metrics);
+    }
+}
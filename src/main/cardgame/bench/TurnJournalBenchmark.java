@@ -0,0 +1,127 @@
+package main.cardgame.bench;
+
+import main.cardgame.engine.BoardState;
+import main.cardgame.engine.Difficulty;
+import main.cardgame.engine.EndlessEngine;
+import main.cardgame.journal.TurnJournal;
+import main.cardgame.journal.TurnRecord;
+import main.cardgame.time.ManualClock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Measures what journaling adds to the turn path: the same scripted hard
+ * games are played with and without a {@link TurnJournal} recorder on the
+ * engine, then the journal is read back as a stream.
+ * The journal is written to a temporary file that is deleted afterwards.
+ * Run with: java -cp out main.cardgame.bench.TurnJournalBenchmark [games]
+ */
+
+public class TurnJournalBenchmark {
+    private final int[] pairKeys;
+    /** Both slots of every pair key: slots[2 * key] and slots[2 * key + 1] */
+    private final int[] slotsByKey;
+    private final BoardState board;
+    private final ManualClock clock = new ManualClock();
+
+    /**
+     * Creates the benchmark on a shuffled hard board
+     * @param seed The board seed
+     */
+    public TurnJournalBenchmark(long seed) {
+        this.board = BoardState.shuffled(Difficulty.HARD, new SplittableRandom(seed));
+        this.pairKeys = new int[board.size()];
+        this.slotsByKey = new int[board.size()];
+        int[] found = new int[board.getTotalPairs()];
+        for (int slot = 0; slot < board.size(); slot++) {
+            int key = board.pairKeyAt(slot);
+            pairKeys[slot] = key;
+            slotsByKey[2 * key + found[key]++] = slot;
+        }
+    }
+
+    /**
+     * Plays games: three missed turns, then one match, until the board is cleared
+     * @param games The number of games
+     * @param journal The journal to record to, or null to play without recording
+     * @return The number of turns played
+     */
+    long play(int games, TurnJournal journal) {
+        long turns = 0;
+        int pairs = board.getTotalPairs();
+        for (int game = 0; game < games; game++) {
+            board.load(pairKeys);
+            EndlessEngine engine = new EndlessEngine(board, clock);
+            if (journal != null) {
+                engine.setTurnRecorder(journal.recorder(game));
+            }
+            engine.play();
+            int nextPair = 0;
+            int turn = 0;
+            while (engine.isActive()) {
+                clock.advanceMillis(1);
+                if (turn++ % 4 == 3 || nextPair == pairs - 1) {
+                    engine.processTurn(slotsByKey[2 * nextPair], slotsByKey[2 * nextPair + 1]);
+                    nextPair++;
+                } else {
+                    engine.processTurn(slotsByKey[2 * nextPair], slotsByKey[2 * nextPair + 2]);
+                }
+            }
+            turns += engine.getMoves();
+        }
+        return turns;
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args Optional number of games per round, 20000 by default
+     * @throws IOException If the temporary journal cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        TurnJournalBenchmark benchmark = new TurnJournalBenchmark(42);
+        Path file = Files.createTempFile("turns", ".journal");
+        Files.delete(file);
+        try (TurnJournal journal = TurnJournal.open(file)) {
+            long plainNanos = Long.MAX_VALUE;
+            long journaledNanos = Long.MAX_VALUE;
+            long turns = 0;
+            for (int round = 0; round < 6; round++) {
+                long start = System.nanoTime();
+                turns = benchmark.play(games, null);
+                plainNanos = Math.min(plainNanos, System.nanoTime() - start);
+                start = System.nanoTime();
+                benchmark.play(games, journal);
+                journaledNanos = Math.min(journaledNanos, System.nanoTime() - start);
+            }
+            System.out.printf("%,d games, %,d turns per round%n", games, turns);
+            System.out.printf("%-22s %8.1f ns/turn%n", "without journal", (double) plainNanos / turns);
+            System.out.printf("%-22s %8.1f ns/turn%n", "with mapped journal", (double) journaledNanos / turns);
+            System.out.printf("%,d records, %.1f MB%n", journal.getRecordCount(),
+                    journal.getRecordCount() * TurnRecord.BYTES / 1e6);
+        }
+
+        long start = System.nanoTime();
+        long matches;
+        long records;
+        try (Stream<TurnRecord> replay = TurnJournal.replay(file)) {
+            long[] counts = new long[2];
+            replay.forEach(record -> {
+                counts[0]++;
+                if (record.match()) {
+                    counts[1]++;
+                }
+            });
+            records = counts[0];
+            matches = counts[1];
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.printf("replayed %,d records (%,d matches) in %.1f ms, %.1f M records/s%n",
+                records, matches, nanos / 1e6, records * 1e3 / nanos);
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,104 @@
+package main.cardgame.bench;
+
+import main.cardgame.engine.Difficulty;
+import main.cardgame.game.EndlessGame;
+import main.cardgame.game.Game;
+import main.cardgame.game.GameSnapshot;
+import main.cardgame.game.TimedGame;
+import main.cardgame.model.Card;
+import main.cardgame.model.GameBoard;
+import main.cardgame.model.Player;
+import main.cardgame.time.ManualClock;
+
+/**
+ * Plays scripted turns through {@link Game#processTurn(Card, Card)}:
+ * three missed turns, then one match. When the board is cleared the same
+ * game starts over in place: the board's flags are cleared and the game
+ * resumes from a snapshot taken before its first turn, so the measured
+ * turns do not pay for building boards, cards and games. Building a new
+ * game is measured on its own through {@link #newGame()}. Shared by
+ * {@link HotPathBenchmark} and the JMH benchmarks.
+ */
+
+public final class TurnScript {
+    private static final long SEED = 42L;
+
+    private final boolean timed;
+    private final Difficulty difficulty = Difficulty.HARD;
+    private final ManualClock clock = new ManualClock();
+    /** Both slots of every pair key: slotsByKey[2 * key] and slotsByKey[2 * key + 1] */
+    private final int[] slotsByKey;
+    private Game game;
+    /** The current game before its first turn */
+    private GameSnapshot start;
+    private Card[] cards;
+    private int turn;
+    private int nextPair;
+
+    /**
+     * Creates the script for one mode
+     * @param timed True for timed games, false for endless games
+     */
+    public TurnScript(boolean timed) {
+        this.timed = timed;
+        GameBoard layout = new GameBoard(difficulty.getRows(), difficulty.getCols(), SEED);
+        this.slotsByKey = new int[layout.size()];
+        int[] found = new int[layout.getTotalPairs()];
+        for (int slot = 0; slot < layout.size(); slot++) {
+            int key = layout.getState().pairKeyAt(slot);
+            slotsByKey[2 * key + found[key]++] = slot;
+        }
+        newGame();
+    }
+
+    /**
+     * Builds and starts a new game on the same layout, with every card created as the UI does
+     * @return The number of cards of the new game
+     */
+    public long newGame() {
+        GameBoard board = new GameBoard(difficulty.getRows(), difficulty.getCols(), SEED);
+        game = timed
+                ? new TimedGame(board, new Player("bench"), difficulty.getTimeLimitSeconds(), clock)
+                : new EndlessGame(board, new Player("bench"), clock);
+        game.setStatistics(null); // Statistics saving is measured on its own
+        start = GameSnapshot.capture(game);
+        game.play();
+        cards = new Card[board.size()];
+        for (int slot = 0; slot < cards.length; slot++) {
+            cards[slot] = board.getCardAt(slot);
+        }
+        turn = 0;
+        nextPair = 0;
+        return cards.length;
+    }
+
+    /**
+     * Starts the current game over on its cleared board, allocating nothing
+     */
+    private void restartGame() {
+        game.getBoard().getState().reset();
+        game.play(start);
+        turn = 0;
+        nextPair = 0;
+    }
+
+    /**
+     * Plays the next turn
+     * @return 1 for a match, 0 for a miss
+     */
+    public long playTurn() {
+        if (!game.isActive()) {
+            restartGame();
+        }
+        clock.advanceMillis(500);
+        boolean lastPair = nextPair == slotsByKey.length / 2 - 1;
+        boolean match;
+        if (turn++ % 4 == 3 || lastPair) {
+            match = game.processTurn(cards[slotsByKey[2 * nextPair]], cards[slotsByKey[2 * nextPair + 1]]);
+            nextPair++;
+        } else {
+            match = game.processTurn(cards[slotsByKey[2 * nextPair]], cards[slotsByKey[2 * nextPair + 2]]);
+        }
+        return match ? 1 : 0;
+    }
+}
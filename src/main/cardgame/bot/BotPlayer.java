@@ -0,0 +1,55 @@
+package main.cardgame.bot;
+
+import main.cardgame.engine.BoardState;
+
+/**
+ * Strategy that plays memory turns without a UI.
+ * A bot only learns what a player could see: which slots are matched, read
+ * from the board, and the pair key of every card turned over, passed to
+ * {@link #reveal(int, int)}. {@link BotRunner} drives a bot through a turn:
+ * chooseFirst, reveal, chooseSecond, reveal, then turnEnded.
+ * Implementations size their memory in {@link #newGame(BoardState)} and
+ * must not allocate while choosing slots, so millions of games can be
+ * played without garbage.
+ */
+public interface BotPlayer {
+    /**
+     * Prepares for a new game and forgets everything about the previous one
+     * @param board The board to play on; slots already matched are skipped
+     */
+    void newGame(BoardState board);
+
+    /**
+     * Chooses the first card of a turn
+     * @return An unmatched slot
+     */
+    int chooseFirst();
+
+    /**
+     * Chooses the second card of a turn, after the first one was revealed
+     * @param firstSlot The slot chosen first
+     * @return An unmatched slot other than the first one
+     */
+    int chooseSecond(int firstSlot);
+
+    /**
+     * Shows the bot a card that was turned over
+     * @param slot The slot of the card
+     * @param pairKey The pair key of the card
+     */
+    void reveal(int slot, int pairKey);
+
+    /**
+     * Tells the bot how the turn ended
+     * @param slot1 The first slot of the turn
+     * @param slot2 The second slot of the turn
+     * @param match True if the slots matched
+     */
+    void turnEnded(int slot1, int slot2, boolean match);
+
+    /**
+     * Gets a short name of the strategy for reports
+     * @return The strategy name
+     */
+    String getName();
+}
@@ -0,0 +1,117 @@
+package main.cardgame.bot;
+
+import main.cardgame.engine.BoardState;
+import main.cardgame.engine.GameEngine;
+import main.cardgame.game.Game;
+import main.cardgame.model.Card;
+import main.cardgame.model.GameBoard;
+
+/**
+ * Drives bots through turns, either on a full {@link Game} through
+ * {@link Game#processTurn(Card, Card)}, as the UI does, or directly on a
+ * headless {@link GameEngine} for simulations. The choices of a bot are
+ * checked before they are played, so a faulty strategy fails fast instead
+ * of looping forever.
+ */
+public final class BotRunner {
+
+    private BotRunner() {
+    }
+
+    /**
+     * Plays one turn of a game
+     * @param game The game, already started
+     * @param bot The bot, prepared with {@link BotPlayer#newGame(BoardState)} on the game's board
+     * @return True if the turn found a match
+     * @throws IllegalStateException If the game is not active or the bot chose an invalid slot
+     */
+    public static boolean playTurn(Game game, BotPlayer bot) {
+        if (!game.isActive()) {
+            throw new IllegalStateException("Game is not active");
+        }
+        GameBoard board = game.getBoard();
+        BoardState state = board.getState();
+        int slot1 = chooseFirst(state, bot);
+        int slot2 = chooseSecond(state, bot, slot1);
+        boolean match = game.processTurn(board.getCardAt(slot1), board.getCardAt(slot2));
+        bot.turnEnded(slot1, slot2, match);
+        return match;
+    }
+
+    /**
+     * Plays one turn on a headless engine
+     * @param engine The engine, already started
+     * @param bot The bot, prepared with {@link BotPlayer#newGame(BoardState)} on the engine's board
+     * @return True if the turn found a match
+     * @throws IllegalStateException If the game is not active or the bot chose an invalid slot
+     */
+    public static boolean playTurn(GameEngine engine, BotPlayer bot) {
+        if (!engine.isActive()) {
+            throw new IllegalStateException("Game is not active");
+        }
+        BoardState state = engine.getBoard();
+        int slot1 = chooseFirst(state, bot);
+        int slot2 = chooseSecond(state, bot, slot1);
+        boolean match = engine.processTurn(slot1, slot2);
+        bot.turnEnded(slot1, slot2, match);
+        return match;
+    }
+
+    /**
+     * Plays a started game on a headless engine until it ends
+     * @param engine The engine, already started
+     * @param bot The bot; it is prepared for the engine's board first
+     * @return The number of moves of the game
+     * @throws IllegalStateException If the bot chose an invalid slot
+     */
+    public static int playGame(GameEngine engine, BotPlayer bot) {
+        bot.newGame(engine.getBoard());
+        while (engine.isActive()) {
+            playTurn(engine, bot);
+        }
+        return engine.getMoves();
+    }
+
+    /**
+     * Asks the bot for the first card and reveals it
+     * @param state The board state
+     * @param bot The bot
+     * @return The chosen slot
+     * @throws IllegalStateException If the bot chose an invalid slot
+     */
+    private static int chooseFirst(BoardState state, BotPlayer bot) {
+        int slot = bot.chooseFirst();
+        checkChoice(state, bot, slot, -1);
+        bot.reveal(slot, state.pairKeyAt(slot));
+        return slot;
+    }
+
+    /**
+     * Asks the bot for the second card and reveals it
+     * @param state The board state
+     * @param bot The bot
+     * @param firstSlot The slot chosen first
+     * @return The chosen slot
+     * @throws IllegalStateException If the bot chose an invalid slot
+     */
+    private static int chooseSecond(BoardState state, BotPlayer bot, int firstSlot) {
+        int slot = bot.chooseSecond(firstSlot);
+        checkChoice(state, bot, slot, firstSlot);
+        bot.reveal(slot, state.pairKeyAt(slot));
+        return slot;
+    }
+
+    /**
+     * Checks that a chosen slot exists, is unmatched and differs from the first choice
+     * @param state The board state
+     * @param bot The bot that chose the slot
+     * @param slot The chosen slot
+     * @param firstSlot The slot chosen first this turn, or -1
+     * @throws IllegalStateException If the slot is invalid
+     */
+    private static void checkChoice(BoardState state, BotPlayer bot, int slot, int firstSlot) {
+        if (slot < 0 || slot >= state.size() || slot == firstSlot || state.isMatched(slot)) {
+            throw new IllegalStateException("Bot " + bot.getName() + " chose invalid slot " + slot);
+        }
+    }
+}
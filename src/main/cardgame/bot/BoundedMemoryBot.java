@@ -0,0 +1,48 @@
+package main.cardgame.bot;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Bot that forgets a card k turns after it last saw it, approximating a
+ * human player's short-term memory. Seeing a card again refreshes it.
+ */
+public class BoundedMemoryBot extends MemoryBot {
+    private final int memoryTurns;
+
+    /**
+     * Creates a bounded memory bot
+     * @param random The random generator choosing unknown cards
+     * @param memoryTurns The number of turns a card stays remembered after it was last seen
+     * @throws IllegalArgumentException If memoryTurns is negative
+     */
+    public BoundedMemoryBot(RandomGenerator random, int memoryTurns) {
+        super(random, checkMemoryTurns(memoryTurns));
+        this.memoryTurns = memoryTurns;
+    }
+
+    /**
+     * Validates the memory span before it reaches the base class
+     * @param memoryTurns The number of turns
+     * @return The number of turns
+     * @throws IllegalArgumentException If memoryTurns is negative
+     */
+    private static int checkMemoryTurns(int memoryTurns) {
+        if (memoryTurns < 0) {
+            throw new IllegalArgumentException("Memory span cannot be negative: " + memoryTurns);
+        }
+        return memoryTurns;
+    }
+
+    /**
+     * Gets the memory span
+     * @return The number of turns a card stays remembered
+     */
+    public int getMemoryTurns() {
+        return memoryTurns;
+    }
+
+    @Override
+    public String getName() {
+        return "memory-" + memoryTurns;
+    }
+}
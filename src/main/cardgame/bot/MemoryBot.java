@@ -0,0 +1,207 @@
+package main.cardgame.bot;
+
+import main.cardgame.engine.BoardState;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Shared strategy of the memory bots: match a remembered pair when one is
+ * known, otherwise turn over an unknown card and, if its partner is
+ * remembered, take the partner second; else turn over another unknown card.
+ * How long cards stay remembered is set by the subclass: forever, or for
+ * a number of turns after they were last seen. Memory lives in int arrays
+ * indexed by slot and pair key, sized in {@link #newGame(BoardState)}.
+ */
+abstract class MemoryBot implements BotPlayer {
+    /** Memory span of a bot that never forgets */
+    static final int UNLIMITED = -1;
+
+    private final RandomGenerator random;
+    /** Turns a card stays remembered after it was last seen, or {@link #UNLIMITED} */
+    private final int memoryTurns;
+
+    private BoardState board;
+    /** Unmatched slots the bot does not remember */
+    private final SlotSet unknown = new SlotSet();
+    /** Turn each slot was last seen, or -1 if it is not remembered */
+    private int[] seenTurn = new int[0];
+    /** Pair key each remembered slot showed */
+    private int[] seenKey = new int[0];
+    /** Up to two remembered slots per pair key: slots 2 * key and 2 * key + 1, -1 if empty */
+    private int[] keySlots = new int[0];
+    /** Pair keys whose two slots were both remembered when pushed; checked again on pop */
+    private int[] knownPairs = new int[0];
+    private int knownPairCount;
+    private boolean[] queued = new boolean[0];
+    /** Slots revealed in the last memoryTurns + 1 turns, two per turn */
+    private int[] recentSlots = new int[0];
+    private int turn;
+    private int revealsThisTurn;
+
+    /**
+     * Creates a memory bot
+     * @param random The random generator choosing unknown cards
+     * @param memoryTurns Turns a card stays remembered after it was last seen, or {@link #UNLIMITED}
+     */
+    MemoryBot(RandomGenerator random, int memoryTurns) {
+        this.random = random;
+        this.memoryTurns = memoryTurns;
+    }
+
+    @Override
+    public void newGame(BoardState board) {
+        this.board = board;
+        int size = board.size();
+        if (seenTurn.length < size) {
+            seenTurn = new int[size];
+            seenKey = new int[size];
+            keySlots = new int[size];
+            knownPairs = new int[size / 2];
+            queued = new boolean[size / 2];
+        }
+        if (memoryTurns != UNLIMITED && recentSlots.length == 0) {
+            recentSlots = new int[2 * (memoryTurns + 1)];
+        }
+        Arrays.fill(seenTurn, -1);
+        Arrays.fill(keySlots, -1);
+        Arrays.fill(queued, false);
+        Arrays.fill(recentSlots, -1);
+        knownPairCount = 0;
+        turn = 0;
+        revealsThisTurn = 0;
+        unknown.clear(size);
+        for (int slot = board.nextUnmatchedSlot(0); slot >= 0; slot = board.nextUnmatchedSlot(slot + 1)) {
+            unknown.add(slot);
+        }
+    }
+
+    @Override
+    public int chooseFirst() {
+        forgetExpired();
+        while (knownPairCount > 0) {
+            int key = knownPairs[--knownPairCount];
+            queued[key] = false;
+            int slot1 = keySlots[2 * key];
+            int slot2 = keySlots[2 * key + 1];
+            if (isRemembered(slot1) && isRemembered(slot2)) {
+                return slot1;
+            }
+        }
+        int slot = unknown.pick(random);
+        return slot >= 0 ? slot : anyUnmatched(-1);
+    }
+
+    @Override
+    public int chooseSecond(int firstSlot) {
+        int partner = rememberedPartner(firstSlot);
+        if (partner >= 0) {
+            return partner;
+        }
+        int slot = unknown.pickOther(random, firstSlot);
+        return slot >= 0 ? slot : anyUnmatched(firstSlot);
+    }
+
+    @Override
+    public void reveal(int slot, int pairKey) {
+        seenTurn[slot] = turn;
+        seenKey[slot] = pairKey;
+        unknown.remove(slot);
+        if (memoryTurns != UNLIMITED && revealsThisTurn < 2) {
+            recentSlots[2 * (turn % (memoryTurns + 1)) + revealsThisTurn] = slot;
+        }
+        revealsThisTurn++;
+
+        int first = 2 * pairKey;
+        if (keySlots[first] != slot && keySlots[first + 1] != slot) {
+            // Replace an empty or forgotten entry
+            int target = isRemembered(keySlots[first]) ? first + 1 : first;
+            keySlots[target] = slot;
+        }
+        if (isRemembered(keySlots[first]) && isRemembered(keySlots[first + 1]) && !queued[pairKey]) {
+            queued[pairKey] = true;
+            knownPairs[knownPairCount++] = pairKey;
+        }
+    }
+
+    @Override
+    public void turnEnded(int slot1, int slot2, boolean match) {
+        if (match) {
+            forget(slot1);
+            forget(slot2);
+        }
+        turn++;
+        revealsThisTurn = 0;
+    }
+
+    /**
+     * Forgets the cards last seen more than memoryTurns turns ago
+     */
+    private void forgetExpired() {
+        if (memoryTurns == UNLIMITED || turn <= memoryTurns) {
+            return;
+        }
+        int expiredTurn = turn - memoryTurns - 1;
+        int index = 2 * (expiredTurn % (memoryTurns + 1));
+        for (int i = index; i < index + 2; i++) {
+            int slot = recentSlots[i];
+            recentSlots[i] = -1;
+            if (slot >= 0 && seenTurn[slot] == expiredTurn) {
+                forget(slot);
+                if (!board.isMatched(slot)) {
+                    unknown.add(slot);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops a slot from memory
+     * @param slot The slot to forget
+     */
+    private void forget(int slot) {
+        if (seenTurn[slot] < 0) {
+            return;
+        }
+        seenTurn[slot] = -1;
+        int first = 2 * seenKey[slot];
+        if (keySlots[first] == slot) {
+            keySlots[first] = -1;
+        } else if (keySlots[first + 1] == slot) {
+            keySlots[first + 1] = -1;
+        }
+    }
+
+    /**
+     * Checks if a slot is remembered and still in play
+     * @param slot The slot, or -1
+     * @return True if the bot remembers the slot and it is unmatched
+     */
+    private boolean isRemembered(int slot) {
+        return slot >= 0 && seenTurn[slot] >= 0 && !board.isMatched(slot);
+    }
+
+    /**
+     * Finds the remembered partner of a revealed slot
+     * @param slot The revealed slot
+     * @return The other remembered slot with the same pair key, or -1 if none
+     */
+    private int rememberedPartner(int slot) {
+        int first = 2 * seenKey[slot];
+        int candidate = keySlots[first] == slot ? keySlots[first + 1] : keySlots[first];
+        return candidate != slot && isRemembered(candidate) ? candidate : -1;
+    }
+
+    /**
+     * Finds any unmatched slot, used only when every unmatched card is remembered
+     * @param excluded A slot that must not be returned, or -1
+     * @return An unmatched slot, or -1 if there is none
+     */
+    private int anyUnmatched(int excluded) {
+        int slot = board.nextUnmatchedSlot(0);
+        if (slot == excluded && slot >= 0) {
+            slot = board.nextUnmatchedSlot(slot + 1);
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,22 @@
+package main.cardgame.bot;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Bot that remembers every card it has seen for the rest of the game.
+ * Gives the lower baseline of moves a player without luck can reach.
+ */
+public class PerfectMemoryBot extends MemoryBot {
+    /**
+     * Creates a perfect memory bot
+     * @param random The random generator choosing unknown cards
+     */
+    public PerfectMemoryBot(RandomGenerator random) {
+        super(random, UNLIMITED);
+    }
+
+    @Override
+    public String getName() {
+        return "perfect";
+    }
+}
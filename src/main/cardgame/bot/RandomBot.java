@@ -0,0 +1,58 @@
+package main.cardgame.bot;
+
+import main.cardgame.engine.BoardState;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Bot without memory: every turn it turns over two random unmatched cards.
+ * Gives the upper baseline of moves a game can take.
+ */
+public class RandomBot implements BotPlayer {
+    private final RandomGenerator random;
+    private final SlotSet unmatched = new SlotSet();
+
+    /**
+     * Creates a random bot
+     * @param random The random generator choosing the cards
+     */
+    public RandomBot(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public void newGame(BoardState board) {
+        unmatched.clear(board.size());
+        for (int slot = board.nextUnmatchedSlot(0); slot >= 0; slot = board.nextUnmatchedSlot(slot + 1)) {
+            unmatched.add(slot);
+        }
+    }
+
+    @Override
+    public int chooseFirst() {
+        return unmatched.pick(random);
+    }
+
+    @Override
+    public int chooseSecond(int firstSlot) {
+        return unmatched.pickOther(random, firstSlot);
+    }
+
+    @Override
+    public void reveal(int slot, int pairKey) {
+        // Nothing to remember
+    }
+
+    @Override
+    public void turnEnded(int slot1, int slot2, boolean match) {
+        if (match) {
+            unmatched.remove(slot1);
+            unmatched.remove(slot2);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "random";
+    }
+}
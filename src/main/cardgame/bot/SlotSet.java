@@ -0,0 +1,99 @@
+package main.cardgame.bot;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Set of slots with O(1) add, remove and uniform random pick, backed by a
+ * dense array plus a position index. Sized once per board size, so
+ * updates never allocate.
+ */
+final class SlotSet {
+    private int[] slots = new int[0];
+    /** Index of every slot in {@link #slots}, or -1 if absent */
+    private int[] positions = new int[0];
+    private int count;
+
+    /**
+     * Empties the set and makes room for slots 0..capacity-1, reusing the arrays when they are large enough
+     * @param capacity The number of slots on the board
+     */
+    void clear(int capacity) {
+        if (positions.length < capacity) {
+            slots = new int[capacity];
+            positions = new int[capacity];
+        }
+        Arrays.fill(positions, -1);
+        count = 0;
+    }
+
+    /**
+     * Adds a slot if it is not in the set
+     * @param slot The slot to add
+     */
+    void add(int slot) {
+        if (positions[slot] < 0) {
+            positions[slot] = count;
+            slots[count++] = slot;
+        }
+    }
+
+    /**
+     * Removes a slot if it is in the set
+     * @param slot The slot to remove
+     */
+    void remove(int slot) {
+        int index = positions[slot];
+        if (index >= 0) {
+            int last = slots[--count];
+            slots[index] = last;
+            positions[last] = index;
+            positions[slot] = -1;
+        }
+    }
+
+    /**
+     * Checks if a slot is in the set
+     * @param slot The slot to check
+     * @return True if the slot is in the set
+     */
+    boolean contains(int slot) {
+        return positions[slot] >= 0;
+    }
+
+    /**
+     * Gets the number of slots in the set
+     * @return The size of the set
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Picks a slot uniformly at random
+     * @param random The random generator
+     * @return A slot of the set, or -1 if the set is empty
+     */
+    int pick(RandomGenerator random) {
+        return count == 0 ? -1 : slots[random.nextInt(count)];
+    }
+
+    /**
+     * Picks a slot uniformly at random, never the excluded one
+     * @param random The random generator
+     * @param excluded A slot that must not be picked
+     * @return A slot of the set, or -1 if there is no other slot
+     */
+    int pickOther(RandomGenerator random, int excluded) {
+        int excludedIndex = excluded >= 0 && excluded < positions.length ? positions[excluded] : -1;
+        if (excludedIndex < 0) {
+            return pick(random);
+        }
+        if (count < 2) {
+            return -1;
+        }
+        // Pick among the other count - 1 entries by skipping over the excluded index
+        int index = random.nextInt(count - 1);
+        return slots[index >= excludedIndex ? index + 1 : index];
+    }
+}
@@ -0,0 +1,519 @@
+package main.cardgame.engine;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Primitive state of a memory game board.
+ * Every slot holds an int pair key plus face-up and matched flags, so the
+ * rules can run without any card objects, observers or UI toolkit.
+ * Slots are numbered row by row: slot = row * cols + col.
+ * The flags are kept in long-word bitsets with running counts, so counts
+ * are O(1) and "next open slot" style searches skip 64 slots per step.
+ * Storage is flat and primitive: about 4.25 bytes per slot (an int key
+ * plus two bits), so a 1000x1000 marathon board takes roughly 4.3 MB.
+ */
+
+public class BoardState {
+    /** Largest supported number of slots */
+    public static final int MAX_SLOTS = 1 << 30;
+
+    private final int rows;
+    private final int cols;
+    private final int size;
+    private final int[] pairKeys;
+    /** One bit per slot, set while the slot is face up */
+    private final long[] faceUpWords;
+    /** One bit per slot, set once the slot is matched */
+    private final long[] matchedWords;
+    private final int totalPairs;
+    private int matchedPairsCount;
+    private int matchedSlotCount;
+    private int faceUpCount;
+    private MatchListener matchListener;
+
+    /**
+     * Callback fired when a new pair is matched on the board
+     */
+    public interface MatchListener {
+        /**
+         * Called after both slots have been marked as matched
+         * @param slot1 The first slot of the pair
+         * @param slot2 The second slot of the pair
+         */
+        void onPairMatched(int slot1, int slot2);
+    }
+
+    /**
+     * Creates an empty board with the given dimensions
+     * @param rows The number of rows
+     * @param cols The number of columns
+     * @throws IllegalArgumentException If the dimensions are not positive, the slot count
+     * is odd or exceeds {@link #MAX_SLOTS}
+     */
+    public BoardState(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Invalid board size: " + rows + "x" + cols);
+        }
+        long slots = (long) rows * cols;
+        if (slots > MAX_SLOTS) {
+            throw new IllegalArgumentException("Board too large: " + rows + "x" + cols);
+        }
+        if (slots % 2 != 0) {
+            throw new IllegalArgumentException("Board must have an even number of slots: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.size = (int) slots;
+        this.pairKeys = new int[size];
+        this.faceUpWords = new long[wordCount(size)];
+        this.matchedWords = new long[wordCount(size)];
+        this.totalPairs = size / 2;
+    }
+
+    /**
+     * Calculates the number of 64-bit words needed for one bit per slot
+     * @param slots The number of slots
+     * @return The number of words
+     */
+    private static int wordCount(int slots) {
+        return (slots + 63) >>> 6;
+    }
+
+    /**
+     * Creates a board for the given difficulty with shuffled pair keys
+     * @param difficulty The difficulty that determines the board size
+     * @param random The random generator used for shuffling
+     * @return A new shuffled board
+     */
+    public static BoardState shuffled(Difficulty difficulty, RandomGenerator random) {
+        return shuffled(difficulty.getRows(), difficulty.getCols(), random);
+    }
+
+    /**
+     * Creates a board of the given size with pair keys 0..pairs-1 placed twice and shuffled
+     * @param rows The number of rows
+     * @param cols The number of columns
+     * @param random The random generator used for shuffling
+     * @return A new shuffled board
+     */
+    public static BoardState shuffled(int rows, int cols, RandomGenerator random) {
+        BoardState state = new BoardState(rows, cols);
+        state.shuffle(random);
+        return state;
+    }
+
+    /**
+     * Deals a new layout in place: pair keys 0..pairs-1 placed twice and
+     * shuffled the same way as {@link #shuffled(int, int, RandomGenerator)},
+     * with all flags reset. Allocates nothing, so one board can be reused
+     * for any number of games.
+     * @param random The random generator used for shuffling
+     */
+    public void shuffle(RandomGenerator random) {
+        int[] keys = pairKeys;
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i / 2;
+        }
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+        reset();
+    }
+
+    /**
+     * Loads pair keys into the board and resets all flags
+     * @param keys The pair key of every slot, in slot order
+     * @throws IllegalArgumentException If the keys array is null or has an incorrect size
+     */
+    public void load(int[] keys) {
+        if (keys == null || keys.length != pairKeys.length) {
+            throw new IllegalArgumentException(
+                    "Invalid number of pair keys. Expected " + pairKeys.length +
+                            " but got " + (keys == null ? 0 : keys.length)
+            );
+        }
+        System.arraycopy(keys, 0, pairKeys, 0, keys.length);
+        reset();
+    }
+
+    /**
+     * Turns every slot face down and clears all matches
+     */
+    public void reset() {
+        Arrays.fill(faceUpWords, 0L);
+        Arrays.fill(matchedWords, 0L);
+        matchedPairsCount = 0;
+        matchedSlotCount = 0;
+        faceUpCount = 0;
+    }
+
+    /**
+     * Gets the number of 64-bit words of each flag bitset
+     * @return The word count
+     */
+    public int getWordCount() {
+        return faceUpWords.length;
+    }
+
+    /**
+     * Copies the face up and matched bitsets, one bit per slot
+     * @param faceUp The array receiving the face up words, of {@link #getWordCount()} entries
+     * @param matched The array receiving the matched words, of {@link #getWordCount()} entries
+     */
+    public void copyFlags(long[] faceUp, long[] matched) {
+        System.arraycopy(faceUpWords, 0, faceUp, 0, faceUpWords.length);
+        System.arraycopy(matchedWords, 0, matched, 0, matchedWords.length);
+    }
+
+    /**
+     * Replaces the face up and matched bitsets and recounts them; bits past
+     * the last slot are ignored
+     * @param faceUp The face up words
+     * @param matched The matched words
+     * @throws IllegalArgumentException If an array has the wrong length or a matched slot has no matched partner
+     */
+    public void restoreFlags(long[] faceUp, long[] matched) {
+        if (faceUp.length != faceUpWords.length || matched.length != matchedWords.length) {
+            throw new IllegalArgumentException("Expected " + faceUpWords.length + " flag words per bitset");
+        }
+        int faceUpSlots = 0;
+        int matchedSlots = 0;
+        long[] newFaceUp = new long[faceUp.length];
+        long[] newMatched = new long[matched.length];
+        for (int i = 0; i < faceUp.length; i++) {
+            newFaceUp[i] = faceUp[i] & validBits(i);
+            newMatched[i] = matched[i] & validBits(i);
+            faceUpSlots += Long.bitCount(newFaceUp[i]);
+            matchedSlots += Long.bitCount(newMatched[i]);
+        }
+        // Both slots of every matched pair key must be matched
+        long[] seen = new long[(totalPairs + 63) >>> 6];
+        for (int i = 0; i < newMatched.length; i++) {
+            for (long word = newMatched[i]; word != 0; word &= word - 1) {
+                int key = pairKeys[(i << 6) + Long.numberOfTrailingZeros(word)];
+                seen[key >>> 6] ^= 1L << key;
+            }
+        }
+        for (long word : seen) {
+            if (word != 0) {
+                throw new IllegalArgumentException("Matched slots do not form whole pairs");
+            }
+        }
+        System.arraycopy(newFaceUp, 0, faceUpWords, 0, faceUpWords.length);
+        System.arraycopy(newMatched, 0, matchedWords, 0, matchedWords.length);
+        faceUpCount = faceUpSlots;
+        matchedSlotCount = matchedSlots;
+        matchedPairsCount = matchedSlots / 2;
+    }
+
+    /**
+     * Calculates a hash of the layout: the pair key of every slot, in slot order
+     * @return The layout hash
+     */
+    public int layoutHash() {
+        return Arrays.hashCode(pairKeys);
+    }
+
+    /**
+     * Sets the listener notified about new matches
+     * @param matchListener The listener, or null to remove it
+     */
+    public void setMatchListener(MatchListener matchListener) {
+        this.matchListener = matchListener;
+    }
+
+    /**
+     * Checks if two slots hold matching pair keys and marks them matched if they do
+     * @param slot1 The first slot
+     * @param slot2 The second slot
+     * @return True if the pair keys are equal, false otherwise
+     */
+    public boolean checkMatch(int slot1, int slot2) {
+        boolean isMatch = pairKeys[slot1] == pairKeys[slot2];
+
+        if (isMatch && slot1 != slot2 && !isMatched(slot1) && !isMatched(slot2)) {
+            matchedWords[slot1 >>> 6] |= 1L << slot1;
+            matchedWords[slot2 >>> 6] |= 1L << slot2;
+            matchedSlotCount += 2;
+            matchedPairsCount++;
+            if (matchListener != null) {
+                matchListener.onPairMatched(slot1, slot2);
+            }
+        }
+
+        return isMatch;
+    }
+
+    /**
+     * Flips a slot, changing its face up status
+     * @param slot The slot to flip
+     * @return True if the slot is now face up
+     */
+    public boolean flip(int slot) {
+        boolean faceUp = !isFaceUp(slot);
+        setFaceUp(slot, faceUp);
+        return faceUp;
+    }
+
+    /**
+     * Sets the face up status of a slot
+     * @param slot The slot to update
+     * @param faceUp The new face up status
+     */
+    public void setFaceUp(int slot, boolean faceUp) {
+        Objects.checkIndex(slot, size);
+        long bit = 1L << slot;
+        long word = faceUpWords[slot >>> 6];
+        if (faceUp && (word & bit) == 0) {
+            faceUpWords[slot >>> 6] = word | bit;
+            faceUpCount++;
+        } else if (!faceUp && (word & bit) != 0) {
+            faceUpWords[slot >>> 6] = word & ~bit;
+            faceUpCount--;
+        }
+    }
+
+    /**
+     * Sets the matched flag of a single slot without touching the matched pair count;
+     * used when a card's matched status is changed directly rather than by a turn
+     * @param slot The slot to update
+     * @param matched The new matched status
+     */
+    public void setMatched(int slot, boolean matched) {
+        Objects.checkIndex(slot, size);
+        long bit = 1L << slot;
+        long word = matchedWords[slot >>> 6];
+        if (matched && (word & bit) == 0) {
+            matchedWords[slot >>> 6] = word | bit;
+            matchedSlotCount++;
+        } else if (!matched && (word & bit) != 0) {
+            matchedWords[slot >>> 6] = word & ~bit;
+            matchedSlotCount--;
+        }
+    }
+
+    /**
+     * Checks if a slot is face up
+     * @param slot The slot to check
+     * @return True if the slot is face up
+     */
+    public boolean isFaceUp(int slot) {
+        Objects.checkIndex(slot, size);
+        return (faceUpWords[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Checks if a slot has been matched
+     * @param slot The slot to check
+     * @return True if the slot has been matched
+     */
+    public boolean isMatched(int slot) {
+        Objects.checkIndex(slot, size);
+        return (matchedWords[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Gets the number of slots that have not been matched yet
+     * @return The number of unmatched slots
+     */
+    public int getUnmatchedCount() {
+        return size - matchedSlotCount;
+    }
+
+    /**
+     * Gets the number of face up slots
+     * @return The number of face up slots
+     */
+    public int getFaceUpCount() {
+        return faceUpCount;
+    }
+
+    /**
+     * Finds the first unmatched slot at or after a given slot
+     * @param fromSlot The slot to start searching from
+     * @return The next unmatched slot, or -1 if there is none
+     */
+    public int nextUnmatchedSlot(int fromSlot) {
+        return nextClearBit(matchedWords, fromSlot);
+    }
+
+    /**
+     * Finds the first face down slot at or after a given slot
+     * @param fromSlot The slot to start searching from
+     * @return The next face down slot, or -1 if there is none
+     */
+    public int nextFaceDownSlot(int fromSlot) {
+        return nextClearBit(faceUpWords, fromSlot);
+    }
+
+    /**
+     * Finds the first face up slot at or after a given slot
+     * @param fromSlot The slot to start searching from
+     * @return The next face up slot, or -1 if there is none
+     */
+    public int nextFaceUpSlot(int fromSlot) {
+        if (fromSlot < 0) {
+            throw new IndexOutOfBoundsException("Slot " + fromSlot);
+        }
+        if (fromSlot >= size) {
+            return -1;
+        }
+        int wordIndex = fromSlot >>> 6;
+        long word = faceUpWords[wordIndex] & (-1L << fromSlot);
+        while (word == 0) {
+            if (++wordIndex == faceUpWords.length) {
+                return -1;
+            }
+            word = faceUpWords[wordIndex];
+        }
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Calls an action for every face down slot, in slot order, one word of 64 slots at a time
+     * @param action The action receiving each face down slot
+     */
+    public void forEachFaceDownSlot(IntConsumer action) {
+        for (int wordIndex = 0; wordIndex < faceUpWords.length; wordIndex++) {
+            long word = ~faceUpWords[wordIndex] & validBits(wordIndex);
+            while (word != 0) {
+                action.accept((wordIndex << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Calls an action for every unmatched slot, in slot order, one word of 64 slots at a time
+     * @param action The action receiving each unmatched slot
+     */
+    public void forEachUnmatchedSlot(IntConsumer action) {
+        for (int wordIndex = 0; wordIndex < matchedWords.length; wordIndex++) {
+            long word = ~matchedWords[wordIndex] & validBits(wordIndex);
+            while (word != 0) {
+                action.accept((wordIndex << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Finds the first slot at or after a given slot whose bit is clear
+     * @param words The bitset to search
+     * @param fromSlot The slot to start searching from
+     * @return The slot, or -1 if all remaining bits are set
+     */
+    private int nextClearBit(long[] words, int fromSlot) {
+        if (fromSlot < 0) {
+            throw new IndexOutOfBoundsException("Slot " + fromSlot);
+        }
+        if (fromSlot >= size) {
+            return -1;
+        }
+        int wordIndex = fromSlot >>> 6;
+        long word = ~words[wordIndex] & (-1L << fromSlot);
+        while (word == 0) {
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+            word = ~words[wordIndex];
+        }
+        int slot = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+        return slot < size ? slot : -1;
+    }
+
+    /**
+     * Gets the mask of bits in a word that belong to real slots
+     * @param wordIndex The word index
+     * @return The mask; all ones except for the partial last word
+     */
+    private long validBits(int wordIndex) {
+        int remaining = size - (wordIndex << 6);
+        return remaining >= 64 ? -1L : (1L << remaining) - 1;
+    }
+
+    /**
+     * Gets the pair key stored in a slot
+     * @param slot The slot to read
+     * @return The pair key
+     */
+    public int pairKeyAt(int slot) {
+        Objects.checkIndex(slot, size);
+        return pairKeys[slot];
+    }
+
+    /**
+     * Converts a row and column into a slot number
+     * @param row The row index
+     * @param col The column index
+     * @return The slot number
+     * @throws IndexOutOfBoundsException If the position is outside the board
+     */
+    public int slotOf(int row, int col) {
+        Objects.checkIndex(row, rows);
+        Objects.checkIndex(col, cols);
+        return row * cols + col;
+    }
+
+    /**
+     * Checks if all pairs have been matched
+     * @return True if all pairs have been matched
+     */
+    public boolean allCardsMatched() {
+        return matchedPairsCount == totalPairs;
+    }
+
+    /**
+     * Gets the number of slots on the board
+     * @return The number of slots
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of rows
+     * @return The number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of columns
+     * @return The number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Gets the count of matched pairs
+     * @return The number of matched pairs
+     */
+    public int getMatchedPairsCount() {
+        return matchedPairsCount;
+    }
+
+    /**
+     * Sets the count of matched pairs
+     * @param matchedPairsCount The new count of matched pairs
+     */
+    public void setMatchedPairsCount(int matchedPairsCount) {
+        this.matchedPairsCount = matchedPairsCount;
+    }
+
+    /**
+     * Gets the total number of pairs on the board
+     * @return The total number of pairs
+     */
+    public int getTotalPairs() {
+        return totalPairs;
+    }
+}
@@ -0,0 +1,120 @@
+package main.cardgame.engine;
+
+/**
+ * Difficulty levels supported by the memory card game.
+ * Holds the board layout and countdown limit for each level so the
+ * headless engine and the UI agree on the same numbers.
+ */
+
+public enum Difficulty {
+    EASY("easy", 3, 4, 60),
+    MEDIUM("medium", 4, 5, 2 * 60),
+    HARD("hard", 5, 6, 3 * 60);
+
+    private final String level;
+    private final int rows;
+    private final int cols;
+    private final int timeLimitSeconds;
+
+    /**
+     * Creates a difficulty level
+     * @param level The level name used by the UI and the asset folders
+     * @param rows The number of rows on the board
+     * @param cols The number of columns on the board
+     * @param timeLimitSeconds The countdown limit for timed games in seconds
+     */
+    Difficulty(String level, int rows, int cols, int timeLimitSeconds) {
+        this.level = level;
+        this.rows = rows;
+        this.cols = cols;
+        this.timeLimitSeconds = timeLimitSeconds;
+    }
+
+    /**
+     * Resolves a difficulty from its level name
+     * @param level The difficulty level ("easy", "medium", or "hard")
+     * @return The matching difficulty
+     * @throws IllegalArgumentException If the level is not valid
+     */
+    public static Difficulty fromLevel(String level) {
+        if (level != null) {
+            for (Difficulty difficulty : values()) {
+                if (difficulty.level.equalsIgnoreCase(level)) {
+                    return difficulty;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Invalid level: " + level);
+    }
+
+    /**
+     * Resolves a difficulty from its board dimensions
+     * @param rows The number of rows
+     * @param cols The number of columns
+     * @return The matching difficulty
+     * @throws IllegalArgumentException If no level uses these dimensions
+     */
+    public static Difficulty fromDimensions(int rows, int cols) {
+        Difficulty difficulty = findByDimensions(rows, cols);
+        if (difficulty == null) {
+            throw new IllegalArgumentException("No level with a " + rows + "x" + cols + " board");
+        }
+        return difficulty;
+    }
+
+    /**
+     * Looks up a difficulty by its board dimensions, e.g. to tell level
+     * games from custom sized boards
+     * @param rows The number of rows
+     * @param cols The number of columns
+     * @return The matching difficulty, or null if no level uses these dimensions
+     */
+    public static Difficulty findByDimensions(int rows, int cols) {
+        for (Difficulty difficulty : values()) {
+            if (difficulty.rows == rows && difficulty.cols == cols) {
+                return difficulty;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the level name
+     * @return The level name ("easy", "medium", or "hard")
+     */
+    public String getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the number of rows on the board
+     * @return The number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of columns on the board
+     * @return The number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Gets the number of card pairs on the board
+     * @return The number of pairs
+     */
+    public int getPairs() {
+        return (rows * cols) / 2;
+    }
+
+    /**
+     * Gets the countdown limit used by timed games
+     * @return The time limit in seconds
+     */
+    public int getTimeLimitSeconds() {
+        return timeLimitSeconds;
+    }
+}
@@ -0,0 +1,81 @@
+package main.cardgame.engine;
+
+import main.cardgame.model.Timer;
+import main.cardgame.time.Clock;
+
+/**
+ * Headless rules for the endless game mode.
+ * No time limit; matches earn an efficiency bonus and finishing the game
+ * earns a bonus for using fewer moves.
+ */
+
+public class EndlessEngine extends GameEngine {
+    /**
+     * Creates a new endless engine
+     * @param board The board state
+     */
+    public EndlessEngine(BoardState board) {
+        this(board, Clock.system());
+    }
+
+    /**
+     * Creates a new endless engine whose elapsed time runs on the given clock
+     * @param board The board state
+     * @param clock The clock the timer reads time from
+     */
+    public EndlessEngine(BoardState board, Clock clock) {
+        this(board, clock, ScoringRules.DEFAULT);
+    }
+
+    /**
+     * Creates a new endless engine with custom scoring rules
+     * @param board The board state
+     * @param clock The clock the timer reads time from
+     * @param rules The scoring rules
+     */
+    public EndlessEngine(BoardState board, Clock clock, ScoringRules rules) {
+        super(board, new Timer(clock), rules);
+    }
+
+    /**
+     * Determines if the game is over based on:
+     * 1. Game is no longer active
+     * 2. All cards are matched
+     * @return True if the game is over, false otherwise
+     */
+    @Override
+    public boolean isGameOver() {
+        return !isActive() || getBoard().allCardsMatched();
+    }
+
+    /**
+     * Ends the game and applies move efficiency bonus points.
+     * Fewer moves result in a higher bonus.
+     */
+    @Override
+    public void endGame() {
+        if (isActive()) {
+            addScore(getRules().finishBonus(getMoves()));
+        }
+        super.endGame();
+    }
+
+    /**
+     * Processes a turn and adds efficiency-based bonus points for matches
+     * (more points for fewer moves)
+     * @param slot1 The first selected slot
+     * @param slot2 The second selected slot
+     * @return True if the slots match, false otherwise
+     */
+    @Override
+    protected boolean applyTurn(int slot1, int slot2) {
+        boolean result = super.applyTurn(slot1, slot2);
+
+        if (result) {
+            // Base bonus plus efficiency bonus (fewer moves = higher bonus)
+            addScore(getRules().efficiencyBonus(getMoves(), getBoard().getMatchedPairsCount()));
+        }
+
+        return result;
+    }
+}
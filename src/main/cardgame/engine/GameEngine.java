@@ -0,0 +1,296 @@
+package main.cardgame.engine;
+
+import main.cardgame.model.Timer;
+
+/**
+ * Headless rules engine shared by all game modes.
+ * Works directly on a primitive {@link BoardState} and keeps score and moves
+ * as plain ints, so turns can run server-side or in simulations without
+ * JavaFX or observer dispatch. The JavaFX game classes adapt this engine.
+ * An optional {@link TurnRecorder} sees every turn once its score is final,
+ * and an optional {@link SeenCardIndex} tracks the revealed cards for hints.
+ */
+
+public abstract class GameEngine {
+    /** Basic score for a match */
+    public static final int MATCH_POINTS = 10;
+
+    private final BoardState board;
+    private final Timer timer;
+    private final ScoringRules rules;
+    private int score;
+    private int moves;
+    private boolean isActive;
+    private boolean isPaused;
+    private TurnRecorder turnRecorder;
+    private SeenCardIndex seenCards;
+
+    /**
+     * Creates a new engine for the given board and timer with the default scoring rules
+     * @param board The board state
+     * @param timer The timer (countdown or elapsed)
+     */
+    protected GameEngine(BoardState board, Timer timer) {
+        this(board, timer, ScoringRules.DEFAULT);
+    }
+
+    /**
+     * Creates a new engine for the given board, timer and scoring rules
+     * @param board The board state
+     * @param timer The timer (countdown or elapsed)
+     * @param rules The scoring rules
+     */
+    protected GameEngine(BoardState board, Timer timer, ScoringRules rules) {
+        this.board = board;
+        this.timer = timer;
+        this.rules = rules;
+        this.isActive = false;
+        this.isPaused = false;
+    }
+
+    /**
+     * Starts the game
+     */
+    public void play() {
+        this.isActive = true;
+        this.isPaused = false;
+        this.timer.startTimer();
+    }
+
+    /**
+     * Continues a saved game: restores its score and moves and starts the
+     * timer as if the saved time had already passed. The board state must
+     * already hold the saved flags.
+     * @param score The saved score
+     * @param moves The saved number of moves
+     * @param elapsedMillis The saved game time in milliseconds
+     * @throws IllegalArgumentException If a value is negative
+     */
+    public void resumeFrom(int score, int moves, long elapsedMillis) {
+        if (score < 0 || moves < 0) {
+            throw new IllegalArgumentException("Invalid saved game: score " + score + ", moves " + moves);
+        }
+        this.score = score;
+        this.moves = moves;
+        this.isActive = true;
+        this.isPaused = false;
+        this.timer.startTimer(elapsedMillis);
+    }
+
+    /**
+     * Pauses the game and the timer
+     */
+    public void pause() {
+        if (isActive && !isPaused) {
+            this.isPaused = true;
+            this.timer.pauseTimer();
+        }
+    }
+
+    /**
+     * Resumes the game after being paused
+     */
+    public void resume() {
+        if (isActive && isPaused) {
+            this.isPaused = false;
+            this.timer.resumeTimer();
+        }
+    }
+
+    /**
+     * Ends the current game
+     */
+    public void endGame() {
+        if (!isActive) return;
+
+        this.isActive = false;
+        this.timer.stopTimer();
+    }
+
+    /**
+     * Processes a turn when two slots are selected and hands it to the turn recorder
+     * @param slot1 The first selected slot
+     * @param slot2 The second selected slot
+     * @return True if the slots match, false otherwise
+     */
+    public final boolean processTurn(int slot1, int slot2) {
+        if (!isActive) {
+            return false;
+        }
+
+        int scoreBefore = score;
+        boolean isMatch = applyTurn(slot1, slot2);
+        TurnRecorder recorder = turnRecorder;
+        if (recorder != null) {
+            recorder.recordTurn(slot1, slot2, isMatch, score - scoreBefore, timer.getClock().nanoTime());
+        }
+        return isMatch;
+    }
+
+    /**
+     * Applies the rules of a turn on an active game; modes override this to add bonuses
+     * @param slot1 The first selected slot
+     * @param slot2 The second selected slot
+     * @return True if the slots match, false otherwise
+     */
+    protected boolean applyTurn(int slot1, int slot2) {
+        moves++;
+
+        SeenCardIndex index = seenCards;
+        if (index != null) {
+            index.reveal(slot1);
+            index.reveal(slot2);
+        }
+        boolean isMatch = board.checkMatch(slot1, slot2);
+        if (isMatch) {
+            score += rules.matchPoints();
+            if (index != null && slot1 != slot2) {
+                index.pairMatched(slot1, slot2);
+            }
+        }
+
+        if (isGameOver()) {
+            endGame();
+        }
+
+        return isMatch;
+    }
+
+    /**
+     * Determines if the game is over based on mode-specific rules
+     * @return True if the game is over, false otherwise
+     */
+    public abstract boolean isGameOver();
+
+    /**
+     * Adds bonus points to the score
+     * @param points The number of points to add, ignored unless positive
+     */
+    protected void addScore(int points) {
+        if (points > 0) {
+            score += points;
+        }
+    }
+
+    /**
+     * Gets the time spent in the game, consistent across timer types
+     * @return The duration in milliseconds
+     */
+    public long getDuration() {
+        if (timer.isCountdown()) {
+            return timer.getMaxTime() - timer.getRemainingTime();
+        }
+        return timer.getElapsedTime();
+    }
+
+    /**
+     * Checks if the game is currently active
+     * @return True if the game is active, false otherwise
+     */
+    public boolean isActive() {
+        return isActive;
+    }
+
+    /**
+     * Checks if the game is currently paused
+     * @return True if the game is paused
+     */
+    public boolean isPaused() {
+        return isPaused;
+    }
+
+    /**
+     * Sets the recorder that receives every turn
+     * @param turnRecorder The recorder, or null to stop recording
+     */
+    public void setTurnRecorder(TurnRecorder turnRecorder) {
+        this.turnRecorder = turnRecorder;
+    }
+
+    /**
+     * Starts indexing the revealed cards, so hints and known card counts are
+     * available. Cards revealed before this call are not indexed.
+     * @return The index, created on the first call
+     */
+    public SeenCardIndex trackSeenCards() {
+        if (seenCards == null) {
+            seenCards = new SeenCardIndex(board);
+        }
+        return seenCards;
+    }
+
+    /**
+     * Records that a slot was turned face up outside of a finished turn,
+     * e.g. the first card of a turn in progress
+     * @param slot The revealed slot
+     */
+    public void reveal(int slot) {
+        if (seenCards != null) {
+            seenCards.reveal(slot);
+        }
+    }
+
+    /**
+     * Gets the index of revealed cards
+     * @return The index, or null if {@link #trackSeenCards()} has not been called
+     */
+    public SeenCardIndex getSeenCards() {
+        return seenCards;
+    }
+
+    /**
+     * Gets the recorder that receives every turn
+     * @return The recorder, or null if none is set
+     */
+    public TurnRecorder getTurnRecorder() {
+        return turnRecorder;
+    }
+
+    /**
+     * Gets the board state
+     * @return The board state
+     */
+    public BoardState getBoard() {
+        return board;
+    }
+
+    /**
+     * Gets the scoring rules
+     * @return The scoring rules
+     */
+    public ScoringRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Gets the timer
+     * @return The timer
+     */
+    public Timer getTimer() {
+        return timer;
+    }
+
+    /**
+     * Gets the current score
+     * @return The score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the number of moves made
+     * @return The number of moves
+     */
+    public int getMoves() {
+        return moves;
+    }
+
+    /**
+     * Gets the number of matches found
+     * @return The number of matched pairs
+     */
+    public int getMatches() {
+        return board.getMatchedPairsCount();
+    }
+}
@@ -0,0 +1,75 @@
+package main.cardgame.engine;
+
+/**
+ * Tunable parameters of the scoring formulas of both game modes.
+ * The engines compute every bonus through these methods, so the balance
+ * simulator runs the exact rules of the game and a rule change is tried
+ * by creating another instance instead of editing the engines.
+ * @param matchPoints Points for every match
+ * @param timePressureMax Timed mode: match bonus when no time is left
+ * @param timePressureMin Timed mode: smallest match bonus
+ * @param timeBonusDivisor Timed mode: the finish bonus is the remaining seconds divided by this
+ * @param efficiencyBase Endless mode: fixed part of the match bonus
+ * @param efficiencyMax Endless mode: efficiency part of the match bonus before moves are taken off
+ * @param efficiencyMin Endless mode: smallest efficiency part of the match bonus
+ * @param finishBonus Endless mode: finish bonus before one point per move is taken off
+ */
+public record ScoringRules(int matchPoints, int timePressureMax, int timePressureMin, int timeBonusDivisor,
+                           int efficiencyBase, int efficiencyMax, int efficiencyMin, int finishBonus) {
+    /** The rules the game ships with */
+    public static final ScoringRules DEFAULT = new ScoringRules(GameEngine.MATCH_POINTS, 8, 2, 2, 5, 10, 1, 100);
+
+    /**
+     * Validates the parameters
+     * @throws IllegalArgumentException If a parameter is negative or the time bonus divisor is not positive
+     */
+    public ScoringRules {
+        if (matchPoints < 0 || timePressureMax < 0 || timePressureMin < 0 || efficiencyBase < 0
+                || efficiencyMax < 0 || efficiencyMin < 0 || finishBonus < 0) {
+            throw new IllegalArgumentException("Scoring parameters cannot be negative");
+        }
+        if (timeBonusDivisor <= 0) {
+            throw new IllegalArgumentException("Time bonus divisor must be positive: " + timeBonusDivisor);
+        }
+    }
+
+    /**
+     * Calculates the timed mode match bonus: higher when less time remains
+     * @param remainingMillis The time left on the countdown
+     * @param maxMillis The time limit
+     * @return The bonus points
+     */
+    public int timePressureBonus(long remainingMillis, long maxMillis) {
+        double timeRatio = (double) remainingMillis / maxMillis;
+        return Math.max((int) (timePressureMax * (1 - timeRatio)), timePressureMin);
+    }
+
+    /**
+     * Calculates the timed mode bonus for finishing before the countdown ends
+     * @param remainingMillis The time left on the countdown
+     * @return The bonus points
+     */
+    public int timeBonus(long remainingMillis) {
+        int remainingSeconds = (int) (remainingMillis / 1000);
+        return remainingSeconds / timeBonusDivisor;
+    }
+
+    /**
+     * Calculates the endless mode match bonus: higher for fewer moves per match
+     * @param moves The moves made so far, including this one
+     * @param matchedPairs The pairs matched so far, including this one
+     * @return The bonus points
+     */
+    public int efficiencyBonus(int moves, int matchedPairs) {
+        return efficiencyBase + Math.max(efficiencyMax - (moves / (matchedPairs + 1)), efficiencyMin);
+    }
+
+    /**
+     * Calculates the endless mode bonus for finishing the game
+     * @param moves The moves of the game
+     * @return The bonus points
+     */
+    public int finishBonus(int moves) {
+        return Math.max(finishBonus - moves, 0);
+    }
+}
@@ -0,0 +1,131 @@
+package main.cardgame.engine;
+
+import java.util.Arrays;
+
+/**
+ * Index from pair key to the slots that have been revealed so far.
+ * Every reveal and every match updates it in O(1), independent of the
+ * board size: each key has room for its two slots, and keys whose two
+ * slots are both known and unmatched are kept in a dense set with a
+ * position table, so a hint is answered without scanning the board.
+ * Uses four ints per pair, allocated when the index is created.
+ */
+
+public final class SeenCardIndex {
+    private final BoardState board;
+    /** Revealed slots per pair key: slots 2 * key and 2 * key + 1, -1 if not seen */
+    private final int[] seenSlots;
+    /** Keys with both slots seen and unmatched, densely packed */
+    private final int[] knownKeys;
+    /** Index of every key in {@link #knownKeys}, or -1 if absent */
+    private final int[] knownPositions;
+    private int knownPairCount;
+    private int knownUnmatchedCount;
+
+    /**
+     * Creates an empty index for a board
+     * @param board The board whose reveals are indexed
+     */
+    public SeenCardIndex(BoardState board) {
+        this.board = board;
+        int pairs = board.getTotalPairs();
+        this.seenSlots = new int[2 * pairs];
+        this.knownKeys = new int[pairs];
+        this.knownPositions = new int[pairs];
+        clear();
+    }
+
+    /**
+     * Forgets every reveal
+     */
+    public void clear() {
+        Arrays.fill(seenSlots, -1);
+        Arrays.fill(knownPositions, -1);
+        knownPairCount = 0;
+        knownUnmatchedCount = 0;
+    }
+
+    /**
+     * Records that a slot was turned face up; matched and already seen slots are ignored
+     * @param slot The revealed slot
+     */
+    public void reveal(int slot) {
+        if (board.isMatched(slot)) {
+            return;
+        }
+        int key = board.pairKeyAt(slot);
+        int first = 2 * key;
+        if (seenSlots[first] == slot || seenSlots[first + 1] == slot) {
+            return;
+        }
+        if (seenSlots[first] < 0) {
+            seenSlots[first] = slot;
+        } else {
+            seenSlots[first + 1] = slot;
+            knownPositions[key] = knownPairCount;
+            knownKeys[knownPairCount++] = key;
+        }
+        knownUnmatchedCount++;
+    }
+
+    /**
+     * Records that a pair was matched, removing its slots from the index
+     * @param slot1 The first slot of the pair
+     * @param slot2 The second slot of the pair
+     */
+    public void pairMatched(int slot1, int slot2) {
+        int key = board.pairKeyAt(slot1);
+        int first = 2 * key;
+        for (int i = first; i < first + 2; i++) {
+            if (seenSlots[i] >= 0) {
+                seenSlots[i] = -1;
+                knownUnmatchedCount--;
+            }
+        }
+        int position = knownPositions[key];
+        if (position >= 0) {
+            int last = knownKeys[--knownPairCount];
+            knownKeys[position] = last;
+            knownPositions[last] = position;
+            knownPositions[key] = -1;
+        }
+    }
+
+    /**
+     * Finds a slot of a pair whose two cards have both been seen and are unmatched
+     * @return The slot, or -1 if no such pair is known; its partner is {@link #knownPartner(int)}
+     */
+    public int hintSlot() {
+        return knownPairCount == 0 ? -1 : seenSlots[2 * knownKeys[knownPairCount - 1]];
+    }
+
+    /**
+     * Finds the seen, unmatched partner of a slot
+     * @param slot The slot
+     * @return The other slot with the same pair key, or -1 if it has not been seen or is matched
+     */
+    public int knownPartner(int slot) {
+        if (board.isMatched(slot)) {
+            return -1;
+        }
+        int first = 2 * board.pairKeyAt(slot);
+        int partner = seenSlots[first] == slot ? seenSlots[first + 1] : seenSlots[first];
+        return partner == slot ? -1 : partner;
+    }
+
+    /**
+     * Gets the number of pairs whose two cards have both been seen but not matched
+     * @return The number of known pairs
+     */
+    public int getKnownPairCount() {
+        return knownPairCount;
+    }
+
+    /**
+     * Gets the number of cards that have been seen and are still unmatched
+     * @return The number of known unmatched cards
+     */
+    public int getKnownUnmatchedCount() {
+        return knownUnmatchedCount;
+    }
+}
@@ -0,0 +1,92 @@
+package main.cardgame.engine;
+
+import main.cardgame.model.Timer;
+import main.cardgame.time.Clock;
+
+/**
+ * Headless rules for the timed game mode.
+ * Players must find all matches before the countdown runs out; matches
+ * earn a time-pressure bonus and finishing early earns a time bonus.
+ */
+
+public class TimedEngine extends GameEngine {
+    /**
+     * Creates a new timed engine with the specified countdown
+     * @param board The board state
+     * @param countdownSeconds The time limit in seconds
+     */
+    public TimedEngine(BoardState board, int countdownSeconds) {
+        this(board, countdownSeconds, Clock.system());
+    }
+
+    /**
+     * Creates a new timed engine whose countdown runs on the given clock
+     * @param board The board state
+     * @param countdownSeconds The time limit in seconds
+     * @param clock The clock the countdown reads time from
+     */
+    public TimedEngine(BoardState board, int countdownSeconds, Clock clock) {
+        this(board, countdownSeconds, clock, ScoringRules.DEFAULT);
+    }
+
+    /**
+     * Creates a new timed engine with custom scoring rules
+     * @param board The board state
+     * @param countdownSeconds The time limit in seconds
+     * @param clock The clock the countdown reads time from
+     * @param rules The scoring rules
+     */
+    public TimedEngine(BoardState board, int countdownSeconds, Clock clock, ScoringRules rules) {
+        super(board, new Timer(countdownSeconds, clock), rules);
+    }
+
+    /**
+     * Determines if the game is over based on:
+     * 1. Game is no longer active
+     * 2. All cards are matched
+     * 3. Time has run out
+     * @return True if the game is over, false otherwise
+     */
+    @Override
+    public boolean isGameOver() {
+        return !isActive() || getBoard().allCardsMatched() || getTimer().isTimeUp();
+    }
+
+    /**
+     * Ends the game and applies time-based bonus points if the game
+     * is won before the timer runs out
+     */
+    @Override
+    public void endGame() {
+        // Only apply time bonus if the game is still active and not timed out
+        if (isActive() && !getTimer().isTimeUp()) {
+            addScore(getRules().timeBonus(getTimer().getRemainingTime()));
+        }
+
+        // Always stop the timer
+        getTimer().stopTimer();
+
+        if (isActive()) {
+            super.endGame();
+        }
+    }
+
+    /**
+     * Processes a turn and adds time-pressure bonus points for matches
+     * (more points when less time remains)
+     * @param slot1 The first selected slot
+     * @param slot2 The second selected slot
+     * @return True if the slots match, false otherwise
+     */
+    @Override
+    protected boolean applyTurn(int slot1, int slot2) {
+        boolean result = super.applyTurn(slot1, slot2);
+
+        if (result) {
+            // Time pressure bonus: higher points when less time remains
+            addScore(getRules().timePressureBonus(getTimer().getRemainingTime(), getTimer().getMaxTime()));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,19 @@
+package main.cardgame.engine;
+
+/**
+ * Receives every turn a {@link GameEngine} plays, after its score has been
+ * updated. Called on the thread playing the turn with primitive arguments
+ * only, so recording can stay allocation-free.
+ */
+@FunctionalInterface
+public interface TurnRecorder {
+    /**
+     * Records a turn
+     * @param slot1 The first slot turned over
+     * @param slot2 The second slot turned over
+     * @param match True if the slots matched
+     * @param scoreDelta Points the turn added, including any end of game bonus
+     * @param timestampNanos Time of the turn on the engine's clock
+     */
+    void recordTurn(int slot1, int slot2, boolean match, int scoreDelta, long timestampNanos);
+}
@@ -0,0 +1,126 @@
+package main.cardgame.event;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A set of events delivered to a listener in one call.
+ * Holds at most one source per event type (the latest one), so a burst
+ * such as MOVES_MADE followed by SCORE_INCREASED arrives as one delivery.
+ * Batches are reused by the bus: listeners must copy anything they need
+ * before returning, e.g. before handing work to another thread.
+ */
+
+public final class EventBatch {
+    private static final GameEvent[] TYPES = GameEvent.values();
+
+    private long mask;
+    private int eventCount;
+    private Object lastSource;
+    private final Object[] sources = new Object[TYPES.length];
+
+    /**
+     * Creates an empty batch
+     */
+    EventBatch() {
+    }
+
+    /**
+     * Adds an event to the batch, replacing the source of an earlier event of the same type
+     * @param type The event type
+     * @param source The object that published the event
+     */
+    void add(GameEvent type, Object source) {
+        mask |= type.bit();
+        sources[type.ordinal()] = source;
+        lastSource = source;
+        eventCount++;
+    }
+
+    /**
+     * Removes all events from the batch
+     */
+    void clear() {
+        long remaining = mask;
+        while (remaining != 0) {
+            sources[Long.numberOfTrailingZeros(remaining)] = null;
+            remaining &= remaining - 1;
+        }
+        mask = 0;
+        eventCount = 0;
+        lastSource = null;
+    }
+
+    /**
+     * Checks if the batch contains an event of the given type
+     * @param type The event type
+     * @return True if the batch contains the type
+     */
+    public boolean contains(GameEvent type) {
+        return (mask & type.bit()) != 0;
+    }
+
+    /**
+     * Checks if the batch contains any event of the given topic
+     * @param topic The topic
+     * @return True if at least one event of the topic is present
+     */
+    public boolean containsTopic(GameEvent.Topic topic) {
+        long remaining = mask;
+        while (remaining != 0) {
+            if (TYPES[Long.numberOfTrailingZeros(remaining)].getTopic() == topic) {
+                return true;
+            }
+            remaining &= remaining - 1;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the source of the latest event of the given type
+     * @param type The event type
+     * @return The source object, or null if the type is not in the batch
+     */
+    public Object getSource(GameEvent type) {
+        return sources[type.ordinal()];
+    }
+
+    /**
+     * Gets the source of the most recently added event, which for a
+     * non-coalescing delivery is the source of the only event
+     * @return The source object, or null if the batch is empty
+     */
+    public Object getLastSource() {
+        return lastSource;
+    }
+
+    /**
+     * Gets the number of events published into this batch, including coalesced duplicates
+     * @return The number of events
+     */
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Checks if the batch is empty
+     * @return True if no events are present
+     */
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    /**
+     * Copies the event types of this batch into a new set
+     * @return The event types present in the batch
+     */
+    public Set<GameEvent> types() {
+        EnumSet<GameEvent> types = EnumSet.noneOf(GameEvent.class);
+        long remaining = mask;
+        while (remaining != 0) {
+            types.add(TYPES[Long.numberOfTrailingZeros(remaining)]);
+            remaining &= remaining - 1;
+        }
+        return types;
+    }
+}
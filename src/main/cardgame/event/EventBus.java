@@ -0,0 +1,223 @@
+package main.cardgame.event;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Typed event bus connecting the game model to its listeners.
+ * Each subscription carries an event filter, checked with a single mask
+ * test, and can optionally coalesce: while a batch is open (see
+ * {@link #beginBatch()}), its events are collected and delivered in one
+ * call when the outermost batch closes.
+ * Dispatch reuses per-subscription {@link EventBatch} objects, so the
+ * steady state allocates nothing; the counters in {@link #getMetrics()}
+ * show the actual cost.
+ * A bus is meant to be confined to the thread that drives one game.
+ */
+
+public class EventBus {
+    private Subscription[] subscriptions = new Subscription[0];
+    private int batchDepth;
+
+    private long published;
+    private long delivered;
+    private long coalesced;
+    private long filtered;
+    private long batchAllocations;
+    private long batches;
+
+    /**
+     * A listener registered on the bus together with its filter
+     */
+    public final class Subscription {
+        private final EventListener listener;
+        private final long mask;
+        private final boolean coalescing;
+        private final EventBatch batch;
+        private boolean delivering;
+
+        /**
+         * Creates a subscription
+         * @param listener The listener to deliver to
+         * @param mask The event mask built from the filter
+         * @param coalescing Whether events in a batch are delivered together
+         */
+        private Subscription(EventListener listener, long mask, boolean coalescing) {
+            this.listener = listener;
+            this.mask = mask;
+            this.coalescing = coalescing;
+            this.batch = newBatch();
+        }
+
+        /**
+         * Checks if this subscription coalesces batched events
+         * @return True if events are coalesced
+         */
+        public boolean isCoalescing() {
+            return coalescing;
+        }
+
+        /**
+         * Removes this subscription from the bus
+         */
+        public void cancel() {
+            unsubscribe(this);
+        }
+    }
+
+    /**
+     * Subscribes a listener that receives every matching event immediately
+     * @param listener The listener
+     * @param filter The event types to receive
+     * @return The subscription
+     */
+    public Subscription subscribe(EventListener listener, Set<GameEvent> filter) {
+        return subscribe(listener, filter, false);
+    }
+
+    /**
+     * Subscribes a listener
+     * @param listener The listener
+     * @param filter The event types to receive
+     * @param coalesce True to receive all events of a batch in one delivery
+     * @return The subscription
+     * @throws IllegalArgumentException If the listener or filter is null
+     */
+    public Subscription subscribe(EventListener listener, Set<GameEvent> filter, boolean coalesce) {
+        if (listener == null || filter == null) {
+            throw new IllegalArgumentException("Listener and filter cannot be null");
+        }
+        long mask = 0;
+        for (GameEvent type : filter) {
+            mask |= type.bit();
+        }
+        Subscription subscription = new Subscription(listener, mask, coalesce);
+        Subscription[] updated = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        updated[updated.length - 1] = subscription;
+        subscriptions = updated;
+        return subscription;
+    }
+
+    /**
+     * Removes a subscription from the bus
+     * @param subscription The subscription to remove
+     */
+    public void unsubscribe(Subscription subscription) {
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                Subscription[] updated = new Subscription[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                subscriptions = updated;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Publishes an event to all subscriptions whose filter accepts it
+     * @param type The event type
+     * @param source The object that published the event
+     */
+    public void publish(GameEvent type, Object source) {
+        published++;
+        long bit = type.bit();
+        for (Subscription subscription : subscriptions) {
+            if ((subscription.mask & bit) == 0) {
+                filtered++;
+            } else if (subscription.coalescing && batchDepth > 0 && !subscription.delivering) {
+                if (!subscription.batch.isEmpty()) {
+                    coalesced++;
+                }
+                subscription.batch.add(type, source);
+            } else {
+                // A listener publishing into its own subscription needs a fresh batch
+                EventBatch batch = subscription.delivering ? newBatch() : subscription.batch;
+                batch.add(type, source);
+                deliver(subscription, batch);
+            }
+        }
+    }
+
+    /**
+     * Opens a batch; coalescing subscriptions collect events until the outermost batch closes.
+     * Batches nest, so a turn can open one around calls that open their own.
+     */
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * Closes a batch and, if it was the outermost one, flushes coalesced events
+     * @throws IllegalStateException If no batch is open
+     */
+    public void endBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("No batch is open");
+        }
+        if (--batchDepth > 0) {
+            return;
+        }
+        batches++;
+        for (Subscription subscription : subscriptions) {
+            if (subscription.coalescing && !subscription.batch.isEmpty()) {
+                deliver(subscription, subscription.batch);
+            }
+        }
+    }
+
+    /**
+     * Invokes a subscription's listener and clears the delivered batch
+     * @param subscription The subscription to deliver to
+     * @param batch The events to deliver
+     */
+    private void deliver(Subscription subscription, EventBatch batch) {
+        boolean wasDelivering = subscription.delivering;
+        subscription.delivering = true;
+        try {
+            delivered++;
+            subscription.listener.onEvents(batch);
+        } finally {
+            subscription.delivering = wasDelivering;
+            batch.clear();
+        }
+    }
+
+    /**
+     * Allocates an event batch and counts the allocation
+     * @return A new empty batch
+     */
+    private EventBatch newBatch() {
+        batchAllocations++;
+        return new EventBatch();
+    }
+
+    /**
+     * Gets the number of registered subscriptions
+     * @return The number of subscriptions
+     */
+    public int getSubscriptionCount() {
+        return subscriptions.length;
+    }
+
+    /**
+     * Takes a snapshot of the bus counters
+     * @return The current metrics
+     */
+    public EventBusMetrics getMetrics() {
+        return new EventBusMetrics(published, delivered, coalesced, filtered, batchAllocations, batches);
+    }
+
+    /**
+     * Resets all counters to zero
+     */
+    public void resetMetrics() {
+        published = 0;
+        delivered = 0;
+        coalesced = 0;
+        filtered = 0;
+        batchAllocations = 0;
+        batches = 0;
+    }
+}
@@ -0,0 +1,29 @@
+package main.cardgame.event;
+
+/**
+ * Snapshot of the dispatch and allocation counters of an {@link EventBus}.
+ * @param published Events published to the bus
+ * @param delivered Listener invocations
+ * @param coalesced Events merged into a pending delivery instead of causing their own
+ * @param filtered Event/subscription pairs skipped by subscription filters
+ * @param batchAllocations Event batch objects allocated, including per-subscription batches
+ * @param batches Outermost batches (usually one per turn) that were closed
+ */
+public record EventBusMetrics(long published, long delivered, long coalesced, long filtered,
+                              long batchAllocations, long batches) {
+    /**
+     * Calculates the average number of listener invocations per batch
+     * @return Deliveries per batch, or 0 if no batch has been closed
+     */
+    public double deliveriesPerBatch() {
+        return batches == 0 ? 0 : (double) delivered / batches;
+    }
+
+    /**
+     * Calculates the average number of published events per batch
+     * @return Events per batch, or 0 if no batch has been closed
+     */
+    public double eventsPerBatch() {
+        return batches == 0 ? 0 : (double) published / batches;
+    }
+}
@@ -0,0 +1,16 @@
+package main.cardgame.event;
+
+/**
+ * Receives events from an {@link EventBus}.
+ * Non-coalescing subscriptions get one event per call; coalescing
+ * subscriptions get every event of a batch in a single call.
+ */
+
+@FunctionalInterface
+public interface EventListener {
+    /**
+     * Handles delivered events
+     * @param events The delivered events; only valid for the duration of the call
+     */
+    void onEvents(EventBatch events);
+}
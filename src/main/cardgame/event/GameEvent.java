@@ -0,0 +1,107 @@
+package main.cardgame.event;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Typed events published by the game model.
+ * Replaces the string arguments previously passed to notifyObservers,
+ * grouped by the kind of object that publishes them.
+ */
+
+public enum GameEvent {
+    // Card events
+    CARD_FLIPPED(Topic.CARD),
+    MATCHED_STATUS_CHANGED(Topic.CARD),
+    ID_CHANGED(Topic.CARD),
+    CARD_RESET(Topic.CARD),
+
+    // Player events
+    NAME_CHANGED(Topic.PLAYER),
+    SCORE_CHANGED(Topic.PLAYER),
+    SCORE_INCREASED(Topic.PLAYER),
+    MOVES_CHANGED(Topic.PLAYER),
+    MOVES_MADE(Topic.PLAYER),
+    PLAYER_RESET(Topic.PLAYER),
+
+    // Board events
+    MATCH_FOUND(Topic.BOARD),
+    BOARD_INITIALIZED(Topic.BOARD),
+    ROWS_CHANGED(Topic.BOARD),
+    COLS_CHANGED(Topic.BOARD),
+    MATCHED_PAIRS_CHANGED(Topic.BOARD),
+
+    // Deck events
+    DECK_SHUFFLED(Topic.DECK),
+    CARD_ADDED(Topic.DECK),
+    DECK_BUILT(Topic.DECK),
+
+    // Timer events
+    TIMER_STARTED(Topic.TIMER),
+    TIMER_PAUSED(Topic.TIMER),
+    TIMER_RESUMED(Topic.TIMER),
+    TIMER_STOPPED(Topic.TIMER),
+    TIME_LIMIT_CHANGED(Topic.TIMER),
+    TIMER_RESET(Topic.TIMER),
+
+    // Game events
+    GAME_STARTED(Topic.GAME),
+    GAME_PAUSED(Topic.GAME),
+    GAME_RESUMED(Topic.GAME),
+    GAME_OVER(Topic.GAME);
+
+    /**
+     * The kind of model object an event comes from
+     */
+    public enum Topic {
+        CARD,
+        PLAYER,
+        BOARD,
+        DECK,
+        TIMER,
+        GAME
+    }
+
+    private final Topic topic;
+
+    /**
+     * Creates an event type
+     * @param topic The topic the event belongs to
+     */
+    GameEvent(Topic topic) {
+        this.topic = topic;
+    }
+
+    /**
+     * Gets the topic this event belongs to
+     * @return The topic
+     */
+    public Topic getTopic() {
+        return topic;
+    }
+
+    /**
+     * Gets the bit representing this event in an event mask
+     * @return The event bit
+     */
+    long bit() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Collects all events of the given topics, for use as a subscription filter
+     * @param topics The topics to include
+     * @return The set of events belonging to the topics
+     */
+    public static Set<GameEvent> ofTopics(Topic... topics) {
+        EnumSet<GameEvent> events = EnumSet.noneOf(GameEvent.class);
+        for (GameEvent event : values()) {
+            for (Topic topic : topics) {
+                if (event.topic == topic) {
+                    events.add(event);
+                }
+            }
+        }
+        return events;
+    }
+}
@@ -1,13 +1,15 @@
 package main.cardgame.game;
 
+import main.cardgame.engine.EndlessEngine;
 import main.cardgame.model.GameBoard;
 import main.cardgame.model.Player;
-import main.cardgame.model.Card;
+import main.cardgame.time.Clock;
 
 /**
  * Implementation of an endless game mode without time constraints.
  * Players can take as much time as needed to find all matches.
- * Includes efficiency-based bonus points for completing with fewer moves.
+ * Includes efficiency-based bonus points for completing with fewer moves,
+ * implemented by the headless {@link EndlessEngine}.
  */
 
 public class EndlessGame extends Game {
@@ -17,77 +19,17 @@ public class EndlessGame extends Game {
      * @param player The player
      */
     public EndlessGame(GameBoard board, Player player) {
-        super(board, player); // Pass GameBoard and Player to the Game constructor
+        this(board, player, Clock.system());
     }
 
     /**
-     * Determines if the game is over based on:
-     * 1. Game is no longer active
-     * 2. All cards are matched
-     * @return True if the game is over, false otherwise
-     */
-    @Override
-    public boolean isGameOver() {
-        return !isActive() || getBoard().allCardsMatched(); // Game ends if stopped by the player or all cards are matched
-    }
-
-    /**
-     * Ends the game and applies move efficiency bonus points.
-     * Fewer moves result in a higher bonus.
-     */
-    @Override
-    public void endGame() {
-        // Only calculate and add bonus if the game is still active
-        if (isActive()) {
-            // Calculate bonus before calling super.endGame() which sets isActive to false
-            int timeElapsed = (int) getTimer().getElapsedTime() / 1000;
-            int movesBonus = Math.max(100 - getPlayer().getMoves(), 0);
-
-            // Apply the bonus BEFORE calling super.endGame()
-            getPlayer().incrementScore(movesBonus);
-
-            // Notify observers about bonus points
-            setChanged();
-            notifyObservers("BONUS_POINTS_ADDED");
-        }
-
-        // Call parent method which handles notifications and state changes
-        super.endGame();
-    }
-
-    /**
-     * Processes a turn when two cards are selected, adds efficiency-based
-     * bonus points for matches (more points for fewer moves)
-     * @param card1 The first selected card
-     * @param card2 The second selected card
-     * @return True if the cards match, false otherwise
+     * Creates a new endless game whose elapsed time runs on the given clock
+     * @param board The game board
+     * @param player The player
+     * @param clock The clock used for the game duration
      */
-    @Override
-    public boolean processTurn(Card card1, Card card2) {
-        boolean result = super.processTurn(card1, card2);
-
-        if (result) {
-            // Calculate dynamic bonus based on current game state
-            int moveCount = getPlayer().getMoves();
-            int matchedPairs = getBoard().getMatchedPairsCount();
-
-            // Base bonus points
-            int baseBonus = 5;
-
-            // Add efficiency bonus (fewer moves = higher bonus)
-            int efficiencyBonus = Math.max(10 - (moveCount / (matchedPairs + 1)), 1);
-
-            // Total bonus is base plus efficiency
-            int totalBonus = baseBonus + efficiencyBonus;
-
-            getPlayer().incrementScore(totalBonus);
-
-            setChanged();
-            notifyObservers("MATCH_BONUS_ADDED");
-        }
-
-        return result;
+    public EndlessGame(GameBoard board, Player player, Clock clock) {
+        super(board, player, new EndlessEngine(board.getState(), clock));
     }
-
 }
 
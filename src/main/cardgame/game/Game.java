@@ -1,71 +1,137 @@
 package main.cardgame.game;
 
+import main.cardgame.stats.GamePercentiles;
 import main.cardgame.stats.GameStatistics;
-
+import main.cardgame.stats.PercentileRank;
+
+import main.cardgame.engine.Difficulty;
+import main.cardgame.engine.GameEngine;
+import main.cardgame.engine.SeenCardIndex;
+import main.cardgame.event.EventBus;
+import main.cardgame.event.GameEvent;
+import main.cardgame.history.GameRecord;
+import main.cardgame.history.HistoryManager;
+import main.cardgame.leaderboard.LeaderboardManager;
 import main.cardgame.model.Card;
 import main.cardgame.model.GameBoard;
 import main.cardgame.model.Player;
 import main.cardgame.model.Timer;
 import main.cardgame.profile.GlobalProfileContext;
 import main.cardgame.profile.UserProfile;
+import main.cardgame.spectate.SpectatorFeed;
+import main.cardgame.time.TimingWheel;
 
-import java.util.Observable;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Abstract base class for all game modes in the memory card game.
  * Handles common game functionality including game board management,
  * player statistics, timer control, and basic game flow.
+ * The rules themselves run in a headless {@link GameEngine}; this class
+ * adapts it to the observable card, player and statistics objects.
  */
 
-public abstract class Game extends Observable {
+public abstract class Game {
     private GameBoard board;
     private Player player;
-    private Timer timer;
-    private boolean isActive;
-    private boolean isPaused;
-    private Card firstCard;
-    private Card secondCard;
+    private final GameEngine engine;
+    private EventBus eventBus;
+    private SpectatorFeed spectatorFeed;
     protected GameStatistics statistics;
-    private long startTime;
+    /** True when the statistics were supplied by the owner instead of the active profile */
+    private boolean detached;
+    /** Rank of the finished game among earlier games, or null until it is recorded */
+    private PercentileRank percentileRank;
+    /** Identifies the game, e.g. in the turn journal; drawn at random so ids stay unique across runs */
+    private long gameId = ThreadLocalRandom.current().nextLong();
 
     /**
      * Notifies observers with the specified event type
      * @param eventType The type of event that occurred
      */
-    private void notifyWithEvent(String eventType) {
-        setChanged();
-        notifyObservers(eventType);
+    private void notifyWithEvent(GameEvent eventType) {
+        if (eventBus != null) {
+            eventBus.publish(eventType, this);
+        }
     }
 
     /**
-     * Constructor for standard game without countdown
+     * Creates a game that adapts the given engine
      * @param board The game board
      * @param player The player
+     * @param engine The engine running the rules on the board's state
      */
-    public Game(GameBoard board, Player player) {
+    protected Game(GameBoard board, Player player, GameEngine engine) {
         this.board = board;
         this.player = player;
-        this.timer = new Timer();  // Create a default timer that tracks elapsed time
-        this.isActive = false;
-        this.isPaused = false;
-        this.firstCard = null;
-        this.secondCard = null;
+        this.engine = engine;
+        engine.trackSeenCards();
     }
 
     /**
-     * Constructor for game with countdown timer
-     * @param board The game board
-     * @param player The player
-     * @param countdownSeconds The countdown time in seconds
+     * Connects the game, its board, cards, player and timer to an event bus.
+     * Each turn is published as one batch, so coalescing subscribers get a
+     * single delivery per turn.
+     * @param eventBus The event bus, or null to stop publishing
      */
-    public Game(GameBoard board, Player player, int countdownSeconds) {
-        this.board = board;
-        this.player = player;
-        this.timer = new Timer(countdownSeconds);  // Create a countdown timer
-        this.isActive = false;
-        this.isPaused = false;
-        this.firstCard = null;
-        this.secondCard = null;
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+        board.setEventBus(eventBus);
+        player.setEventBus(eventBus);
+        engine.getTimer().setEventBus(eventBus);
+    }
+
+    /**
+     * Publishes every flip, turn and score change of this game to spectators.
+     * The feed must be built on this game's board state and is written on
+     * the thread playing the game.
+     * @param spectatorFeed The feed, or null to stop publishing
+     */
+    public void setSpectatorFeed(SpectatorFeed spectatorFeed) {
+        this.spectatorFeed = spectatorFeed;
+        if (spectatorFeed != null) {
+            spectatorFeed.publishSnapshot();
+        }
+    }
+
+    /**
+     * Gets the feed this game publishes to spectators
+     * @return The spectator feed, or null if none is set
+     */
+    public SpectatorFeed getSpectatorFeed() {
+        return spectatorFeed;
+    }
+
+    /**
+     * Registers the game's countdown deadline on a shared timing wheel, so the
+     * game ends when its time runs out without being polled. Has no effect on
+     * games without a countdown.
+     * @param wheel The timing wheel; the game ends on the thread advancing it
+     */
+    public void scheduleExpiry(TimingWheel wheel) {
+        Timer timer = engine.getTimer();
+        if (timer.isCountdown()) {
+            timer.scheduleExpiry(wheel, this::endGame);
+        }
+    }
+
+    /**
+     * Removes the game's countdown deadline from its timing wheel, e.g. when
+     * the game is abandoned without ending it
+     */
+    public void cancelExpiry() {
+        Timer timer = engine.getTimer();
+        if (timer.isCountdown()) {
+            timer.cancelExpiry();
+        }
+    }
+
+    /**
+     * Gets the event bus this game publishes to
+     * @return The event bus, or null if none is set
+     */
+    public EventBus getEventBus() {
+        return eventBus;
     }
 
     /**
@@ -76,26 +142,58 @@ public abstract class Game extends Observable {
         this.statistics = (profile != null) ? profile.getStatistics() : new GameStatistics();
     }
 
+    /**
+     * Records this game's results in the given statistics instead of the
+     * active user profile. The game then never reads or saves the global
+     * profile, so many games can run side by side, e.g. in a session host.
+     * @param statistics The statistics to update when the game ends, or null to record nothing
+     */
+    public void setStatistics(GameStatistics statistics) {
+        this.statistics = statistics;
+        this.detached = true;
+    }
+
     /**
      * Starts the game
      */
     public void play() {
-        initializeStatistics();
-        this.isActive = true;
-        this.isPaused = false;
-        this.startTime = System.currentTimeMillis(); // Start timing
-        this.timer.startTimer();
-        notifyWithEvent("GAME_STARTED");
+        if (!detached) {
+            initializeStatistics();
+        }
+        engine.play(); // Starts the engine's timer, which accounts the game duration
+        notifyWithEvent(GameEvent.GAME_STARTED);
+    }
+
+    /**
+     * Starts the game from a snapshot instead of the beginning: score,
+     * moves and game time continue from the saved values. The board must
+     * have been restored from the same snapshot.
+     * @param snapshot The saved game
+     * @throws IllegalArgumentException If the snapshot was taken on a board of another size
+     */
+    public void play(GameSnapshot snapshot) {
+        if (snapshot.rows() != board.getRows() || snapshot.cols() != board.getCols()) {
+            throw new IllegalArgumentException("Snapshot of a " + snapshot.rows() + "x" + snapshot.cols()
+                    + " board does not fit this " + board.getRows() + "x" + board.getCols() + " board");
+        }
+        if (!detached) {
+            initializeStatistics();
+        }
+        engine.resumeFrom(snapshot.score(), snapshot.moves(), snapshot.elapsedMillis());
+        syncPlayer();
+        if (spectatorFeed != null) {
+            spectatorFeed.publishScore(engine.getScore(), engine.getMoves());
+        }
+        notifyWithEvent(GameEvent.GAME_STARTED);
     }
 
     /**
      * Pauses the game and the timer
      */
     public void pause() {
-        if (isActive && !isPaused) {
-            this.isPaused = true;  // Set paused state
-            this.timer.pauseTimer();
-            notifyWithEvent("GAME_PAUSED");
+        if (engine.isActive() && !engine.isPaused()) {
+            engine.pause();
+            notifyWithEvent(GameEvent.GAME_PAUSED);
         }
     }
 
@@ -103,10 +201,9 @@ public abstract class Game extends Observable {
      * Resumes the game after being paused
      */
     public void resume() {
-        if (isActive && isPaused) {  // Only resume if both active and paused
-            this.isPaused = false;   // Clear paused state
-            this.timer.resumeTimer();
-            notifyWithEvent("GAME_RESUMED");
+        if (engine.isActive() && engine.isPaused()) {  // Only resume if both active and paused
+            engine.resume();
+            notifyWithEvent(GameEvent.GAME_RESUMED);
         }
     }
     
@@ -115,49 +212,81 @@ public abstract class Game extends Observable {
      * @return true if the game is paused
      */
     public boolean isPaused() {
-        return isPaused;
+        return engine.isPaused();
     }
 
     /**
      * Ends the current game and updates statistics
      */
     public void endGame() {
-        if (!isActive) return;
+        boolean wasActive = engine.isActive();
+        engine.endGame();
+        if (wasActive) {
+            finishGame();
+        }
+    }
 
-        this.isActive = false;
-        this.timer.stopTimer();
+    /**
+     * Records the final results once the engine has ended the game
+     */
+    private void finishGame() {
+        syncPlayer();
 
         // Final stats
-        int matches = board.getMatchedPairsCount();
-        int moves = player.getMoves();
-        int score = player.getScore(); // Get the actual player score
-        long duration;
-        if (timer.isCountdown()) {
-            duration = timer.getMaxTime() - timer.getRemainingTime();
-        } else {
-            duration = timer.getElapsedTime();
-        } // Use consistent timing method
+        Timer timer = engine.getTimer();
+        int matches = engine.getMatches();
+        int moves = engine.getMoves();
+        // The final score as shown, including the bonus of the last match and the end bonus;
+        // statistics saved before the engine existed left out the last match's bonus
+        int score = engine.getScore();
+        long duration = engine.getDuration(); // Use consistent timing method
 
         // Update and save statistics
         if (statistics != null) {
             // Determine if this is a timed game based on timer type
             boolean isTimedGame = timer.isCountdown();
 
-            // Use the new method that accepts score and game type
-            statistics.updateGameStats(matches, moves, duration, score, isTimedGame);
+            // Record score, game type and the layout seed for replays
+            statistics.updateGameStats(matches, moves, duration, score, isTimedGame, board.getSeed());
 
-            UserProfile profile = GlobalProfileContext.getActiveProfile();
+            UserProfile profile = detached ? null : GlobalProfileContext.getActiveProfile();
             if (profile != null) {
                 try {
-                    main.cardgame.profile.ProfileManager.saveProfile(profile);
+                    main.cardgame.profile.ProfileManager.saveProfileLater(profile);
                 } catch (Exception e) {
                     e.printStackTrace();
                 }
             }
+
+            // Custom sized boards have no leaderboard or percentiles
+            Difficulty difficulty = detached ? null : Difficulty.findByDimensions(board.getRows(), board.getCols());
+            if (difficulty != null) {
+                if (profile != null) {
+                    LeaderboardManager.recordScore(profile.getUsername(), isTimedGame, difficulty, score);
+                }
+                percentileRank = GamePercentiles.record(isTimedGame, difficulty, score, duration,
+                        board.allCardsMatched());
+            }
+            if (profile != null) {
+                HistoryManager.record(profile.getUsername(), new GameRecord(System.currentTimeMillis(), isTimedGame,
+                        difficulty, moves, matches, duration, score));
+            }
+        }
+
+        if (spectatorFeed != null) {
+            spectatorFeed.publishGameOver(score, moves);
         }
 
         // Notify UI
-        notifyWithEvent("GAME_OVER");
+        notifyWithEvent(GameEvent.GAME_OVER);
+    }
+
+    /**
+     * Copies the engine's score and moves onto the observable player
+     */
+    private void syncPlayer() {
+        player.setMoves(engine.getMoves());
+        player.setScore(engine.getScore());
     }
 
     /**
@@ -167,43 +296,101 @@ public abstract class Game extends Observable {
      * @return True if the cards match, false otherwise
      */
     public boolean processTurn(Card card1, Card card2) {
-        if (card1 == null || card2 == null || !isActive) {
+        if (card1 == null || card2 == null || !engine.isActive()) {
             return false;
         }
 
-        // Increment moves counter
-        player.incrementMoves();
+        EventBus bus = eventBus;
+        if (bus != null) {
+            bus.beginBatch();
+        }
+        try {
+            int slot1 = board.slotOf(card1);
+            int slot2 = board.slotOf(card2);
+            boolean isMatch = engine.processTurn(slot1, slot2);
+            syncPlayer();
+
+            SpectatorFeed feed = spectatorFeed;
+            if (feed != null) {
+                feed.publishTurn(slot1, slot2, isMatch);
+                feed.publishScore(engine.getScore(), engine.getMoves());
+            }
 
-        // Check if the cards match
-        boolean isMatch = board.checkMatch(card1, card2);
-        
-        // Award points if it's a match
-        if (isMatch) {
-            player.incrementScore(10);  // Basic score for a match
+            // The engine ends the game itself when the turn finishes it
+            if (!engine.isActive()) {
+                finishGame();
+            }
+
+            return isMatch;
+        } finally {
+            if (bus != null) {
+                bus.endBatch();
+            }
         }
+    }
 
-        // Check if game is over after this turn
-        if (isGameOver()) {
-            endGame();
+    /**
+     * Records that a card was turned face up before its turn is processed,
+     * so hints can use it right away
+     * @param card The revealed card
+     */
+    public void revealCard(Card card) {
+        if (card != null) {
+            int slot = board.slotOf(card);
+            engine.reveal(slot);
+            if (spectatorFeed != null) {
+                spectatorFeed.publishFlip(slot);
+            }
         }
+    }
 
-        return isMatch;
+    /**
+     * Gets the index of the cards revealed in this game
+     * @return The seen card index
+     */
+    public SeenCardIndex getSeenCards() {
+        return engine.getSeenCards();
     }
 
     /**
      * Determines if the game is over based on game-specific rules
      * @return True if the game is over, false otherwise
      */
-    public abstract boolean isGameOver();
+    public boolean isGameOver() {
+        return engine.isGameOver();
+    }
 
     /**
      * Checks if the game is currently active
      * @return True if the game is active, false otherwise
      */
     public boolean isActive() {
-        return isActive;
+        return engine.isActive();
     }
 
+    /**
+     * Gets the id of this game, which a resumed game keeps from its snapshot
+     * @return The game id
+     */
+    public long getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Continues the id of a saved game
+     * @param gameId The id the game had when it was saved
+     */
+    void resumeGameId(long gameId) {
+        this.gameId = gameId;
+    }
+
+    /**
+     * Gets the headless engine running this game's rules
+     * @return The game engine
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
     /**
      * Gets the game board
      * @return The game board
@@ -225,7 +412,7 @@ public abstract class Game extends Observable {
      * @return The timer
      */
     public Timer getTimer() {
-        return timer;
+        return engine.getTimer();
     }
 
     /**
@@ -251,4 +438,12 @@ public abstract class Game extends Observable {
     public GameStatistics getStatistics() {
         return statistics;
     }
+
+    /**
+     * Gets how the finished game compares with earlier games of its mode and difficulty
+     * @return The percentile rank, or null if the game is not over, is detached or has a custom board
+     */
+    public PercentileRank getPercentileRank() {
+        return percentileRank;
+    }
 }
@@ -0,0 +1,220 @@
+package main.cardgame.game;
+
+import main.cardgame.engine.BoardState;
+import main.cardgame.engine.GameEngine;
+import main.cardgame.model.GameBoard;
+import main.cardgame.model.Player;
+import main.cardgame.time.Clock;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compact, immutable picture of a game in progress.
+ * The layout is not stored card by card: the deck seed rebuilds it, and a
+ * hash of the pair keys guards against a shuffle that changed since the
+ * save. Per slot only the face up and matched bits are kept, so a hard
+ * board encodes to 66 bytes. Snapshots of version 1, written before games
+ * had ids, are still read and get a new game id.
+ * The flag arrays are shared, not copied; callers must not modify them.
+ * @param timed True for a timed game, false for an endless game
+ * @param rows The number of board rows
+ * @param cols The number of board columns
+ * @param seed The shuffle seed of the board
+ * @param layoutHash The {@link BoardState#layoutHash()} of the saved board
+ * @param gameId The {@link Game#getGameId()} of the saved game
+ * @param moves The number of moves made
+ * @param score The score
+ * @param elapsedMillis The game time already played in milliseconds
+ * @param timeLimitSeconds The countdown of a timed game, 0 for an endless game
+ * @param faceUpWords The face up bitset, one bit per slot
+ * @param matchedWords The matched bitset, one bit per slot
+ */
+public record GameSnapshot(boolean timed, int rows, int cols, long seed, int layoutHash, long gameId,
+                           int moves, int score, long elapsedMillis, int timeLimitSeconds,
+                           long[] faceUpWords, long[] matchedWords) {
+    /** "MSNP" */
+    private static final int MAGIC = 0x4D534E50;
+    private static final byte VERSION = 2;
+    /** Version without the game id */
+    private static final byte VERSION_WITHOUT_ID = 1;
+    private static final byte MODE_ENDLESS = 0;
+    private static final byte MODE_TIMED = 1;
+    /** Largest row or column count; dimensions are stored as unsigned shorts */
+    private static final int MAX_DIMENSION = 0xFFFF;
+    /** Size of the encoding without the flag words in bytes */
+    private static final int HEADER_BYTES = 50;
+
+    /**
+     * Validates the snapshot values
+     * @throws IllegalArgumentException If a value is out of range or a bitset has the wrong length
+     */
+    public GameSnapshot {
+        if (rows <= 0 || cols <= 0 || rows > MAX_DIMENSION || cols > MAX_DIMENSION
+                || (long) rows * cols > BoardState.MAX_SLOTS) {
+            throw new IllegalArgumentException("Invalid board size: " + rows + "x" + cols);
+        }
+        if (moves < 0 || score < 0 || elapsedMillis < 0) {
+            throw new IllegalArgumentException("Invalid saved game: score " + score
+                    + ", moves " + moves + ", elapsed " + elapsedMillis + " ms");
+        }
+        if (timed ? timeLimitSeconds <= 0 : timeLimitSeconds != 0) {
+            throw new IllegalArgumentException("Invalid time limit: " + timeLimitSeconds);
+        }
+        int words = wordCount(rows, cols);
+        if (faceUpWords == null || matchedWords == null
+                || faceUpWords.length != words || matchedWords.length != words) {
+            throw new IllegalArgumentException("Expected " + words + " flag words per bitset");
+        }
+    }
+
+    /**
+     * Captures the current state of a game
+     * @param game The game to capture
+     * @return The snapshot
+     * @throws IllegalArgumentException If the board was not built from a seed
+     */
+    public static GameSnapshot capture(Game game) {
+        GameBoard board = game.getBoard();
+        Long seed = board.getSeed();
+        if (seed == null) {
+            throw new IllegalArgumentException("Only boards shuffled from a seed can be saved");
+        }
+        BoardState state = board.getState();
+        long[] faceUp = new long[state.getWordCount()];
+        long[] matched = new long[state.getWordCount()];
+        state.copyFlags(faceUp, matched);
+        GameEngine engine = game.getEngine();
+        boolean timed = engine.getTimer().isCountdown();
+        int timeLimitSeconds = timed ? (int) (engine.getTimer().getMaxTime() / 1000) : 0;
+        return new GameSnapshot(timed, state.getRows(), state.getCols(), seed, state.layoutHash(), game.getGameId(),
+                engine.getMoves(), engine.getScore(), engine.getDuration(), timeLimitSeconds,
+                faceUp, matched);
+    }
+
+    /**
+     * Gets the countdown time left when the snapshot was taken
+     * @return The remaining time in milliseconds, 0 for an endless game
+     */
+    public long getRemainingMillis() {
+        return timed ? Math.max(0, timeLimitSeconds * 1000L - elapsedMillis) : 0;
+    }
+
+    /**
+     * Encodes the snapshot
+     * @return The encoded bytes
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 16 * faceUpWords.length);
+        buffer.putInt(MAGIC)
+                .put(VERSION)
+                .put(timed ? MODE_TIMED : MODE_ENDLESS)
+                .putShort((short) rows)
+                .putShort((short) cols)
+                .putLong(seed)
+                .putInt(layoutHash)
+                .putLong(gameId)
+                .putInt(moves)
+                .putInt(score)
+                .putLong(elapsedMillis)
+                .putInt(timeLimitSeconds);
+        for (long word : faceUpWords) {
+            buffer.putLong(word);
+        }
+        for (long word : matchedWords) {
+            buffer.putLong(word);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a snapshot written by {@link #toBytes()}
+     * @param bytes The encoded bytes
+     * @return The snapshot
+     * @throws IllegalArgumentException If the bytes are not a valid snapshot
+     */
+    public static GameSnapshot fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a game snapshot");
+            }
+            byte version = buffer.get();
+            if (version != VERSION && version != VERSION_WITHOUT_ID) {
+                throw new IllegalArgumentException("Unsupported snapshot version: " + version);
+            }
+            byte mode = buffer.get();
+            if (mode != MODE_TIMED && mode != MODE_ENDLESS) {
+                throw new IllegalArgumentException("Unknown game mode: " + mode);
+            }
+            int rows = Short.toUnsignedInt(buffer.getShort());
+            int cols = Short.toUnsignedInt(buffer.getShort());
+            long seed = buffer.getLong();
+            int layoutHash = buffer.getInt();
+            long gameId = version == VERSION_WITHOUT_ID ? ThreadLocalRandom.current().nextLong() : buffer.getLong();
+            int moves = buffer.getInt();
+            int score = buffer.getInt();
+            long elapsedMillis = buffer.getLong();
+            int timeLimitSeconds = buffer.getInt();
+            if (rows == 0 || cols == 0) {
+                throw new IllegalArgumentException("Invalid board size: " + rows + "x" + cols);
+            }
+            int words = wordCount(rows, cols);
+            if (buffer.remaining() != 16L * words) {
+                throw new IllegalArgumentException("Snapshot has " + buffer.remaining()
+                        + " bytes of flags, expected " + 16L * words);
+            }
+            long[] faceUp = new long[words];
+            long[] matched = new long[words];
+            buffer.asLongBuffer().get(faceUp).get(matched);
+            return new GameSnapshot(mode == MODE_TIMED, rows, cols, seed, layoutHash, gameId,
+                    moves, score, elapsedMillis, timeLimitSeconds, faceUp, matched);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated game snapshot", e);
+        }
+    }
+
+    /**
+     * Rebuilds the saved board: reshuffles it from the seed and restores the flags
+     * @return The board, in the saved state
+     * @throws IllegalArgumentException If the reshuffled layout differs from the saved one
+     * or the flags are inconsistent
+     */
+    public GameBoard restoreBoard() {
+        GameBoard board = new GameBoard(rows, cols, seed);
+        BoardState state = board.getState();
+        if (state.layoutHash() != layoutHash) {
+            throw new IllegalArgumentException("Board layout of seed " + seed + " no longer matches the snapshot");
+        }
+        state.restoreFlags(faceUpWords, matchedWords);
+        return board;
+    }
+
+    /**
+     * Rebuilds the saved game on a restored board, keeping its game id. The game is not started;
+     * call {@link Game#play(GameSnapshot)} with this snapshot to continue it.
+     * @param player The player
+     * @param clock The clock of the game
+     * @return A timed or endless game, matching the saved mode
+     * @throws IllegalArgumentException If the board cannot be restored
+     */
+    public Game restore(Player player, Clock clock) {
+        GameBoard board = restoreBoard();
+        Game game = timed
+                ? new TimedGame(board, player, timeLimitSeconds, clock)
+                : new EndlessGame(board, player, clock);
+        game.resumeGameId(gameId);
+        return game;
+    }
+
+    /**
+     * Calculates the number of 64-bit words of a bitset with one bit per slot
+     * @param rows The number of rows
+     * @param cols The number of columns
+     * @return The number of words
+     */
+    private static int wordCount(int rows, int cols) {
+        return (int) (((long) rows * cols + 63) >>> 6);
+    }
+}
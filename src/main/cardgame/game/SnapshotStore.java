@@ -0,0 +1,117 @@
+package main.cardgame.game;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Manages the persistence of game snapshots.
+ * Every owner (usually a profile name) has its own directory of named
+ * snapshots, so a profile can keep many saves side by side. A save is
+ * written to a temporary file first and then moved into place, so a crash
+ * while saving never leaves a half written snapshot behind.
+ */
+public class SnapshotStore {
+    private static final String SAVE_DIR = "saves/";
+    private static final String EXT = ".snapshot";
+    /** Name of the snapshot saved automatically when the window is closed mid-game */
+    public static final String AUTOSAVE = "autosave";
+
+    static {
+        new File(SAVE_DIR).mkdirs();
+    }
+
+    /**
+     * Saves a snapshot, replacing any snapshot of the same name
+     * @param owner The owner of the snapshot
+     * @param name The snapshot name
+     * @param snapshot The snapshot to save
+     * @throws IOException If an I/O error occurs during saving
+     */
+    public static void save(String owner, String name, GameSnapshot snapshot) throws IOException {
+        Path file = pathOf(owner, name);
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, snapshot.toBytes());
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Loads a snapshot
+     * @param owner The owner of the snapshot
+     * @param name The snapshot name
+     * @return The snapshot, or null if there is no snapshot with this name
+     * @throws IOException If an I/O error occurs during loading or the file is not a valid snapshot
+     */
+    public static GameSnapshot load(String owner, String name) throws IOException {
+        Path file = pathOf(owner, name);
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try {
+            return GameSnapshot.fromBytes(bytes);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt snapshot " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Checks if a snapshot exists
+     * @param owner The owner of the snapshot
+     * @param name The snapshot name
+     * @return True if the snapshot exists
+     */
+    public static boolean exists(String owner, String name) {
+        return Files.isRegularFile(pathOf(owner, name));
+    }
+
+    /**
+     * Deletes a snapshot
+     * @param owner The owner of the snapshot
+     * @param name The snapshot name
+     */
+    public static void delete(String owner, String name) {
+        File file = pathOf(owner, name).toFile();
+        if (file.exists()) file.delete();
+    }
+
+    /**
+     * Lists the snapshots of an owner
+     * @param owner The owner of the snapshots
+     * @return A list of snapshot names without file extensions
+     */
+    public static List<String> list(String owner) {
+        File dir = new File(SAVE_DIR + owner);
+        String[] names = dir.list((d, name) -> name.endsWith(EXT));
+        List<String> result = new ArrayList<>();
+        if (names != null) {
+            for (String name : names) {
+                result.add(name.substring(0, name.length() - EXT.length()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the file of a snapshot
+     * @param owner The owner of the snapshot
+     * @param name The snapshot name
+     * @return The snapshot file
+     */
+    private static Path pathOf(String owner, String name) {
+        return Path.of(SAVE_DIR, owner, name + EXT);
+    }
+}
@@ -0,0 +1,18 @@
+package main.cardgame.history;
+
+/**
+ * Aggregate of one column over the games a scan selected.
+ * @param count Games selected
+ * @param sum Sum of the values
+ * @param min Smallest value, or 0 if no game was selected
+ * @param max Largest value, or 0 if no game was selected
+ */
+public record ColumnSummary(int count, long sum, long min, long max) {
+    /**
+     * Calculates the mean value
+     * @return The mean, or 0 if no game was selected
+     */
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+}
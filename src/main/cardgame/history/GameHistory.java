@@ -0,0 +1,327 @@
+package main.cardgame.history;
+
+import main.cardgame.engine.Difficulty;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every game a profile finished, stored column by column: one append-only
+ * file per {@link HistoryColumn}, each holding one fixed width value per
+ * game. A game is appended as one value at the end of every column, and a
+ * scan maps only the columns it reads, e.g. the mode and moves columns for
+ * "average moves on hard over the last 1000 games", and walks them
+ * sequentially. If a crash leaves the columns with different lengths, the
+ * games missing from any column are dropped when the history is opened.
+ * <pre>
+ * column file  int magic "MHST", short version, byte width, byte column ordinal,
+ *              then one big-endian value per game, oldest first
+ * </pre>
+ */
+
+public final class GameHistory implements Closeable {
+    private static final int MAGIC = 0x4D485354; // "MHST"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final HistoryColumn[] COLUMNS = HistoryColumn.values();
+
+    private final Path directory;
+    private final FileChannel[] channels = new FileChannel[COLUMNS.length];
+    /** Reused to encode one value during appends */
+    private final ByteBuffer value = ByteBuffer.allocate(Long.BYTES);
+    /** Read-only mappings of the columns for scans, and the number of games each covers */
+    private final ByteBuffer[] mapped = new ByteBuffer[COLUMNS.length];
+    private final int[] mappedRows = new int[COLUMNS.length];
+    private volatile int size;
+
+    /**
+     * Opens the history in a directory, creating it if needed
+     * @param directory The directory holding the column files
+     * @throws IOException If a column cannot be opened or is not a history column
+     */
+    public GameHistory(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        try {
+            long rows = Integer.MAX_VALUE;
+            for (HistoryColumn column : COLUMNS) {
+                FileChannel channel = FileChannel.open(directory.resolve(column.getFileName()),
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channels[column.ordinal()] = channel;
+                if (channel.size() < HEADER_BYTES) {
+                    channel.truncate(0);
+                    writeFully(channel, header(column), 0);
+                } else {
+                    checkHeader(channel, column);
+                }
+                rows = Math.min(rows, (channel.size() - HEADER_BYTES) / column.getWidth());
+            }
+            // Drop torn games, so every column ends at the same game
+            for (HistoryColumn column : COLUMNS) {
+                channels[column.ordinal()].truncate(offset(column, rows));
+            }
+            size = (int) rows;
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends a finished game
+     * @param record The game
+     * @throws IOException If the game cannot be written; the history then still ends at the previous game
+     */
+    public synchronized void append(GameRecord record) throws IOException {
+        int row = size;
+        try {
+            for (HistoryColumn column : COLUMNS) {
+                value.clear();
+                switch (column) {
+                    case FINISHED_AT:
+                        value.putLong(record.finishedAtMillis());
+                        break;
+                    case MODE:
+                        value.put(HistoryFilter.encode(record.timed(), record.difficulty()));
+                        break;
+                    case MOVES:
+                        value.putInt(record.moves());
+                        break;
+                    case MATCHES:
+                        value.putInt(record.matches());
+                        break;
+                    case DURATION:
+                        value.putLong(record.durationMillis());
+                        break;
+                    case SCORE:
+                        value.putInt(record.score());
+                        break;
+                }
+                writeFully(channels[column.ordinal()], value.flip(), offset(column, row));
+            }
+        } catch (IOException e) {
+            for (HistoryColumn column : COLUMNS) {
+                channels[column.ordinal()].truncate(offset(column, row));
+            }
+            throw e;
+        }
+        size = row + 1;
+    }
+
+    /**
+     * Gets the number of games in the history
+     * @return The game count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Summarizes one column over the most recent games a filter selects.
+     * Only the mode column and the summarized column are read.
+     * @param column The column to summarize
+     * @param filter Selects the games
+     * @param lastGames The largest number of selected games to include, newest first
+     * @return The summary
+     * @throws IOException If a column cannot be mapped
+     * @throws IllegalArgumentException If the number of games is negative
+     */
+    public ColumnSummary summarize(HistoryColumn column, HistoryFilter filter, int lastGames) throws IOException {
+        if (lastGames < 0) {
+            throw new IllegalArgumentException("Number of games must not be negative");
+        }
+        int rows = size;
+        ByteBuffer modes = map(HistoryColumn.MODE, rows);
+        ByteBuffer values = map(column, rows);
+        int width = column.getWidth();
+        int count = 0;
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int row = rows - 1; row >= 0 && count < lastGames; row--) {
+            if (filter.accepts(modes.get(HEADER_BYTES + row))) {
+                long v = read(values, width, row);
+                count++;
+                sum += v;
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+        }
+        return count == 0 ? new ColumnSummary(0, 0, 0, 0) : new ColumnSummary(count, sum, min, max);
+    }
+
+    /**
+     * Summarizes one column over every game a filter selects
+     * @param column The column to summarize
+     * @param filter Selects the games
+     * @return The summary
+     * @throws IOException If a column cannot be mapped
+     */
+    public ColumnSummary summarize(HistoryColumn column, HistoryFilter filter) throws IOException {
+        return summarize(column, filter, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads whole games, e.g. to show the latest ones
+     * @param fromRow The index of the first game, 0 being the oldest
+     * @param toRow The index after the last game
+     * @return The games, oldest first
+     * @throws IOException If a column cannot be mapped
+     * @throws IllegalArgumentException If the range is outside the history
+     */
+    public List<GameRecord> range(int fromRow, int toRow) throws IOException {
+        int rows = size;
+        if (fromRow < 0 || toRow > rows || fromRow > toRow) {
+            throw new IllegalArgumentException("Rows " + fromRow + ".." + toRow + " outside history of " + rows);
+        }
+        ByteBuffer[] columns = new ByteBuffer[COLUMNS.length];
+        for (HistoryColumn column : COLUMNS) {
+            columns[column.ordinal()] = map(column, rows);
+        }
+        Difficulty[] difficulties = Difficulty.values();
+        List<GameRecord> records = new ArrayList<>(toRow - fromRow);
+        for (int row = fromRow; row < toRow; row++) {
+            int mode = columns[HistoryColumn.MODE.ordinal()].get(HEADER_BYTES + row);
+            int bits = mode & ~HistoryFilter.TIMED & 0xFF;
+            records.add(new GameRecord(
+                    read(columns[HistoryColumn.FINISHED_AT.ordinal()], Long.BYTES, row),
+                    (mode & HistoryFilter.TIMED) != 0,
+                    bits < difficulties.length ? difficulties[bits] : null,
+                    (int) read(columns[HistoryColumn.MOVES.ordinal()], Integer.BYTES, row),
+                    (int) read(columns[HistoryColumn.MATCHES.ordinal()], Integer.BYTES, row),
+                    read(columns[HistoryColumn.DURATION.ordinal()], Long.BYTES, row),
+                    (int) read(columns[HistoryColumn.SCORE.ordinal()], Integer.BYTES, row)));
+        }
+        return records;
+    }
+
+    /**
+     * Gets the directory of the column files
+     * @return The directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Closes the column files; mapped scans already returned stay valid
+     * @throws IOException If a file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOException failure = null;
+        for (int i = 0; i < channels.length; i++) {
+            if (channels[i] != null) {
+                try {
+                    channels[i].close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+                channels[i] = null;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Gets a read-only mapping of a column that covers at least some rows.
+     * Mappings are kept and only replaced once the column has grown past them,
+     * because every mapping holds address space until it is collected.
+     * @param column The column
+     * @param rows The number of games that must be mapped
+     * @return The mapping, including the header
+     * @throws IOException If the column cannot be mapped
+     */
+    private synchronized ByteBuffer map(HistoryColumn column, int rows) throws IOException {
+        int index = column.ordinal();
+        if (mapped[index] != null && mappedRows[index] >= rows) {
+            return mapped[index];
+        }
+        FileChannel channel = channels[index];
+        if (channel == null) {
+            throw new IOException("History " + directory + " is closed");
+        }
+        mapped[index] = channel.map(FileChannel.MapMode.READ_ONLY, 0, offset(column, size));
+        mappedRows[index] = size;
+        return mapped[index];
+    }
+
+    /**
+     * Reads one value of a mapped column
+     * @param column The mapped column
+     * @param width The width of the column's values
+     * @param row The game
+     * @return The value
+     */
+    private static long read(ByteBuffer column, int width, int row) {
+        int offset = HEADER_BYTES + row * width;
+        switch (width) {
+            case Long.BYTES:
+                return column.getLong(offset);
+            case Integer.BYTES:
+                return column.getInt(offset);
+            default:
+                return column.get(offset);
+        }
+    }
+
+    /**
+     * Calculates where a game's value starts in a column file
+     * @param column The column
+     * @param row The game
+     * @return The file offset
+     */
+    private static long offset(HistoryColumn column, long row) {
+        return HEADER_BYTES + row * column.getWidth();
+    }
+
+    /**
+     * Encodes the header of a column file
+     * @param column The column
+     * @return The header, ready to read
+     */
+    private static ByteBuffer header(HistoryColumn column) {
+        return ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putShort(VERSION)
+                .put((byte) column.getWidth()).put((byte) column.ordinal()).flip();
+    }
+
+    /**
+     * Checks that a file is the expected history column
+     * @param channel The open file
+     * @param column The column it should hold
+     * @throws IOException If the header does not match
+     */
+    private static void checkHeader(FileChannel channel, HistoryColumn column) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                break;
+            }
+        }
+        if (!header.flip().equals(header(column))) {
+            throw new IOException("Not a history column: " + column.getFileName());
+        }
+    }
+
+    /**
+     * Writes a buffer at a position
+     * @param channel The file
+     * @param buffer The bytes to write
+     * @param position The file offset
+     * @throws IOException If the write fails
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
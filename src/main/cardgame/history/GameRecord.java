@@ -0,0 +1,17 @@
+package main.cardgame.history;
+
+import main.cardgame.engine.Difficulty;
+
+/**
+ * One finished game in a profile's {@link GameHistory}.
+ * @param finishedAtMillis When the game ended, in epoch milliseconds
+ * @param timed True for timed mode, false for endless mode
+ * @param difficulty The difficulty, or null for a custom sized board
+ * @param moves Moves made
+ * @param matches Pairs matched
+ * @param durationMillis Time the game took, in milliseconds
+ * @param score The final score
+ */
+public record GameRecord(long finishedAtMillis, boolean timed, Difficulty difficulty, int moves, int matches,
+                         long durationMillis, int score) {
+}
@@ -0,0 +1,44 @@
+package main.cardgame.history;
+
+/**
+ * The columns of a {@link GameHistory}. Each column is a file of fixed
+ * width values, one per game, so a scan reads only the columns it needs.
+ */
+public enum HistoryColumn {
+    /** When the game ended, in epoch milliseconds */
+    FINISHED_AT("finished", Long.BYTES),
+    /** Mode and difficulty, see {@link HistoryFilter} */
+    MODE("mode", Byte.BYTES),
+    /** Moves made */
+    MOVES("moves", Integer.BYTES),
+    /** Pairs matched */
+    MATCHES("matches", Integer.BYTES),
+    /** Duration in milliseconds */
+    DURATION("duration", Long.BYTES),
+    /** Final score */
+    SCORE("score", Integer.BYTES);
+
+    private final String fileName;
+    private final int width;
+
+    HistoryColumn(String name, int width) {
+        this.fileName = name + ".col";
+        this.width = width;
+    }
+
+    /**
+     * Gets the name of the column file
+     * @return The file name
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Gets the size of one value
+     * @return The width in bytes
+     */
+    public int getWidth() {
+        return width;
+    }
+}
@@ -0,0 +1,92 @@
+package main.cardgame.history;
+
+import main.cardgame.engine.Difficulty;
+
+/**
+ * Selects games by mode and difficulty. The mode column stores both in
+ * one byte: the top bit is set for timed games and the low bits hold the
+ * difficulty ordinal, or {@link #CUSTOM} for custom sized boards. A filter
+ * is a table of the accepted bytes, so a scan tests each game with one lookup.
+ */
+
+public final class HistoryFilter {
+    /** Mode bit of timed games */
+    static final int TIMED = 0x80;
+    /** Difficulty bits of custom sized boards */
+    static final int CUSTOM = 0x7F;
+
+    private static final HistoryFilter ALL = new HistoryFilter(null, null);
+
+    private final boolean[] accepted = new boolean[256];
+
+    /**
+     * Creates a filter
+     * @param timed The mode to accept, or null for both
+     * @param difficulty The difficulty to accept, or null for every difficulty and custom boards
+     */
+    private HistoryFilter(Boolean timed, Difficulty difficulty) {
+        for (int mode = 0; mode < accepted.length; mode++) {
+            boolean modeOk = timed == null || ((mode & TIMED) != 0) == timed;
+            int bits = mode & ~TIMED;
+            boolean difficultyOk = difficulty == null
+                    ? bits < Difficulty.values().length || bits == CUSTOM
+                    : bits == difficulty.ordinal();
+            accepted[mode] = modeOk && difficultyOk;
+        }
+    }
+
+    /**
+     * Accepts every game
+     * @return The filter
+     */
+    public static HistoryFilter all() {
+        return ALL;
+    }
+
+    /**
+     * Accepts the games of one mode, on any board
+     * @param timed True for timed mode, false for endless mode
+     * @return The filter
+     */
+    public static HistoryFilter mode(boolean timed) {
+        return new HistoryFilter(timed, null);
+    }
+
+    /**
+     * Accepts the games of one difficulty in either mode
+     * @param difficulty The difficulty
+     * @return The filter
+     */
+    public static HistoryFilter difficulty(Difficulty difficulty) {
+        return new HistoryFilter(null, difficulty);
+    }
+
+    /**
+     * Accepts the games of one mode and difficulty
+     * @param timed True for timed mode, false for endless mode
+     * @param difficulty The difficulty
+     * @return The filter
+     */
+    public static HistoryFilter of(boolean timed, Difficulty difficulty) {
+        return new HistoryFilter(timed, difficulty);
+    }
+
+    /**
+     * Encodes the mode and difficulty of a game
+     * @param timed True for timed mode
+     * @param difficulty The difficulty, or null for a custom sized board
+     * @return The mode byte
+     */
+    static byte encode(boolean timed, Difficulty difficulty) {
+        return (byte) ((timed ? TIMED : 0) | (difficulty == null ? CUSTOM : difficulty.ordinal()));
+    }
+
+    /**
+     * Tests a mode byte
+     * @param mode The mode byte
+     * @return True if games with this mode are selected
+     */
+    boolean accepts(byte mode) {
+        return accepted[mode & 0xFF];
+    }
+}
@@ -0,0 +1,115 @@
+package main.cardgame.history;
+
+import main.cardgame.stats.StatisticsPersister;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * The game histories of all profiles, one directory of column files per
+ * profile. A history is opened on first use and stays open, so recording
+ * a game is one small append to each column. Games are opened and
+ * appended on the {@link StatisticsPersister} writer thread, so finishing
+ * a game never waits for the disk; reading, deleting and closing a
+ * history first wait for the games still queued.
+ */
+public class HistoryManager {
+    /** Directory holding the histories; -Dcardgame.historyDir=<dir> moves it, e.g. for benchmarks */
+    private static final Path DIR = Path.of(System.getProperty("cardgame.historyDir", "history"));
+
+    private static final Map<String, GameHistory> histories = new HashMap<>();
+
+    /**
+     * Gets the history of a profile, opening it if needed, once every game recorded so far is in it
+     * @param player The profile name
+     * @return The history
+     * @throws IOException If the history cannot be opened
+     */
+    public static GameHistory getHistory(String player) throws IOException {
+        StatisticsPersister.flush();
+        return open(player);
+    }
+
+    /**
+     * Queues a finished game to be appended to a profile's history
+     * @param player The profile name
+     * @param record The game
+     */
+    public static void record(String player, GameRecord record) {
+        StatisticsPersister.submit(() -> open(player).append(record));
+    }
+
+    /**
+     * Deletes a profile's history, e.g. when the profile is deleted
+     * @param player The profile name
+     */
+    public static void deleteHistory(String player) {
+        StatisticsPersister.flush();
+        delete(player);
+    }
+
+    /**
+     * Appends the games still queued and closes every open history when the application exits
+     */
+    public static void closeAll() {
+        StatisticsPersister.flush();
+        closeHistories();
+    }
+
+    /**
+     * Gets the history of a profile, opening it if needed
+     * @param player The profile name
+     * @return The history
+     * @throws IOException If the history cannot be opened
+     */
+    private static synchronized GameHistory open(String player) throws IOException {
+        GameHistory history = histories.get(player);
+        if (history == null) {
+            history = new GameHistory(DIR.resolve(player));
+            histories.put(player, history);
+        }
+        return history;
+    }
+
+    /**
+     * Closes and deletes a profile's history
+     * @param player The profile name
+     */
+    private static synchronized void delete(String player) {
+        Path directory = DIR.resolve(player);
+        try {
+            GameHistory history = histories.remove(player);
+            if (history != null) {
+                history.close();
+            }
+            if (Files.isDirectory(directory)) {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                        Files.delete(file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Closes every open history
+     */
+    private static synchronized void closeHistories() {
+        for (GameHistory history : histories.values()) {
+            try {
+                history.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        histories.clear();
+    }
+}
@@ -0,0 +1,416 @@
+package main.cardgame.journal;
+
+import main.cardgame.engine.TurnRecorder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Append-only journal of turns, memory-mapped from a file.
+ * Every turn is a fixed-size record of {@link TurnRecord#BYTES} bytes:
+ * <pre>
+ *  0  long  game id
+ *  8  long  timestamp in nanoseconds on the game's clock
+ * 16  int   first slot
+ * 20  int   second slot
+ * 24  int   score delta
+ * 28  int   flags: bit 0 match, bit 31 committed
+ * </pre>
+ * Appending reserves a position with one atomic add and writes the record
+ * straight into the mapped file, so recording a turn takes no lock, no
+ * system call and no allocation. The file grows in mapped regions of
+ * {@value #REGION_SIZE} bytes; once writers are halfway through a region,
+ * a background thread allocates, maps and touches the next one, so writers
+ * do not take page faults either. Any number of games may share one journal.
+ * The flags word is written last with release semantics, so no reader of
+ * the mapping sees it before the rest of the record, and a record that was
+ * cut short by a crash is skipped when the journal is read back. Mapped writes survive a
+ * crash of the process; {@link #force()} also makes them survive a crash
+ * of the machine.
+ */
+
+public class TurnJournal implements AutoCloseable {
+    /** Size of the mapped regions the file grows by; a multiple of the record size */
+    static final int REGION_SIZE = 4 << 20;
+    private static final int HEADER_BYTES = TurnRecord.BYTES;
+    private static final int MAGIC = 0x544A524E; // "TJRN"
+    private static final short VERSION = 1;
+    private static final int MATCH = 1;
+    private static final int COMMITTED = 1 << 31;
+    private static final int PAGE_SIZE = 4096;
+    /** Writes the flags word of a record in the file's byte order, ordered after the record body */
+    private static final VarHandle FLAGS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path path;
+    private final FileChannel channel;
+    /** File offset of the next record to reserve */
+    private final AtomicLong next;
+    /** Mapped regions by index; grown and filled under the journal lock, never touched by writers before */
+    private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+    private volatile boolean closed;
+
+    /**
+     * Opens a journal
+     * @param path The journal file
+     * @param channel The open channel
+     * @param end The file offset after the last record
+     */
+    private TurnJournal(Path path, FileChannel channel, long end) {
+        this.path = path;
+        this.channel = channel;
+        this.next = new AtomicLong(end);
+        int index = (int) (end / REGION_SIZE);
+        mapRegion(index);
+        if (end % REGION_SIZE >= REGION_SIZE / 2) {
+            prepareAhead(index + 1);
+        }
+    }
+
+    /**
+     * Opens a journal file for appending, creating it if it does not exist.
+     * Records are appended after the last committed record in the file.
+     * @param path The journal file
+     * @return The open journal
+     * @throws IOException If the file cannot be opened or is not a turn journal
+     */
+    public static TurnJournal open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long end;
+            if (channel.size() == 0) {
+                writeHeader(channel);
+                end = HEADER_BYTES;
+            } else {
+                checkHeader(channel);
+                end = findEnd(channel);
+            }
+            return new TurnJournal(path, channel, end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the file header of a new journal
+     * @param channel The channel of the empty file
+     * @throws IOException If writing fails
+     */
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) TurnRecord.BYTES);
+        header.putLong(System.currentTimeMillis()); // Creation time, for reference only
+        header.clear();
+        channel.write(header, 0);
+    }
+
+    /**
+     * Verifies the file header of an existing journal
+     * @param channel The channel of the file
+     * @throws IOException If reading fails or the file is not a turn journal
+     */
+    private static void checkHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // Read the whole header
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC
+                || header.getShort(4) != VERSION || header.getShort(6) != TurnRecord.BYTES) {
+            throw new IOException("Not a turn journal: bad header");
+        }
+    }
+
+    /**
+     * Finds the offset after the last committed record. Mapped files grow a
+     * whole region at a time, so the file usually ends in unused records;
+     * they are read backwards in large blocks rather than one flag at a time.
+     * @param channel The channel of the file
+     * @return The offset to append at
+     * @throws IOException If reading fails
+     */
+    private static long findEnd(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long end = HEADER_BYTES + (size - HEADER_BYTES) / TurnRecord.BYTES * TurnRecord.BYTES;
+        ByteBuffer block = ByteBuffer.allocate(RecordSpliterator.BLOCK_RECORDS * TurnRecord.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        while (end > HEADER_BYTES) {
+            long start = Math.max(HEADER_BYTES, end - block.capacity());
+            block.clear().limit((int) (end - start));
+            while (block.hasRemaining()) {
+                if (channel.read(block, start + block.position()) < 0) {
+                    break;
+                }
+            }
+            for (int at = (int) (end - start) - TurnRecord.BYTES; at >= 0; at -= TurnRecord.BYTES) {
+                if ((block.getInt(at + 28) & COMMITTED) != 0) {
+                    return start + at + TurnRecord.BYTES;
+                }
+            }
+            end = start;
+        }
+        return HEADER_BYTES;
+    }
+
+    /**
+     * Appends a turn
+     * @param gameId The id of the game the turn belongs to
+     * @param slot1 The first slot turned over
+     * @param slot2 The second slot turned over
+     * @param match True if the slots matched
+     * @param scoreDelta Points the turn added
+     * @param timestampNanos Time of the turn
+     * @throws IllegalStateException If the journal is closed
+     * @throws UncheckedIOException If the file cannot grow
+     */
+    public void append(long gameId, int slot1, int slot2, boolean match, int scoreDelta, long timestampNanos) {
+        if (closed) {
+            throw new IllegalStateException("Turn journal is closed: " + path);
+        }
+        long offset = next.getAndAdd(TurnRecord.BYTES);
+        int index = (int) (offset / REGION_SIZE);
+        int at = (int) (offset % REGION_SIZE);
+        if (at == REGION_SIZE / 2) {
+            // Exactly one writer passes the middle of each region
+            prepareAhead(index + 1);
+        }
+        MappedByteBuffer region = region(index);
+        region.putLong(at, gameId);
+        region.putLong(at + 8, timestampNanos);
+        region.putInt(at + 16, slot1);
+        region.putInt(at + 20, slot2);
+        region.putInt(at + 24, scoreDelta);
+        FLAGS.setRelease(region, at + 28, COMMITTED | (match ? MATCH : 0));
+    }
+
+    /**
+     * Creates a recorder that appends the turns of one game to this journal
+     * @param gameId The id the game's records carry
+     * @return The recorder, to set on the game's engine
+     */
+    public TurnRecorder recorder(long gameId) {
+        return (slot1, slot2, match, scoreDelta, timestampNanos) ->
+                append(gameId, slot1, slot2, match, scoreDelta, timestampNanos);
+    }
+
+    /**
+     * Gets a mapped region, mapping it (and growing the file) on first use
+     * @param index The region index
+     * @return The mapped region
+     * @throws UncheckedIOException If the region cannot be mapped
+     */
+    private MappedByteBuffer region(int index) {
+        MappedByteBuffer[] current = regions;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        return mapRegion(index);
+    }
+
+    /**
+     * Prepares a region on a background thread before writers reach it
+     * @param index The region index
+     */
+    private void prepareAhead(int index) {
+        if (closed) {
+            return;
+        }
+        Thread.ofVirtual().name("turn-journal-prepare").start(() -> {
+            try {
+                mapRegion(index);
+            } catch (UncheckedIOException e) {
+                // A writer reaching the region maps it itself and reports the failure
+            }
+        });
+    }
+
+    /**
+     * Allocates, maps and touches a region under the journal lock.
+     * No writer can see the region before it is published, so touching it
+     * cannot race with records being written.
+     * @param index The region index
+     * @return The mapped region
+     * @throws UncheckedIOException If the region cannot be mapped
+     */
+    private synchronized MappedByteBuffer mapRegion(int index) {
+        MappedByteBuffer[] current = regions;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        try {
+            preallocate((long) index * REGION_SIZE);
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE,
+                    (long) index * REGION_SIZE, REGION_SIZE);
+            region.order(ByteOrder.LITTLE_ENDIAN);
+            // Fault every page in for writing now, keeping any records already there
+            for (int page = 0; page < REGION_SIZE; page += PAGE_SIZE) {
+                region.put(page, region.get(page));
+            }
+            MappedByteBuffer[] grown = Arrays.copyOf(current, Math.max(current.length, index + 1));
+            grown[index] = region;
+            regions = grown;
+            return region;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes zeros over a region that lies beyond the end of the file, so
+     * its blocks are allocated and cached before records are written to it
+     * @param start The file offset of the region
+     * @throws IOException If writing fails
+     */
+    private void preallocate(long start) throws IOException {
+        long end = start + REGION_SIZE;
+        long position = Math.max(start, channel.size());
+        ByteBuffer zeros = ByteBuffer.allocateDirect(64 << 10);
+        while (position < end) {
+            zeros.clear().limit((int) Math.min(zeros.capacity(), end - position));
+            position += channel.write(zeros, position);
+        }
+    }
+
+    /**
+     * Gets the number of records appended or reserved in this file
+     * @return The record count
+     */
+    public long getRecordCount() {
+        return (next.get() - HEADER_BYTES) / TurnRecord.BYTES;
+    }
+
+    /**
+     * Gets the journal file
+     * @return The path of the file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Writes all mapped records through to the storage device
+     */
+    public void force() {
+        for (MappedByteBuffer region : regions) {
+            if (region != null) {
+                region.force();
+            }
+        }
+    }
+
+    /**
+     * Flushes and closes the journal. Recorders must not be used afterwards.
+     * @throws IOException If closing the file fails
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads a journal back as a stream of turns, in the order they were
+     * appended. Records cut short by a crash are skipped. The stream holds
+     * the file open until it is closed.
+     * @param path The journal file
+     * @return The stream of turns
+     * @throws IOException If the file cannot be opened or is not a turn journal
+     */
+    public static Stream<TurnRecord> replay(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            checkHeader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return StreamSupport.stream(new RecordSpliterator(channel), false).onClose(() -> {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Reads committed records from a journal file in large blocks
+     */
+    private static final class RecordSpliterator extends Spliterators.AbstractSpliterator<TurnRecord> {
+        private static final int BLOCK_RECORDS = 2048;
+
+        private final FileChannel channel;
+        private final ByteBuffer block = ByteBuffer.allocate(BLOCK_RECORDS * TurnRecord.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        private long offset = HEADER_BYTES;
+
+        /**
+         * Creates a reader positioned at the first record
+         * @param channel The channel of the journal file
+         */
+        RecordSpliterator(FileChannel channel) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+            this.channel = channel;
+            block.limit(0);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super TurnRecord> action) {
+            while (true) {
+                if (block.remaining() < TurnRecord.BYTES && !fill()) {
+                    return false;
+                }
+                int at = block.position();
+                block.position(at + TurnRecord.BYTES);
+                int flags = block.getInt(at + 28);
+                if ((flags & COMMITTED) != 0) {
+                    action.accept(new TurnRecord(block.getLong(at), block.getLong(at + 8),
+                            block.getInt(at + 16), block.getInt(at + 20), (flags & MATCH) != 0,
+                            block.getInt(at + 24)));
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Reads the next block of whole records
+         * @return False at the end of the file
+         * @throws UncheckedIOException If reading fails
+         */
+        private boolean fill() {
+            try {
+                block.clear();
+                while (block.hasRemaining()) {
+                    int read = channel.read(block, offset + block.position());
+                    if (read < 0) {
+                        break;
+                    }
+                }
+                int whole = block.position() / TurnRecord.BYTES * TurnRecord.BYTES;
+                offset += whole;
+                block.position(0).limit(whole);
+                return whole > 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
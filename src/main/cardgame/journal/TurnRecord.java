@@ -0,0 +1,15 @@
+package main.cardgame.journal;
+
+/**
+ * One turn read back from a {@link TurnJournal}.
+ * @param gameId The id of the game the turn belongs to
+ * @param timestampNanos Time of the turn on the game's clock
+ * @param slot1 The first slot turned over
+ * @param slot2 The second slot turned over
+ * @param match True if the slots matched
+ * @param scoreDelta Points the turn added, including any end of game bonus
+ */
+public record TurnRecord(long gameId, long timestampNanos, int slot1, int slot2, boolean match, int scoreDelta) {
+    /** Size of a record in the journal file in bytes */
+    public static final int BYTES = 32;
+}
@@ -0,0 +1,314 @@
+package main.cardgame.leaderboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Best score of every player for one mode and difficulty, kept in
+ * leaderboard order. Entries live in an indexable skip list: each link
+ * stores how many entries it jumps over, so a rank, the entry at a rank
+ * and a top-K page are all found in O(log n) steps, plus one per entry
+ * returned. A map from player to entry finds the entry to replace when
+ * a player improves. Reads share a lock and run concurrently; updates
+ * take it exclusively.
+ */
+
+public class Leaderboard {
+    private static final int MAX_LEVEL = 16;
+    /** One in four nodes of a level is promoted to the next */
+    private static final int PROMOTION_BITS = 2;
+
+    private final Node head = new Node(null, MAX_LEVEL);
+    private final Map<String, LeaderboardEntry> best = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SplittableRandom random = new SplittableRandom();
+    private int level = 1;
+    private int size;
+
+    /**
+     * Skip list node; span[i] is the number of level 0 steps that next[i] jumps.
+     * The sort keys are copied out of the entry so a search touches one object per step.
+     */
+    private static final class Node {
+        final LeaderboardEntry entry;
+        final int score;
+        final long achievedAtMillis;
+        final Node[] next;
+        final int[] span;
+
+        Node(LeaderboardEntry entry, int level) {
+            this.entry = entry;
+            this.score = entry == null ? 0 : entry.score();
+            this.achievedAtMillis = entry == null ? 0 : entry.achievedAtMillis();
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+
+        /**
+         * Compares this node with an entry in {@link LeaderboardEntry#ORDER}
+         * @param other The entry
+         * @return A negative number, zero or a positive number if this node comes before, at or after the entry
+         */
+        int compareTo(LeaderboardEntry other) {
+            if (score != other.score()) {
+                return score > other.score() ? -1 : 1;
+            }
+            if (achievedAtMillis != other.achievedAtMillis()) {
+                return achievedAtMillis < other.achievedAtMillis() ? -1 : 1;
+            }
+            return entry.player().compareTo(other.player());
+        }
+    }
+
+    /**
+     * Records a score, keeping only each player's best
+     * @param player The player
+     * @param score The score
+     * @param achievedAtMillis When the score was reached, in epoch milliseconds
+     * @return True if this is the player's first or a better score
+     */
+    public boolean submit(String player, int score, long achievedAtMillis) {
+        LeaderboardEntry entry = new LeaderboardEntry(player, score, achievedAtMillis);
+        lock.writeLock().lock();
+        try {
+            LeaderboardEntry previous = best.get(player);
+            if (previous != null) {
+                if (previous.score() >= score) {
+                    return false;
+                }
+                delete(previous);
+            }
+            best.put(player, entry);
+            insert(entry);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a player, e.g. when the profile is deleted
+     * @param player The player
+     * @return True if the player was on the leaderboard
+     */
+    public boolean remove(String player) {
+        lock.writeLock().lock();
+        try {
+            LeaderboardEntry previous = best.remove(player);
+            if (previous == null) {
+                return false;
+            }
+            delete(previous);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the rank of a player
+     * @param player The player
+     * @return The 1-based rank, or -1 if the player has no score here
+     */
+    public int rankOf(String player) {
+        lock.readLock().lock();
+        try {
+            LeaderboardEntry entry = best.get(player);
+            if (entry == null) {
+                return -1;
+            }
+            Node node = head;
+            int rank = 0;
+            for (int i = level - 1; i >= 0; i--) {
+                while (node.next[i] != null && node.next[i].compareTo(entry) <= 0) {
+                    rank += node.span[i];
+                    node = node.next[i];
+                }
+                if (node.entry == entry) {
+                    return rank;
+                }
+            }
+            throw new IllegalStateException("Leaderboard index lost " + player);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a player's best entry
+     * @param player The player
+     * @return The entry, or null if the player has no score here
+     */
+    public LeaderboardEntry get(String player) {
+        lock.readLock().lock();
+        try {
+            return best.get(player);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the best entries
+     * @param k The largest number of entries to return
+     * @return Up to k entries, best first
+     */
+    public List<LeaderboardEntry> top(int k) {
+        return range(1, k);
+    }
+
+    /**
+     * Gets consecutive entries starting at a rank, e.g. the entries around a player
+     * @param fromRank The 1-based rank of the first entry
+     * @param count The largest number of entries to return
+     * @return Up to count entries in leaderboard order
+     * @throws IllegalArgumentException If the rank is below 1 or the count is negative
+     */
+    public List<LeaderboardEntry> range(int fromRank, int count) {
+        if (fromRank < 1 || count < 0) {
+            throw new IllegalArgumentException("Rank must be at least 1 and count not negative");
+        }
+        lock.readLock().lock();
+        try {
+            List<LeaderboardEntry> entries = new ArrayList<>(Math.min(count, Math.max(0, size - fromRank + 1)));
+            Node node = nodeAt(fromRank);
+            while (node != null && entries.size() < count) {
+                entries.add(node.entry);
+                node = node.next[0];
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets every entry, best first
+     * @return The entries
+     */
+    public List<LeaderboardEntry> entries() {
+        return range(1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the number of players on the leaderboard
+     * @return The number of entries
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the node at a rank; the caller holds the lock
+     * @param rank The 1-based rank
+     * @return The node, or null if the rank is past the end
+     */
+    private Node nodeAt(int rank) {
+        Node node = head;
+        int traversed = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && traversed + node.span[i] <= rank) {
+                traversed += node.span[i];
+                node = node.next[i];
+            }
+            if (traversed == rank) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Links an entry into the skip list; the caller holds the write lock
+     * @param entry The entry
+     */
+    private void insert(LeaderboardEntry entry) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (node.next[i] != null && node.next[i].compareTo(entry) < 0) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+
+        Node inserted = new Node(entry, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            inserted.next[i] = update[i].next[i];
+            update[i].next[i] = inserted;
+            inserted.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    /**
+     * Unlinks an entry from the skip list; the caller holds the write lock
+     * @param entry The entry, which must be in the list
+     */
+    private void delete(LeaderboardEntry entry) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && node.next[i].compareTo(entry) < 0) {
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+        Node removed = update[0].next[0];
+        if (removed == null || removed.entry != entry) {
+            throw new IllegalStateException("Leaderboard index lost " + entry.player());
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == removed) {
+                update[i].span[i] += removed.span[i] - 1;
+                update[i].next[i] = removed.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+    }
+
+    /**
+     * Draws the level of a new node
+     * @return A level between 1 and MAX_LEVEL, each one four times less likely than the one below
+     */
+    private int randomLevel() {
+        long bits = random.nextLong();
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && (bits & ((1 << PROMOTION_BITS) - 1)) == 0) {
+            nodeLevel++;
+            bits >>>= PROMOTION_BITS;
+        }
+        return nodeLevel;
+    }
+}
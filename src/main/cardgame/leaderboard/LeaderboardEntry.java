@@ -0,0 +1,17 @@
+package main.cardgame.leaderboard;
+
+import java.util.Comparator;
+
+/**
+ * A player's best score on one leaderboard.
+ * @param player The profile name
+ * @param score The best score
+ * @param achievedAtMillis When the score was reached, in epoch milliseconds
+ */
+public record LeaderboardEntry(String player, int score, long achievedAtMillis) {
+    /** Leaderboard order: higher scores first, then whoever got there first, then by name */
+    public static final Comparator<LeaderboardEntry> ORDER = Comparator
+            .comparingInt(LeaderboardEntry::score).reversed()
+            .thenComparingLong(LeaderboardEntry::achievedAtMillis)
+            .thenComparing(LeaderboardEntry::player);
+}
@@ -0,0 +1,123 @@
+package main.cardgame.leaderboard;
+
+import main.cardgame.engine.Difficulty;
+import main.cardgame.stats.StatisticsPersister;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Leaderboards of every profile's best score, one per game mode and
+ * difficulty. Scores arrive one at a time as games end, and only a
+ * player's improvement is written: one record appended to the
+ * leaderboard log, which is loaded once at startup. The leaderboards
+ * change at once; the append and any compaction of the log run later on
+ * the {@link StatisticsPersister} writer thread, so a finished game never
+ * waits for the disk.
+ */
+public class LeaderboardManager {
+    /** Log file; -Dcardgame.leaderboardFile=<path> moves it, e.g. for benchmarks */
+    private static final Path FILE = Path.of(System.getProperty("cardgame.leaderboardFile", "leaderboard.dat"));
+    /** The log is compacted once it holds this many records more than twice the live entries */
+    private static final int COMPACT_SLACK = 256;
+
+    private static final Leaderboard[] boards = new Leaderboard[2 * Difficulty.values().length];
+    private static final LeaderboardStore store = new LeaderboardStore(FILE);
+
+    static {
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = new Leaderboard();
+        }
+        try {
+            store.load(boards);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Gets the position of a leaderboard in the board array
+     * @param timed True for timed mode
+     * @param difficulty The difficulty
+     * @return The index
+     */
+    static int indexOf(boolean timed, Difficulty difficulty) {
+        return (timed ? Difficulty.values().length : 0) + difficulty.ordinal();
+    }
+
+    /**
+     * Gets the leaderboard of a mode and difficulty
+     * @param timed True for timed mode, false for endless mode
+     * @param difficulty The difficulty
+     * @return The leaderboard
+     */
+    public static Leaderboard getLeaderboard(boolean timed, Difficulty difficulty) {
+        return boards[indexOf(timed, difficulty)];
+    }
+
+    /**
+     * Records the score of a finished game and saves it if it is the player's best
+     * @param player The profile name
+     * @param timed True for timed mode, false for endless mode
+     * @param difficulty The difficulty
+     * @param score The final score
+     * @return True if the score is the player's new best on this leaderboard
+     */
+    public static boolean recordScore(String player, boolean timed, Difficulty difficulty, int score) {
+        Leaderboard board = getLeaderboard(timed, difficulty);
+        if (!board.submit(player, score, System.currentTimeMillis())) {
+            return false;
+        }
+        LeaderboardEntry entry = board.get(player);
+        StatisticsPersister.submit(() -> {
+            store.appendScore(timed, difficulty, entry);
+            compactIfNeeded();
+        });
+        return true;
+    }
+
+    /**
+     * Gets the rank of a player
+     * @param player The profile name
+     * @param timed True for timed mode, false for endless mode
+     * @param difficulty The difficulty
+     * @return The 1-based rank, or -1 if the player has no score there
+     */
+    public static int getRank(String player, boolean timed, Difficulty difficulty) {
+        return getLeaderboard(timed, difficulty).rankOf(player);
+    }
+
+    /**
+     * Removes a player from every leaderboard, e.g. when the profile is deleted
+     * @param player The profile name
+     */
+    public static void removePlayer(String player) {
+        boolean removed = false;
+        for (Leaderboard board : boards) {
+            removed |= board.remove(player);
+        }
+        if (removed) {
+            StatisticsPersister.submit(() -> {
+                store.appendRemoval(player);
+                compactIfNeeded();
+            });
+        }
+    }
+
+    /**
+     * Rewrites the log once superseded records outnumber the live entries.
+     * Runs on the writer thread; the leaderboards may already hold changes
+     * whose records are still queued, which then follow the rewritten log
+     * and replay to the same entries.
+     * @throws IOException If the log cannot be rewritten
+     */
+    private static void compactIfNeeded() throws IOException {
+        int live = 0;
+        for (Leaderboard board : boards) {
+            live += board.size();
+        }
+        if (store.getRecordCount() > 2 * live + COMPACT_SLACK) {
+            store.compact(boards);
+        }
+    }
+}
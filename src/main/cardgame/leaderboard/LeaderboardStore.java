@@ -0,0 +1,207 @@
+package main.cardgame.leaderboard;
+
+import main.cardgame.engine.Difficulty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Append-only binary log of leaderboard changes. Every improved best
+ * score and every removed player is one small record appended to the
+ * file; loading replays the log into the leaderboards, so nothing is
+ * rebuilt from profiles. Once the log holds many superseded records it
+ * is rewritten with only the live entries, through a temporary file and
+ * an atomic move. A record cut short by a crash is dropped on load.
+ * <pre>
+ * header  int magic "MLBD", short version
+ * record  byte flags (1 = timed, 2 = removal), byte difficulty ordinal,
+ *         int score, long achievedAtMillis, short nameLength, name (UTF-8)
+ * </pre>
+ */
+final class LeaderboardStore {
+    private static final int MAGIC = 0x4D4C4244; // "MLBD"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES;
+    private static final int FIXED_RECORD_BYTES = 2 + Integer.BYTES + Long.BYTES + Short.BYTES;
+    private static final int TIMED = 1;
+    private static final int REMOVAL = 2;
+
+    private final Path file;
+    private int recordCount;
+
+    /**
+     * Creates a store on a file, which is created on the first write
+     * @param file The log file
+     */
+    LeaderboardStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Replays the log into the leaderboards, dropping a torn last record
+     * @param boards The leaderboards, indexed by {@link LeaderboardManager#indexOf(boolean, Difficulty)}
+     * @throws IOException If the file cannot be read or is not a leaderboard log
+     */
+    synchronized void load(Leaderboard[] boards) throws IOException {
+        recordCount = 0;
+        if (!Files.exists(file)) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a leaderboard file: " + file);
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported leaderboard version " + version);
+        }
+        Difficulty[] difficulties = Difficulty.values();
+        int good = buffer.position();
+        try {
+            while (buffer.hasRemaining()) {
+                int flags = buffer.get();
+                int difficulty = buffer.get();
+                int score = buffer.getInt();
+                long achievedAtMillis = buffer.getLong();
+                byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(name);
+                String player = new String(name, StandardCharsets.UTF_8);
+                if ((flags & REMOVAL) != 0) {
+                    for (Leaderboard board : boards) {
+                        board.remove(player);
+                    }
+                } else if (difficulty >= 0 && difficulty < difficulties.length) {
+                    boards[LeaderboardManager.indexOf((flags & TIMED) != 0, difficulties[difficulty])]
+                            .submit(player, score, achievedAtMillis);
+                }
+                good = buffer.position();
+                recordCount++;
+            }
+        } catch (BufferUnderflowException e) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(good);
+            }
+        }
+    }
+
+    /**
+     * Appends a new best score
+     * @param timed True for the timed leaderboards
+     * @param difficulty The difficulty
+     * @param entry The entry
+     * @throws IOException If the record cannot be written
+     */
+    synchronized void appendScore(boolean timed, Difficulty difficulty, LeaderboardEntry entry) throws IOException {
+        append(record(timed ? TIMED : 0, difficulty.ordinal(), entry.score(), entry.achievedAtMillis(),
+                entry.player()));
+    }
+
+    /**
+     * Appends the removal of a player from every leaderboard
+     * @param player The player
+     * @throws IOException If the record cannot be written
+     */
+    synchronized void appendRemoval(String player) throws IOException {
+        append(record(REMOVAL, 0, 0, 0, player));
+    }
+
+    /**
+     * Rewrites the log with only the live entries
+     * @param boards The leaderboards, indexed by {@link LeaderboardManager#indexOf(boolean, Difficulty)}
+     * @throws IOException If the file cannot be written
+     */
+    synchronized void compact(Leaderboard[] boards) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        int written = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                out.write(header().array());
+                for (boolean timed : new boolean[]{false, true}) {
+                    for (Difficulty difficulty : Difficulty.values()) {
+                        List<LeaderboardEntry> entries = boards[LeaderboardManager.indexOf(timed, difficulty)].entries();
+                        for (LeaderboardEntry entry : entries) {
+                            ByteBuffer record = record(timed ? TIMED : 0, difficulty.ordinal(), entry.score(),
+                                    entry.achievedAtMillis(), entry.player());
+                            out.write(record.array(), 0, record.limit());
+                            written++;
+                        }
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            recordCount = written;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Gets the number of records in the log, live or superseded
+     * @return The record count
+     */
+    synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Writes one record at the end of the file, starting the file with a header if it is new
+     * @param record The encoded record
+     * @throws IOException If the write fails
+     */
+    private void append(ByteBuffer record) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            if (channel.size() == 0) {
+                ByteBuffer header = header();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+            }
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        }
+        recordCount++;
+    }
+
+    /**
+     * Encodes the file header
+     * @return The header, ready to read
+     */
+    private static ByteBuffer header() {
+        return ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putShort(VERSION).flip();
+    }
+
+    /**
+     * Encodes a record
+     * @param flags The record flags
+     * @param difficulty The difficulty ordinal
+     * @param score The score
+     * @param achievedAtMillis The time of the score
+     * @param player The player
+     * @return The record, ready to read
+     * @throws IllegalArgumentException If the name does not fit a record
+     */
+    private static ByteBuffer record(int flags, int difficulty, int score, long achievedAtMillis, String player) {
+        byte[] name = player.getBytes(StandardCharsets.UTF_8);
+        if (name.length > 0xFFFF) {
+            throw new IllegalArgumentException("Player name too long for the leaderboard");
+        }
+        return ByteBuffer.allocate(FIXED_RECORD_BYTES + name.length)
+                .put((byte) flags).put((byte) difficulty).putInt(score).putLong(achievedAtMillis)
+                .putShort((short) name.length).put(name).flip();
+    }
+}
@@ -1,73 +1,70 @@
 package main.cardgame.model;
 
-import java.util.Observable;
+import main.cardgame.event.GameEvent;
 
 /**
  * Represents a card in the memory game.
- * Each card has an image, a matched state, and can be flipped.
+ * A card is a lightweight record of a board slot: its pair data lives in a
+ * shared {@link CardFace}, and once placed on a board its face-up and matched
+ * state is read from and written to the board's bitsets, so the card itself
+ * holds no per-slot state. A card that is not on a board keeps its flags in
+ * a single byte. Change notifications are routed through the game board.
  */
 
-public class Card extends Observable implements CardBehavior{
+public class Card implements CardBehavior{
+    private static final byte FACE_UP = 1;
+    private static final byte MATCHED = 2;
+
+    private final CardFace face;
     private int id;
-    private String imagePath;
-    private boolean isMatched;
-    private boolean isFaceUp;
-    private static String backImagePath;
+    private int slot = -1;
+    private GameBoard board;
+    /** Flags of a card that is not on a board */
+    private byte detachedFlags;
 
     /**
-     * Creates a new card with the specified id and image path
+     * Creates a new card with the specified id and pair key
      * @param id The unique identifier for the card
-     * @param imagePath The path to the card's image file
-     */
-    public Card(int id, String imagePath) {
-        this.id = id;
-        this.imagePath = imagePath;
-        this.isMatched = false;
-        this.isFaceUp = false;
-    }
-
-    /**
-     * Notifies observers with the specified event type
-     * @param eventType The type of event that occurred
+     * @param pairKey The key shared by both cards of a pair
      */
-    private void notifyWithEvent(String eventType) {
-        setChanged();
-        notifyObservers(eventType);
+    public Card(int id, int pairKey) {
+        this(id, CardFace.of(pairKey));
     }
 
     /**
-     * Gets the path to the card back image
-     * @return The path to the back image
+     * Creates a new card with the specified id and shared face
+     * @param id The unique identifier for the card
+     * @param face The face shared by both cards of a pair
      */
-    public static String getBackImagePath() {
-        return backImagePath;
+    public Card(int id, CardFace face) {
+        this.id = id;
+        this.face = face;
     }
 
     /**
-     * Sets the path to the card back image
-     * @param backImagePath The path to the back image
+     * Notifies the board holding this card with the specified event type
+     * @param eventType The type of event that occurred
      */
-    public static void setBackImagePath(String backImagePath) {
-        Card.backImagePath = backImagePath;
+    private void notifyWithEvent(GameEvent eventType) {
+        if (board != null) {
+            board.onCardEvent(this, eventType);
+        }
     }
 
     /**
-     * Gets the path to the card's image
-     * @return The path to the card's image
+     * Gets the shared face of this card's pair
+     * @return The card face
      */
-    public String getImagePath() {
-        return imagePath;
+    public CardFace getFace() {
+        return face;
     }
 
     /**
-     * Sets the path to the card's image
-     * @param imagePath The new path to the card's image
+     * Gets the key shared by both cards of a pair
+     * @return The pair key
      */
-    public void setImagePath(String imagePath) {
-        if (imagePath != null && !imagePath.equals(this.imagePath)) {
-            this.imagePath = imagePath;
-            notifyWithEvent("IMAGE_CHANGED");
-        }
+    public int getPairKey() {
+        return face.getPairKey();
     }
 
     /**
@@ -75,7 +72,7 @@ public class Card extends Observable implements CardBehavior{
      * @return True if the card has been matched, false otherwise
      */
     public boolean isMatched() {
-        return isMatched;
+        return board != null ? board.getState().isMatched(slot) : (detachedFlags & MATCHED) != 0;
     }
 
     /**
@@ -83,9 +80,13 @@ public class Card extends Observable implements CardBehavior{
      * @param matched The new matched status
      */
     public void setMatched(boolean matched) {
-        if (this.isMatched != matched) {
-            this.isMatched = matched;
-            notifyWithEvent("MATCHED_STATUS_CHANGED");
+        if (isMatched() != matched) {
+            if (board != null) {
+                board.getState().setMatched(slot, matched);
+            } else {
+                detachedFlags ^= MATCHED;
+            }
+            notifyWithEvent(GameEvent.MATCHED_STATUS_CHANGED);
         }
     }
 
@@ -94,15 +95,19 @@ public class Card extends Observable implements CardBehavior{
      * @return True if the card is face up, false otherwise
      */
     public boolean isFaceUp() {
-        return isFaceUp;
+        return board != null ? board.getState().isFaceUp(slot) : (detachedFlags & FACE_UP) != 0;
     }
 
     /**
      * Flips the card, changing its face up status
      */
     public void flip() {
-        this.isFaceUp = !this.isFaceUp;
-        notifyWithEvent("CARD_FLIPPED");
+        if (board != null) {
+            board.getState().flip(slot);
+        } else {
+            detachedFlags ^= FACE_UP;
+        }
+        notifyWithEvent(GameEvent.CARD_FLIPPED);
     }
 
     /**
@@ -120,35 +125,52 @@ public class Card extends Observable implements CardBehavior{
     public void setId(int id) {
         if (id != this.id) {
             this.id = id;
-            notifyWithEvent("ID_CHANGED");
+            notifyWithEvent(GameEvent.ID_CHANGED);
         }
     }
 
+    /**
+     * Gets the board slot this card occupies
+     * @return The slot number, or -1 if the card is not on a board
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Places the card on a board slot; assigned by the game board.
+     * From here on the card's state is the state of the slot.
+     * @param board The board holding the card
+     * @param slot The slot number
+     */
+    void placeOn(GameBoard board, int slot) {
+        this.board = board;
+        this.slot = slot;
+        this.detachedFlags = 0;
+    }
+
     /**
      * Resets the card to its initial state (face down, not matched)
      */
     public void reset() {
-        boolean changed = false;
-        if (isFaceUp) {
-            isFaceUp = false;
-            changed = true;
-        }
-        if (isMatched) {
-            isMatched = false;
-            changed = true;
-        }
-        if (changed) {
-            notifyWithEvent("CARD_RESET");
+        if (isFaceUp() || isMatched()) {
+            if (board != null) {
+                board.getState().setFaceUp(slot, false);
+                board.getState().setMatched(slot, false);
+            } else {
+                detachedFlags = 0;
+            }
+            notifyWithEvent(GameEvent.CARD_RESET);
         }
     }
 
     /**
      * Check if this card matches another card
      * @param otherCard card to compare with
-     * @return true if the cards have the same image path
+     * @return true if the cards have the same pair key
      */
     public boolean matches(Card otherCard) {
         if (otherCard == null) return false;
-        return this.imagePath != null && this.imagePath.equals(otherCard.getImagePath());
+        return face.getPairKey() == otherCard.getPairKey();
     }
 }
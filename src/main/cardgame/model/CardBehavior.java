@@ -7,10 +7,10 @@ package main.cardgame.model;
 
 public interface CardBehavior {
     /**
-     * Gets the path to the card's image
-     * @return The path to the card's image
+     * Gets the key shared by both cards of a pair
+     * @return The pair key
      */
-    String getImagePath();
+    int getPairKey();
 
     /**
      * Checks if the card has been matched
@@ -0,0 +1,98 @@
+package main.cardgame.model;
+
+/**
+ * Shared, immutable face of a card pair.
+ * Holds the pair key of the pair and derives its image file name; both cards
+ * of a pair, on every board, point to the same interned instance, so cards
+ * only carry a reference instead of their own key and image data.
+ * Interned faces are kept in pages of 64, so a huge board that only
+ * touches a few pair keys does not pay for a table covering all of them.
+ */
+
+public final class CardFace {
+    private static final int PAGE_SHIFT = 6;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /** Interned faces, paged by pair key; pages and the page table grow on demand */
+    private static volatile CardFace[][] pages = new CardFace[1][];
+
+    private final int pairKey;
+
+    /**
+     * Creates a face; use {@link #of(int)} to get the interned instance
+     * @param pairKey The pair key
+     */
+    private CardFace(int pairKey) {
+        this.pairKey = pairKey;
+    }
+
+    /**
+     * Gets the interned face for a pair key
+     * @param pairKey The pair key
+     * @return The shared face
+     * @throws IllegalArgumentException If the pair key is negative
+     */
+    public static CardFace of(int pairKey) {
+        CardFace[][] current = pages;
+        int pageIndex = pairKey >>> PAGE_SHIFT;
+        if (pairKey >= 0 && pageIndex < current.length) {
+            CardFace[] page = current[pageIndex];
+            if (page != null) {
+                CardFace face = page[pairKey & PAGE_MASK];
+                if (face != null) {
+                    return face;
+                }
+            }
+        }
+        return intern(pairKey);
+    }
+
+    /**
+     * Creates and stores the face for a pair key, growing the tables if needed
+     * @param pairKey The pair key
+     * @return The shared face
+     * @throws IllegalArgumentException If the pair key is negative
+     */
+    private static synchronized CardFace intern(int pairKey) {
+        if (pairKey < 0) {
+            throw new IllegalArgumentException("Invalid pair key: " + pairKey);
+        }
+        CardFace[][] current = pages;
+        int pageIndex = pairKey >>> PAGE_SHIFT;
+        if (pageIndex >= current.length) {
+            CardFace[][] grown = new CardFace[Math.max(pageIndex + 1, current.length * 2)][];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            current = grown;
+        }
+        CardFace[] page = current[pageIndex];
+        if (page == null) {
+            page = new CardFace[PAGE_SIZE];
+            current[pageIndex] = page;
+        }
+        CardFace face = page[pairKey & PAGE_MASK];
+        if (face == null) {
+            face = new CardFace(pairKey);
+            page[pairKey & PAGE_MASK] = face;
+        }
+        // Publish the updated tables; the faces themselves are immutable
+        pages = current;
+        return face;
+    }
+
+    /**
+     * Gets the key shared by both cards of the pair
+     * @return The pair key
+     */
+    public int getPairKey() {
+        return pairKey;
+    }
+
+    /**
+     * Gets the image file name of the pair, relative to the level's image folder
+     * @return The image file name
+     */
+    public String getImageName() {
+        return "card" + (pairKey + 1) + ".png";
+    }
+}
@@ -0,0 +1,68 @@
+package main.cardgame.model;
+
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Read-only, array-backed snapshot of the cards in a {@link Deck}.
+ * Shares the deck's array instead of copying it; the deck copies the array
+ * itself before its next change, so a view never changes after creation.
+ * Any mutating List method throws UnsupportedOperationException.
+ */
+
+public final class CardView extends AbstractList<Card> implements RandomAccess {
+    private final Card[] cards;
+    private final int size;
+    private final long version;
+
+    /**
+     * Creates a view over the first cards of an array
+     * @param cards The backing array, which must not change while the view exists
+     * @param size The number of cards in the view
+     * @param version The deck version the view was taken at
+     */
+    CardView(Card[] cards, int size, long version) {
+        this.cards = cards;
+        this.size = size;
+        this.version = version;
+    }
+
+    /**
+     * Gets the card at a position
+     * @param index The position
+     * @return The card
+     * @throws IndexOutOfBoundsException If the index is outside the view
+     */
+    @Override
+    public Card get(int index) {
+        Objects.checkIndex(index, size);
+        return cards[index];
+    }
+
+    /**
+     * Gets the number of cards in the view
+     * @return The number of cards
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the deck version this view was taken at
+     * @return The version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks if the deck is still unchanged since this view was taken
+     * @param deck The deck the view was taken from
+     * @return True if the view shows the deck's current contents
+     */
+    public boolean isCurrent(Deck deck) {
+        return deck.getVersion() == version;
+    }
+}
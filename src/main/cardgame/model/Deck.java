@@ -1,115 +1,436 @@
 package main.cardgame.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Observable;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+import main.cardgame.engine.Difficulty;
+import main.cardgame.event.EventBus;
+import main.cardgame.event.GameEvent;
 
 /**
  * Represents a deck of cards in the memory game.
  * Contains methods for creating, shuffling, and managing cards.
+ * Each deck owns a seeded random generator, so shuffles are reproducible
+ * and decks built on different threads never share generator state.
+ * The same seed and difficulty always produce the same layout, which is
+ * also the layout of {@link main.cardgame.engine.BoardState#shuffled}
+ * given a generator created from that seed.
+ * Cards are kept in an array that is shared with the read-only
+ * {@link CardView} snapshots handed out by {@link #getCards()} and
+ * {@link #shuffle()}; the array is only copied when the deck changes
+ * while a snapshot of it is still out.
  */
 
-public class Deck extends Observable {
-    private List<Card> cards;
+public class Deck {
+    private static final Card[] NO_CARDS = new Card[0];
+    private static final Comparator<Card> BY_ID = (card1, card2) -> Integer.compare(card1.getId(), card2.getId());
+
+    private Card[] cards;
+    private int size;
+    /** True while the cards array is referenced by a handed out view */
+    private boolean shared;
+    /** Incremented on every change to the cards */
+    private long version;
+    private final long seed;
+    private final RandomGenerator random;
+    private EventBus eventBus;
 
     /**
-     * Creates an empty deck of cards
+     * Creates an empty deck of cards with a random seed
      */
     public Deck() {
-        this.cards = new ArrayList<>();
+        this(newSeed());
+    }
+
+    /**
+     * Creates an empty deck of cards whose shuffles are determined by a seed,
+     * using a {@link SplittableRandom} generator
+     * @param seed The shuffle seed
+     */
+    public Deck(long seed) {
+        this.cards = NO_CARDS;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
     }
 
     /**
-     * Creates a deck with the given list of cards
+     * Creates an empty deck of cards using a named generator algorithm
+     * such as "Xoshiro256PlusPlus" or "L64X128MixRandom"
+     * @param seed The shuffle seed
+     * @param algorithm The name of the random generator algorithm
+     * @throws IllegalArgumentException If the algorithm is not available
+     */
+    public Deck(long seed, String algorithm) {
+        this.cards = NO_CARDS;
+        this.seed = seed;
+        this.random = RandomGeneratorFactory.of(algorithm).create(seed);
+    }
+
+    /**
+     * Creates a deck with the given list of cards and a random seed
      * @param cards The initial list of cards for the deck
      */
     public Deck(List<Card> cards) {
-        this.cards = new ArrayList<>(cards); // Create a copy of the input list
+        this(newSeed());
+        this.cards = cards.toArray(NO_CARDS); // Copy the input list
+        this.size = this.cards.length;
         sortById();
     }
 
+    /**
+     * Creates a deck from a builder
+     * @param builder The builder holding the cards and generator settings
+     */
+    private Deck(Builder builder) {
+        this.cards = builder.cards;
+        this.size = builder.size;
+        this.seed = builder.seed;
+        this.random = builder.algorithm == null
+                ? new SplittableRandom(builder.seed)
+                : RandomGeneratorFactory.of(builder.algorithm).create(builder.seed);
+        this.eventBus = builder.eventBus;
+    }
+
+    /**
+     * Builds a deck in one pass: cards are collected without sorting or
+     * notifications, sorted at most once, optionally shuffled, and the
+     * finished deck publishes a single DECK_BUILT event.
+     */
+    public static class Builder {
+        private Card[] cards = NO_CARDS;
+        private int size;
+        private boolean sorted = true;
+        private int lastId = Integer.MIN_VALUE;
+        private long seed;
+        private String algorithm;
+        private boolean shuffle;
+        private EventBus eventBus;
+
+        /**
+         * Creates a builder with a random seed
+         */
+        public Builder() {
+            this.seed = newSeed();
+        }
+
+        /**
+         * Sets the seed that determines the deck's shuffles
+         * @param seed The shuffle seed
+         * @return This builder
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets a named random generator algorithm instead of SplittableRandom
+         * @param algorithm The name of the random generator algorithm
+         * @return This builder
+         */
+        public Builder algorithm(String algorithm) {
+            this.algorithm = algorithm;
+            return this;
+        }
+
+        /**
+         * Sets the event bus the deck publishes to, including the DECK_BUILT event
+         * @param eventBus The event bus
+         * @return This builder
+         */
+        public Builder eventBus(EventBus eventBus) {
+            this.eventBus = eventBus;
+            return this;
+        }
+
+        /**
+         * Reserves room for a number of cards
+         * @param cardCount The expected number of cards
+         * @return This builder
+         */
+        public Builder capacity(int cardCount) {
+            if (cardCount > cards.length) {
+                cards = Arrays.copyOf(cards, cardCount);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a card; the deck is sorted by id once when built
+         * @param card The card to add; null is ignored
+         * @return This builder
+         */
+        public Builder addCard(Card card) {
+            if (card != null) {
+                sorted &= card.getId() >= lastId;
+                lastId = card.getId();
+                if (size == cards.length) {
+                    cards = Arrays.copyOf(cards, Math.max(16, size + (size >> 1)));
+                }
+                cards[size++] = card;
+            }
+            return this;
+        }
+
+        /**
+         * Adds two cards for every pair key from 0 to pairs - 1, with ids
+         * continuing after the largest id added so far
+         * @param pairs The number of pairs to add
+         * @return This builder
+         * @throws IllegalArgumentException If the number of pairs is negative
+         */
+        public Builder addPairs(int pairs) {
+            if (pairs < 0) {
+                throw new IllegalArgumentException("Number of pairs cannot be negative: " + pairs);
+            }
+            capacity(size + pairs * 2);
+            int nextId = size == 0 ? 1 : maxId() + 1;
+            for (int pairKey = 0; pairKey < pairs; pairKey++) {
+                addCard(new Card(nextId++, pairKey));
+                addCard(new Card(nextId++, pairKey));
+            }
+            return this;
+        }
+
+        /**
+         * Shuffles the deck once it is built, without a separate DECK_SHUFFLED event
+         * @return This builder
+         */
+        public Builder shuffled() {
+            this.shuffle = true;
+            return this;
+        }
+
+        /**
+         * Finds the largest id added so far
+         * @return The largest card id
+         */
+        private int maxId() {
+            if (sorted) {
+                return lastId;
+            }
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                max = Math.max(max, cards[i].getId());
+            }
+            return max;
+        }
+
+        /**
+         * Builds the deck. The builder must not be used afterwards.
+         * @return The new deck
+         * @throws IllegalArgumentException If the algorithm is not available
+         */
+        public Deck build() {
+            Deck deck = new Deck(this);
+            cards = null;
+            if (!sorted) {
+                deck.sortById();
+            }
+            if (shuffle) {
+                deck.shuffleCards();
+            }
+            deck.notifyWithEvent(GameEvent.DECK_BUILT);
+            return deck;
+        }
+    }
+
+    /**
+     * Picks a seed for a deck that was not given one, without touching any shared generator
+     * @return A new random seed
+     */
+    private static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
     /**
      * Notifies observers with the specified event type
      * @param eventType The type of event that occurred
      */
-    private void notifyWithEvent(String eventType) {
-        setChanged();
-        notifyObservers(eventType);
+    private void notifyWithEvent(GameEvent eventType) {
+        if (eventBus != null) {
+            eventBus.publish(eventType, this);
+        }
+    }
+
+    /**
+     * Sets the event bus this deck publishes to
+     * @param eventBus The event bus, or null to stop publishing
+     */
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Gets the event bus this deck publishes to
+     * @return The event bus, or null if none is set
+     */
+    public EventBus getEventBus() {
+        return eventBus;
     }
 
     /**
      * Sorts the deck of cards by their ID
      */
     private void sortById() {
-        cards.sort((card1, card2) -> Integer.compare(card1.getId(), card2.getId())); // Sort by id
+        prepareForChange();
+        Arrays.sort(cards, 0, size, BY_ID); // Sort by id
+    }
+
+    /**
+     * Makes the cards array safe to change: copies it if a view still
+     * references it, and bumps the version
+     */
+    private void prepareForChange() {
+        if (shared) {
+            cards = Arrays.copyOf(cards, cards.length);
+            shared = false;
+        }
+        version++;
+    }
+
+    /**
+     * Creates a read-only snapshot of the current cards without copying them
+     * @return The snapshot
+     */
+    private CardView view() {
+        shared = true;
+        return new CardView(cards, size, version);
+    }
+
+    /**
+     * Gets the cards in the deck as a read-only snapshot.
+     * No copy is made; later changes to the deck do not show in the snapshot.
+     * @return The cards in the deck
+     */
+    public CardView getCards() {
+        return view();
+    }
+
+    /**
+     * Gets the number of cards in the deck
+     * @return The number of cards
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the version of the deck contents, incremented on every change.
+     * A view is current while its version equals this one.
+     * @return The version
+     */
+    public long getVersion() {
+        return version;
     }
 
     /**
-     * Gets the list of cards in the deck
-     * @return A copy of the list of cards
+     * Gets the seed that determines this deck's shuffles
+     * @return The seed
      */
-    public List<Card> getCards() {
-        return new ArrayList<>(cards); // Return a copy to preserve immutability
+    public long getSeed() {
+        return seed;
     }
 
     /**
-     * Shuffles the cards in the deck
-     * @return A copy of the shuffled list of cards
+     * Shuffles the cards in the deck with the deck's own generator
+     * @return A read-only snapshot of the shuffled cards
      */
-    public List<Card> shuffle() {
-        Collections.shuffle(cards);
-        notifyWithEvent("DECK_SHUFFLED");
-        return new ArrayList<>(cards); // Return a copy of the shuffled list
+    public CardView shuffle() {
+        shuffleCards();
+        notifyWithEvent(GameEvent.DECK_SHUFFLED);
+        return view();
     }
 
     /**
-     * Adds a card to the deck
+     * Shuffles the cards with Fisher-Yates, in the same order as BoardState.shuffled
+     */
+    private void shuffleCards() {
+        prepareForChange();
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Card tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+    }
+
+    /**
+     * Adds a card to the deck, keeping the deck sorted by id.
+     * To add many cards at once use {@link Builder}, which sorts and notifies only once.
      * @param card The card to add to the deck
      */
     public void addCard(Card card) {
         if (card != null) {
-            cards.add(card); // Add the card to the deck
-            sortById();
-            notifyWithEvent("CARD_ADDED");
+            prepareForChange();
+            if (size == cards.length) {
+                cards = Arrays.copyOf(cards, Math.max(16, size + (size >> 1)));
+            }
+            int index = insertionPoint(card.getId());
+            System.arraycopy(cards, index, cards, index + 1, size - index);
+            cards[index] = card;
+            size++;
+            notifyWithEvent(GameEvent.CARD_ADDED);
+        }
+    }
+
+    /**
+     * Finds where a card with the given id belongs, after any cards with the same id
+     * @param id The card id
+     * @return The index to insert at
+     */
+    private int insertionPoint(int id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cards[mid].getId() <= id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
+        return low;
     }
 
     /**
-     * Creates a deck for the specified difficulty level
+     * Creates a shuffled deck for the specified difficulty level with a random seed
      * @param level The difficulty level ("easy", "medium", or "hard")
      * @return A new deck with the appropriate number of card pairs
      * @throws IllegalArgumentException If the specified level is invalid
      */
     public static Deck createDeckForLevel(String level) {
-        int pairs;
-        String folder;
-
-        switch (level.toLowerCase()) {
-            case "easy":
-                pairs = 6;
-                folder = "easy";
-                break;
-            case "medium":
-                pairs = 10;
-                folder = "medium";
-                break;
-            case "hard":
-                pairs = 15;
-                folder = "hard";
-                break;
-            default:
-                throw new IllegalArgumentException("Invalid difficulty level: " + level);
-        }
+        return createDeckForLevel(level, newSeed());
+    }
 
-        Deck deck = new Deck();
-        int uniqueId = 1;
-        for (int i = 1; i <= pairs; i++) {
-            String imagePath = "file:src/main/resources/images/" + folder + "/card" + i + ".png";
-            deck.addCard(new Card(uniqueId++, imagePath));
-            deck.addCard(new Card(uniqueId++, imagePath));
-        }
-        deck.shuffle();
-        return deck;
+    /**
+     * Creates a shuffled deck for the specified difficulty level.
+     * Each pair gets a dense int pair key (0 to pairs - 1); the UI maps
+     * the key to the card image of the level.
+     * @param level The difficulty level ("easy", "medium", or "hard")
+     * @param seed The shuffle seed; the same seed always gives the same layout
+     * @return A new deck with the appropriate number of card pairs
+     * @throws IllegalArgumentException If the specified level is invalid
+     */
+    public static Deck createDeckForLevel(String level, long seed) {
+        return new Builder().seed(seed).addPairs(Difficulty.fromLevel(level).getPairs()).shuffled().build();
+    }
+
+    /**
+     * Creates a shuffled deck for the specified difficulty level using a named generator algorithm
+     * @param level The difficulty level ("easy", "medium", or "hard")
+     * @param seed The shuffle seed
+     * @param algorithm The name of the random generator algorithm
+     * @return A new deck with the appropriate number of card pairs
+     * @throws IllegalArgumentException If the level or algorithm is invalid
+     */
+    public static Deck createDeckForLevel(String level, long seed, String algorithm) {
+        return new Builder().seed(seed).algorithm(algorithm)
+                .addPairs(Difficulty.fromLevel(level).getPairs()).shuffled().build();
     }
 }
@@ -1,22 +1,39 @@
 package main.cardgame.model;
 
+import main.cardgame.engine.BoardState;
+import main.cardgame.engine.Difficulty;
+import main.cardgame.event.EventBus;
+import main.cardgame.event.GameEvent;
+
 import java.util.List;
-import java.util.Observable;
-import java.util.Observer;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents the game board for the memory card game.
  * Contains a grid of cards and tracks matched pairs.
+ * Match and face-up state lives in bitsets of a primitive {@link BoardState}
+ * shared with the headless engine; cards read and write their slot's flags
+ * there, and this class answers board queries without walking the cards.
+ * Cards are kept in fixed-size chunks that are only allocated when a card
+ * in them is placed or requested, so boards of any size (up to 1000x1000
+ * and beyond) cost a few bytes per untouched cell.
  */
 
-public class GameBoard extends Observable {
-    private Card[][] board;
+public final class GameBoard implements BoardState.MatchListener {
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private Card[][] cardChunks;
     private int rows;
     private int cols;
-    private int matchedPairsCount = 0;
-    private final int totalPairs;
-    private Observer mainObserver; // Track the main observer for the board
-    private Object observer;
+    private BoardState state;
+    /** Seed the layout was shuffled with, or null if unknown */
+    private Long seed;
+    private EventBus eventBus;
 
     /**
      * Creates a new game board for the specified difficulty level with the given cards
@@ -24,21 +41,85 @@ public class GameBoard extends Observable {
      * @param cards The list of cards to place on the board
      */
     public GameBoard(String level, List<Card> cards) {
-        this.rows = determineRows(level);
-        this.cols = determineCols(level);
-        this.board = new Card[rows][cols];
-        this.totalPairs = (rows * cols) / 2;
-
+        allocate(determineRows(level), determineCols(level));
         initializeBoard(cards);
     }
 
+    /**
+     * Creates a new game board for the specified difficulty level with the
+     * cards of a deck, recording the deck's seed so the layout can be replayed
+     * @param level The difficulty level ("easy", "medium", or "hard")
+     * @param deck The deck whose cards are placed on the board, in deck order
+     */
+    public GameBoard(String level, Deck deck) {
+        this(level, deck.getCards());
+        this.seed = deck.getSeed();
+    }
+
+    /**
+     * Creates a shuffled board of any size from a seed. The layout matches a
+     * deck of the same size created with this seed.
+     * @param rows The number of rows
+     * @param cols The number of columns
+     * @param seed The shuffle seed
+     * @throws IllegalArgumentException If the dimensions are not positive or the slot count is odd
+     */
+    public GameBoard(int rows, int cols, long seed) {
+        this(rows, cols, new SplittableRandom(seed));
+        this.seed = seed;
+    }
+
+    /**
+     * Creates a shuffled board of any size. Cards are created on demand the
+     * first time a slot is requested, which keeps huge boards cheap.
+     * @param rows The number of rows
+     * @param cols The number of columns
+     * @param random The random generator used for shuffling
+     * @throws IllegalArgumentException If the dimensions are not positive or the slot count is odd
+     */
+    public GameBoard(int rows, int cols, RandomGenerator random) {
+        this.rows = rows;
+        this.cols = cols;
+        this.state = BoardState.shuffled(rows, cols, random);
+        this.state.setMatchListener(this);
+        this.cardChunks = new Card[chunkCount(state.size())][];
+    }
+
+    /**
+     * Allocates empty storage for the given dimensions
+     * @param rows The number of rows
+     * @param cols The number of columns
+     * @throws IllegalArgumentException If the dimensions are not positive or the slot count is odd
+     */
+    private void allocate(int rows, int cols) {
+        BoardState newState = new BoardState(rows, cols);
+        newState.setMatchListener(this);
+        if (state != null) {
+            state.setMatchListener(null);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.state = newState;
+        this.cardChunks = new Card[chunkCount(newState.size())][];
+    }
+
+    /**
+     * Calculates the number of card chunks needed for a number of slots
+     * @param slots The number of slots
+     * @return The number of chunks
+     */
+    private static int chunkCount(int slots) {
+        return (slots + CHUNK_MASK) >>> CHUNK_SHIFT;
+    }
+
     /**
      * Notifies observers with the specified event type
      * @param eventType The type of event that occurred
      */
-    private void notifyWithEvent(String eventType) {
-        setChanged();
-        notifyObservers(eventType);
+    private void notifyWithEvent(GameEvent eventType) {
+        if (eventBus != null) {
+            eventBus.publish(eventType, this);
+        }
     }
 
     /**
@@ -48,16 +129,7 @@ public class GameBoard extends Observable {
      * @throws IllegalArgumentException If the level is not valid
      */
     public int determineRows(String level) {
-        switch (level.toLowerCase()) {
-            case "easy":
-                return 3;
-            case "medium":
-                return 4;
-            case "hard":
-                return 5;
-            default:
-                throw new IllegalArgumentException("Invalid level: " + level);
-        }
+        return Difficulty.fromLevel(level).getRows();
     }
 
     /**
@@ -67,16 +139,7 @@ public class GameBoard extends Observable {
      * @throws IllegalArgumentException If the level is not valid
      */
     public int determineCols(String level) {
-        switch (level.toLowerCase()) {
-            case "easy":
-                return 4;
-            case "medium":
-                return 5;
-            case "hard":
-                return 6;
-            default:
-                throw new IllegalArgumentException("Invalid level: " + level);
-        }
+        return Difficulty.fromLevel(level).getCols();
     }
 
     /**
@@ -87,7 +150,7 @@ public class GameBoard extends Observable {
      */
     public Card getCard(int row, int col) {
         if (isValidPosition(row, col)) {
-            return board[row][col];
+            return getCardAt(row * cols + col);
         }
         return null;
     }
@@ -107,7 +170,7 @@ public class GameBoard extends Observable {
      * @return True if all cards have been matched, false otherwise
      */
     public boolean allCardsMatched() {
-        return matchedPairsCount == totalPairs;
+        return state.allCardsMatched();
     }
 
     /**
@@ -121,16 +184,105 @@ public class GameBoard extends Observable {
             return false;
         }
 
-        boolean isMatch = card1.getImagePath().equals(card2.getImagePath());
+        return state.checkMatch(slotOf(card1), slotOf(card2));
+    }
 
-        if (isMatch && !card1.isMatched() && !card2.isMatched() && card1 != card2) {
-            card1.setMatched(true);
-            card2.setMatched(true);
-            matchedPairsCount++;
-            notifyWithEvent("MATCH_FOUND");
+    /**
+     * Gets the board slot of a card placed on this board
+     * @param card The card to look up
+     * @return The slot number
+     * @throws IllegalArgumentException If the card is not on this board
+     */
+    public int slotOf(Card card) {
+        int slot = card.getSlot();
+        if (slot < 0 || slot >= state.size() || peekCard(slot) != card) {
+            throw new IllegalArgumentException("Card " + card.getId() + " is not on this board");
         }
+        return slot;
+    }
 
-        return isMatch;
+    /**
+     * Gets the card placed in a slot, creating it from the board state if
+     * the slot has not been requested before
+     * @param slot The slot number
+     * @return The card in the slot
+     * @throws IndexOutOfBoundsException If the slot is outside the board
+     */
+    public Card getCardAt(int slot) {
+        Objects.checkIndex(slot, state.size());
+        Card card = peekCard(slot);
+        if (card == null) {
+            card = new Card(slot + 1, CardFace.of(state.pairKeyAt(slot)));
+            card.placeOn(this, slot);
+            putCard(slot, card);
+        }
+        return card;
+    }
+
+    /**
+     * Gets the card in a slot without creating it
+     * @param slot The slot number
+     * @return The card, or null if no card has been created for the slot yet
+     */
+    private Card peekCard(int slot) {
+        Card[] chunk = cardChunks[slot >>> CHUNK_SHIFT];
+        return chunk == null ? null : chunk[slot & CHUNK_MASK];
+    }
+
+    /**
+     * Stores a card in a slot, allocating its chunk if needed
+     * @param slot The slot number
+     * @param card The card to store
+     */
+    private void putCard(int slot, Card card) {
+        Card[] chunk = cardChunks[slot >>> CHUNK_SHIFT];
+        if (chunk == null) {
+            chunk = new Card[CHUNK_SIZE];
+            cardChunks[slot >>> CHUNK_SHIFT] = chunk;
+        }
+        chunk[slot & CHUNK_MASK] = card;
+    }
+
+    /**
+     * Counts the cards that have been created for this board so far
+     * @return The number of card objects held by the board
+     */
+    public int getMaterializedCardCount() {
+        int count = 0;
+        for (Card[] chunk : cardChunks) {
+            if (chunk != null) {
+                for (Card card : chunk) {
+                    if (card != null) count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Marks both cards of a newly matched pair; called by the board state
+     * @param slot1 The first slot of the pair
+     * @param slot2 The second slot of the pair
+     */
+    @Override
+    public void onPairMatched(int slot1, int slot2) {
+        // Cards read the matched flag from the state; only announce the change
+        Card card1 = peekCard(slot1);
+        Card card2 = peekCard(slot2);
+        if (card1 != null) onCardEvent(card1, GameEvent.MATCHED_STATUS_CHANGED);
+        if (card2 != null) onCardEvent(card2, GameEvent.MATCHED_STATUS_CHANGED);
+        notifyWithEvent(GameEvent.MATCH_FOUND);
+    }
+
+    /**
+     * Publishes a change of a card on this board with the card as source
+     * @param card The card that changed
+     * @param eventType The event type
+     */
+    void onCardEvent(Card card, GameEvent eventType) {
+        if (eventBus != null) {
+            eventBus.publish(eventType, card);
+        }
     }
 
     /**
@@ -143,23 +295,28 @@ public class GameBoard extends Observable {
             throw new IllegalArgumentException("Cards list cannot be null");
         }
 
-        if (cards.size() != rows * cols) {
+        if (cards.size() != state.size()) {
             throw new IllegalArgumentException(
-                    "Invalid number of cards. Expected " + (rows * cols) +
+                    "Invalid number of cards. Expected " + state.size() +
                             " but got " + cards.size()
             );
         }
 
-        int index = 0;
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < cols; col++) {
-                board[row][col] = cards.get(index++);
-            }
+        int[] pairKeys = new int[cards.size()];
+        for (int slot = 0; slot < pairKeys.length; slot++) {
+            pairKeys[slot] = cards.get(slot).getPairKey();
         }
 
-        // Reset matched pairs when initializing a new board
-        matchedPairsCount = 0;
-        notifyWithEvent("BOARD_INITIALIZED");
+        // Loading the keys also resets matched pairs and face-up flags
+        state.load(pairKeys);
+        for (int slot = 0; slot < pairKeys.length; slot++) {
+            Card card = cards.get(slot);
+            // Carry over the flip state the card had before it was placed
+            state.setFaceUp(slot, card.isFaceUp());
+            card.placeOn(this, slot);
+            putCard(slot, card);
+        }
+        notifyWithEvent(GameEvent.BOARD_INITIALIZED);
     }
 
     /**
@@ -171,13 +328,16 @@ public class GameBoard extends Observable {
     }
 
     /**
-     * Sets the number of rows in the game board
+     * Sets the number of rows in the game board.
+     * The board is reallocated empty; call {@link #initializeBoard(List)} with
+     * the new cards before playing, and start a new game for the new state.
      * @param rows The new number of rows
+     * @throws IllegalArgumentException If the new slot count is odd or too large
      */
     public void setRows(int rows) {
         if (rows > 0 && rows != this.rows) {
-            this.rows = rows;
-            notifyWithEvent("ROWS_CHANGED");
+            allocate(rows, cols);
+            notifyWithEvent(GameEvent.ROWS_CHANGED);
         }
     }
 
@@ -190,22 +350,32 @@ public class GameBoard extends Observable {
     }
 
     /**
-     * Sets the number of columns in the game board
+     * Sets the number of columns in the game board.
+     * The board is reallocated empty, as with {@link #setRows(int)}.
      * @param cols The new number of columns
+     * @throws IllegalArgumentException If the new slot count is odd or too large
      */
     public void setCols(int cols) {
         if (cols > 0 && cols != this.cols) {
-            this.cols = cols;
-            notifyWithEvent("COLS_CHANGED");
+            allocate(rows, cols);
+            notifyWithEvent(GameEvent.COLS_CHANGED);
         }
     }
 
+    /**
+     * Gets the number of slots on the board
+     * @return The number of slots
+     */
+    public int size() {
+        return state.size();
+    }
+
     /**
      * Gets the count of matched pairs
      * @return The number of matched pairs
      */
     public int getMatchedPairsCount() {
-        return matchedPairsCount;
+        return state.getMatchedPairsCount();
     }
 
     /**
@@ -213,9 +383,10 @@ public class GameBoard extends Observable {
      * @param matchedPairsCount The new count of matched pairs
      */
     public void setMatchedPairsCount(int matchedPairsCount) {
-        if (matchedPairsCount >= 0 && matchedPairsCount <= totalPairs && matchedPairsCount != this.matchedPairsCount) {
-            this.matchedPairsCount = matchedPairsCount;
-            notifyWithEvent("MATCHED_PAIRS_CHANGED");
+        if (matchedPairsCount >= 0 && matchedPairsCount <= state.getTotalPairs()
+                && matchedPairsCount != state.getMatchedPairsCount()) {
+            state.setMatchedPairsCount(matchedPairsCount);
+            notifyWithEvent(GameEvent.MATCHED_PAIRS_CHANGED);
         }
     }
 
@@ -224,32 +395,80 @@ public class GameBoard extends Observable {
      * @return The total number of pairs
      */
     public int getTotalPairs() {
-        return totalPairs;
+        return state.getTotalPairs();
     }
 
     /**
-     * Store the observer for retrieval later
-     * @param o The observer to add
+     * Gets the number of cards that have not been matched yet
+     * @return The number of unmatched cards
      */
-    @Override
-    public synchronized void addObserver(Observer o) {
-        super.addObserver(o);
-        this.mainObserver = o;
+    public int getUnmatchedCount() {
+        return state.getUnmatchedCount();
+    }
+
+    /**
+     * Gets the number of face up cards
+     * @return The number of face up cards
+     */
+    public int getFaceUpCount() {
+        return state.getFaceUpCount();
+    }
+
+    /**
+     * Finds the first unmatched slot at or after a given slot
+     * @param fromSlot The slot to start searching from
+     * @return The next unmatched slot, or -1 if there is none
+     */
+    public int nextUnmatchedSlot(int fromSlot) {
+        return state.nextUnmatchedSlot(fromSlot);
+    }
+
+    /**
+     * Finds the first face down slot at or after a given slot
+     * @param fromSlot The slot to start searching from
+     * @return The next face down slot, or -1 if there is none
+     */
+    public int nextFaceDownSlot(int fromSlot) {
+        return state.nextFaceDownSlot(fromSlot);
+    }
+
+    /**
+     * Calls an action for every face down slot, in slot order
+     * @param action The action receiving each face down slot
+     */
+    public void forEachFaceDownSlot(IntConsumer action) {
+        state.forEachFaceDownSlot(action);
+    }
+
+    /**
+     * Gets the seed the board layout was shuffled with
+     * @return The seed, or null if the board was built from cards of unknown origin
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the primitive board state shared with the game engine
+     * @return The board state
+     */
+    public BoardState getState() {
+        return state;
     }
 
     /**
-     * Gets the observer
-     * @return The observer object
+     * Sets the event bus this board and its cards publish to
+     * @param eventBus The event bus, or null to stop publishing
      */
-    public Object getObserver() {
-        return observer;
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
     }
 
     /**
-     * Sets the observer
-     * @param observer The new observer
+     * Gets the event bus this board and its cards publish to
+     * @return The event bus, or null if none is set
      */
-    public void setObserver(Object observer) {
-        this.observer = observer;
+    public EventBus getEventBus() {
+        return eventBus;
     }
 }
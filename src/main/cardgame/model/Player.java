@@ -1,16 +1,18 @@
 package main.cardgame.model;
 
-import java.util.Observable;
+import main.cardgame.event.EventBus;
+import main.cardgame.event.GameEvent;
 
 /**
  * Represents a player in the memory card game.
  * Tracks player's name, score, and number of moves made during gameplay.
  */
 
-public class Player extends Observable {
+public class Player {
     private String name;
     private int score;
     private int moves;
+    private EventBus eventBus;
 
     /**
      * Creates a new player with default name and reset statistics
@@ -35,9 +37,26 @@ public class Player extends Observable {
      * Notifies observers with the specified event type
      * @param eventType The type of event that occurred
      */
-    private void notifyWithEvent(String eventType) {
-        setChanged();
-        notifyObservers(eventType);
+    private void notifyWithEvent(GameEvent eventType) {
+        if (eventBus != null) {
+            eventBus.publish(eventType, this);
+        }
+    }
+
+    /**
+     * Sets the event bus this player publishes to
+     * @param eventBus The event bus, or null to stop publishing
+     */
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Gets the event bus this player publishes to
+     * @return The event bus, or null if none is set
+     */
+    public EventBus getEventBus() {
+        return eventBus;
     }
 
     /**
@@ -55,7 +74,7 @@ public class Player extends Observable {
     public void setName(String name) {
         if (name != null && !name.trim().isEmpty() && !name.equals(this.name)) {
             this.name = name;
-            notifyWithEvent("NAME_CHANGED");
+            notifyWithEvent(GameEvent.NAME_CHANGED);
         }
     }
 
@@ -74,7 +93,7 @@ public class Player extends Observable {
     public void setScore(int newScore) {
         if (newScore >= 0 && newScore != this.score) {
             this.score = newScore;
-            notifyWithEvent("SCORE_CHANGED");
+            notifyWithEvent(GameEvent.SCORE_CHANGED);
         }
     }
 
@@ -85,7 +104,7 @@ public class Player extends Observable {
     public void incrementScore(int points) {
         if (points > 0) {
             this.score += points;
-            notifyWithEvent("SCORE_INCREASED");
+            notifyWithEvent(GameEvent.SCORE_INCREASED);
         }
     }
 
@@ -104,7 +123,7 @@ public class Player extends Observable {
     public void setMoves(int moves) {
         if (moves >= 0 && moves != this.moves) {
             this.moves = moves;
-            notifyWithEvent("MOVES_CHANGED");
+            notifyWithEvent(GameEvent.MOVES_CHANGED);
         }
     }
 
@@ -113,7 +132,7 @@ public class Player extends Observable {
      */
     public void incrementMoves() {
         this.moves++;
-        notifyWithEvent("MOVES_MADE");
+        notifyWithEvent(GameEvent.MOVES_MADE);
     }
 
     /**
@@ -122,6 +141,6 @@ public class Player extends Observable {
     public void resetStats() {
         this.score = 0;
         this.moves = 0;
-        notifyWithEvent("PLAYER_RESET");
+        notifyWithEvent(GameEvent.PLAYER_RESET);
     }
 }
@@ -1,16 +1,21 @@
 package main.cardgame.model;
 
-import java.util.Observable;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.util.Duration;
+import main.cardgame.event.EventBus;
+import main.cardgame.event.GameEvent;
+import main.cardgame.time.Clock;
+import main.cardgame.time.TimingWheel;
 
 /**
  * Represents a timer for the memory card game.
  * Supports both countdown and elapsed time tracking modes.
+ * Time is read from an injectable monotonic {@link Clock}: the system
+ * clock by default, or a manual clock to simulate games without waiting.
+ * A countdown can register its deadline on a shared {@link TimingWheel}
+ * instead of being polled; the deadline is cancelled on pause and
+ * re-registered with the remaining time on resume.
  */
 
-public class Timer extends Observable {
+public class Timer {
     /**
      * Enumeration of possible timer states
      */
@@ -20,19 +25,35 @@ public class Timer extends Observable {
         PAUSED,
         STOPPED
     }
+    /** Clock readings below are in nanoseconds */
+    private final Clock clock;
     private long startTime;
     private long pausedAt;
+    private long stoppedAt;
     private long totalPausedTime;
     private long countdownMillis;
     private boolean isCountdown;
     private State state;
-    private Timeline countdownTimeline;
+    private EventBus eventBus;
+    private TimingWheel wheel;
+    private Runnable expiryListener;
+    private TimingWheel.Timeout expiry;
 
     /**
      * Creates a countdown timer with the specified time limit
      * @param countdownSeconds The time limit in seconds
      */
     public Timer(int countdownSeconds) {
+        this(countdownSeconds, Clock.system());
+    }
+
+    /**
+     * Creates a countdown timer with the specified time limit and clock
+     * @param countdownSeconds The time limit in seconds
+     * @param clock The clock to read time from
+     */
+    public Timer(int countdownSeconds, Clock clock) {
+        this.clock = clock;
         this.countdownMillis = countdownSeconds * 1000L; // Convert seconds to milliseconds
         this.isCountdown = true;
         this.state = State.READY;
@@ -43,23 +64,45 @@ public class Timer extends Observable {
      * Creates a timer for elapsed time tracking
      */
     public Timer() {
+        this(Clock.system());
+    }
+
+    /**
+     * Creates a timer for elapsed time tracking with the given clock
+     * @param clock The clock to read time from
+     */
+    public Timer(Clock clock) {
+        this.clock = clock;
         this.isCountdown = false;
         this.state = State.READY;
         this.totalPausedTime = 0;
     }
 
     /**
-     * Calculates the current time in milliseconds based on the timer's state
-     * @return The current time in milliseconds
+     * Calculates the time counted so far based on the timer's state
+     * @return The counted time in nanoseconds
      */
-    private long getCurrentTimeMillis() {
+    private long getCurrentTimeNanos() {
+        long now;
         if (state == State.READY) {
             return 0;
         } else if (state == State.PAUSED) {
-            return pausedAt - startTime - totalPausedTime;
+            now = pausedAt;
+        } else if (state == State.STOPPED) {
+            now = stoppedAt;
         } else {
-            return System.currentTimeMillis() - startTime - totalPausedTime;
+            now = clock.nanoTime();
         }
+        return now - startTime - totalPausedTime;
+    }
+
+    /**
+     * Calculates the current time in milliseconds based on the timer's state.
+     * A stopped timer keeps reporting the time at which it was stopped.
+     * @return The current time in milliseconds
+     */
+    private long getCurrentTimeMillis() {
+        return getCurrentTimeNanos() / 1_000_000L;
     }
 
     /**
@@ -74,9 +117,45 @@ public class Timer extends Observable {
      * Notifies observers with the specified event
      * @param event The event to notify observers with
      */
-    private void notifyObserversWithEvent(String event) {
-        setChanged();
-        notifyObservers(event);
+    private void notifyObserversWithEvent(GameEvent event) {
+        if (eventBus != null) {
+            eventBus.publish(event, this);
+        }
+    }
+
+    /**
+     * Sets the event bus this timer publishes to
+     * @param eventBus The event bus, or null to stop publishing
+     */
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Gets the event bus this timer publishes to
+     * @return The event bus, or null if none is set
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Starts the timer as if it had already been running for some time,
+     * e.g. to continue a saved game
+     * @param alreadyElapsedMillis The time already counted in milliseconds
+     * @throws IllegalArgumentException If the elapsed time is negative
+     */
+    public void startTimer(long alreadyElapsedMillis) {
+        if (alreadyElapsedMillis < 0) {
+            throw new IllegalArgumentException("Elapsed time cannot be negative: " + alreadyElapsedMillis);
+        }
+        if (state == State.READY || state == State.STOPPED) {
+            this.startTime = clock.nanoTime() - alreadyElapsedMillis * 1_000_000L;
+            this.totalPausedTime = 0;
+            this.state = State.RUNNING;
+            armExpiry();
+            notifyObserversWithEvent(GameEvent.TIMER_STARTED);
+        }
     }
 
     /**
@@ -84,24 +163,11 @@ public class Timer extends Observable {
      */
     public void startTimer() {
         if (state == State.READY || state == State.STOPPED) {
-            this.startTime = System.currentTimeMillis();
+            this.startTime = clock.nanoTime();
             this.totalPausedTime = 0;
             this.state = State.RUNNING;
-            notifyObserversWithEvent("TIMER_STARTED");
-
-            // Only for countdown (timed) mode
-            if (isCountdown) {
-                if (countdownTimeline != null) {
-                    countdownTimeline.stop();
-                }
-                countdownTimeline = new Timeline(new KeyFrame(Duration.millis(200), e -> {
-                    if (getRemainingTime() <= 0 && state == State.RUNNING) {
-                        stopTimer();
-                    }
-                }));
-                countdownTimeline.setCycleCount(Timeline.INDEFINITE);
-                countdownTimeline.play();
-            }
+            armExpiry();
+            notifyObserversWithEvent(GameEvent.TIMER_STARTED);
         }
     }
 
@@ -110,9 +176,10 @@ public class Timer extends Observable {
      */
     public void pauseTimer() {
         if (state == State.RUNNING) {
-            this.pausedAt = System.currentTimeMillis();
+            this.pausedAt = clock.nanoTime();
             this.state = State.PAUSED;
-            notifyObserversWithEvent("TIMER_PAUSED");
+            disarmExpiry();
+            notifyObserversWithEvent(GameEvent.TIMER_PAUSED);
         }
     }
 
@@ -121,9 +188,10 @@ public class Timer extends Observable {
      */
     public void resumeTimer() {
         if (state == State.PAUSED) {
-            this.totalPausedTime += (System.currentTimeMillis() - this.pausedAt);
+            this.totalPausedTime += (clock.nanoTime() - this.pausedAt);
             this.state = State.RUNNING;
-            notifyObserversWithEvent("TIMER_RESUMED");
+            armExpiry();
+            notifyObserversWithEvent(GameEvent.TIMER_RESUMED);
         }
     }
 
@@ -132,16 +200,91 @@ public class Timer extends Observable {
      */
     public void stopTimer() {
         if (state == State.RUNNING || state == State.PAUSED) {
+            this.stoppedAt = state == State.PAUSED ? pausedAt : clock.nanoTime();
             this.state = State.STOPPED;
+            disarmExpiry();
+            notifyObserversWithEvent(GameEvent.TIMER_STOPPED);
+        }
+    }
+
+    /**
+     * Registers this countdown's deadline on a timing wheel. When the wheel
+     * fires the deadline, the timer stops and the listener runs, on the
+     * thread advancing the wheel.
+     * @param wheel The shared timing wheel; should use the same clock as this timer
+     * @param onExpired The listener to run when the time has run out
+     * @throws UnsupportedOperationException If called on a non-countdown timer
+     */
+    public void scheduleExpiry(TimingWheel wheel, Runnable onExpired) {
+        if (!isCountdown) {
+            throw new UnsupportedOperationException("This timer does not support countdown.");
+        }
+        disarmExpiry();
+        this.wheel = wheel;
+        this.expiryListener = onExpired;
+        armExpiry();
+    }
+
+    /**
+     * Removes this countdown's deadline from its timing wheel, so the expiry
+     * listener will not run
+     */
+    public void cancelExpiry() {
+        disarmExpiry();
+        this.wheel = null;
+        this.expiryListener = null;
+    }
+
+    /**
+     * Registers the remaining time on the timing wheel if the countdown is running
+     */
+    private void armExpiry() {
+        disarmExpiry();
+        if (wheel != null && isCountdown && state == State.RUNNING) {
+            long remainingNanos = countdownMillis * 1_000_000L - getCurrentTimeNanos();
+            expiry = wheel.schedule(remainingNanos, this::onExpiryDue);
+        }
+    }
 
-            // Only for countdown (timed) mode
-            if (isCountdown && countdownTimeline != null) {
-                countdownTimeline.stop();
+    /**
+     * Cancels the pending deadline on the timing wheel, if any
+     */
+    private void disarmExpiry() {
+        if (expiry != null) {
+            expiry.cancel();
+            expiry = null;
+        }
+    }
+
+    /**
+     * Called by the timing wheel at the registered deadline
+     */
+    private void onExpiryDue() {
+        expiry = null;
+        if (checkExpired()) {
+            if (expiryListener != null) {
+                expiryListener.run();
             }
-            notifyObserversWithEvent("TIMER_STOPPED");
+        } else {
+            // Not quite up (e.g. a different clock); register the rest again
+            armExpiry();
         }
     }
 
+    /**
+     * Stops a running countdown timer once its time has run out.
+     * The timer does not poll by itself; whoever drives the game (the UI
+     * or a headless host) calls this periodically.
+     * @return True if the timer was stopped by this call, false otherwise
+     */
+    public boolean checkExpired() {
+        if (isCountdown && state == State.RUNNING && getRemainingTime() <= 0) {
+            stopTimer();
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Checks if the time is up (only for countdown timers)
      * @return True if the time is up, false otherwise
@@ -224,7 +367,8 @@ public class Timer extends Observable {
             throw new UnsupportedOperationException("Cannot set time limit for elapsed-time timer.");
         }
         this.countdownMillis = countdownSeconds * 1000L;
-        notifyObserversWithEvent("TIME_LIMIT_CHANGED");
+        armExpiry();
+        notifyObserversWithEvent(GameEvent.TIME_LIMIT_CHANGED);
     }
 
     /**
@@ -239,12 +383,21 @@ public class Timer extends Observable {
         return countdownMillis;
     }
 
+    /**
+     * Gets the clock this timer reads time from
+     * @return The clock
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
     /**
      * Resets the timer to its initial state
      */
     public void resetTimer() {
         this.state = State.READY;
         this.startTime = 0;
-        notifyObserversWithEvent("TIMER_RESET");
+        disarmExpiry();
+        notifyObserversWithEvent(GameEvent.TIMER_RESET);
     }
 }
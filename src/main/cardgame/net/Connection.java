@@ -0,0 +1,94 @@
+package main.cardgame.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+
+/**
+ * Server side state of one client connection. Only the selector thread
+ * touches it. Outgoing frames are appended to a buffer that is flushed
+ * after each selector round; a client that lets too much output pile up
+ * is disconnected instead of growing the buffer without bound.
+ */
+final class Connection {
+    /** Most unsent bytes a connection may hold */
+    private static final int MAX_PENDING = 64 * 1024;
+
+    final SocketChannel channel;
+    final SelectionKey key;
+    private final Queue<Connection> flushQueue;
+    final ByteBuffer in = ByteBuffer.allocate(4 * (Protocol.MAX_FRAME + Short.BYTES));
+    private ByteBuffer out = ByteBuffer.allocate(4096);
+    /** True while the connection waits in the flush queue */
+    boolean dirty;
+    /** True once the connection is to be closed after its output is written */
+    boolean closing;
+    /** True once the client fell too far behind; the connection is closed without flushing */
+    boolean overflowed;
+
+    GameRoom room;
+    int seat = -1;
+
+    /**
+     * Wraps an accepted channel
+     * @param channel The channel
+     * @param key The channel's selection key
+     * @param flushQueue The server's queue of connections with output to write
+     */
+    Connection(SocketChannel channel, SelectionKey key, Queue<Connection> flushQueue) {
+        this.channel = channel;
+        this.key = key;
+        this.flushQueue = flushQueue;
+    }
+
+    /**
+     * Queues the connection for flushing at the end of the selector round
+     */
+    void markDirty() {
+        if (!dirty) {
+            dirty = true;
+            flushQueue.add(this);
+        }
+    }
+
+    /**
+     * Queues a frame
+     * @param frame The frame, between position and limit; its position is not changed
+     */
+    void send(ByteBuffer frame) {
+        if (overflowed) {
+            return;
+        }
+        markDirty();
+        int length = frame.remaining();
+        if (out.remaining() < length) {
+            int needed = out.position() + length;
+            if (needed > MAX_PENDING) {
+                overflowed = true;
+                return;
+            }
+            ByteBuffer grown = ByteBuffer.allocate(Math.min(MAX_PENDING, Math.max(needed, 2 * out.capacity())));
+            out.flip();
+            grown.put(out);
+            out = grown;
+        }
+        out.put(frame.duplicate());
+    }
+
+    /**
+     * Writes as much queued output as the socket accepts
+     * @return True if everything was written
+     * @throws IOException If the write fails
+     */
+    boolean flush() throws IOException {
+        out.flip();
+        try {
+            channel.write(out);
+            return !out.hasRemaining();
+        } finally {
+            out.compact();
+        }
+    }
+}
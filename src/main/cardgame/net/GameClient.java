@@ -0,0 +1,186 @@
+package main.cardgame.net;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Blocking client for a {@link GameServer}. Each client is one player
+ * and is meant to be driven by one thread; blocking calls park a virtual
+ * thread cheaply, so a load test can run thousands of clients at once.
+ */
+
+public class GameClient implements AutoCloseable {
+    private final SocketChannel channel;
+    private final ByteBuffer in = ByteBuffer.allocate(4 * (Protocol.MAX_FRAME + Short.BYTES));
+    private final ByteBuffer out = ByteBuffer.allocate(Protocol.MAX_FRAME + Short.BYTES);
+
+    /**
+     * Wraps a connected channel
+     * @param channel The channel
+     */
+    private GameClient(SocketChannel channel) {
+        this.channel = channel;
+        in.flip();
+    }
+
+    /**
+     * Connects to a server
+     * @param address The server address
+     * @return The connected client
+     * @throws IOException If the connection fails
+     */
+    public static GameClient connect(InetSocketAddress address) throws IOException {
+        SocketChannel channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        return new GameClient(channel);
+    }
+
+    /**
+     * Asks to join a room; the reply is a JOINED or ERROR message
+     * @param roomId The room id
+     * @param name The player's name
+     * @throws IOException If the request cannot be sent
+     * @throws IllegalArgumentException If the name is too long
+     */
+    public void join(long roomId, String name) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Protocol.MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name longer than " + Protocol.MAX_NAME_BYTES + " bytes");
+        }
+        Protocol.begin(out, Protocol.JOIN);
+        out.putLong(roomId).put((byte) bytes.length).put(bytes);
+        write();
+    }
+
+    /**
+     * Turns a card over
+     * @param slot The slot
+     * @throws IOException If the request cannot be sent
+     */
+    public void flip(int slot) throws IOException {
+        Protocol.begin(out, Protocol.FLIP);
+        out.putInt(slot);
+        write();
+    }
+
+    /**
+     * Leaves the current room, which ends its game
+     * @throws IOException If the request cannot be sent
+     */
+    public void leave() throws IOException {
+        Protocol.begin(out, Protocol.LEAVE);
+        write();
+    }
+
+    /**
+     * Sends the frame in the output buffer
+     * @throws IOException If the write fails
+     */
+    private void write() throws IOException {
+        Protocol.finish(out);
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+    }
+
+    /**
+     * Waits for the next message from the server
+     * @return The message
+     * @throws EOFException If the server closed the connection
+     * @throws IOException If the read fails or the frame is malformed
+     */
+    public ServerMessage receive() throws IOException {
+        fill(Short.BYTES);
+        int length = Short.toUnsignedInt(in.getShort());
+        if (length == 0 || length > Protocol.MAX_FRAME) {
+            throw new IOException("Bad frame length " + length);
+        }
+        fill(length);
+        int limit = in.limit();
+        int end = in.position() + length;
+        in.limit(end);
+        try {
+            ServerMessage message = decode(in.get());
+            if (in.hasRemaining()) {
+                throw new IOException("Frame longer than its type");
+            }
+            return message;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Frame shorter than its type", e);
+        } finally {
+            in.position(end);
+            in.limit(limit);
+        }
+    }
+
+    /**
+     * Decodes the payload of a frame
+     * @param type The frame type
+     * @return The message
+     * @throws IOException If the type is unknown
+     */
+    private ServerMessage decode(byte type) throws IOException {
+        switch (type) {
+            case Protocol.JOINED:
+                return new ServerMessage.Joined(in.getLong(), in.get(), in.get(),
+                        Short.toUnsignedInt(in.getShort()), Short.toUnsignedInt(in.getShort()));
+            case Protocol.STARTED:
+                return new ServerMessage.Started(in.get(), in.get());
+            case Protocol.REVEALED:
+                return new ServerMessage.Revealed(in.get(), in.getInt(), in.getInt());
+            case Protocol.TURN_RESULT:
+                return new ServerMessage.TurnResult(in.get(), in.getInt(), in.getInt(), in.getInt(), in.getInt(),
+                        in.get() != 0, in.getInt(), in.getInt(), in.get());
+            case Protocol.GAME_OVER:
+                int winner = in.get();
+                int seats = in.get();
+                int[] scores = new int[seats];
+                int[] moves = new int[seats];
+                for (int seat = 0; seat < seats; seat++) {
+                    scores[seat] = in.getInt();
+                    moves[seat] = in.getInt();
+                }
+                return new ServerMessage.GameOver(winner, scores, moves);
+            case Protocol.ERROR:
+                return new ServerMessage.Error(in.get());
+            default:
+                throw new IOException("Unknown frame type " + type);
+        }
+    }
+
+    /**
+     * Reads until the input buffer holds at least the given number of bytes
+     * @param bytes The number of bytes needed
+     * @throws IOException If the read fails or the server closed the connection
+     */
+    private void fill(int bytes) throws IOException {
+        if (in.remaining() >= bytes) {
+            return;
+        }
+        in.compact();
+        try {
+            while (in.position() < bytes) {
+                if (channel.read(in) < 0) {
+                    throw new EOFException("Server closed the connection");
+                }
+            }
+        } finally {
+            in.flip();
+        }
+    }
+
+    /**
+     * Closes the connection
+     * @throws IOException If closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,239 @@
+package main.cardgame.net;
+
+import main.cardgame.engine.BoardState;
+import main.cardgame.game.EndlessGame;
+import main.cardgame.game.Game;
+import main.cardgame.model.GameBoard;
+import main.cardgame.model.Player;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One shared board played by a fixed number of seats taking turns.
+ * The board is an endless game owned by the room; each seat's player is
+ * credited with the points and move of its own turns. A match keeps the
+ * turn with the same seat, a miss passes it on. The room lives on the
+ * server's selector thread and is never touched from anywhere else.
+ */
+final class GameRoom {
+    private final long id;
+    private final GameBoard board;
+    private final Game game;
+    private final Connection[] connections;
+    private final Player[] players;
+    private final ByteBuffer frame = ByteBuffer.allocate(Protocol.MAX_FRAME + Short.BYTES);
+    private int joined;
+    private boolean started;
+    private boolean over;
+    private int currentSeat;
+    /** The slot turned over first this turn, or -1 */
+    private int firstSlot = -1;
+
+    /**
+     * Creates an empty room
+     * @param id The room id
+     * @param seats The number of seats; the game starts once all are taken
+     * @param rows The number of board rows
+     * @param cols The number of board columns
+     * @param seed The shuffle seed, kept on the server
+     */
+    GameRoom(long id, int seats, int rows, int cols, long seed) {
+        this.id = id;
+        this.board = new GameBoard(rows, cols, seed);
+        this.game = new EndlessGame(board, new Player("Room " + id));
+        this.game.setStatistics(null); // Results stay in the room, not in the active profile
+        this.connections = new Connection[seats];
+        this.players = new Player[seats];
+    }
+
+    /**
+     * Gets the room id
+     * @return The room id
+     */
+    long getId() {
+        return id;
+    }
+
+    /**
+     * Checks if a player can still join
+     * @return True if there is a free seat and the game has not started
+     */
+    boolean isOpen() {
+        return !started && !over;
+    }
+
+    /**
+     * Checks if the game has ended
+     * @return True once the board is cleared or a player left
+     */
+    boolean isOver() {
+        return over;
+    }
+
+    /**
+     * Seats a connection and starts the game once the room is full
+     * @param connection The joining connection
+     * @param name The player's name
+     */
+    void join(Connection connection, String name) {
+        int seat = joined++;
+        connections[seat] = connection;
+        players[seat] = new Player(name);
+        connection.room = this;
+        connection.seat = seat;
+
+        Protocol.begin(frame, Protocol.JOINED);
+        frame.putLong(id).put((byte) seat).put((byte) connections.length)
+                .putShort((short) board.getRows()).putShort((short) board.getCols());
+        connection.send(Protocol.finish(frame));
+
+        if (joined == connections.length) {
+            started = true;
+            game.play();
+            Protocol.begin(frame, Protocol.STARTED);
+            frame.put((byte) connections.length).put((byte) currentSeat);
+            broadcast(Protocol.finish(frame));
+        }
+    }
+
+    /**
+     * Turns a card over for a seat, playing the turn when it is the second card
+     * @param seat The seat asking
+     * @param slot The slot to turn over
+     * @return An error code from {@link Protocol}, or 0 if the card was turned over
+     */
+    byte flip(int seat, int slot) {
+        if (!started) {
+            return Protocol.ERR_NOT_STARTED;
+        }
+        if (seat != currentSeat) {
+            return Protocol.ERR_NOT_YOUR_TURN;
+        }
+        BoardState state = board.getState();
+        if (slot < 0 || slot >= state.size() || slot == firstSlot || state.isMatched(slot)) {
+            return Protocol.ERR_INVALID_SLOT;
+        }
+        if (firstSlot < 0) {
+            firstSlot = slot;
+            game.revealCard(board.getCardAt(slot));
+            Protocol.begin(frame, Protocol.REVEALED);
+            frame.put((byte) seat).putInt(slot).putInt(state.pairKeyAt(slot));
+            broadcast(Protocol.finish(frame));
+            return 0;
+        }
+
+        int slot1 = firstSlot;
+        firstSlot = -1;
+        int scoreBefore = game.getEngine().getScore();
+        boolean match = game.processTurn(board.getCardAt(slot1), board.getCardAt(slot));
+        Player player = players[seat];
+        player.incrementMoves();
+        player.incrementScore(game.getEngine().getScore() - scoreBefore);
+        if (!match) {
+            currentSeat = (currentSeat + 1) % connections.length;
+        }
+
+        Protocol.begin(frame, Protocol.TURN_RESULT);
+        frame.put((byte) seat).putInt(slot1).putInt(state.pairKeyAt(slot1))
+                .putInt(slot).putInt(state.pairKeyAt(slot))
+                .put((byte) (match ? 1 : 0)).putInt(player.getScore()).putInt(player.getMoves())
+                .put((byte) currentSeat);
+        broadcast(Protocol.finish(frame));
+
+        if (!game.isActive()) {
+            finish(winner());
+        }
+        return 0;
+    }
+
+    /**
+     * Removes a seat's connection. A room left before or during its game
+     * cannot go on, so the others are told the game is over without a winner.
+     * @param seat The seat leaving
+     */
+    void leave(int seat) {
+        Connection leaving = connections[seat];
+        if (leaving != null) {
+            leaving.room = null;
+            leaving.seat = -1;
+            connections[seat] = null;
+        }
+        if (!over) {
+            if (game.isActive()) {
+                game.endGame();
+            }
+            finish(-1);
+        }
+    }
+
+    /**
+     * Gets the seat with the highest score
+     * @return The winning seat, or -1 if the top score is shared
+     */
+    private int winner() {
+        int best = -1;
+        int bestScore = Integer.MIN_VALUE;
+        boolean tied = false;
+        for (int seat = 0; seat < players.length; seat++) {
+            int score = players[seat].getScore();
+            if (score > bestScore) {
+                best = seat;
+                bestScore = score;
+                tied = false;
+            } else if (score == bestScore) {
+                tied = true;
+            }
+        }
+        return tied ? -1 : best;
+    }
+
+    /**
+     * Ends the game, sends the final scores and frees every seat
+     * @param winnerSeat The winning seat, or -1
+     */
+    private void finish(int winnerSeat) {
+        over = true;
+        Protocol.begin(frame, Protocol.GAME_OVER);
+        frame.put((byte) winnerSeat).put((byte) players.length);
+        for (Player player : players) {
+            frame.putInt(player == null ? 0 : player.getScore()).putInt(player == null ? 0 : player.getMoves());
+        }
+        broadcast(Protocol.finish(frame));
+        for (int seat = 0; seat < connections.length; seat++) {
+            if (connections[seat] != null) {
+                connections[seat].room = null;
+                connections[seat].seat = -1;
+                connections[seat] = null;
+            }
+        }
+    }
+
+    /**
+     * Queues a frame on every seated connection
+     * @param message The frame
+     */
+    private void broadcast(ByteBuffer message) {
+        for (Connection connection : connections) {
+            if (connection != null) {
+                connection.send(message);
+            }
+        }
+    }
+
+    /**
+     * Decodes a player name from a JOIN frame
+     * @param buffer The frame, positioned at the name length
+     * @param end The end of the frame
+     * @return The name, or null if it does not fit the frame or the limit
+     */
+    static String readName(ByteBuffer buffer, int end) {
+        int length = buffer.get() & 0xFF;
+        if (length > Protocol.MAX_NAME_BYTES || buffer.position() + length != end) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,397 @@
+package main.cardgame.net;
+
+import main.cardgame.engine.Difficulty;
+import main.cardgame.session.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts multiplayer rooms over TCP with non-blocking NIO.
+ * One selector thread accepts connections, reads frames, plays turns and
+ * writes replies, so rooms need no locking and a turn is handled without
+ * any thread handoff. Replies are queued on each connection while a
+ * selector round is processed and flushed once at the end of the round;
+ * a connection whose socket is full waits for OP_WRITE. Players join a
+ * room by id; the room is created on the first join and its game starts
+ * when every seat is taken. See {@link Protocol} for the frames.
+ */
+
+public class GameServer implements AutoCloseable {
+    private final Difficulty difficulty;
+    private final int seatsPerRoom;
+    private final SplittableRandom seeds;
+
+    private final Map<Long, GameRoom> rooms = new HashMap<>();
+    private final ArrayDeque<Connection> flushQueue = new ArrayDeque<>();
+    private final ByteBuffer error = ByteBuffer.allocate(Short.BYTES + 2);
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread thread;
+    private volatile boolean closed;
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger liveRooms = new AtomicInteger();
+    private final AtomicLong finishedGames = new AtomicLong();
+    private final AtomicLong flips = new AtomicLong();
+    private final AtomicLong rejectedFlips = new AtomicLong();
+    private final LatencyHistogram flipLatency = new LatencyHistogram();
+
+    /**
+     * Creates a server for two player rooms
+     * @param difficulty The difficulty, which sets the board size
+     */
+    public GameServer(Difficulty difficulty) {
+        this(difficulty, 2, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Creates a server
+     * @param difficulty The difficulty, which sets the board size
+     * @param seatsPerRoom The number of players in each room
+     * @param seed The seed from which room layouts are drawn
+     * @throws IllegalArgumentException If the number of seats is out of range
+     */
+    public GameServer(Difficulty difficulty, int seatsPerRoom, long seed) {
+        if (seatsPerRoom < 1 || seatsPerRoom > Protocol.MAX_SEATS) {
+            throw new IllegalArgumentException("Seats per room must be between 1 and " + Protocol.MAX_SEATS);
+        }
+        this.difficulty = difficulty;
+        this.seatsPerRoom = seatsPerRoom;
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * Binds the server and starts its selector thread
+     * @param address The address to listen on; port 0 picks a free port
+     * @return The bound address
+     * @throws IOException If the address cannot be bound
+     * @throws IllegalStateException If the server was already started
+     */
+    public InetSocketAddress start(InetSocketAddress address) throws IOException {
+        if (thread != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        thread = Thread.ofPlatform().name("game-server").start(this::run);
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Runs the selector loop until the server is closed
+     */
+    private void run() {
+        try {
+            while (!closed) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    if (key.isWritable()) {
+                        connection.markDirty();
+                    }
+                    if (key.isReadable()) {
+                        read(connection);
+                    }
+                }
+                flushDirty();
+            }
+        } catch (ClosedSelectorException e) {
+            // Closed while selecting
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection connection) {
+                    closeConnection(connection);
+                }
+            }
+        }
+    }
+
+    /**
+     * Accepts every pending connection
+     * @throws IOException If accepting fails
+     */
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key, flushQueue));
+            connections.incrementAndGet();
+        }
+    }
+
+    /**
+     * Reads what the socket holds and handles every complete frame
+     * @param connection The readable connection
+     */
+    private void read(Connection connection) {
+        ByteBuffer in = connection.in;
+        try {
+            if (connection.channel.read(in) < 0) {
+                closeConnection(connection);
+                return;
+            }
+        } catch (IOException e) {
+            closeConnection(connection);
+            return;
+        }
+
+        in.flip();
+        while (in.remaining() >= Short.BYTES && !connection.closing) {
+            int length = Short.toUnsignedInt(in.getShort(in.position()));
+            if (length == 0 || length > Protocol.MAX_FRAME) {
+                reject(connection, Protocol.ERR_BAD_FRAME);
+                connection.closing = true;
+                break;
+            }
+            if (in.remaining() < Short.BYTES + length) {
+                break;
+            }
+            int end = in.position() + Short.BYTES + length;
+            in.position(in.position() + Short.BYTES);
+            handle(connection, in.get(), in, end);
+            in.position(end);
+        }
+        in.compact();
+    }
+
+    /**
+     * Handles one frame
+     * @param connection The sender
+     * @param type The frame type
+     * @param in The buffer, positioned at the payload
+     * @param end The end of the frame in the buffer
+     */
+    private void handle(Connection connection, byte type, ByteBuffer in, int end) {
+        int payload = end - in.position();
+        switch (type) {
+            case Protocol.JOIN:
+                if (payload < Long.BYTES + 1) {
+                    badFrame(connection);
+                    break;
+                }
+                long roomId = in.getLong();
+                String name = GameRoom.readName(in, end);
+                if (name == null) {
+                    badFrame(connection);
+                } else if (connection.room != null) {
+                    reject(connection, Protocol.ERR_ALREADY_JOINED);
+                } else {
+                    join(connection, roomId, name);
+                }
+                break;
+            case Protocol.FLIP:
+                if (payload != Integer.BYTES) {
+                    badFrame(connection);
+                    break;
+                }
+                int slot = in.getInt();
+                GameRoom room = connection.room;
+                if (room == null) {
+                    reject(connection, Protocol.ERR_NOT_JOINED);
+                    rejectedFlips.incrementAndGet();
+                    break;
+                }
+                long start = System.nanoTime();
+                byte code = room.flip(connection.seat, slot);
+                if (code != 0) {
+                    reject(connection, code);
+                    rejectedFlips.incrementAndGet();
+                    break;
+                }
+                if (room.isOver()) {
+                    retire(room);
+                }
+                flipLatency.record(System.nanoTime() - start);
+                flips.incrementAndGet();
+                break;
+            case Protocol.LEAVE:
+                leave(connection);
+                break;
+            default:
+                badFrame(connection);
+                break;
+        }
+    }
+
+    /**
+     * Seats a connection in a room, creating the room if needed
+     * @param connection The joining connection
+     * @param roomId The room id
+     * @param name The player's name
+     */
+    private void join(Connection connection, long roomId, String name) {
+        GameRoom room = rooms.get(roomId);
+        if (room == null) {
+            room = new GameRoom(roomId, seatsPerRoom, difficulty.getRows(), difficulty.getCols(), seeds.nextLong());
+            rooms.put(roomId, room);
+            liveRooms.incrementAndGet();
+        } else if (!room.isOpen()) {
+            reject(connection, Protocol.ERR_ROOM_FULL);
+            return;
+        }
+        room.join(connection, name);
+    }
+
+    /**
+     * Takes a connection out of its room, which ends the room's game
+     * @param connection The leaving connection
+     */
+    private void leave(Connection connection) {
+        GameRoom room = connection.room;
+        if (room != null) {
+            room.leave(connection.seat);
+            retire(room);
+        }
+    }
+
+    /**
+     * Forgets a room whose game is over
+     * @param room The room
+     */
+    private void retire(GameRoom room) {
+        if (rooms.remove(room.getId(), room)) {
+            liveRooms.decrementAndGet();
+            finishedGames.incrementAndGet();
+        }
+    }
+
+    /**
+     * Replies with an error frame
+     * @param connection The connection
+     * @param code The error code
+     */
+    private void reject(Connection connection, byte code) {
+        Protocol.begin(error, Protocol.ERROR);
+        error.put(code);
+        connection.send(Protocol.finish(error));
+    }
+
+    /**
+     * Replies to a malformed frame and closes the connection once the reply is written
+     * @param connection The connection
+     */
+    private void badFrame(Connection connection) {
+        reject(connection, Protocol.ERR_BAD_FRAME);
+        connection.closing = true;
+    }
+
+    /**
+     * Writes queued output of every connection touched this round
+     */
+    private void flushDirty() {
+        Connection connection;
+        while ((connection = flushQueue.poll()) != null) {
+            connection.dirty = false;
+            if (!connection.key.isValid()) {
+                continue;
+            }
+            if (connection.overflowed) {
+                closeConnection(connection);
+                continue;
+            }
+            try {
+                boolean done = connection.flush();
+                if (done && connection.closing) {
+                    closeConnection(connection);
+                } else if (done) {
+                    connection.key.interestOps(SelectionKey.OP_READ);
+                } else {
+                    connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+            } catch (IOException e) {
+                closeConnection(connection);
+            }
+        }
+    }
+
+    /**
+     * Closes a connection, ending the game of its room
+     * @param connection The connection
+     */
+    private void closeConnection(Connection connection) {
+        if (!connection.key.isValid()) {
+            return;
+        }
+        leave(connection);
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+        connections.decrementAndGet();
+    }
+
+    /**
+     * Takes a metrics snapshot
+     * @return The metrics since the server started
+     */
+    public ServerMetrics getMetrics() {
+        long[] latency = new long[LatencyHistogram.bucketCount()];
+        flipLatency.snapshot(latency);
+        return new ServerMetrics(connections.get(), liveRooms.get(), finishedGames.get(), flips.get(),
+                rejectedFlips.get(), LatencyHistogram.percentile(latency, 0.50),
+                LatencyHistogram.percentile(latency, 0.99));
+    }
+
+    /**
+     * Stops the selector thread and closes every connection
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        try {
+            if (thread != null) {
+                thread.join();
+            }
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+            if (selector != null) {
+                selector.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package main.cardgame.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary wire protocol between {@link GameServer} and {@link GameClient}.
+ * Every frame is a big-endian unsigned short holding the length of the
+ * rest of the frame, a type byte, and a fixed layout payload:
+ * <pre>
+ * client to server
+ *   JOIN        long roomId, byte nameLength, name (UTF-8)
+ *   FLIP        int slot
+ *   LEAVE       -
+ * server to client
+ *   JOINED      long roomId, byte seat, byte seats, short rows, short cols
+ *   STARTED     byte seats, byte firstSeat
+ *   REVEALED    byte seat, int slot, int pairKey
+ *   TURN_RESULT byte seat, int slot1, int pairKey1, int slot2, int pairKey2,
+ *               byte match, int score, int moves, byte nextSeat
+ *   GAME_OVER   byte winnerSeat, byte seats, then int score, int moves per seat
+ *   ERROR       byte code
+ * </pre>
+ * A turn is two FLIP frames from the player whose turn it is; the first
+ * card is shown to the room before the second is chosen, as at a table.
+ * Pair keys are only sent for revealed cards, and the layout seed never
+ * leaves the server.
+ */
+public final class Protocol {
+    /** Largest frame length, excluding the length field */
+    public static final int MAX_FRAME = 1024;
+    /** Largest player name in UTF-8 bytes */
+    public static final int MAX_NAME_BYTES = 32;
+    /** Largest number of seats in a room */
+    public static final int MAX_SEATS = 8;
+
+    /** Joins a room, creating it if needed */
+    public static final byte JOIN = 1;
+    /** Turns a card over */
+    public static final byte FLIP = 2;
+    /** Leaves the room, which ends its game */
+    public static final byte LEAVE = 3;
+
+    /** Confirms a join and tells the seat and board size */
+    public static final byte JOINED = 10;
+    /** The room is full and the game begins */
+    public static final byte STARTED = 11;
+    /** The first card of a turn was turned over */
+    public static final byte REVEALED = 12;
+    /** A turn was played */
+    public static final byte TURN_RESULT = 13;
+    /** The game ended; winnerSeat is -1 for a tie or an abandoned game */
+    public static final byte GAME_OVER = 14;
+    /** A request was refused */
+    public static final byte ERROR = 15;
+
+    /** The frame was malformed; the connection is closed */
+    public static final byte ERR_BAD_FRAME = 1;
+    /** The room is full or already playing */
+    public static final byte ERR_ROOM_FULL = 2;
+    /** The game has not started yet */
+    public static final byte ERR_NOT_STARTED = 3;
+    /** It is another player's turn */
+    public static final byte ERR_NOT_YOUR_TURN = 4;
+    /** The slot does not exist, is matched, or was already turned over this turn */
+    public static final byte ERR_INVALID_SLOT = 5;
+    /** The connection already has a seat */
+    public static final byte ERR_ALREADY_JOINED = 6;
+    /** The connection has no seat */
+    public static final byte ERR_NOT_JOINED = 7;
+
+    private Protocol() {
+    }
+
+    /**
+     * Starts a frame in a buffer, leaving room for the length
+     * @param buffer The buffer, cleared by this call
+     * @param type The frame type
+     */
+    public static void begin(ByteBuffer buffer, byte type) {
+        buffer.clear();
+        buffer.putShort((short) 0);
+        buffer.put(type);
+    }
+
+    /**
+     * Completes a frame started with {@link #begin(ByteBuffer, byte)} and flips the buffer for reading
+     * @param buffer The buffer
+     * @return The buffer, holding exactly the frame
+     */
+    public static ByteBuffer finish(ByteBuffer buffer) {
+        buffer.putShort(0, (short) (buffer.position() - Short.BYTES));
+        return buffer.flip();
+    }
+}
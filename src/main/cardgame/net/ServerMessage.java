@@ -0,0 +1,67 @@
+package main.cardgame.net;
+
+/**
+ * A frame received from a {@link GameServer}, decoded by {@link GameClient}.
+ * The fields follow the frame layouts in {@link Protocol}.
+ */
+public sealed interface ServerMessage {
+    /**
+     * The join was accepted
+     * @param roomId The room id
+     * @param seat The seat given to this client
+     * @param seats The number of seats in the room
+     * @param rows The number of board rows
+     * @param cols The number of board columns
+     */
+    record Joined(long roomId, int seat, int seats, int rows, int cols) implements ServerMessage {
+    }
+
+    /**
+     * Every seat is taken and the game begins
+     * @param seats The number of seats
+     * @param firstSeat The seat that plays first
+     */
+    record Started(int seats, int firstSeat) implements ServerMessage {
+    }
+
+    /**
+     * The first card of a turn was turned over
+     * @param seat The seat playing
+     * @param slot The slot turned over
+     * @param pairKey The card's pair key
+     */
+    record Revealed(int seat, int slot, int pairKey) implements ServerMessage {
+    }
+
+    /**
+     * A turn was played
+     * @param seat The seat that played
+     * @param slot1 The first slot
+     * @param pairKey1 The first card's pair key
+     * @param slot2 The second slot
+     * @param pairKey2 The second card's pair key
+     * @param match True if the cards matched
+     * @param score The seat's score after the turn
+     * @param moves The seat's moves after the turn
+     * @param nextSeat The seat that plays next
+     */
+    record TurnResult(int seat, int slot1, int pairKey1, int slot2, int pairKey2, boolean match,
+                      int score, int moves, int nextSeat) implements ServerMessage {
+    }
+
+    /**
+     * The game ended
+     * @param winnerSeat The winning seat, or -1 for a tie or an abandoned game
+     * @param scores The final score of each seat
+     * @param moves The final moves of each seat
+     */
+    record GameOver(int winnerSeat, int[] scores, int[] moves) implements ServerMessage {
+    }
+
+    /**
+     * A request was refused
+     * @param code The error code from {@link Protocol}
+     */
+    record Error(int code) implements ServerMessage {
+    }
+}
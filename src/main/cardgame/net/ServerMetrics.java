@@ -0,0 +1,15 @@
+package main.cardgame.net;
+
+/**
+ * Snapshot of the load on a {@link GameServer} since it started.
+ * @param connections Connections currently open
+ * @param liveRooms Rooms waiting for players or playing
+ * @param finishedGames Games that ended, cleared or abandoned
+ * @param flips Card flips handled, two per turn
+ * @param rejectedFlips Flips refused with an error
+ * @param p50FlipNanos Median time to handle a flip on the selector thread, including queueing the replies
+ * @param p99FlipNanos 99th percentile flip handling time
+ */
+public record ServerMetrics(int connections, int liveRooms, long finishedGames, long flips, long rejectedFlips,
+                            long p50FlipNanos, long p99FlipNanos) {
+}
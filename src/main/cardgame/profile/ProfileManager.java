@@ -1,6 +1,11 @@
 package main.cardgame.profile;
 
+import main.cardgame.history.HistoryManager;
+import main.cardgame.leaderboard.LeaderboardManager;
+import main.cardgame.stats.StatisticsPersister;
+
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -8,7 +13,8 @@ import java.util.*;
  * Handles saving, loading, and listing user profiles from the file system.
  */
 public class ProfileManager {
-    private static final String PROFILE_DIR = "profiles/";
+    /** Directory holding the profiles; -Dcardgame.profileDir=<dir> moves it, e.g. for benchmarks */
+    private static final String PROFILE_DIR = System.getProperty("cardgame.profileDir", "profiles") + "/";
     //private static final String PROFILE_DIR = System.getProperty("user.home") + File.separator + ".memo_profiles" + File.separator;
     private static final String EXT = ".profile";
 
@@ -17,12 +23,14 @@ public class ProfileManager {
     }
 
     /**
-     * Saves a user profile to the file system.
+     * Saves a user profile to the file system. Queued saves are written
+     * first, so an older queued copy cannot overwrite this one.
      * 
      * @param profile The user profile to save
      * @throws IOException If an I/O error occurs during saving
      */
     public static void saveProfile(UserProfile profile) throws IOException {
+        StatisticsPersister.flush();
         try (ObjectOutputStream out = new ObjectOutputStream(
                 new FileOutputStream(PROFILE_DIR + profile.getUsername() + EXT))) {
             out.writeObject(profile);
@@ -30,7 +38,24 @@ public class ProfileManager {
     }
 
     /**
-     * Loads a user profile from the file system.
+     * Queues a user profile to be saved by the {@link StatisticsPersister},
+     * e.g. at the end of a game, which must not wait for the disk. The
+     * profile is serialized right away, so it may change afterwards.
+     *
+     * @param profile The user profile to save
+     * @throws IOException If the profile cannot be serialized
+     */
+    public static void saveProfileLater(UserProfile profile) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(profile);
+        }
+        byte[] contents = bytes.toByteArray();
+        StatisticsPersister.save(Path.of(PROFILE_DIR + profile.getUsername() + EXT), () -> contents);
+    }
+
+    /**
+     * Loads a user profile from the file system, after any queued save of it is written.
      * 
      * @param username The name of the profile to load
      * @return The loaded user profile
@@ -38,6 +63,7 @@ public class ProfileManager {
      * @throws ClassNotFoundException If the class of the serialized object cannot be found
      */
     public static UserProfile loadProfile(String username) throws IOException, ClassNotFoundException {
+        StatisticsPersister.flush();
         try (ObjectInputStream in = new ObjectInputStream(
                 new FileInputStream(PROFILE_DIR + username + EXT))) {
             return (UserProfile) in.readObject();
@@ -45,13 +71,17 @@ public class ProfileManager {
     }
 
     /**
-     * Deletes a user profile from the file system.
+     * Deletes a user profile from the file system with its leaderboard entries and game history,
+     * after queued saves are written so none of them brings the profile back.
      * 
      * @param username The name of the profile to delete
      */
     public static void deleteProfile(String username) {
+        StatisticsPersister.flush();
         File file = new File(PROFILE_DIR + username + EXT);
         if (file.exists()) file.delete();
+        LeaderboardManager.removePlayer(username);
+        HistoryManager.deleteHistory(username);
     }
 
     /**
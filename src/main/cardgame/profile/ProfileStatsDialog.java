@@ -3,9 +3,13 @@ package main.cardgame.profile;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
+import main.cardgame.engine.Difficulty;
+import main.cardgame.leaderboard.Leaderboard;
+import main.cardgame.leaderboard.LeaderboardManager;
 import main.cardgame.profile.ProfileManager;
 import main.cardgame.profile.UserProfile;
 import main.cardgame.stats.GameStatistics;
+import main.cardgame.stats.WindowSummary;
 
 import java.io.IOException;
 import java.util.List;
@@ -29,7 +33,7 @@ public class ProfileStatsDialog extends Dialog<Void> {
         TextArea statsLabel = new TextArea();
         statsLabel.setEditable(false);
         statsLabel.setWrapText(true);
-        statsLabel.setPrefRowCount(6);
+        statsLabel.setPrefRowCount(14);
 
 
         profileSelector.setOnAction(e -> {
@@ -45,7 +49,11 @@ public class ProfileStatsDialog extends Dialog<Void> {
                                     "Best Score: " + stats.getBestScore() + " moves\n" +
                                     "Best Time: " + stats.getBestTime() / 1000 + " sec\n" +
                                     "Average Moves: " + String.format("%.2f", stats.getAverageMoves()) + "\n" +
-                                    "Average Time: " + String.format("%.2f", (stats.getAverageTime() / 1000)) + " sec"
+                                    "Average Time: " + String.format("%.2f", (stats.getAverageTime() / 1000)) + " sec\n" +
+                                    describeWindow("Last 10 games", stats.getLastTenGames()) +
+                                    describeWindow("Last 100 games", stats.getLastHundredGames()) +
+                                    describeWindow("Last 7 days", stats.getLastSevenDays()) +
+                                    describeRanks(profile.getUsername())
                     );
                 } catch (IOException | ClassNotFoundException ex) {
                     statsLabel.setText("Failed to load profile.");
@@ -60,5 +68,42 @@ public class ProfileStatsDialog extends Dialog<Void> {
         getDialogPane().setContent(content);
         getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
     }
+
+    /**
+     * Describes the averages of a rolling window of recent games
+     * @param label The name of the window
+     * @param window The window's totals
+     * @return One line ending with a line break
+     */
+    private static String describeWindow(String label, WindowSummary window) {
+        if (window.games() == 0) {
+            return label + ": no games\n";
+        }
+        return String.format("%s: %.2f moves, %.2f sec, %.0f points on average over %d games\n", label,
+                window.averageMoves(), window.averageTime() / 1000, window.averageScore(), window.games());
+    }
+
+    /**
+     * Describes a player's leaderboard ranks in every mode and difficulty
+     * @param username The profile name
+     * @return One line per leaderboard the player is on
+     */
+    private static String describeRanks(String username) {
+        StringBuilder ranks = new StringBuilder("Leaderboard:");
+        boolean ranked = false;
+        for (boolean timed : new boolean[]{true, false}) {
+            for (Difficulty difficulty : Difficulty.values()) {
+                Leaderboard board = LeaderboardManager.getLeaderboard(timed, difficulty);
+                int rank = board.rankOf(username);
+                if (rank > 0) {
+                    ranks.append("\n  ").append(timed ? "Timed " : "Endless ").append(difficulty.getLevel())
+                            .append(": #").append(rank).append(" of ").append(board.size())
+                            .append(" (").append(board.get(username).score()).append(" points)");
+                    ranked = true;
+                }
+            }
+        }
+        return ranked ? ranks.toString() : "Leaderboard: not ranked yet";
+    }
 }
 
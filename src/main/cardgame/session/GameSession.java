@@ -0,0 +1,294 @@
+package main.cardgame.session;
+
+import main.cardgame.game.Game;
+import main.cardgame.model.Card;
+import main.cardgame.model.Timer;
+import main.cardgame.time.TimingWheel;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * One isolated game hosted by a {@link GameSessionManager}.
+ * The game is owned by the session's own virtual thread, which runs the
+ * messages of a mailbox one at a time; callers never touch the game
+ * directly but submit turns and queries, and get the result as a future.
+ * The countdown of a timed game is a deadline on the manager's shared
+ * timing wheel, which posts the expiry check into the mailbox.
+ */
+
+public final class GameSession {
+    /** Most turns that may wait in a mailbox; further turns are rejected */
+    static final int MAX_QUEUED_TURNS = 64;
+
+    private final long id;
+    private final Game game;
+    private final GameSessionManager manager;
+    private final BlockingQueue<Runnable> mailbox = new LinkedBlockingQueue<>();
+    private final AtomicInteger queuedTurns = new AtomicInteger();
+    private final Thread thread;
+    /** Set under the session lock once the stop message is queued; nothing is queued after it */
+    private boolean closed;
+    /** Set by the session thread when it handles the stop message */
+    private boolean stopped;
+    /** Pending countdown deadline; only used on the session thread */
+    private TimingWheel.Timeout expiry;
+    /**
+     * Bumped whenever the deadline is armed or disarmed, so a deadline that
+     * fired before it was cancelled is recognised as stale once it runs
+     */
+    private long expiryGeneration;
+
+    /**
+     * Creates a session; {@link #start()} starts its thread and the game
+     * @param id The session id
+     * @param game The game to host, not yet started
+     * @param manager The manager hosting the session
+     */
+    GameSession(long id, Game game, GameSessionManager manager) {
+        this.id = id;
+        this.game = game;
+        this.manager = manager;
+        this.thread = Thread.ofVirtual().name("game-session-" + id).unstarted(this::run);
+    }
+
+    /**
+     * Starts the session thread and queues the start of the game
+     */
+    void start() {
+        post(() -> {
+            game.play();
+            armExpiry();
+        });
+        thread.start();
+    }
+
+    /**
+     * Runs mailbox messages until the session is stopped, then rejects whatever is left
+     */
+    private void run() {
+        try {
+            while (!stopped) {
+                mailbox.take().run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped = true;
+            disarmExpiry();
+            // Nothing is queued after the stop message, so this drains the mailbox for good
+            Runnable message;
+            while ((message = mailbox.poll()) != null) {
+                message.run();
+            }
+        }
+    }
+
+    /**
+     * Queues a message for the session thread
+     * @param message The message
+     * @return True if the message was queued, false if the session is closed
+     */
+    private synchronized boolean post(Runnable message) {
+        if (closed) {
+            return false;
+        }
+        mailbox.add(message);
+        return true;
+    }
+
+    /**
+     * Stops the session; queued turns are rejected and the game is left as it is
+     */
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            mailbox.add(() -> stopped = true);
+            closed = true;
+        }
+    }
+
+    /**
+     * Submits a turn: the two slots are turned over and compared
+     * @param slot1 The first slot
+     * @param slot2 The second slot
+     * @return A future completed with true if the slots match. It fails with
+     *         IllegalArgumentException for equal slots, IndexOutOfBoundsException
+     *         for slots outside the board, or RejectedExecutionException if the
+     *         mailbox is full or the session was retired.
+     */
+    public CompletableFuture<Boolean> submitTurn(int slot1, int slot2) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        long submitted = System.nanoTime();
+        if (queuedTurns.incrementAndGet() > MAX_QUEUED_TURNS) {
+            queuedTurns.decrementAndGet();
+            manager.recordRejectedTurn();
+            result.completeExceptionally(new RejectedExecutionException("Mailbox of session " + id + " is full"));
+            return result;
+        }
+        boolean queued = post(() -> {
+            queuedTurns.decrementAndGet();
+            if (stopped) {
+                manager.recordRejectedTurn();
+                result.completeExceptionally(new RejectedExecutionException("Session " + id + " was retired"));
+                return;
+            }
+            try {
+                boolean match = playTurn(slot1, slot2);
+                manager.recordTurn(System.nanoTime() - submitted);
+                result.complete(match);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        if (!queued) {
+            queuedTurns.decrementAndGet();
+            manager.recordRejectedTurn();
+            result.completeExceptionally(new RejectedExecutionException("Session " + id + " was retired"));
+        }
+        return result;
+    }
+
+    /**
+     * Plays a turn on the session thread
+     * @param slot1 The first slot
+     * @param slot2 The second slot
+     * @return True if the slots match
+     */
+    private boolean playTurn(int slot1, int slot2) {
+        if (slot1 == slot2) {
+            throw new IllegalArgumentException("A turn needs two different slots: " + slot1);
+        }
+        Card card1 = game.getBoard().getCardAt(slot1);
+        Card card2 = game.getBoard().getCardAt(slot2);
+        boolean match = game.processTurn(card1, card2);
+        if (!game.isActive()) {
+            disarmExpiry();
+        }
+        return match;
+    }
+
+    /**
+     * Runs a query or command against the game on the session thread
+     * @param action The action; it must not keep a reference to the game
+     * @param <T> The result type
+     * @return A future completed with the action's result; it fails with
+     *         RejectedExecutionException if the session was retired
+     */
+    public <T> CompletableFuture<T> submit(Function<Game, T> action) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        boolean queued = post(() -> {
+            if (stopped) {
+                result.completeExceptionally(new RejectedExecutionException("Session " + id + " was retired"));
+                return;
+            }
+            try {
+                result.complete(action.apply(game));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        if (!queued) {
+            result.completeExceptionally(new RejectedExecutionException("Session " + id + " was retired"));
+        }
+        return result;
+    }
+
+    /**
+     * Pauses the game and its countdown
+     * @return A future completed once the game is paused
+     */
+    public CompletableFuture<Void> pause() {
+        return submit(game -> {
+            game.pause();
+            disarmExpiry();
+            return null;
+        });
+    }
+
+    /**
+     * Resumes the game and its countdown
+     * @return A future completed once the game is running again
+     */
+    public CompletableFuture<Void> resume() {
+        return submit(game -> {
+            game.resume();
+            armExpiry();
+            return null;
+        });
+    }
+
+    /**
+     * Puts the remaining countdown on the shared timing wheel
+     */
+    private void armExpiry() {
+        disarmExpiry();
+        Timer timer = game.getTimer();
+        if (timer.isCountdown() && timer.isRunning()) {
+            // Round up so the deadline is not checked before the countdown ends
+            long remainingNanos = (timer.getRemainingTime() + 1) * 1_000_000L;
+            long generation = ++expiryGeneration;
+            expiry = manager.getWheel().schedule(remainingNanos, () -> post(() -> onExpiryDue(generation)));
+        }
+    }
+
+    /**
+     * Cancels the pending countdown deadline
+     */
+    private void disarmExpiry() {
+        expiryGeneration++;
+        if (expiry != null) {
+            expiry.cancel();
+            expiry = null;
+        }
+    }
+
+    /**
+     * Ends the game if its countdown ran out, otherwise waits for the rest
+     * @param generation The {@link #expiryGeneration} the deadline was armed with
+     */
+    private void onExpiryDue(long generation) {
+        if (generation != expiryGeneration) {
+            return; // Disarmed or re-armed after this deadline fired, e.g. by a pause and resume
+        }
+        expiry = null;
+        if (stopped) {
+            return;
+        }
+        if (game.getTimer().checkExpired()) {
+            game.endGame();
+        } else {
+            armExpiry();
+        }
+    }
+
+    /**
+     * Gets the session id
+     * @return The id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Checks if the session was retired
+     * @return True if the session no longer accepts turns
+     */
+    public synchronized boolean isRetired() {
+        return closed;
+    }
+
+    /**
+     * Waits for the session thread to finish after the session was retired
+     * @throws InterruptedException If interrupted while waiting
+     */
+    void join() throws InterruptedException {
+        thread.join();
+    }
+}
@@ -0,0 +1,260 @@
+package main.cardgame.session;
+
+import main.cardgame.engine.Difficulty;
+import main.cardgame.game.EndlessGame;
+import main.cardgame.game.Game;
+import main.cardgame.game.TimedGame;
+import main.cardgame.journal.TurnJournal;
+import main.cardgame.model.GameBoard;
+import main.cardgame.model.Player;
+import main.cardgame.time.Clock;
+import main.cardgame.time.TimingWheel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hosts many isolated games at once.
+ * Each session owns its board, player, engine and timer and runs on its
+ * own virtual thread, so thousands of sessions cost little more than their
+ * boards. Sessions never read or write the active user profile or the
+ * statistics file; all state lives in the manager instance, and managers
+ * share nothing with each other. Countdowns of all sessions are deadlines
+ * on one timing wheel, advanced by a single ticker thread. Given a
+ * {@link TurnJournal}, every turn of every session is appended to it with
+ * the session id as the game id.
+ */
+
+public class GameSessionManager implements AutoCloseable {
+    /** Resolution of the shared timing wheel in milliseconds */
+    private static final long WHEEL_TICK_MILLIS = 10;
+
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Clock clock;
+    private final TurnJournal journal;
+    private final TimingWheel wheel;
+    private final Thread ticker;
+    private volatile boolean closed;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong retired = new AtomicLong();
+    private final LongAdder turns = new LongAdder();
+    private final LongAdder rejectedTurns = new LongAdder();
+    private final LatencyHistogram turnLatency = new LatencyHistogram();
+
+    /** Counters at the previous metrics snapshot; guarded by the metrics lock */
+    private final Object metricsLock = new Object();
+    private final long[] previousLatency = new long[LatencyHistogram.bucketCount()];
+    private long previousTurns;
+    private long previousRejected;
+    private long previousSnapshot;
+
+    /**
+     * Creates a manager whose games run on the system clock
+     */
+    public GameSessionManager() {
+        this(Clock.system());
+    }
+
+    /**
+     * Creates a manager whose games and countdowns run on the given clock
+     * @param clock The clock of every hosted game
+     */
+    public GameSessionManager(Clock clock) {
+        this(clock, null);
+    }
+
+    /**
+     * Creates a manager that journals every turn of its sessions
+     * @param clock The clock of every hosted game
+     * @param journal The journal to append turns to, or null; the caller closes it after the manager
+     */
+    public GameSessionManager(Clock clock, TurnJournal journal) {
+        this.clock = clock;
+        this.journal = journal;
+        this.wheel = new TimingWheel(clock, WHEEL_TICK_MILLIS);
+        this.previousSnapshot = System.nanoTime();
+        this.ticker = Thread.ofVirtual().name("game-session-ticker").start(this::tick);
+    }
+
+    /**
+     * Advances the shared timing wheel until the manager is closed
+     */
+    private void tick() {
+        try {
+            while (!closed) {
+                wheel.advance();
+                TimeUnit.MILLISECONDS.sleep(WHEEL_TICK_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates and starts a timed session
+     * @param playerName The player's name
+     * @param difficulty The difficulty, which sets the board size and time limit
+     * @param seed The shuffle seed of the board
+     * @return The new session
+     * @throws IllegalStateException If the manager is closed
+     */
+    public GameSession createTimedSession(String playerName, Difficulty difficulty, long seed) {
+        GameBoard board = new GameBoard(difficulty.getRows(), difficulty.getCols(), seed);
+        return host(new TimedGame(board, new Player(playerName), difficulty.getTimeLimitSeconds(), clock));
+    }
+
+    /**
+     * Creates and starts an endless session
+     * @param playerName The player's name
+     * @param difficulty The difficulty, which sets the board size
+     * @param seed The shuffle seed of the board
+     * @return The new session
+     * @throws IllegalStateException If the manager is closed
+     */
+    public GameSession createEndlessSession(String playerName, Difficulty difficulty, long seed) {
+        GameBoard board = new GameBoard(difficulty.getRows(), difficulty.getCols(), seed);
+        return host(new EndlessGame(board, new Player(playerName), clock));
+    }
+
+    /**
+     * Registers and starts a session for a new game
+     * @param game The game, not yet started
+     * @return The new session
+     * @throws IllegalStateException If the manager is closed
+     */
+    private GameSession host(Game game) {
+        if (closed) {
+            throw new IllegalStateException("Session manager is closed");
+        }
+        game.setStatistics(null); // Results stay in the session, not in the active profile
+        long id = nextId.getAndIncrement();
+        if (journal != null) {
+            game.getEngine().setTurnRecorder(journal.recorder(id));
+        }
+        GameSession session = new GameSession(id, game, this);
+        sessions.put(session.getId(), session);
+        created.incrementAndGet();
+        session.start();
+        if (closed) {
+            // close() may have collected the live sessions before this one was added
+            retireSession(session.getId());
+            throw new IllegalStateException("Session manager is closed");
+        }
+        return session;
+    }
+
+    /**
+     * Looks up a live session
+     * @param id The session id
+     * @return The session, or null if there is no live session with this id
+     */
+    public GameSession getSession(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Retires a session: it stops accepting turns, queued turns are
+     * rejected and its thread ends. The game is not finished or recorded.
+     * @param id The session id
+     * @return True if a live session was retired
+     */
+    public boolean retireSession(long id) {
+        GameSession session = sessions.remove(id);
+        if (session == null) {
+            return false;
+        }
+        session.close();
+        retired.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Gets the number of live sessions
+     * @return The number of sessions hosted right now
+     */
+    public int getLiveSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Gets the timing wheel holding the countdown deadlines of all sessions
+     * @return The shared timing wheel
+     */
+    public TimingWheel getWheel() {
+        return wheel;
+    }
+
+    /**
+     * Records a played turn
+     * @param latencyNanos Time from submission to completion
+     */
+    void recordTurn(long latencyNanos) {
+        turns.increment();
+        turnLatency.record(latencyNanos);
+    }
+
+    /**
+     * Records a turn that was refused
+     */
+    void recordRejectedTurn() {
+        rejectedTurns.increment();
+    }
+
+    /**
+     * Takes a metrics snapshot. Turn counts, rates and latencies cover the
+     * interval since the previous snapshot, or since the manager was created.
+     * @return The metrics
+     */
+    public SessionMetrics getMetrics() {
+        synchronized (metricsLock) {
+            long now = System.nanoTime();
+            long totalTurns = turns.sum();
+            long totalRejected = rejectedTurns.sum();
+            long[] latency = new long[LatencyHistogram.bucketCount()];
+            turnLatency.snapshot(latency);
+            long[] interval = new long[latency.length];
+            for (int i = 0; i < latency.length; i++) {
+                interval[i] = latency[i] - previousLatency[i];
+            }
+            long intervalNanos = now - previousSnapshot;
+            long intervalTurns = totalTurns - previousTurns;
+            SessionMetrics metrics = new SessionMetrics(sessions.size(), created.get(), retired.get(),
+                    intervalTurns, totalRejected - previousRejected,
+                    intervalNanos == 0 ? 0 : intervalTurns * 1e9 / intervalNanos,
+                    LatencyHistogram.percentile(interval, 0.50), LatencyHistogram.percentile(interval, 0.99),
+                    intervalNanos);
+
+            System.arraycopy(latency, 0, previousLatency, 0, latency.length);
+            previousTurns = totalTurns;
+            previousRejected = totalRejected;
+            previousSnapshot = now;
+            return metrics;
+        }
+    }
+
+    /**
+     * Retires every session, waits for their threads and stops the ticker
+     */
+    @Override
+    public void close() {
+        closed = true;
+        List<GameSession> live = new ArrayList<>(sessions.values());
+        for (GameSession session : live) {
+            retireSession(session.getId());
+        }
+        try {
+            for (GameSession session : live) {
+                session.join();
+            }
+            ticker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
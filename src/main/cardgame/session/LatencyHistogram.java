@@ -0,0 +1,109 @@
+package main.cardgame.session;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent histogram of latencies in nanoseconds.
+ * Values are counted in log-linear buckets: 16 buckets per power of two,
+ * so any recorded value is reported within 1/16 (about 6%) of its true
+ * value. Recording is lock-free and allocation-free; each bucket is a
+ * {@link LongAdder}, so many threads can record without contending.
+ */
+
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    /** Enough buckets for any non-negative long */
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    /**
+     * Creates an empty histogram
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a value
+     * @param nanos The latency in nanoseconds; negative values count as zero
+     */
+    public void record(long nanos) {
+        counts[bucketOf(Math.max(0, nanos))].increment();
+    }
+
+    /**
+     * Copies the current bucket counts
+     * @param into The array to fill, of {@link #bucketCount()} entries
+     */
+    public void snapshot(long[] into) {
+        for (int i = 0; i < BUCKETS; i++) {
+            into[i] = counts[i].sum();
+        }
+    }
+
+    /**
+     * Gets the number of buckets a snapshot holds
+     * @return The number of buckets
+     */
+    public static int bucketCount() {
+        return BUCKETS;
+    }
+
+    /**
+     * Finds a percentile in bucket counts
+     * @param bucketCounts The counts of each bucket
+     * @param percentile The percentile, between 0 and 1
+     * @return The upper bound of the bucket holding the percentile, or 0 if nothing was recorded
+     */
+    public static long percentile(long[] bucketCounts, double percentile) {
+        long total = 0;
+        for (long count : bucketCounts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(bucketCounts.length - 1);
+    }
+
+    /**
+     * Maps a value to its bucket
+     * @param value The non-negative value
+     * @return The bucket index
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    /**
+     * Gets the largest value counted in a bucket
+     * @param bucket The bucket index
+     * @return The upper bound of the bucket
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_COUNT + SUB_BITS - 1;
+        long sub = bucket % SUB_COUNT;
+        long lower = (SUB_COUNT + sub) << (exponent - SUB_BITS);
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,26 @@
+package main.cardgame.session;
+
+/**
+ * Snapshot of the load on a {@link GameSessionManager}.
+ * Rates and latencies cover the interval since the previous snapshot.
+ * @param liveSessions Sessions currently hosted
+ * @param createdSessions Sessions created since the manager started
+ * @param retiredSessions Sessions retired since the manager started
+ * @param turns Turns played in the interval
+ * @param rejectedTurns Turns refused in the interval because a mailbox was full or the session retired
+ * @param turnsPerSecond Turns played per second in the interval
+ * @param p50TurnNanos Median turn latency in the interval, from submission to completion
+ * @param p99TurnNanos 99th percentile turn latency in the interval
+ * @param intervalNanos Length of the interval
+ */
+public record SessionMetrics(int liveSessions, long createdSessions, long retiredSessions,
+                             long turns, long rejectedTurns, double turnsPerSecond,
+                             long p50TurnNanos, long p99TurnNanos, long intervalNanos) {
+    /**
+     * Gets the 99th percentile turn latency in microseconds
+     * @return The p99 latency in microseconds
+     */
+    public double p99TurnMicros() {
+        return p99TurnNanos / 1e3;
+    }
+}
@@ -0,0 +1,324 @@
+package main.cardgame.sim;
+
+import main.cardgame.bot.BotPlayer;
+import main.cardgame.bot.BotRunner;
+import main.cardgame.bot.BoundedMemoryBot;
+import main.cardgame.bot.PerfectMemoryBot;
+import main.cardgame.bot.RandomBot;
+import main.cardgame.engine.BoardState;
+import main.cardgame.engine.Difficulty;
+import main.cardgame.engine.EndlessEngine;
+import main.cardgame.engine.GameEngine;
+import main.cardgame.engine.ScoringRules;
+import main.cardgame.engine.TimedEngine;
+import main.cardgame.time.ManualClock;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * Monte Carlo balance simulator for the scoring rules.
+ * Plays bot games on the headless engines, with the exact scoring code of
+ * the real game, and reports the distribution of final scores. Games are
+ * split into fixed chunks of {@value #CHUNK_GAMES}; each chunk has its own
+ * board, bot, manual clock and random generator and fills its own
+ * histograms, and a fork/join task tree merges them at the end. Nothing is
+ * shared while games run, so throughput grows with the number of cores,
+ * and the result of a seed does not depend on the parallelism.
+ * Run with: java -cp out main.cardgame.sim.BalanceSimulator [games] [bot] [rules]
+ * where bot is random, perfect or memory-N and rules overrides parameters of
+ * {@link ScoringRules#DEFAULT}, e.g. matchPoints=12,finishBonus=80.
+ * {@code -Dsim.threads} sets the parallelism, {@code -Dsim.turnMillis} the
+ * mean time per turn, and {@code -Dsim.scaling=true} also measures the
+ * speedup over one thread.
+ */
+
+public class BalanceSimulator implements AutoCloseable {
+    /** Games per independent simulation task */
+    static final int CHUNK_GAMES = 2048;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a simulator using every available processor
+     */
+    public BalanceSimulator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a simulator with the given number of worker threads
+     * @param parallelism The number of worker threads
+     * @throws IllegalArgumentException If parallelism is not positive
+     */
+    public BalanceSimulator(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Gets the number of worker threads
+     * @return The parallelism
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Runs a simulation
+     * @param config What to simulate
+     * @return The score distribution
+     */
+    public SimulationResult simulate(SimulationConfig config) {
+        int chunks = (config.games() + CHUNK_GAMES - 1) / CHUNK_GAMES;
+        // One independent generator per chunk, derived in order, so results do not depend on scheduling
+        SplittableRandom root = new SplittableRandom(config.seed());
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int i = 0; i < chunks; i++) {
+            randoms[i] = root.split();
+        }
+
+        long start = System.nanoTime();
+        Tally tally = chunks == 0 ? new Tally() : pool.invoke(new ChunkTask(config, randoms, 0, chunks));
+        long elapsed = System.nanoTime() - start;
+
+        ScoreHistogram scores = tally.scores;
+        long games = scores.total();
+        return new SimulationResult(config, games, scores.mean(), scores.min(),
+                scores.percentile(0.10), scores.percentile(0.50), scores.percentile(0.90),
+                scores.percentile(0.99), scores.max(), tally.moves.mean(),
+                games == 0 ? 0 : (double) tally.cleared / games, elapsed, getParallelism());
+    }
+
+    /**
+     * Shuts the worker threads down
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Plays the games of one chunk
+     * @param config What to simulate
+     * @param chunk The chunk index
+     * @param random The chunk's random generator, used for layouts, the bot and turn times
+     * @return The chunk's results
+     */
+    static Tally playChunk(SimulationConfig config, int chunk, SplittableRandom random) {
+        int games = Math.min(CHUNK_GAMES, config.games() - chunk * CHUNK_GAMES);
+        Difficulty difficulty = config.difficulty();
+        BoardState board = new BoardState(difficulty.getRows(), difficulty.getCols());
+        ManualClock clock = new ManualClock();
+        BotPlayer bot = config.bots().apply(random);
+        long meanTurnMillis = config.meanTurnMillis();
+        Tally tally = new Tally();
+
+        for (int game = 0; game < games; game++) {
+            board.shuffle(random);
+            GameEngine engine = config.timed()
+                    ? new TimedEngine(board, difficulty.getTimeLimitSeconds(), clock, config.rules())
+                    : new EndlessEngine(board, clock, config.rules());
+            engine.play();
+            bot.newGame(board);
+            while (engine.isActive()) {
+                if (meanTurnMillis > 0) {
+                    clock.advanceMillis(meanTurnMillis / 2 + random.nextLong(meanTurnMillis + 1));
+                }
+                if (config.timed() && engine.getTimer().isTimeUp()) {
+                    // The countdown ran out while the turn was being played
+                    engine.endGame();
+                    break;
+                }
+                BotRunner.playTurn(engine, bot);
+            }
+            tally.scores.record(engine.getScore());
+            tally.moves.record(engine.getMoves());
+            if (board.allCardsMatched()) {
+                tally.cleared++;
+            }
+        }
+        return tally;
+    }
+
+    /**
+     * Merged results of one or more chunks
+     */
+    static final class Tally {
+        final ScoreHistogram scores = new ScoreHistogram();
+        final ScoreHistogram moves = new ScoreHistogram();
+        long cleared;
+
+        /**
+         * Adds the results of another tally to this one
+         * @param other The tally to add
+         * @return This tally
+         */
+        Tally merge(Tally other) {
+            scores.merge(other.scores);
+            moves.merge(other.moves);
+            cleared += other.cleared;
+            return this;
+        }
+    }
+
+    /**
+     * Fork/join task playing a range of chunks by splitting it in halves
+     */
+    @SuppressWarnings("serial") // Fork/join tasks are Serializable but never serialized
+    private static final class ChunkTask extends RecursiveTask<Tally> {
+        private final SimulationConfig config;
+        private final SplittableRandom[] randoms;
+        private final int from;
+        private final int to;
+
+        /**
+         * Creates a task for chunks from (inclusive) to to (exclusive)
+         * @param config What to simulate
+         * @param randoms The generator of every chunk
+         * @param from The first chunk
+         * @param to The end of the range
+         */
+        ChunkTask(SimulationConfig config, SplittableRandom[] randoms, int from, int to) {
+            this.config = config;
+            this.randoms = randoms;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from == 1) {
+                return playChunk(config, from, randoms[from]);
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(config, randoms, from, middle);
+            left.fork();
+            Tally right = new ChunkTask(config, randoms, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Creates a bot factory from a name
+     * @param name random, perfect or memory-N
+     * @return The bot factory
+     * @throws IllegalArgumentException If the name is unknown
+     */
+    static Function<RandomGenerator, BotPlayer> botsNamed(String name) {
+        if (name.equals("random")) {
+            return RandomBot::new;
+        }
+        if (name.equals("perfect")) {
+            return PerfectMemoryBot::new;
+        }
+        if (name.startsWith("memory-")) {
+            int memoryTurns = Integer.parseInt(name.substring("memory-".length()));
+            return random -> new BoundedMemoryBot(random, memoryTurns);
+        }
+        throw new IllegalArgumentException("Unknown bot: " + name);
+    }
+
+    /**
+     * Parses overrides of the default scoring rules
+     * @param spec Comma separated name=value pairs, named like the {@link ScoringRules} components
+     * @return The default rules with the given parameters replaced
+     * @throws IllegalArgumentException If a name is unknown or a value is invalid
+     */
+    static ScoringRules parseRules(String spec) {
+        ScoringRules base = ScoringRules.DEFAULT;
+        int matchPoints = base.matchPoints();
+        int timePressureMax = base.timePressureMax();
+        int timePressureMin = base.timePressureMin();
+        int timeBonusDivisor = base.timeBonusDivisor();
+        int efficiencyBase = base.efficiencyBase();
+        int efficiencyMax = base.efficiencyMax();
+        int efficiencyMin = base.efficiencyMin();
+        int finishBonus = base.finishBonus();
+        for (String pair : spec.split(",")) {
+            String[] parts = pair.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected name=value but got: " + pair);
+            }
+            int value = Integer.parseInt(parts[1].trim());
+            switch (parts[0].trim()) {
+                case "matchPoints": matchPoints = value; break;
+                case "timePressureMax": timePressureMax = value; break;
+                case "timePressureMin": timePressureMin = value; break;
+                case "timeBonusDivisor": timeBonusDivisor = value; break;
+                case "efficiencyBase": efficiencyBase = value; break;
+                case "efficiencyMax": efficiencyMax = value; break;
+                case "efficiencyMin": efficiencyMin = value; break;
+                case "finishBonus": finishBonus = value; break;
+                default: throw new IllegalArgumentException("Unknown scoring parameter: " + parts[0]);
+            }
+        }
+        return new ScoringRules(matchPoints, timePressureMax, timePressureMin, timeBonusDivisor,
+                efficiencyBase, efficiencyMax, efficiencyMin, finishBonus);
+    }
+
+    /**
+     * Prints one result row
+     * @param label The row label
+     * @param result The result
+     */
+    private static void print(String label, SimulationResult result) {
+        SimulationConfig config = result.config();
+        System.out.printf("%-8s %-7s %-9s %8.2f %5d %5d %5d %5d %5d %5d %7.2f %6.1f%% %,12.0f%n",
+                config.timed() ? "timed" : "endless", config.difficulty().getLevel(), label,
+                result.meanScore(), result.minScore(), result.p10Score(), result.p50Score(),
+                result.p90Score(), result.p99Score(), result.maxScore(), result.meanMoves(),
+                100 * result.clearRate(), result.gamesPerSecond());
+    }
+
+    /**
+     * Runs the simulator over both modes and every difficulty
+     * @param args Optional number of games per row (200000 by default), bot (memory-5 by default)
+     *             and rule overrides to compare against the default rules
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        String botName = args.length > 1 ? args[1] : "memory-5";
+        ScoringRules alternative = args.length > 2 ? parseRules(args[2]) : null;
+        int threads = Integer.getInteger("sim.threads", Runtime.getRuntime().availableProcessors());
+        long turnMillis = Long.getLong("sim.turnMillis", 4000);
+        Function<RandomGenerator, BotPlayer> bots = botsNamed(botName);
+
+        System.out.printf("%,d games per row, bot %s, %d ms per turn, %d threads%n", games, botName, turnMillis, threads);
+        if (alternative != null) {
+            System.out.println("alternative: " + alternative);
+        }
+        System.out.printf("%-8s %-7s %-9s %8s %5s %5s %5s %5s %5s %5s %7s %7s %12s%n",
+                "mode", "level", "rules", "mean", "min", "p10", "p50", "p90", "p99", "max", "moves", "clear", "games/s");
+        try (BalanceSimulator simulator = new BalanceSimulator(threads)) {
+            for (boolean timed : new boolean[] {true, false}) {
+                for (Difficulty difficulty : Difficulty.values()) {
+                    SimulationConfig config = new SimulationConfig(timed, difficulty, ScoringRules.DEFAULT,
+                            bots, turnMillis, games, 42L);
+                    print("default", simulator.simulate(config));
+                    if (alternative != null) {
+                        print("changed", simulator.simulate(config.withRules(alternative)));
+                    }
+                }
+            }
+        }
+
+        if (Boolean.getBoolean("sim.scaling")) {
+            SimulationConfig config = new SimulationConfig(true, Difficulty.HARD, ScoringRules.DEFAULT,
+                    bots, turnMillis, games, 42L);
+            double single = 0;
+            for (int parallelism = 1; parallelism <= threads; parallelism *= 2) {
+                try (BalanceSimulator simulator = new BalanceSimulator(parallelism)) {
+                    SimulationResult result = simulator.simulate(config);
+                    if (parallelism == 1) {
+                        single = result.gamesPerSecond();
+                    }
+                    System.out.printf("%3d threads %,12.0f games/s  speedup %.2f%n",
+                            parallelism, result.gamesPerSecond(), result.gamesPerSecond() / single);
+                }
+            }
+        }
+    }
+}
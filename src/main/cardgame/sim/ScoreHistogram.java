@@ -0,0 +1,103 @@
+package main.cardgame.sim;
+
+import java.util.Arrays;
+
+/**
+ * Counts of simulated games per score (or per move count), one slot per
+ * value. Each simulation task fills its own histogram; they are merged
+ * once at the end, so counting never contends between threads.
+ */
+final class ScoreHistogram {
+    private long[] counts = new long[256];
+    private long total;
+    private long sum;
+
+    /**
+     * Counts one game
+     * @param value The game's score or moves, not negative
+     */
+    void record(int value) {
+        if (value >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(2 * counts.length, value + 1));
+        }
+        counts[value]++;
+        total++;
+        sum += value;
+    }
+
+    /**
+     * Adds the counts of another histogram to this one
+     * @param other The histogram to add
+     * @return This histogram
+     */
+    ScoreHistogram merge(ScoreHistogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        sum += other.sum;
+        return this;
+    }
+
+    /**
+     * Gets the number of games counted
+     * @return The number of games
+     */
+    long total() {
+        return total;
+    }
+
+    /**
+     * Gets the mean value
+     * @return The mean, or 0 if nothing was counted
+     */
+    double mean() {
+        return total == 0 ? 0 : (double) sum / total;
+    }
+
+    /**
+     * Finds a percentile
+     * @param percentile The percentile, between 0 and 1
+     * @return The smallest value with at least that share of games at or below it, or 0 if empty
+     */
+    int percentile(double percentile) {
+        long target = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int value = 0; value < counts.length; value++) {
+            seen += counts[value];
+            if (seen >= target) {
+                return value;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Finds the smallest value counted
+     * @return The minimum, or 0 if empty
+     */
+    int min() {
+        for (int value = 0; value < counts.length; value++) {
+            if (counts[value] > 0) {
+                return value;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Finds the largest value counted
+     * @return The maximum, or 0 if empty
+     */
+    int max() {
+        for (int value = counts.length - 1; value > 0; value--) {
+            if (counts[value] > 0) {
+                return value;
+            }
+        }
+        return 0;
+    }
+}
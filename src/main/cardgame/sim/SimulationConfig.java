@@ -0,0 +1,45 @@
+package main.cardgame.sim;
+
+import main.cardgame.bot.BotPlayer;
+import main.cardgame.engine.Difficulty;
+import main.cardgame.engine.ScoringRules;
+
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * What a balance simulation plays.
+ * @param timed True to play timed games, false for endless games
+ * @param difficulty The difficulty, which sets the board size and time limit
+ * @param rules The scoring rules under test
+ * @param bots Creates the bot of each simulation task from the task's random generator
+ * @param meanTurnMillis Mean game time one turn takes; each turn takes between half and one and a half times this
+ * @param games The number of games to play
+ * @param seed The seed; the same configuration and seed always give the same result
+ */
+public record SimulationConfig(boolean timed, Difficulty difficulty, ScoringRules rules,
+                               Function<RandomGenerator, BotPlayer> bots, long meanTurnMillis,
+                               int games, long seed) {
+    /**
+     * Validates the configuration
+     * @throws IllegalArgumentException If a value is missing or out of range
+     */
+    public SimulationConfig {
+        if (difficulty == null || rules == null || bots == null) {
+            throw new IllegalArgumentException("Difficulty, rules and bots are required");
+        }
+        if (meanTurnMillis < 0 || games < 0) {
+            throw new IllegalArgumentException("Invalid simulation: " + games + " games, "
+                    + meanTurnMillis + " ms per turn");
+        }
+    }
+
+    /**
+     * Creates the same configuration with other scoring rules
+     * @param newRules The scoring rules
+     * @return The new configuration
+     */
+    public SimulationConfig withRules(ScoringRules newRules) {
+        return new SimulationConfig(timed, difficulty, newRules, bots, meanTurnMillis, games, seed);
+    }
+}
@@ -0,0 +1,29 @@
+package main.cardgame.sim;
+
+/**
+ * Score distribution of a balance simulation.
+ * @param config The simulated configuration
+ * @param games The number of games played
+ * @param meanScore The mean final score
+ * @param minScore The lowest final score
+ * @param p10Score The 10th percentile score
+ * @param p50Score The median score
+ * @param p90Score The 90th percentile score
+ * @param p99Score The 99th percentile score
+ * @param maxScore The highest final score
+ * @param meanMoves The mean number of moves per game
+ * @param clearRate Share of games in which the whole board was cleared; below 1 only when timed games run out of time
+ * @param elapsedNanos Wall clock time of the simulation
+ * @param parallelism The number of worker threads used
+ */
+public record SimulationResult(SimulationConfig config, long games, double meanScore, int minScore,
+                               int p10Score, int p50Score, int p90Score, int p99Score, int maxScore,
+                               double meanMoves, double clearRate, long elapsedNanos, int parallelism) {
+    /**
+     * Gets the simulation throughput
+     * @return Games simulated per second
+     */
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+}
@@ -0,0 +1,14 @@
+package main.cardgame.spectate;
+
+/**
+ * Snapshot of a {@link SpectatorFeed} and its spectators.
+ * @param published Events published since the feed was created
+ * @param spectators Spectators currently subscribed
+ * @param meanLag Mean number of events the spectators have yet to read
+ * @param maxLag Largest number of events a spectator has yet to read
+ * @param resyncs Times a spectator continued from a snapshot, since the feed was created
+ * @param dropped Spectators dropped for lagging, since the feed was created
+ */
+public record FeedMetrics(long published, int spectators, double meanLag, long maxLag, long resyncs,
+                          long dropped) {
+}
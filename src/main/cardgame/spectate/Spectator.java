@@ -0,0 +1,202 @@
+package main.cardgame.spectate;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * One spectator's position in a {@link SpectatorFeed}. Reads copy a batch
+ * of events out of the ring, then check the feed's cursor once more: if
+ * the producer may have overwritten any of them in the meantime, the batch
+ * is thrown away and the spectator resyncs from a snapshot. A spectator is
+ * meant to be read by one thread; its lag may be read from any thread.
+ */
+
+public class Spectator implements AutoCloseable {
+    /** Most events copied out of the ring per check */
+    private static final int BATCH = 64;
+
+    private final SpectatorFeed feed;
+    private final int capacity;
+    private final long[] batch = new long[BATCH * SpectatorFeed.ENTRY_WORDS];
+    /** Sequence of the next event to read; written by the reading thread only */
+    private volatile long position;
+    private boolean needsResync;
+    private long resyncCount;
+    private volatile boolean closed;
+
+    /**
+     * Creates a spectator reading from the given position
+     * @param feed The feed
+     * @param position The first sequence to read; if events were published before it, the spectator starts with a resync
+     */
+    Spectator(SpectatorFeed feed, long position) {
+        this.feed = feed;
+        this.capacity = feed.getCapacity();
+        this.position = position;
+        this.needsResync = position > 0;
+    }
+
+    /**
+     * Delivers the events published since the last read, up to a limit
+     * @param listener The listener receiving the events on this thread
+     * @param max The largest number of events to deliver
+     * @return The number of events delivered, counting a resync as one, or -1 if the spectator was closed or dropped
+     */
+    public int poll(SpectatorListener listener, int max) {
+        if (closed) {
+            return -1;
+        }
+        int delivered = 0;
+        if (needsResync || feed.cursor() - position >= capacity) {
+            if (!resync(listener)) {
+                return 0;
+            }
+            delivered++;
+        }
+        while (delivered < max) {
+            int read = readBatch(Math.min(BATCH, max - delivered));
+            if (read < 0) {
+                needsResync = true;
+                return delivered + (resync(listener) ? 1 : 0);
+            }
+            if (read == 0) {
+                break;
+            }
+            deliver(listener, read);
+            delivered += read;
+        }
+        return delivered;
+    }
+
+    /**
+     * Copies available events out of the ring and checks they were not overwritten while copying
+     * @param max The largest number of events to copy
+     * @return The number of events copied, or -1 if the spectator was lapped
+     */
+    private int readBatch(int max) {
+        long start = position;
+        long available = feed.cursor() - start;
+        int count = (int) Math.min(max, available);
+        if (count <= 0) {
+            return 0;
+        }
+        AtomicLongArray entries = feed.entries();
+        int mask = capacity - 1;
+        for (int i = 0; i < count; i++) {
+            int base = (int) ((start + i) & mask) * SpectatorFeed.ENTRY_WORDS;
+            int offset = i * SpectatorFeed.ENTRY_WORDS;
+            batch[offset] = entries.getOpaque(base);
+            batch[offset + 1] = entries.getOpaque(base + 1);
+            batch[offset + 2] = entries.getOpaque(base + 2);
+        }
+        VarHandle.loadLoadFence();
+        // The producer writes sequence s + capacity only once the cursor has reached it
+        if (feed.cursor() - start >= capacity) {
+            return -1;
+        }
+        return count;
+    }
+
+    /**
+     * Hands copied events to the listener and advances the position
+     * @param listener The listener
+     * @param count The number of copied events
+     */
+    private void deliver(SpectatorListener listener, int count) {
+        for (int i = 0; i < count; i++) {
+            int offset = i * SpectatorFeed.ENTRY_WORDS;
+            long word0 = batch[offset];
+            long word1 = batch[offset + 1];
+            int a = (int) word0;
+            int b = (int) (word1 >>> 32);
+            int c = (int) word1;
+            int d = (int) batch[offset + 2];
+            switch ((int) (word0 >>> 32)) {
+                case SpectatorFeed.FLIP:
+                    listener.onFlip(a, b);
+                    break;
+                case SpectatorFeed.MATCH:
+                    listener.onTurn(a, b, c, d, true);
+                    break;
+                case SpectatorFeed.MISS:
+                    listener.onTurn(a, b, c, d, false);
+                    break;
+                case SpectatorFeed.SCORE:
+                    listener.onScore(a, b);
+                    break;
+                case SpectatorFeed.GAME_OVER:
+                    listener.onGameOver(a, b);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown spectator event " + (word0 >>> 32));
+            }
+        }
+        position += count;
+    }
+
+    /**
+     * Continues from the feed's latest snapshot if one is usable
+     * @param listener The listener receiving the snapshot
+     * @return True if the spectator resynced, false if it has to wait for the producer to build a snapshot
+     */
+    private boolean resync(SpectatorListener listener) {
+        SpectatorSnapshot snapshot = feed.resyncSnapshot();
+        if (snapshot == null) {
+            needsResync = true;
+            return false;
+        }
+        needsResync = false;
+        resyncCount++;
+        position = snapshot.sequence();
+        listener.onResync(snapshot);
+        return true;
+    }
+
+    /**
+     * Gets the number of events published that this spectator has not read
+     * @return The lag in events
+     */
+    public long getLag() {
+        return getLag(feed.cursor());
+    }
+
+    /**
+     * Gets the lag against a known cursor
+     * @param cursor The feed's cursor
+     * @return The lag in events
+     */
+    long getLag(long cursor) {
+        return Math.max(0, cursor - position);
+    }
+
+    /**
+     * Gets the number of times this spectator continued from a snapshot
+     * @return The resync count
+     */
+    public long getResyncCount() {
+        return resyncCount;
+    }
+
+    /**
+     * Checks if the spectator was closed or dropped by the feed
+     * @return True if no more events will be delivered
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Marks the spectator closed after the feed removed it
+     */
+    void markClosed() {
+        closed = true;
+    }
+
+    /**
+     * Stops watching the game
+     */
+    @Override
+    public void close() {
+        feed.unsubscribe(this);
+    }
+}
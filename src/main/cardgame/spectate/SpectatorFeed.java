@@ -0,0 +1,277 @@
+package main.cardgame.spectate;
+
+import main.cardgame.engine.BoardState;
+
+import java.lang.invoke.VarHandle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live feed of one game for any number of spectators.
+ * The game's thread publishes every flip, turn and score change once into
+ * a fixed ring; each {@link Spectator} reads the ring at its own pace
+ * without locks. The producer never waits for anyone: when it laps a
+ * spectator, that spectator notices on its next read and continues from a
+ * {@link SpectatorSnapshot} instead. Snapshots are only built on the
+ * game's thread, when a spectator asks for one or the game ends, so the
+ * cost of publishing does not depend on the number of spectators.
+ * Only one thread may publish; any thread may subscribe.
+ */
+
+public class SpectatorFeed {
+    /** Ring size used when none is given */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    static final int FLIP = 1;
+    static final int MATCH = 2;
+    static final int MISS = 3;
+    static final int SCORE = 4;
+    static final int GAME_OVER = 5;
+    /** Longs per ring entry: type and four ints */
+    static final int ENTRY_WORDS = 3;
+
+    private final BoardState board;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray entries;
+    /** Sequence of the next event; every event before it is readable */
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicReference<SpectatorSnapshot> snapshot = new AtomicReference<>();
+    private volatile boolean snapshotRequested;
+
+    private final Set<Spectator> spectators = ConcurrentHashMap.newKeySet();
+    private final LongAdder resyncs = new LongAdder();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Producer state, touched only by the game's thread
+    private long next;
+    private int pendingSlot = -1;
+    private int score;
+    private int moves;
+    private boolean over;
+
+    /**
+     * Creates a feed with the default capacity
+     * @param board The board of the game, read on the game's thread to build snapshots
+     */
+    public SpectatorFeed(BoardState board) {
+        this(board, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a feed
+     * @param board The board of the game, read on the game's thread to build snapshots
+     * @param capacity The number of events kept for spectators; a power of two
+     * @throws IllegalArgumentException If the capacity is not a power of two of at least 2
+     */
+    public SpectatorFeed(BoardState board, int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two of at least 2");
+        }
+        this.board = board;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.entries = new AtomicLongArray(capacity * ENTRY_WORDS);
+    }
+
+    /**
+     * Publishes the first card of a turn
+     * @param slot The slot turned over
+     */
+    public void publishFlip(int slot) {
+        pendingSlot = slot;
+        publish(FLIP, slot, board.pairKeyAt(slot), 0, 0);
+    }
+
+    /**
+     * Publishes a played turn
+     * @param slot1 The first slot
+     * @param slot2 The second slot
+     * @param match True if the slots matched
+     */
+    public void publishTurn(int slot1, int slot2, boolean match) {
+        pendingSlot = -1;
+        publish(match ? MATCH : MISS, slot1, board.pairKeyAt(slot1), slot2, board.pairKeyAt(slot2));
+    }
+
+    /**
+     * Publishes the player's score and moves
+     * @param score The score
+     * @param moves The number of moves
+     */
+    public void publishScore(int score, int moves) {
+        this.score = score;
+        this.moves = moves;
+        publish(SCORE, score, moves, 0, 0);
+    }
+
+    /**
+     * Publishes the end of the game and a final snapshot for late or lagging spectators
+     * @param score The final score
+     * @param moves The final number of moves
+     */
+    public void publishGameOver(int score, int moves) {
+        this.score = score;
+        this.moves = moves;
+        this.over = true;
+        pendingSlot = -1;
+        publish(GAME_OVER, score, moves, 0, 0);
+        publishSnapshot();
+    }
+
+    /**
+     * Builds a snapshot of the game as of the next event, for spectators to resync from
+     */
+    public void publishSnapshot() {
+        snapshotRequested = false;
+        int[] faces = new int[board.size()];
+        for (int slot = 0; slot < faces.length; slot++) {
+            faces[slot] = board.isMatched(slot) || slot == pendingSlot ? board.pairKeyAt(slot) : -1;
+        }
+        snapshot.set(new SpectatorSnapshot(next, board.getRows(), board.getCols(), faces, score, moves, over));
+    }
+
+    /**
+     * Writes one event into the ring and makes it readable
+     * @param type The event type
+     * @param a First value
+     * @param b Second value
+     * @param c Third value
+     * @param d Fourth value
+     */
+    private void publish(int type, int a, int b, int c, int d) {
+        if (snapshotRequested) {
+            publishSnapshot();
+        }
+        long sequence = next;
+        // A reader that sees this entry overwritten must also see the cursor that allowed it
+        VarHandle.storeStoreFence();
+        int base = (int) (sequence & mask) * ENTRY_WORDS;
+        entries.setOpaque(base, pack(type, a));
+        entries.setOpaque(base + 1, pack(b, c));
+        entries.setOpaque(base + 2, d);
+        next = sequence + 1;
+        cursor.setRelease(next);
+    }
+
+    /**
+     * Packs two ints into a long
+     * @param high The high int
+     * @param low The low int
+     * @return The packed long
+     */
+    private static long pack(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Subscribes a new spectator. If the game has already started, the
+     * spectator's first read resyncs from a snapshot.
+     * @return The spectator
+     */
+    public Spectator subscribe() {
+        Spectator spectator = new Spectator(this, cursor.get());
+        spectators.add(spectator);
+        return spectator;
+    }
+
+    /**
+     * Drops every spectator lagging further behind than allowed; their next read reports them closed
+     * @param maxLag The largest number of unread events a spectator may have
+     * @return The number of spectators dropped
+     */
+    public int dropLaggards(long maxLag) {
+        long published = cursor.get();
+        int count = 0;
+        for (Spectator spectator : spectators) {
+            if (spectator.getLag(published) > maxLag && unsubscribe(spectator)) {
+                count++;
+            }
+        }
+        dropped.addAndGet(count);
+        return count;
+    }
+
+    /**
+     * Removes a spectator
+     * @param spectator The spectator
+     * @return True if it was subscribed
+     */
+    boolean unsubscribe(Spectator spectator) {
+        if (spectators.remove(spectator)) {
+            spectator.markClosed();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the latest snapshot, asking the producer for a new one if it is
+     * too old to continue from
+     * @return A snapshot whose following events are still in the ring, or null if none is ready yet
+     */
+    SpectatorSnapshot resyncSnapshot() {
+        SpectatorSnapshot latest = snapshot.get();
+        if (latest != null && cursor.get() - latest.sequence() < capacity) {
+            resyncs.increment();
+            return latest;
+        }
+        snapshotRequested = true;
+        return null;
+    }
+
+    /**
+     * Gets the sequence of the next event to be published
+     * @return The number of events published
+     */
+    long cursor() {
+        return cursor.getAcquire();
+    }
+
+    /**
+     * Gets the ring entries
+     * @return The entries, {@link #ENTRY_WORDS} longs per event
+     */
+    AtomicLongArray entries() {
+        return entries;
+    }
+
+    /**
+     * Gets the ring size
+     * @return The number of events the ring holds
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of subscribed spectators
+     * @return The spectator count
+     */
+    public int getSpectatorCount() {
+        return spectators.size();
+    }
+
+    /**
+     * Takes a metrics snapshot; lags are read from every spectator
+     * @return The metrics
+     */
+    public FeedMetrics getMetrics() {
+        long published = cursor.get();
+        long totalLag = 0;
+        long maxLag = 0;
+        int count = 0;
+        for (Spectator spectator : spectators) {
+            long lag = spectator.getLag(published);
+            totalLag += lag;
+            maxLag = Math.max(maxLag, lag);
+            count++;
+        }
+        return new FeedMetrics(published, count, count == 0 ? 0 : (double) totalLag / count, maxLag,
+                resyncs.sum(), dropped.get());
+    }
+}
@@ -0,0 +1,47 @@
+package main.cardgame.spectate;
+
+/**
+ * Receives the events a {@link Spectator} reads from its feed, on the
+ * spectator's own thread. Events arrive in the order the game published
+ * them; after {@link #onResync(SpectatorSnapshot)} they continue from the
+ * snapshot's state.
+ */
+public interface SpectatorListener {
+    /**
+     * A card was turned over as the first card of a turn
+     * @param slot The slot of the card
+     * @param pairKey The pair key of the card
+     */
+    void onFlip(int slot, int pairKey);
+
+    /**
+     * A turn was played
+     * @param slot1 The first slot
+     * @param pairKey1 The pair key of the first card
+     * @param slot2 The second slot
+     * @param pairKey2 The pair key of the second card
+     * @param match True if the cards matched and stay face up
+     */
+    void onTurn(int slot1, int pairKey1, int slot2, int pairKey2, boolean match);
+
+    /**
+     * The player's score or moves changed
+     * @param score The score
+     * @param moves The number of moves
+     */
+    void onScore(int score, int moves);
+
+    /**
+     * The game ended
+     * @param score The final score
+     * @param moves The final number of moves
+     */
+    void onGameOver(int score, int moves);
+
+    /**
+     * The spectator fell behind, or joined late, and continues from a
+     * snapshot; everything before it is skipped
+     * @param snapshot The game as it was at the snapshot
+     */
+    void onResync(SpectatorSnapshot snapshot);
+}
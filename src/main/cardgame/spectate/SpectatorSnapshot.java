@@ -0,0 +1,17 @@
+package main.cardgame.spectate;
+
+/**
+ * What a spectator can see of a game at one point of its feed. Snapshots
+ * are built on the game's thread and never changed, so every spectator
+ * resyncing at the same time shares one.
+ * @param sequence The feed sequence of the first event after the snapshot
+ * @param rows The number of board rows
+ * @param cols The number of board columns
+ * @param faces The pair key of every face up slot, matched or turned over this turn, or -1 for face down slots
+ * @param score The player's score
+ * @param moves The player's moves
+ * @param over True if the game has ended
+ */
+public record SpectatorSnapshot(long sequence, int rows, int cols, int[] faces, int score, int moves,
+                                boolean over) {
+}
@@ -0,0 +1,108 @@
+package main.cardgame.stats;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.TimeZone;
+
+/**
+ * The games of the last N calendar days, e.g. the last 7, kept as one
+ * bucket of totals per day in a ring indexed by the day number. Adding
+ * a game touches one bucket, which is cleared first if it still holds an
+ * older day; a summary adds up at most N buckets, skipping days that have
+ * passed. Both take constant time however many games were played. Days
+ * follow the local time zone.
+ */
+
+public class DailyWindow implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    /** Day number each bucket holds, or -1 if the bucket was never used */
+    private final long[] days;
+    private final int[] games;
+    private final long[] moves;
+    private final long[] times;
+    private final long[] scores;
+
+    /**
+     * Creates an empty window
+     * @param dayCount The number of days to keep, today included
+     * @throws IllegalArgumentException If the number of days is not positive
+     */
+    public DailyWindow(int dayCount) {
+        if (dayCount < 1) {
+            throw new IllegalArgumentException("Window must hold at least one day");
+        }
+        this.days = new long[dayCount];
+        this.games = new int[dayCount];
+        this.moves = new long[dayCount];
+        this.times = new long[dayCount];
+        this.scores = new long[dayCount];
+        Arrays.fill(days, -1);
+    }
+
+    /**
+     * Adds a finished game
+     * @param finishedAtMillis When the game ended, in epoch milliseconds
+     * @param gameMoves Moves made
+     * @param time Time taken in milliseconds
+     * @param score Final score
+     */
+    public void add(long finishedAtMillis, int gameMoves, long time, int score) {
+        long day = dayOf(finishedAtMillis);
+        int slot = (int) Math.floorMod(day, (long) days.length);
+        if (days[slot] != day) {
+            if (days[slot] > day) {
+                return; // older than the window, e.g. after the clock was turned back
+            }
+            days[slot] = day;
+            games[slot] = 0;
+            moves[slot] = 0;
+            times[slot] = 0;
+            scores[slot] = 0;
+        }
+        games[slot]++;
+        moves[slot] += gameMoves;
+        times[slot] += time;
+        scores[slot] += score;
+    }
+
+    /**
+     * Gets the number of days the window keeps
+     * @return The number of days, today included
+     */
+    public int getDayCount() {
+        return days.length;
+    }
+
+    /**
+     * Gets the totals of the games played in the window ending today
+     * @param nowMillis The current time, in epoch milliseconds
+     * @return The summary
+     */
+    public WindowSummary summarize(long nowMillis) {
+        long today = dayOf(nowMillis);
+        int totalGames = 0;
+        long totalMoves = 0;
+        long totalTime = 0;
+        long totalScore = 0;
+        for (int slot = 0; slot < days.length; slot++) {
+            if (days[slot] > today - days.length && days[slot] <= today) {
+                totalGames += games[slot];
+                totalMoves += moves[slot];
+                totalTime += times[slot];
+                totalScore += scores[slot];
+            }
+        }
+        return new WindowSummary(totalGames, totalMoves, totalTime, totalScore);
+    }
+
+    /**
+     * Gets the local calendar day of a time
+     * @param millis The time, in epoch milliseconds
+     * @return Days since the epoch in the local time zone
+     */
+    private static long dayOf(long millis) {
+        return Math.floorDiv(millis + TimeZone.getDefault().getOffset(millis), DAY_MILLIS);
+    }
+}
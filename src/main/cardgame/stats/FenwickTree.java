@@ -0,0 +1,90 @@
+package main.cardgame.stats;
+
+import java.nio.LongBuffer;
+
+/**
+ * Counts per bucket with prefix sums in O(log n), stored as a binary
+ * indexed tree in a {@link LongBuffer}. The buffer may be a view of a
+ * memory-mapped file, in which case every update lands in the file and
+ * the tree is never rebuilt: loading is just mapping it again.
+ */
+
+public class FenwickTree {
+    private final LongBuffer tree;
+    private final int size;
+
+    /**
+     * Creates an empty tree on the heap
+     * @param size The number of buckets
+     */
+    public FenwickTree(int size) {
+        this(LongBuffer.allocate(size), size);
+    }
+
+    /**
+     * Wraps a tree stored in a buffer; a zeroed buffer is an empty tree
+     * @param tree The buffer, holding at least size longs from index 0
+     * @param size The number of buckets
+     * @throws IllegalArgumentException If the buffer is too small or the size is not positive
+     */
+    public FenwickTree(LongBuffer tree, int size) {
+        if (size < 1 || tree.capacity() < size) {
+            throw new IllegalArgumentException("Tree needs a positive size and a buffer of " + size + " longs");
+        }
+        this.tree = tree;
+        this.size = size;
+    }
+
+    /**
+     * Adds to the count of a bucket
+     * @param bucket The bucket, from 0
+     * @param delta The amount to add
+     */
+    public void add(int bucket, long delta) {
+        for (int i = checkBucket(bucket) + 1; i <= size; i += i & -i) {
+            tree.put(i - 1, tree.get(i - 1) + delta);
+        }
+    }
+
+    /**
+     * Sums the counts of the buckets up to and including one
+     * @param bucket The last bucket, from 0; -1 gives 0
+     * @return The sum of buckets 0 to bucket
+     */
+    public long prefixSum(int bucket) {
+        long sum = 0;
+        for (int i = Math.min(bucket, size - 1) + 1; i > 0; i -= i & -i) {
+            sum += tree.get(i - 1);
+        }
+        return sum;
+    }
+
+    /**
+     * Sums every bucket
+     * @return The total count
+     */
+    public long total() {
+        return prefixSum(size - 1);
+    }
+
+    /**
+     * Gets the number of buckets
+     * @return The size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks a bucket index
+     * @param bucket The bucket
+     * @return The bucket
+     * @throws IndexOutOfBoundsException If the bucket is out of range
+     */
+    private int checkBucket(int bucket) {
+        if (bucket < 0 || bucket >= size) {
+            throw new IndexOutOfBoundsException("Bucket " + bucket + " out of " + size);
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,180 @@
+package main.cardgame.stats;
+
+import main.cardgame.engine.Difficulty;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Distribution of the scores and clear times of every game played, per
+ * mode and difficulty, for "better than N% of games" on the game over
+ * screen. Each distribution is a {@link FenwickTree} over fixed buckets,
+ * so recording a game and ranking it both take O(log buckets) no matter
+ * how many games were recorded. The trees live in a memory-mapped file
+ * and are updated in place; if the file cannot be mapped they are kept
+ * in memory for this run only.
+ * <pre>
+ * header  int magic "MPCT", short version, short unused,
+ *         int score buckets, int time buckets
+ * trees   per mode (endless, timed) and difficulty: score tree, then time tree, big-endian longs
+ * </pre>
+ */
+
+public class GamePercentiles {
+    /** Score buckets of one point each; higher scores share the last bucket */
+    public static final int SCORE_BUCKETS = 4096;
+    /** Clear time buckets of one second each; longer games share the last bucket */
+    public static final int TIME_BUCKETS = 4096;
+
+    /** Distribution file; -Dcardgame.percentileFile=<path> moves it, e.g. for benchmarks */
+    private static final Path FILE = Path.of(System.getProperty("cardgame.percentileFile", "percentiles.dat"));
+    private static final int MAGIC = 0x4D504354; // "MPCT"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int BOARDS = 2 * Difficulty.values().length;
+
+    private static final FenwickTree[] scores = new FenwickTree[BOARDS];
+    private static final FenwickTree[] times = new FenwickTree[BOARDS];
+
+    static {
+        try {
+            map();
+        } catch (IOException | IllegalStateException e) {
+            e.printStackTrace();
+            for (int i = 0; i < BOARDS; i++) {
+                scores[i] = new FenwickTree(SCORE_BUCKETS);
+                times[i] = new FenwickTree(TIME_BUCKETS);
+            }
+        }
+    }
+
+    /**
+     * Maps the distribution file, creating it if needed
+     * @throws IOException If the file cannot be opened or mapped
+     * @throws IllegalStateException If the file was written with other buckets
+     */
+    private static void map() throws IOException {
+        long treeBytes = (long) (SCORE_BUCKETS + TIME_BUCKETS) * Long.BYTES;
+        long fileBytes = HEADER_BYTES + BOARDS * treeBytes;
+        try (FileChannel channel = FileChannel.open(FILE, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            boolean created = channel.size() == 0;
+            if (!created && channel.size() != fileBytes) {
+                throw new IllegalStateException("Percentile file " + FILE + " has an unexpected size");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes);
+            if (created) {
+                mapped.putInt(0, MAGIC).putShort(4, VERSION).putInt(8, SCORE_BUCKETS).putInt(12, TIME_BUCKETS);
+            } else if (mapped.getInt(0) != MAGIC || mapped.getShort(4) != VERSION
+                    || mapped.getInt(8) != SCORE_BUCKETS || mapped.getInt(12) != TIME_BUCKETS) {
+                throw new IllegalStateException("Percentile file " + FILE + " was written with other buckets");
+            }
+            // The mapping stays valid after the channel is closed
+            for (int i = 0; i < BOARDS; i++) {
+                long offset = HEADER_BYTES + i * treeBytes;
+                scores[i] = new FenwickTree(slice(mapped, offset, SCORE_BUCKETS), SCORE_BUCKETS);
+                times[i] = new FenwickTree(slice(mapped, offset + (long) SCORE_BUCKETS * Long.BYTES, TIME_BUCKETS),
+                        TIME_BUCKETS);
+            }
+        }
+    }
+
+    /**
+     * Views part of the mapped file as longs
+     * @param mapped The mapped file
+     * @param offset The byte offset
+     * @param longs The number of longs
+     * @return The view
+     */
+    private static LongBuffer slice(ByteBuffer mapped, long offset, int longs) {
+        return mapped.slice((int) offset, longs * Long.BYTES).asLongBuffer();
+    }
+
+    /**
+     * Gets the position of a mode and difficulty in the tree arrays
+     * @param timed True for timed mode
+     * @param difficulty The difficulty
+     * @return The index
+     */
+    private static int indexOf(boolean timed, Difficulty difficulty) {
+        return (timed ? Difficulty.values().length : 0) + difficulty.ordinal();
+    }
+
+    /**
+     * Ranks a finished game among the earlier ones, then records it
+     * @param timed True for timed mode, false for endless mode
+     * @param difficulty The difficulty
+     * @param score The final score
+     * @param durationMillis The game time
+     * @param cleared True if every pair was matched; only cleared games count for time
+     * @return The game's rank among the games recorded before it
+     */
+    public static synchronized PercentileRank record(boolean timed, Difficulty difficulty, int score,
+                                                     long durationMillis, boolean cleared) {
+        PercentileRank rank = rank(timed, difficulty, score, durationMillis, cleared);
+        int index = indexOf(timed, difficulty);
+        scores[index].add(scoreBucket(score), 1);
+        if (cleared) {
+            times[index].add(timeBucket(durationMillis), 1);
+        }
+        return rank;
+    }
+
+    /**
+     * Ranks a game among the recorded ones without recording it
+     * @param timed True for timed mode, false for endless mode
+     * @param difficulty The difficulty
+     * @param score The score
+     * @param durationMillis The game time
+     * @param cleared True if every pair was matched
+     * @return The game's rank
+     */
+    public static synchronized PercentileRank rank(boolean timed, Difficulty difficulty, int score,
+                                                   long durationMillis, boolean cleared) {
+        int index = indexOf(timed, difficulty);
+        FenwickTree scoreTree = scores[index];
+        long games = scoreTree.total();
+        double scorePercent = games == 0 ? -1 : 100.0 * scoreTree.prefixSum(scoreBucket(score) - 1) / games;
+
+        FenwickTree timeTree = times[index];
+        long clearedGames = timeTree.total();
+        double timePercent = -1;
+        if (cleared && clearedGames > 0) {
+            timePercent = 100.0 * (clearedGames - timeTree.prefixSum(timeBucket(durationMillis))) / clearedGames;
+        }
+        return new PercentileRank(games, scorePercent, clearedGames, timePercent);
+    }
+
+    /**
+     * Gets the number of recorded games of a mode and difficulty
+     * @param timed True for timed mode, false for endless mode
+     * @param difficulty The difficulty
+     * @return The game count
+     */
+    public static synchronized long getGameCount(boolean timed, Difficulty difficulty) {
+        return scores[indexOf(timed, difficulty)].total();
+    }
+
+    /**
+     * Maps a score to its bucket
+     * @param score The score
+     * @return The bucket
+     */
+    private static int scoreBucket(int score) {
+        return Math.max(0, Math.min(score, SCORE_BUCKETS - 1));
+    }
+
+    /**
+     * Maps a game time to its bucket
+     * @param durationMillis The game time
+     * @return The bucket
+     */
+    private static int timeBucket(long durationMillis) {
+        return (int) Math.max(0, Math.min(durationMillis / 1000, TIME_BUCKETS - 1));
+    }
+}
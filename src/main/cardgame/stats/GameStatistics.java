@@ -2,6 +2,8 @@ package main.cardgame.stats;
 
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
@@ -30,9 +32,25 @@ public class GameStatistics implements Serializable {
     private int bestTimedScore; // Highest score in timed mode
     /** Highest score achieved in endless mode */
     private int bestEndlessScore; // Highest score in endless mode
-
-    /** Path where statistics are saved */
-    private static final String FILE_PATH = "src/main/resources/statistics.json";
+    /** Shuffle seed of the last finished game, or null if it was not recorded */
+    private Long lastGameSeed;
+
+    /** Games in the short rolling window */
+    public static final int SHORT_WINDOW_GAMES = 10;
+    /** Games in the long rolling window */
+    public static final int LONG_WINDOW_GAMES = 100;
+    /** Days in the daily rolling window, today included */
+    public static final int WINDOW_DAYS = 7;
+    /** Rolling windows of recent games; null in statistics saved before they existed */
+    private RollingWindow lastTenGames = new RollingWindow(SHORT_WINDOW_GAMES);
+    private RollingWindow lastHundredGames = new RollingWindow(LONG_WINDOW_GAMES);
+    private DailyWindow lastSevenDays = new DailyWindow(WINDOW_DAYS);
+
+    /** Path where statistics are saved; -Dcardgame.statsFile=<path> moves it, e.g. for benchmarks */
+    private static final String FILE_PATH = System.getProperty("cardgame.statsFile", "src/main/resources/statistics.json");
+    /** Shared serializers; Gson instances are thread-safe and costly to build */
+    private static final Gson GSON = new Gson();
+    private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
 
     /**
      * Creates a new empty statistics object
@@ -49,8 +67,12 @@ public class GameStatistics implements Serializable {
         if (!file.exists()) return new GameStatistics();
 
         try (Reader reader = new FileReader(file)) {
-            Gson gson = new Gson();
-            return gson.fromJson(reader, GameStatistics.class);
+            GameStatistics loaded = GSON.fromJson(reader, GameStatistics.class);
+            if (loaded == null) {
+                return new GameStatistics();
+            }
+            loaded.initWindows();
+            return loaded;
         } catch (IOException e) {
             e.printStackTrace();
             return new GameStatistics();
@@ -66,7 +88,7 @@ public class GameStatistics implements Serializable {
      * @param score       Player's final score
      * @param isTimedGame Whether this was a timed game
      */
-    public void updateGameStats(int matches, int moves, long time, int score, boolean isTimedGame) {
+    public synchronized void updateGameStats(int matches, int moves, long time, int score, boolean isTimedGame) {
         totalGames++;
         totalMatches += matches;
         totalMoves += moves;
@@ -93,13 +115,33 @@ public class GameStatistics implements Serializable {
             bestTime = time;
         }
 
+        lastTenGames.add(moves, time, score);
+        lastHundredGames.add(moves, time, score);
+        lastSevenDays.add(System.currentTimeMillis(), moves, time, score);
+
         save();
     }
 
+    /**
+     * Updates game statistics when a game ends and records the seed of its layout,
+     * so the game can be replayed
+     * @param matches     Number of matches found
+     * @param moves       Number of moves made
+     * @param time        Time taken (or elapsed) in milliseconds
+     * @param score       Player's final score
+     * @param isTimedGame Whether this was a timed game
+     * @param seed        Shuffle seed of the board, or null if unknown
+     */
+    public synchronized void updateGameStats(int matches, int moves, long time, int score, boolean isTimedGame,
+                                             Long seed) {
+        lastGameSeed = seed;
+        updateGameStats(matches, moves, time, score, isTimedGame);
+    }
+
     /**
      * Legacy method for backward compatibility
      */
-    public void updateGameStats(int matches, int moves, long time) {
+    public synchronized void updateGameStats(int matches, int moves, long time) {
         totalGames++;
         totalMatches += matches;
         totalMoves += moves;
@@ -198,17 +240,81 @@ public class GameStatistics implements Serializable {
     }
 
     /**
-     * Saves statistics to disk
+     * Gets the totals of the last ten games
+     * @return The summary, covering fewer games if fewer were played
      */
-    private void save() {
-        try (Writer writer = new FileWriter(FILE_PATH)) {
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            gson.toJson(this, writer);
-        } catch (IOException e) {
-            e.printStackTrace();
+    public synchronized WindowSummary getLastTenGames() {
+        return lastTenGames.summarize();
+    }
+
+    /**
+     * Gets the totals of the last hundred games
+     * @return The summary, covering fewer games if fewer were played
+     */
+    public synchronized WindowSummary getLastHundredGames() {
+        return lastHundredGames.summarize();
+    }
+
+    /**
+     * Gets the totals of the games played in the last seven days, today included
+     * @return The summary
+     */
+    public synchronized WindowSummary getLastSevenDays() {
+        return lastSevenDays.summarize(System.currentTimeMillis());
+    }
+
+    /**
+     * Creates the rolling windows missing from statistics saved before they existed,
+     * once after loading; they then start with the next game
+     */
+    private void initWindows() {
+        if (lastTenGames == null) {
+            lastTenGames = new RollingWindow(SHORT_WINDOW_GAMES);
+        }
+        if (lastHundredGames == null) {
+            lastHundredGames = new RollingWindow(LONG_WINDOW_GAMES);
+        }
+        if (lastSevenDays == null) {
+            lastSevenDays = new DailyWindow(WINDOW_DAYS);
         }
     }
 
+    /**
+     * Restores serialized statistics, e.g. inside a profile, adding the rolling windows if they are missing
+     * @param in The stream to read from
+     * @throws IOException If the statistics cannot be read
+     * @throws ClassNotFoundException If a class of the statistics cannot be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        initWindows();
+    }
+
+    /**
+     * Gets the shuffle seed of the last finished game
+     * @return The seed, or null if it was not recorded
+     */
+    public Long getLastGameSeed() {
+        return lastGameSeed;
+    }
+
+    /**
+     * Queues the statistics to be saved to disk by the {@link StatisticsPersister},
+     * so a finished game never waits for the write. They are encoded on the writer
+     * thread under this object's lock, which every update holds, so queueing copies nothing.
+     */
+    private void save() {
+        StatisticsPersister.save(Path.of(FILE_PATH), this::toJson);
+    }
+
+    /**
+     * Encodes the statistics as they are now
+     * @return The pretty-printed JSON, as UTF-8
+     */
+    private synchronized byte[] toJson() {
+        return PRETTY_GSON.toJson(this).getBytes(StandardCharsets.UTF_8);
+    }
+
     /**
      * Loads statistics from disk
      */
@@ -217,8 +323,7 @@ public class GameStatistics implements Serializable {
         if (!file.exists()) return;
 
         try (Reader reader = new FileReader(file)) {
-            Gson gson = new Gson();
-            GameStatistics loaded = gson.fromJson(reader, GameStatistics.class);
+            GameStatistics loaded = GSON.fromJson(reader, GameStatistics.class);
 
             // Copy loaded values
             this.totalGames = loaded.totalGames;
@@ -231,6 +336,10 @@ public class GameStatistics implements Serializable {
             // Handle potentially missing fields in older saved data
             if (loaded.bestTimedScore != 0) this.bestTimedScore = loaded.bestTimedScore;
             if (loaded.bestEndlessScore != 0) this.bestEndlessScore = loaded.bestEndlessScore;
+            this.lastGameSeed = loaded.lastGameSeed;
+            if (loaded.lastTenGames != null) this.lastTenGames = loaded.lastTenGames;
+            if (loaded.lastHundredGames != null) this.lastHundredGames = loaded.lastHundredGames;
+            if (loaded.lastSevenDays != null) this.lastSevenDays = loaded.lastSevenDays;
         } catch (IOException e) {
             e.printStackTrace();
 
@@ -0,0 +1,12 @@
+package main.cardgame.stats;
+
+/**
+ * Where a finished game stands among the earlier games of its mode and difficulty.
+ * @param gamesCompared Earlier games of this mode and difficulty
+ * @param scorePercent Share of those games with a lower score, from 0 to 100, or -1 if there are none
+ * @param clearedGamesCompared Earlier games of this mode and difficulty that cleared the board
+ * @param timePercent Share of those games that took longer, from 0 to 100, or -1 if this game did not clear the board or there are none
+ */
+public record PercentileRank(long gamesCompared, double scorePercent, long clearedGamesCompared,
+                             double timePercent) {
+}
@@ -0,0 +1,27 @@
+package main.cardgame.stats;
+
+/**
+ * Snapshot of the queue and flush counters of the {@link StatisticsPersister}.
+ * @param queueDepth Files and ordered writes waiting to be written
+ * @param submitted Saves and ordered writes requested
+ * @param coalesced Saves that replaced a queued save of the same file instead of causing their own write
+ * @param callerWrites Saves the caller wrote itself because the queue was full
+ * @param flushes Times the writer thread wrote the queue
+ * @param filesWritten Files the writer thread wrote
+ * @param writesRun Ordered writes the writer thread ran
+ * @param failures Writes that failed
+ * @param lastFlushMicros Time taken by the last flush, in microseconds
+ * @param meanFlushMicros Mean time taken by a flush, in microseconds
+ * @param maxFlushMicros Longest time taken by a flush, in microseconds
+ */
+public record PersisterMetrics(int queueDepth, long submitted, long coalesced, long callerWrites, long flushes,
+                               long filesWritten, long writesRun, long failures, long lastFlushMicros,
+                               long meanFlushMicros, long maxFlushMicros) {
+    /**
+     * Calculates the share of saves that did not need a write of their own
+     * @return The coalesced fraction between 0 and 1, or 0 if nothing was saved
+     */
+    public double coalescedFraction() {
+        return submitted == 0 ? 0 : (double) coalesced / submitted;
+    }
+}
@@ -0,0 +1,77 @@
+package main.cardgame.stats;
+
+import java.io.Serializable;
+
+/**
+ * The last N games, e.g. the last 10 or 100, kept in fixed-size ring
+ * buffers of primitives with running sums. Adding a game overwrites the
+ * oldest one and adjusts the sums, so updates and averages take constant
+ * time however large the window is.
+ */
+
+public class RollingWindow implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int[] moves;
+    private final long[] times;
+    private final int[] scores;
+    /** Slot the next game is written to */
+    private int next;
+    private int count;
+    private long totalMoves;
+    private long totalTime;
+    private long totalScore;
+
+    /**
+     * Creates an empty window
+     * @param capacity The number of most recent games to keep
+     * @throws IllegalArgumentException If the capacity is not positive
+     */
+    public RollingWindow(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Window must hold at least one game");
+        }
+        this.moves = new int[capacity];
+        this.times = new long[capacity];
+        this.scores = new int[capacity];
+    }
+
+    /**
+     * Adds a finished game, dropping the oldest one if the window is full
+     * @param gameMoves Moves made
+     * @param time Time taken in milliseconds
+     * @param score Final score
+     */
+    public void add(int gameMoves, long time, int score) {
+        if (count == moves.length) {
+            totalMoves -= moves[next];
+            totalTime -= times[next];
+            totalScore -= scores[next];
+        } else {
+            count++;
+        }
+        moves[next] = gameMoves;
+        times[next] = time;
+        scores[next] = score;
+        totalMoves += gameMoves;
+        totalTime += time;
+        totalScore += score;
+        next = next + 1 == moves.length ? 0 : next + 1;
+    }
+
+    /**
+     * Gets the number of games the window keeps
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return moves.length;
+    }
+
+    /**
+     * Gets the totals of the games in the window
+     * @return The summary
+     */
+    public WindowSummary summarize() {
+        return new WindowSummary(count, totalMoves, totalTime, totalScore);
+    }
+}
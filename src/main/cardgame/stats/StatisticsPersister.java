@@ -0,0 +1,290 @@
+package main.cardgame.stats;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Writes statistics and profiles to disk behind the caller's back, so
+ * finishing a game never waits for the disk. Each save is queued by file;
+ * a later save of a file that is still queued replaces the earlier one, so
+ * a burst of updates costs one write. A single writer thread flushes the
+ * queue once its oldest save has waited for the flush interval or enough
+ * saves have arrived, and everything still queued is written when the
+ * application exits. Files are replaced through a temporary file and an
+ * atomic move, so a crash leaves either the old or the new contents.
+ * <p>
+ * The queue holds at most {@link #MAX_QUEUED_FILES} files. If it is full,
+ * the caller writes its file itself rather than losing the save.
+ * <p>
+ * Writes that cannot be coalesced, such as appends to a log, are queued
+ * with {@link #submit(PendingWrite)} and run on the same thread, in the
+ * order they were submitted. If {@link #MAX_QUEUED_WRITES} are already
+ * waiting, the caller first waits for the queue to be written.
+ */
+
+public class StatisticsPersister {
+    /** Longest time a save waits in the queue; -Dcardgame.statsFlushMillis=<millis> changes it */
+    private static final long FLUSH_INTERVAL_MILLIS = Long.getLong("cardgame.statsFlushMillis", 500);
+    /** Number of saves that flushes the queue before the interval is up */
+    private static final int FLUSH_COUNT = 64;
+    /** Largest number of distinct files waiting to be written */
+    public static final int MAX_QUEUED_FILES = 256;
+    /** Largest number of ordered writes waiting to run */
+    public static final int MAX_QUEUED_WRITES = 4096;
+
+    /**
+     * A write that runs on the writer thread, after every write submitted before it
+     */
+    @FunctionalInterface
+    public interface PendingWrite {
+        /**
+         * Performs the write
+         * @throws IOException If the write fails; the failure is reported and counted
+         */
+        void write() throws IOException;
+    }
+
+    private static final Object lock = new Object();
+    /** Queued saves by file, oldest first */
+    private static final Map<Path, Supplier<byte[]>> queued = new LinkedHashMap<>();
+    /** Queued ordered writes, oldest first */
+    private static final ArrayDeque<PendingWrite> writes = new ArrayDeque<>();
+    private static long oldestQueuedNanos;
+    private static int savesSinceFlush;
+    /** Sequence number of the last save submitted and the last one on disk */
+    private static long submittedSeq;
+    private static long writtenSeq;
+    private static boolean flushRequested;
+
+    private static long submitted;
+    private static long coalesced;
+    private static long callerWrites;
+    private static long flushes;
+    private static long filesWritten;
+    private static long writesRun;
+    private static long failures;
+    private static long totalFlushNanos;
+    private static long maxFlushNanos;
+    private static long lastFlushNanos;
+
+    static {
+        Thread.ofPlatform().name("statistics-writer").daemon(true).start(StatisticsPersister::run);
+        Runtime.getRuntime().addShutdownHook(new Thread(StatisticsPersister::flush, "statistics-flush"));
+    }
+
+    /**
+     * Queues a file to be written. The contents are encoded on the writer
+     * thread, so the supplier must copy or lock any state the caller goes on changing.
+     * @param file The file to replace
+     * @param contents Encodes the new file contents
+     */
+    public static void save(Path file, Supplier<byte[]> contents) {
+        boolean full = false;
+        synchronized (lock) {
+            submitted++;
+            if (isEmpty()) {
+                oldestQueuedNanos = System.nanoTime();
+            }
+            if (queued.put(file, contents) != null) {
+                coalesced++;
+            } else if (queued.size() > MAX_QUEUED_FILES) {
+                queued.remove(file);
+                callerWrites++;
+                full = true;
+            }
+            if (!full) {
+                submittedSeq++;
+                if (++savesSinceFlush >= FLUSH_COUNT || queued.size() + writes.size() == 1) {
+                    lock.notifyAll();
+                }
+                return;
+            }
+        }
+        if (!writeNow(file, contents)) {
+            synchronized (lock) {
+                failures++;
+            }
+        }
+    }
+
+    /**
+     * Queues an ordered write, e.g. an append to a log. It runs after every
+     * write submitted before it; call {@link #flush()} to wait for it.
+     * @param write The write
+     */
+    public static void submit(PendingWrite write) {
+        synchronized (lock) {
+            if (writes.size() >= MAX_QUEUED_WRITES) {
+                flush();
+            }
+            submitted++;
+            if (isEmpty()) {
+                oldestQueuedNanos = System.nanoTime();
+            }
+            writes.add(write);
+            submittedSeq++;
+            if (++savesSinceFlush >= FLUSH_COUNT || queued.size() + writes.size() == 1) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Writes everything queued so far and waits until it is on disk
+     */
+    public static void flush() {
+        synchronized (lock) {
+            long target = submittedSeq;
+            if (writtenSeq < target) {
+                flushRequested = true;
+                lock.notifyAll();
+            }
+            while (writtenSeq < target) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the queue and flush counters
+     * @return A snapshot of the counters
+     */
+    public static PersisterMetrics getMetrics() {
+        synchronized (lock) {
+            return new PersisterMetrics(queued.size() + writes.size(), submitted, coalesced, callerWrites, flushes,
+                    filesWritten, writesRun, failures, lastFlushNanos / 1000, flushes == 0 ? 0 : totalFlushNanos / flushes / 1000,
+                    maxFlushNanos / 1000);
+        }
+    }
+
+    /**
+     * Writer thread: waits for a flush to be due, then runs every queued write and writes every queued file
+     */
+    private static void run() {
+        while (true) {
+            List<Map.Entry<Path, Supplier<byte[]>>> batch;
+            List<PendingWrite> ordered;
+            long seq;
+            synchronized (lock) {
+                try {
+                    while (!flushDue()) {
+                        if (isEmpty()) {
+                            lock.wait();
+                        } else {
+                            long waitNanos = oldestQueuedNanos + FLUSH_INTERVAL_MILLIS * 1_000_000 - System.nanoTime();
+                            lock.wait(Math.max(1, waitNanos / 1_000_000));
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                batch = new ArrayList<>(queued.entrySet());
+                queued.clear();
+                ordered = new ArrayList<>(writes);
+                writes.clear();
+                seq = submittedSeq;
+                savesSinceFlush = 0;
+                flushRequested = false;
+            }
+
+            long start = System.nanoTime();
+            int run = 0;
+            int written = 0;
+            int failed = 0;
+            for (PendingWrite write : ordered) {
+                try {
+                    write.write();
+                    run++;
+                } catch (IOException | RuntimeException e) {
+                    e.printStackTrace();
+                    failed++;
+                }
+            }
+            for (Map.Entry<Path, Supplier<byte[]>> entry : batch) {
+                if (writeNow(entry.getKey(), entry.getValue())) {
+                    written++;
+                } else {
+                    failed++;
+                }
+            }
+            long nanos = System.nanoTime() - start;
+
+            synchronized (lock) {
+                flushes++;
+                filesWritten += written;
+                writesRun += run;
+                failures += failed;
+                lastFlushNanos = nanos;
+                totalFlushNanos += nanos;
+                maxFlushNanos = Math.max(maxFlushNanos, nanos);
+                writtenSeq = seq;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the queue should be written now; the caller holds the lock
+     * @return True if a flush was requested, enough saves arrived or the oldest save waited long enough
+     */
+    private static boolean flushDue() {
+        if (flushRequested) {
+            return true;
+        }
+        if (isEmpty()) {
+            return false;
+        }
+        return savesSinceFlush >= FLUSH_COUNT
+                || System.nanoTime() - oldestQueuedNanos >= FLUSH_INTERVAL_MILLIS * 1_000_000;
+    }
+
+    /**
+     * Checks whether nothing is queued; the caller holds the lock
+     * @return True if no file or ordered write is waiting
+     */
+    private static boolean isEmpty() {
+        return queued.isEmpty() && writes.isEmpty();
+    }
+
+    /**
+     * Replaces a file through a temporary file and an atomic move
+     * @param file The file
+     * @param contents Encodes the file contents
+     * @return True if the file was written
+     */
+    private static boolean writeNow(Path file, Supplier<byte[]> contents) {
+        Path temp = null;
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            Files.write(temp, contents.get());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package main.cardgame.stats;
+
+/**
+ * Totals of the games inside a rolling window of {@link GameStatistics}.
+ * @param games Games in the window
+ * @param totalMoves Moves made in those games
+ * @param totalTime Time those games took, in milliseconds
+ * @param totalScore Sum of their scores
+ */
+public record WindowSummary(int games, long totalMoves, long totalTime, long totalScore) {
+    /**
+     * Calculates the average number of moves per game
+     * @return The average, or 0 if the window is empty
+     */
+    public double averageMoves() {
+        return games == 0 ? 0 : (double) totalMoves / games;
+    }
+
+    /**
+     * Calculates the average time per game
+     * @return The average in milliseconds, or 0 if the window is empty
+     */
+    public double averageTime() {
+        return games == 0 ? 0 : (double) totalTime / games;
+    }
+
+    /**
+     * Calculates the average score per game
+     * @return The average, or 0 if the window is empty
+     */
+    public double averageScore() {
+        return games == 0 ? 0 : (double) totalScore / games;
+    }
+}
@@ -0,0 +1,33 @@
+package main.cardgame.time;
+
+/**
+ * Monotonic time source for timers and game duration accounting.
+ * Readings only have meaning relative to each other; they never jump
+ * with wall-clock adjustments. Production code uses {@link #system()},
+ * tests and simulations use a {@link ManualClock}.
+ */
+
+@FunctionalInterface
+public interface Clock {
+    /**
+     * Reads the current time
+     * @return The current time in nanoseconds, relative to an arbitrary origin
+     */
+    long nanoTime();
+
+    /**
+     * Reads the current time in milliseconds
+     * @return The current time in milliseconds, relative to the same origin as {@link #nanoTime()}
+     */
+    default long millis() {
+        return nanoTime() / 1_000_000L;
+    }
+
+    /**
+     * Gets the clock backed by {@link System#nanoTime()}
+     * @return The system clock
+     */
+    static Clock system() {
+        return SystemClock.INSTANCE;
+    }
+}
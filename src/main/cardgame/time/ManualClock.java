@@ -0,0 +1,76 @@
+package main.cardgame.time;
+
+import java.time.Duration;
+
+/**
+ * Clock that only moves when told to.
+ * Lets tests and simulations run a full timed game, including its time
+ * bonuses, without waiting in real time. Not thread-safe; a manual clock
+ * is meant to be driven by the thread that drives the games using it.
+ */
+
+public class ManualClock implements Clock {
+    private long now;
+
+    /**
+     * Creates a manual clock starting at zero
+     */
+    public ManualClock() {
+    }
+
+    /**
+     * Creates a manual clock starting at the given time
+     * @param startNanos The initial time in nanoseconds
+     */
+    public ManualClock(long startNanos) {
+        this.now = startNanos;
+    }
+
+    /**
+     * Reads the current time
+     * @return The current time in nanoseconds
+     */
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    /**
+     * Moves the clock forward
+     * @param nanos The number of nanoseconds to advance
+     * @throws IllegalArgumentException If the amount is negative
+     */
+    public void advanceNanos(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Cannot move the clock backwards: " + nanos);
+        }
+        now += nanos;
+    }
+
+    /**
+     * Moves the clock forward
+     * @param millis The number of milliseconds to advance
+     * @throws IllegalArgumentException If the amount is negative
+     */
+    public void advanceMillis(long millis) {
+        advanceNanos(millis * 1_000_000L);
+    }
+
+    /**
+     * Moves the clock forward
+     * @param seconds The number of seconds to advance
+     * @throws IllegalArgumentException If the amount is negative
+     */
+    public void advanceSeconds(long seconds) {
+        advanceNanos(seconds * 1_000_000_000L);
+    }
+
+    /**
+     * Moves the clock forward
+     * @param duration The amount to advance
+     * @throws IllegalArgumentException If the duration is negative
+     */
+    public void advance(Duration duration) {
+        advanceNanos(duration.toNanos());
+    }
+}
@@ -0,0 +1,22 @@
+package main.cardgame.time;
+
+/**
+ * Clock backed by {@link System#nanoTime()}.
+ */
+
+final class SystemClock implements Clock {
+    /** The only instance */
+    static final SystemClock INSTANCE = new SystemClock();
+
+    private SystemClock() {
+    }
+
+    /**
+     * Reads the JVM's monotonic time source
+     * @return The current time in nanoseconds
+     */
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+}
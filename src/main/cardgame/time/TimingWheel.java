@@ -0,0 +1,306 @@
+package main.cardgame.time;
+
+/**
+ * Hierarchical timing wheel shared by many timers.
+ * Time is divided into ticks; a timeout is placed once into a bucket of one
+ * of five 64-slot wheels, chosen by how far away its deadline is, and is
+ * moved to a finer wheel only when a coarser bucket comes due. Scheduling
+ * and cancelling are O(1), and each tick costs O(1) plus the timeouts it
+ * fires or moves, no matter how many countdowns are pending: one wheel can
+ * serve every game on a host instead of one polling timer per game.
+ * Deadlines never fire early; they fire on the first {@link #advance()}
+ * after the clock passes the tick they fall into.
+ * All methods are thread-safe. Expired tasks run on the thread that calls
+ * {@link #advance()}, outside the wheel's lock, so they may schedule or
+ * cancel timeouts.
+ */
+
+public class TimingWheel {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 5;
+    /** Deadlines further away than this many ticks are parked in the last bucket and re-placed later */
+    private static final long MAX_DELTA = 1L << (WHEEL_BITS * LEVELS);
+
+    private final Clock clock;
+    private final long tickNanos;
+    private final long origin;
+    /** Bucket heads, LEVELS wheels of WHEEL_SIZE buckets each */
+    private final Timeout[] buckets = new Timeout[LEVELS * WHEEL_SIZE];
+    /** The next tick to process; every earlier tick has fired */
+    private long nextTick;
+    private int pending;
+
+    private long scheduled;
+    private long fired;
+    private long cancelled;
+    private long cascaded;
+    private long ticks;
+
+    /**
+     * A scheduled task; can be cancelled until it fires
+     */
+    public static final class Timeout {
+        private final TimingWheel wheel;
+        private final Runnable task;
+        private final long deadlineTick;
+        private Timeout prev;
+        private Timeout next;
+        /** Bucket the timeout is linked into, or -1 when not pending */
+        private int bucket = -1;
+        private boolean expired;
+
+        /**
+         * Creates a timeout
+         * @param wheel The wheel it belongs to
+         * @param task The task to run when it expires
+         * @param deadlineTick The tick at which it expires
+         */
+        private Timeout(TimingWheel wheel, Runnable task, long deadlineTick) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Cancels the timeout if it has not fired yet
+         * @return True if the timeout was pending and is now cancelled
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+
+        /**
+         * Checks if the timeout has fired
+         * @return True if the task has been handed out to run
+         */
+        public boolean isExpired() {
+            synchronized (wheel) {
+                return expired;
+            }
+        }
+
+        /**
+         * Checks if the timeout is still waiting to fire
+         * @return True if the timeout is pending
+         */
+        public boolean isPending() {
+            synchronized (wheel) {
+                return bucket >= 0;
+            }
+        }
+    }
+
+    /**
+     * Creates a timing wheel
+     * @param clock The clock deadlines are measured against
+     * @param tickMillis The tick length in milliseconds, i.e. the timing resolution
+     * @throws IllegalArgumentException If the tick length is not positive
+     */
+    public TimingWheel(Clock clock, long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick length must be positive: " + tickMillis);
+        }
+        this.clock = clock;
+        this.tickNanos = tickMillis * 1_000_000L;
+        this.origin = clock.nanoTime();
+    }
+
+    /**
+     * Schedules a task to run once a delay has passed
+     * @param delayNanos The delay in nanoseconds; zero or negative fires on the next advance
+     * @param task The task to run
+     * @return The timeout, which can be cancelled
+     * @throws IllegalArgumentException If the task is null
+     */
+    public Timeout schedule(long delayNanos, Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        long deadline = clock.nanoTime() + Math.max(delayNanos, 0) - origin;
+        // Round up, so a deadline inside a tick fires only once the whole tick has passed
+        long deadlineTick = (deadline + tickNanos - 1) / tickNanos;
+        Timeout timeout = new Timeout(this, task, deadlineTick);
+        synchronized (this) {
+            place(timeout);
+            pending++;
+            scheduled++;
+        }
+        return timeout;
+    }
+
+    /**
+     * Removes a pending timeout
+     * @param timeout The timeout
+     * @return True if the timeout was pending
+     */
+    private synchronized boolean cancel(Timeout timeout) {
+        if (timeout.bucket < 0) {
+            return false;
+        }
+        unlink(timeout);
+        pending--;
+        cancelled++;
+        return true;
+    }
+
+    /**
+     * Processes every tick up to the current time and runs the tasks that expired
+     * @return The number of tasks run
+     */
+    public int advance() {
+        Timeout expiredHead;
+        int count = 0;
+        synchronized (this) {
+            long targetTick = (clock.nanoTime() - origin) / tickNanos;
+            expiredHead = null;
+            Timeout expiredTail = null;
+            while (nextTick <= targetTick) {
+                if (pending == 0) {
+                    // Nothing to move or fire: jump straight to the target
+                    nextTick = targetTick + 1;
+                    break;
+                }
+                int index = (int) (nextTick & WHEEL_MASK);
+                if (index == 0) {
+                    cascade();
+                }
+                Timeout timeout = buckets[index];
+                while (timeout != null) {
+                    Timeout following = timeout.next;
+                    unlink(timeout);
+                    timeout.expired = true;
+                    timeout.next = null;
+                    if (expiredTail == null) {
+                        expiredHead = timeout;
+                    } else {
+                        expiredTail.next = timeout;
+                    }
+                    expiredTail = timeout;
+                    pending--;
+                    count++;
+                    timeout = following;
+                }
+                nextTick++;
+                ticks++;
+            }
+            fired += count;
+        }
+
+        for (Timeout timeout = expiredHead; timeout != null; ) {
+            Timeout following = timeout.next;
+            timeout.next = null;
+            timeout.task.run();
+            timeout = following;
+        }
+        return count;
+    }
+
+    /**
+     * Moves the due bucket of each coarser wheel down into finer wheels.
+     * Called when the finest wheel wraps around; each level only cascades
+     * when every finer level has wrapped as well.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int index = (int) ((nextTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+            int slot = level * WHEEL_SIZE + index;
+            Timeout timeout = buckets[slot];
+            buckets[slot] = null;
+            while (timeout != null) {
+                Timeout following = timeout.next;
+                timeout.prev = null;
+                timeout.next = null;
+                timeout.bucket = -1;
+                place(timeout);
+                cascaded++;
+                timeout = following;
+            }
+            if (index != 0) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Links a timeout into the bucket matching its distance from the next tick
+     * @param timeout The timeout to place
+     */
+    private void place(Timeout timeout) {
+        long delta = timeout.deadlineTick - nextTick;
+        long tick = timeout.deadlineTick;
+        if (delta < 0) {
+            // Already due: fire on the next processed tick
+            tick = nextTick;
+            delta = 0;
+        } else if (delta >= MAX_DELTA) {
+            // Too far out for the wheels: park it and place it again when this bucket cascades
+            tick = nextTick + MAX_DELTA - 1;
+            delta = MAX_DELTA - 1;
+        }
+        int level = 0;
+        while (delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = level * WHEEL_SIZE + (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        Timeout head = buckets[slot];
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        buckets[slot] = timeout;
+        timeout.bucket = slot;
+    }
+
+    /**
+     * Removes a timeout from its bucket
+     * @param timeout The linked timeout
+     */
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+    }
+
+    /**
+     * Gets the clock deadlines are measured against
+     * @return The clock
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Gets the tick length
+     * @return The tick length in nanoseconds
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Gets the number of timeouts waiting to fire
+     * @return The number of pending timeouts
+     */
+    public synchronized int getPendingCount() {
+        return pending;
+    }
+
+    /**
+     * Takes a snapshot of the wheel counters
+     * @return The current metrics
+     */
+    public synchronized TimingWheelMetrics getMetrics() {
+        return new TimingWheelMetrics(pending, scheduled, fired, cancelled, cascaded, ticks);
+    }
+}
@@ -0,0 +1,20 @@
+package main.cardgame.time;
+
+/**
+ * Snapshot of the counters of a {@link TimingWheel}.
+ * @param pending Timeouts waiting to fire
+ * @param scheduled Timeouts scheduled since the wheel was created
+ * @param fired Timeouts that fired
+ * @param cancelled Timeouts cancelled before firing
+ * @param cascaded Times a timeout was moved from a coarser to a finer wheel
+ * @param ticks Ticks processed one by one (idle stretches are skipped in one step)
+ */
+public record TimingWheelMetrics(int pending, long scheduled, long fired, long cancelled, long cascaded, long ticks) {
+    /**
+     * Calculates how often a timeout was moved between wheels on average before it fired
+     * @return Cascades per fired timeout, or 0 if none fired
+     */
+    public double cascadesPerFired() {
+        return fired == 0 ? 0 : (double) cascaded / fired;
+    }
+}
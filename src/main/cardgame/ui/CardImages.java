@@ -0,0 +1,78 @@
+package main.cardgame.ui;
+
+import javafx.scene.image.Image;
+import main.cardgame.engine.Difficulty;
+import main.cardgame.model.Card;
+import main.cardgame.model.CardFace;
+
+/**
+ * Resolves card images for one difficulty level.
+ * Maps pair keys to the level's card face images, which keeps asset
+ * paths out of the game model, and caches every loaded image so
+ * flipping a card never reloads it from disk.
+ */
+
+public class CardImages {
+    /** Root of the image resources */
+    private static final String IMAGE_ROOT = "file:src/main/resources/images/";
+
+    /** Level name, which is also the image folder */
+    private final String level;
+    /** Face images indexed by pair key, loaded on first use */
+    private final Image[] faces;
+    /** Image shown on the back of every card */
+    private final Image back;
+
+    /**
+     * Creates the image set for a difficulty level
+     * @param level The difficulty level ("easy", "medium", or "hard")
+     * @throws IllegalArgumentException If the level is not valid
+     */
+    public CardImages(String level) {
+        Difficulty difficulty = Difficulty.fromLevel(level);
+        this.level = difficulty.getLevel();
+        this.faces = new Image[difficulty.getPairs()];
+        this.back = new Image(IMAGE_ROOT + "backCards/" + this.level + "back.png");
+    }
+
+    /**
+     * Gets the path of the face image for a pair key
+     * @param level The difficulty level
+     * @param pairKey The pair key
+     * @return The image path
+     */
+    public static String getFacePath(String level, int pairKey) {
+        return IMAGE_ROOT + level + "/" + CardFace.of(pairKey).getImageName();
+    }
+
+    /**
+     * Gets the face image for a pair key
+     * @param pairKey The pair key
+     * @return The face image
+     */
+    public Image getFace(int pairKey) {
+        Image face = faces[pairKey];
+        if (face == null) {
+            face = new Image(getFacePath(level, pairKey));
+            faces[pairKey] = face;
+        }
+        return face;
+    }
+
+    /**
+     * Gets the card back image
+     * @return The back image
+     */
+    public Image getBack() {
+        return back;
+    }
+
+    /**
+     * Gets the image to display for a card in its current state
+     * @param card The card
+     * @return The face image if the card is face up, otherwise the back image
+     */
+    public Image getImage(Card card) {
+        return card.isFaceUp() ? getFace(card.getPairKey()) : back;
+    }
+}
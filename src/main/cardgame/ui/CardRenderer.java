@@ -8,13 +8,14 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
+import javafx.scene.effect.DropShadow;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.util.Duration;
+import main.cardgame.engine.SeenCardIndex;
 import main.cardgame.game.Game;
 import main.cardgame.model.Card;
 import main.cardgame.model.GameBoard;
@@ -39,6 +40,8 @@ public class CardRenderer {
     private Game game;
     /** Game board model */
     private GameBoard board;
+    /** Images for the card faces and backs */
+    private CardImages cardImages;
 
     /** Number of columns in the grid */
     private int cols;
@@ -75,16 +78,18 @@ public class CardRenderer {
      * @param gameBoardUI Parent GameBoardUI instance
      * @param game Current game instance
      * @param board Game board model
+     * @param cardImages Images for the card faces and backs
      * @param cols Number of columns
      * @param rows Number of rows
      * @param cardAspectRatio Card aspect ratio
      * @param gap Gap between cards
      */
-    public CardRenderer(GameBoardUI gameBoardUI, Game game, GameBoard board, int cols, int rows,
-                        double cardAspectRatio, double gap) {
+    public CardRenderer(GameBoardUI gameBoardUI, Game game, GameBoard board, CardImages cardImages,
+                        int cols, int rows, double cardAspectRatio, double gap) {
         this.gameBoardUI = gameBoardUI;
         this.game = game;
         this.board = board;
+        this.cardImages = cardImages;
         this.cols = cols;
         this.rows = rows;
         this.cardAspectRatio = cardAspectRatio;
@@ -126,7 +131,6 @@ public class CardRenderer {
                     );
                 }
 
-                card.addObserver(gameBoardUI);
                 Button cardButton = createCardButton(card, initialCardWidth, initialCardHeight);
                 cardButtons.put(card, cardButton);
                 gridPane.add(cardButton, col, row);
@@ -172,7 +176,7 @@ public class CardRenderer {
         cardButton.setPrefSize(cardWidth, cardHeight);
         cardButton.setPadding(Insets.EMPTY);
 
-        ImageView imageView = new ImageView(new Image(Card.getBackImagePath()));
+        ImageView imageView = new ImageView(cardImages.getImage(card));
         imageView.setFitWidth(cardWidth);
         imageView.setFitHeight(cardHeight);
         cardButton.setGraphic(imageView);
@@ -224,6 +228,8 @@ public class CardRenderer {
                 firstFlippedCard = card;
                 flippingFirstCard = false;
                 cardClicksBlocked = false;
+                game.revealCard(card);
+                gameBoardUI.statusPanel.updateKnownCards();
             });
         } else if (secondFlippedCard == null) {
             cardClicksBlocked = true;
@@ -263,8 +269,7 @@ public class CardRenderer {
      * @param imageView The ImageView of the card
      */
     private void updateCardImage(Card card, ImageView imageView) {
-        String path = card.isFaceUp() ? card.getImagePath() : Card.getBackImagePath();
-        imageView.setImage(new Image(path));
+        imageView.setImage(cardImages.getImage(card));
     }
 
     /**
@@ -380,6 +385,63 @@ public class CardRenderer {
         }
     }
 
+    /**
+     * Restores the card selection of a resumed game: the first face up
+     * unmatched card becomes the selected card, and any other face up
+     * unmatched card (from a turn interrupted mid-animation) is turned back down
+     */
+    public void restoreSelection() {
+        for (int slot = 0; slot < board.size(); slot++) {
+            Card card = board.getCardAt(slot);
+            if (!card.isFaceUp() || card.isMatched()) {
+                continue;
+            }
+            if (firstFlippedCard == null) {
+                firstFlippedCard = card;
+                game.revealCard(card);
+            } else {
+                card.flip();
+                handleCardUpdate(card);
+            }
+        }
+    }
+
+    /**
+     * Highlights a pair whose two cards have both been seen. With one card
+     * already turned over, only its partner is highlighted, if it is known.
+     * The pair comes from the game's seen card index, without a board scan.
+     * @return True if a card was highlighted, false if no matching pair is known
+     */
+    public boolean showHint() {
+        if (cardClicksBlocked || !game.isActive() || game.isPaused()) return false;
+
+        SeenCardIndex seenCards = game.getSeenCards();
+        if (firstFlippedCard != null) {
+            int partner = seenCards.knownPartner(board.slotOf(firstFlippedCard));
+            if (partner < 0) return false;
+            highlightCard(board.getCardAt(partner));
+            return true;
+        }
+        int slot = seenCards.hintSlot();
+        if (slot < 0) return false;
+        highlightCard(board.getCardAt(slot));
+        highlightCard(board.getCardAt(seenCards.knownPartner(slot)));
+        return true;
+    }
+
+    /**
+     * Makes a card glow briefly
+     * @param card The card to highlight
+     */
+    private void highlightCard(Card card) {
+        Button button = cardButtons.get(card);
+        if (button == null) return;
+        button.setEffect(new DropShadow(25, Color.GOLD));
+        PauseTransition pause = new PauseTransition(Duration.seconds(1.2));
+        pause.setOnFinished(e -> button.setEffect(null));
+        pause.play();
+    }
+
     /**
      * Updates a card's display after state change
      * @param card The card to update
@@ -6,12 +6,14 @@ import javafx.scene.control.Label;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import main.cardgame.game.Game;
 
 /**
@@ -26,6 +28,8 @@ public class ControlPanel {
     private Button restartButton;
     /** Button to return to main menu */
     private Button mainMenuButton;
+    /** Button to highlight a known matching pair */
+    private Button hintButton;
     /** Container for all buttons */
     private HBox buttonsBox;
     /** Reference to the game board UI */
@@ -110,6 +114,24 @@ public class ControlPanel {
             }
         });
 
+        hintButton = new Button("Hint");
+        hintButton.setStyle(
+                "-fx-font-size: 16px; -fx-font-weight: bold; " +
+                        "-fx-background-color: #2e8b57; -fx-text-fill: white; -fx-background-radius: 10;"
+        );
+        hintButton.setPrefSize(100, 40);
+        ButtonEffectManager.addButtonHoverEffect(hintButton);
+
+        // Highlight a pair the player has already seen, or say there is none
+        hintButton.setOnAction(e -> {
+            if (cardRenderer != null && !cardRenderer.showHint()) {
+                hintButton.setText("No Hint");
+                PauseTransition pause = new PauseTransition(Duration.seconds(1));
+                pause.setOnFinished(event -> hintButton.setText("Hint"));
+                pause.play();
+            }
+        });
+
         mainMenuButton = new Button("Main Menu");
         mainMenuButton.setStyle(
                 "-fx-font-size: 16px; -fx-font-weight: bold; " +
@@ -126,7 +148,7 @@ public class ControlPanel {
         });
 
         // Original layout for buttons
-        buttonsBox = new HBox(10, pauseButton, restartButton, mainMenuButton);
+        buttonsBox = new HBox(10, hintButton, pauseButton, restartButton, mainMenuButton);
         buttonsBox.setAlignment(Pos.CENTER_RIGHT);
         buttonsBox.setPadding(new Insets(0));
     }
@@ -1,5 +1,6 @@
 package main.cardgame.ui;
 
+import main.cardgame.stats.StatisticsPersister;
 import main.cardgame.stats.StatsManager;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -13,16 +14,30 @@ import javafx.scene.layout.StackPane;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
 import main.cardgame.game.EndlessGame;
+import main.cardgame.engine.Difficulty;
 import main.cardgame.game.Game;
+import main.cardgame.game.GameSnapshot;
+import main.cardgame.game.SnapshotStore;
 import main.cardgame.game.TimedGame;
+import main.cardgame.history.HistoryManager;
+import main.cardgame.journal.TurnJournal;
+import main.cardgame.event.EventBatch;
+import main.cardgame.event.EventBus;
+import main.cardgame.event.GameEvent;
 import main.cardgame.model.Card;
 import main.cardgame.model.Deck;
 import main.cardgame.model.GameBoard;
 import main.cardgame.model.Player;
-
+import main.cardgame.profile.GlobalProfileContext;
+import main.cardgame.profile.UserProfile;
+import main.cardgame.time.Clock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
 import java.util.Optional;
-import java.util.Observable;
-import java.util.Observer;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -31,11 +46,13 @@ import java.util.regex.Pattern;
  * while maintaining identical UI components and behavior.
  */
 
-public class GameBoardUI extends Application implements Observer {
+public class GameBoardUI extends Application {
     /** Default number of rows in the game board */
     private static int BOARD_ROWS = 3;
     /** Default number of columns in the game board */
     private static int BOARD_COLS = 4;
+    /** Journal every played turn is appended to */
+    private static final Path JOURNAL_PATH = Path.of("journal", "turns.journal");
     /** Aspect ratio for cards (width/height) */
     private static final double CARD_ASPECT_RATIO = 2.0 / 2.0;
     /** Padding around the game board */
@@ -51,6 +68,12 @@ public class GameBoardUI extends Application implements Observer {
     private String currentMode;
     /** Current difficulty level (e.g., "easy", "medium", "hard") */
     private String currentDifficulty;
+    /** Card images for the current difficulty */
+    private CardImages cardImages;
+    /** Events shown in the status bar; delivered once per turn */
+    private static final Set<GameEvent> STATUS_EVENTS = EnumSet.of(
+            GameEvent.SCORE_CHANGED, GameEvent.SCORE_INCREASED, GameEvent.MOVES_CHANGED,
+            GameEvent.MOVES_MADE, GameEvent.PLAYER_RESET, GameEvent.TIMER_STOPPED);
 
     // Organized UI components
     /** Welcome screen panel */
@@ -71,6 +94,11 @@ public class GameBoardUI extends Application implements Observer {
     /** Flag to indicate if game over message has been shown */
     private boolean gameOverShown = false;
 
+    /** Turn journal, opened with the first game; null if it could not be opened */
+    private TurnJournal journal;
+    /** Shared UI tick; its timing wheel holds the countdown deadline */
+    private final UiTicker ticker = new UiTicker();
+
     /** Primary stage of the application */
     private Stage primaryStage; // Add this field to store the primary stage
 
@@ -108,44 +136,17 @@ public class GameBoardUI extends Application implements Observer {
     }
 
     public void startGameWithSettings(Stage primaryStage, String mode, String difficulty) {
-        this.gameOverShown = false;
-        this.currentMode = mode;
-        this.currentDifficulty = difficulty;
-
-        // Set card's background based on difficulty (preserved logic)
-        switch (difficulty) {
-            case "easy":
-                Card.setBackImagePath("file:src/main/resources/images/backCards/easyback.png");
-                break;
-            case "medium":
-                Card.setBackImagePath("file:src/main/resources/images/backCards/mediumback.png");
-                break;
-            case "hard":
-                Card.setBackImagePath("file:src/main/resources/images/backCards/hardback.png");
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown difficulty: " + difficulty);
-        }
-
-        int totalCardsNeeded = BOARD_ROWS * BOARD_COLS;
-        int requiredPairs = totalCardsNeeded / 2;
-
-        // Create deck and board (preserved logic)
-        // Create deck and board
-        Deck deck = Deck.createDeckForLevel(difficulty);
-        this.board = new GameBoard(difficulty, deck.getCards()) {};
-        this.board.addObserver(this);
-
-        // Get the actual dimensions from the created board
-        BOARD_ROWS = board.getRows();
-        BOARD_COLS = board.getCols();
+        // Create deck and board; -Dcardgame.seed=<n> replays a recorded layout
+        Long replaySeed = Long.getLong("cardgame.seed");
+        Deck deck = replaySeed != null
+                ? Deck.createDeckForLevel(difficulty, replaySeed)
+                : Deck.createDeckForLevel(difficulty);
+        GameBoard newBoard = new GameBoard(difficulty, deck);
 
         Player player = new Player("Player1");
 
-        // Register as observer for player
-        player.addObserver(this);
-
         // Create appropriate game type based on mode (preserved logic)
+        Game newGame;
         if (mode.equals("Timed Mode")) {
             int timeLimit;
             switch (difficulty) {
@@ -154,36 +155,116 @@ public class GameBoardUI extends Application implements Observer {
                 case "hard": timeLimit = TimedGame.HARD_TIME; break;
                 default: timeLimit = TimedGame.EASY_TIME;
             }
-            this.game = new TimedGame(board, player, timeLimit);
+            newGame = new TimedGame(newBoard, player, timeLimit);
         } else {
-            this.game = new EndlessGame(board, player);
+            newGame = new EndlessGame(newBoard, player);
         }
 
-        // Register as observer for the timer
-        if (game.getTimer() instanceof Observable) {
-            ((Observable) game.getTimer()).addObserver(this);
+        startGame(primaryStage, mode, difficulty, newGame, null);
+    }
+
+    /**
+     * Continues the game saved when the window was last closed mid-game.
+     * The save is removed once loaded, so a game can be resumed only once.
+     * @param primaryStage The primary stage
+     */
+    public void resumeSavedGame(Stage primaryStage) {
+        String owner = getSaveOwner();
+        GameSnapshot snapshot;
+        Game savedGame;
+        try {
+            snapshot = SnapshotStore.load(owner, SnapshotStore.AUTOSAVE);
+            if (snapshot == null) {
+                showModeSelection(primaryStage);
+                return;
+            }
+            savedGame = snapshot.restore(new Player("Player1"), Clock.system());
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+            SnapshotStore.delete(owner, SnapshotStore.AUTOSAVE);
+            showModeSelection(primaryStage);
+            return;
+        }
+        SnapshotStore.delete(owner, SnapshotStore.AUTOSAVE);
+
+        String mode = snapshot.timed() ? "Timed Mode" : "Endless Mode";
+        String difficulty = Difficulty.fromDimensions(snapshot.rows(), snapshot.cols()).getLevel();
+        startGame(primaryStage, mode, difficulty, savedGame, snapshot);
+    }
+
+    /**
+     * Gets the owner of the saved games: the active profile, or "guest" without one
+     * @return The save owner
+     */
+    public static String getSaveOwner() {
+        UserProfile profile = GlobalProfileContext.getActiveProfile();
+        return profile != null ? profile.getUsername() : "guest";
+    }
+
+    /**
+     * Replaces the current game with a new one and shows it
+     * @param primaryStage The primary stage
+     * @param mode The game mode
+     * @param difficulty The difficulty level
+     * @param newGame The game to show, not yet started
+     * @param snapshot The snapshot to continue the game from, or null to start it from the beginning
+     */
+    private void startGame(Stage primaryStage, String mode, String difficulty, Game newGame, GameSnapshot snapshot) {
+        this.gameOverShown = false;
+        this.currentMode = mode;
+        this.currentDifficulty = difficulty;
+
+        // Card faces and backs are resolved from pair keys by the rendering layer
+        this.cardImages = new CardImages(difficulty);
+        this.board = newGame.getBoard();
+
+        // Get the actual dimensions from the created board
+        BOARD_ROWS = board.getRows();
+        BOARD_COLS = board.getCols();
+
+        // Stop listening to the previous game before replacing it
+        if (game != null) {
+            game.cancelExpiry();
+            game.setEventBus(null);
+        }
+        this.game = newGame;
+
+        // Route model events to the UI through a per-game event bus
+        EventBus eventBus = new EventBus();
+        game.setEventBus(eventBus);
+        eventBus.subscribe(this::onCardEvents, GameEvent.ofTopics(GameEvent.Topic.CARD));
+        eventBus.subscribe(this::onStatusEvents, STATUS_EVENTS, true);
+
+        // The countdown ends the game from the shared UI tick, without polling
+        game.scheduleExpiry(ticker.getWheel());
+
+        // Journal every turn under the game's id, which a resumed game keeps
+        TurnJournal turnJournal = openJournal();
+        if (turnJournal != null) {
+            game.getEngine().setTurnRecorder(turnJournal.recorder(game.getGameId()));
         }
 
         // Set up the UI
-        setupGameUI(primaryStage, mode);
+        setupGameUI(primaryStage, mode, snapshot);
     }
 
     /**
      * Sets up the game UI
      * @param primaryStage The primary stage
      * @param mode The game mode
+     * @param snapshot The snapshot to continue the game from, or null to start it from the beginning
      */
-    private void setupGameUI(Stage primaryStage, String mode) {
+    private void setupGameUI(Stage primaryStage, String mode, GameSnapshot snapshot) {
         // Create the main layout
         BorderPane mainLayout = new BorderPane();
         mainLayout.setPadding(new Insets(PADDING));
         mainLayout.setStyle("-fx-background-color: linear-gradient(to bottom, #f0f8ff, #e6e6fa);");
 
         // Create CardRenderer with rows and cols from the board
-        cardRenderer = new CardRenderer(this, game, board, board.getCols(), board.getRows(), CARD_ASPECT_RATIO, GAP);
+        cardRenderer = new CardRenderer(this, game, board, cardImages, board.getCols(), board.getRows(), CARD_ASPECT_RATIO, GAP);
 
         // Then create status panel
-        statusPanel = new GameStatusPanel(this.game);
+        statusPanel = new GameStatusPanel(this.game, ticker);
 
         // Then create control panel with references to both
         controlPanel = new ControlPanel(primaryStage, game);
@@ -213,18 +294,74 @@ public class GameBoardUI extends Application implements Observer {
 
         primaryStage.setTitle("Memory Card Game - " + mode);
         primaryStage.setScene(scene);
-        primaryStage.setOnCloseRequest(e -> statusPanel.stopTimerUpdates());
+        primaryStage.setOnCloseRequest(e -> {
+            statusPanel.stopTimerUpdates();
+            saveUnfinishedGame();
+        });
 
         primaryStage.setUserData(this); // Set GameBoardUI as user data for the stage
 
         // Center the game window on the screen
         primaryStage.centerOnScreen();
 
-        // Start the game
-        game.play();
+        // Start the game, or continue it where it was saved
+        if (snapshot != null) {
+            game.play(snapshot);
+            cardRenderer.restoreSelection();
+            statusPanel.updateKnownCards();
+        } else {
+            game.play();
+        }
         statusPanel.startTimerUpdates();
     }
 
+    /**
+     * Saves the current game if it is still running, so it can be resumed on the next start
+     */
+    private void saveUnfinishedGame() {
+        if (game == null || !game.isActive() || board.getSeed() == null) {
+            return;
+        }
+        try {
+            SnapshotStore.save(getSaveOwner(), SnapshotStore.AUTOSAVE, GameSnapshot.capture(game));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Opens the turn journal on first use
+     * @return The journal, or null if it cannot be opened
+     */
+    private TurnJournal openJournal() {
+        if (journal == null) {
+            try {
+                Files.createDirectories(JOURNAL_PATH.getParent());
+                journal = TurnJournal.open(JOURNAL_PATH);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return journal;
+    }
+
+    /**
+     * Closes the turn journal and game histories and writes queued statistics when the application exits
+     */
+    @Override
+    public void stop() {
+        ticker.stop();
+        StatisticsPersister.flush();
+        HistoryManager.closeAll();
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     /**
      * Restarts the game with current settings
      */
@@ -240,30 +377,47 @@ public class GameBoardUI extends Application implements Observer {
         if (statusPanel != null) {
             statusPanel.stopTimerUpdates();
         }
+        if (game != null) {
+            game.cancelExpiry();
+        }
+        // A game left for the menu is abandoned, not saved on close
+        primaryStage.setOnCloseRequest(null);
         welcomePanel = new WelcomePanel(primaryStage, this);
         welcomePanel.show();
     }
 
-    @Override
-    public void update(Observable observable, Object arg) {
+    /**
+     * Redraws a card after its state changed
+     * @param events The card event
+     */
+    private void onCardEvents(EventBatch events) {
+        Card card = (Card) events.getLastSource();
         Platform.runLater(() -> {
-            // Handle updates from all observable objects
-            // We delegate the updates to appropriate components
-
-            // Handle player updates
-            if (observable instanceof Player && statusPanel != null) {
-                statusPanel.updatePlayerStats((Player)observable);
+            if (cardRenderer != null) {
+                cardRenderer.handleCardUpdate(card);
             }
+        });
+    }
 
-            // Handle card updates
-            else if (observable instanceof Card && arg instanceof String && cardRenderer != null) {
-                cardRenderer.handleCardUpdate((Card)observable);
-            }
+    /**
+     * Updates the status bar once per turn and shows the game over message when the timer stops
+     * @param events The coalesced player and timer events
+     */
+    private void onStatusEvents(EventBatch events) {
+        // The batch is reused after this call, so read it before deferring to the FX thread
+        boolean playerChanged = events.containsTopic(GameEvent.Topic.PLAYER);
+        boolean timerStopped = events.contains(GameEvent.TIMER_STOPPED);
+        Player player = game.getPlayer();
 
-            // Handle timer updates
-            else if (observable == game.getTimer() && "TIMER_STOPPED".equals(arg) && statusPanel != null) {
+        Platform.runLater(() -> {
+            if (playerChanged && statusPanel != null) {
+                statusPanel.updatePlayerStats(player);
+                statusPanel.updateKnownCards();
+            }
+            if (timerStopped && statusPanel != null) {
+                statusPanel.stopTimerUpdates();
                 statusPanel.updateTimerDisplay();
-                showGameOverMessage(); // <-- Add this line
+                showGameOverMessage();
             }
         });
     }
@@ -290,7 +444,6 @@ public class GameBoardUI extends Application implements Observer {
     }
 
         public static void main(String[] args) {
-            Card.setBackImagePath("file:src/main/resources/images/back2.jpg");
             launch(args);
         }
 
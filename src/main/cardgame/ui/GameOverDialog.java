@@ -5,12 +5,14 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.DialogPane;
 import javafx.scene.control.Label;
 import javafx.stage.Stage;
+import main.cardgame.engine.Difficulty;
 import main.cardgame.game.Game;
 import main.cardgame.model.GameBoard;
 import java.util.concurrent.CompletableFuture;
 
 import main.cardgame.profile.GlobalProfileContext;
 import main.cardgame.profile.ProfileManager;
+import main.cardgame.stats.PercentileRank;
 import java.io.IOException;
 
 /**
@@ -69,7 +71,8 @@ public class GameOverDialog {
                     (isWin ? "All matches found!" : "Time's up!") + "\n" +
                             "Score: " + game.getPlayer().getScore() + "\n" +
                             timeDisplay + "\n" +
-                            "Moves: " + game.getPlayer().getMoves()
+                            "Moves: " + game.getPlayer().getMoves() +
+                            describePercentiles(game.getPercentileRank())
             );
 
             DialogPane dialogPane = alert.getDialogPane();
@@ -98,7 +101,7 @@ public class GameOverDialog {
                 if (profile != null) {
                     profile.getStatistics().updateGameStats(matches, moves, timeInSeconds);
                     try {
-                        ProfileManager.saveProfile(profile);
+                        ProfileManager.saveProfileLater(profile);
                     } catch (IOException e) {
                         e.printStackTrace();
                     }
@@ -111,4 +114,27 @@ public class GameOverDialog {
         
         return future;
     }
+
+    /**
+     * Describes how the game compares with earlier games on its mode and difficulty
+     * @param rank The game's percentile rank, or null if it was not ranked
+     * @return Lines to append to the results, or an empty string
+     */
+    private String describePercentiles(PercentileRank rank) {
+        if (rank == null) {
+            return "";
+        }
+        String level = Difficulty.fromDimensions(board.getRows(), board.getCols()).getLevel();
+        String games = (game.getTimer().isCountdown() ? "timed " : "endless ") + level + " games";
+        if (rank.scorePercent() < 0) {
+            return "\nFirst recorded game of the " + games;
+        }
+        String text = String.format("\nScore better than %.0f%% of %,d %s", rank.scorePercent(),
+                rank.gamesCompared(), games);
+        if (rank.timePercent() >= 0) {
+            text += String.format("\nFaster than %.0f%% of %,d cleared boards", rank.timePercent(),
+                    rank.clearedGamesCompared());
+        }
+        return text;
+    }
 }
@@ -1,19 +1,18 @@
 package main.cardgame.ui;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.layout.HBox;
-import javafx.util.Duration;
+import main.cardgame.engine.SeenCardIndex;
 import main.cardgame.game.Game;
 import main.cardgame.model.Player;
 
 /**
  * Manages the game status display (score, moves, time)
- * Preserves the original UI components and logic from GameBoardVisualizer2
+ * Preserves the original UI components and logic from GameBoardVisualizer2.
+ * The time label is refreshed on the shared {@link UiTicker}; running out of
+ * time is detected by the game's deadline on the ticker's timing wheel.
  */
 
 public class GameStatusPanel {
@@ -23,8 +22,12 @@ public class GameStatusPanel {
     private Label moveLabel;
     /** Label displaying the remaining or elapsed time */
     private Label timeLabel;
-    /** Timeline for regular timer updates */
-    private Timeline timerUpdateTimeline;
+    /** Label displaying the seen but unmatched cards */
+    private Label knownLabel;
+    /** Shared UI tick that refreshes the time label */
+    private final UiTicker ticker;
+    /** Refresh listener registered on the ticker */
+    private final Runnable timerRefresh = this::updateTimerDisplay;
     /** Reference to the current game */
     private Game game;
     /** Container for all status components */
@@ -33,9 +36,11 @@ public class GameStatusPanel {
     /**
      * Creates a new game status panel for the specified game
      * @param game The game to display status for
+     * @param ticker The shared UI tick driving the time display
      */
-    public GameStatusPanel(Game game) {
+    public GameStatusPanel(Game game, UiTicker ticker) {
         this.game = game;
+        this.ticker = ticker;
         initialize();
     }
 
@@ -54,8 +59,11 @@ public class GameStatusPanel {
         timeLabel = new Label(isTimedMode ? "Time Left: 00:00" : "Time: 00:00");
         timeLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
 
+        knownLabel = new Label("Known: 0");
+        knownLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #4682b4;");
+
         // Original layout for stats
-        statsBox = new HBox(20, scoreLabel, moveLabel, timeLabel);
+        statsBox = new HBox(20, scoreLabel, moveLabel, timeLabel, knownLabel);
         statsBox.setAlignment(Pos.CENTER_LEFT);
         statsBox.setPadding(new Insets(0));
     }
@@ -77,49 +85,41 @@ public class GameStatusPanel {
         moveLabel.setText("Moves: " + player.getMoves());
     }
 
+    /**
+     * Updates the count of cards seen but not matched yet
+     */
+    public void updateKnownCards() {
+        SeenCardIndex seenCards = game.getSeenCards();
+        int pairs = seenCards.getKnownPairCount();
+        knownLabel.setText("Known: " + seenCards.getKnownUnmatchedCount()
+                + (pairs > 0 ? " (" + pairs + (pairs == 1 ? " pair)" : " pairs)") : ""));
+    }
+
     /**
      * Starts the timer updates
      */
     public void startTimerUpdates() {
-        stopTimerUpdates(); // Clear any existing timer
-
-        // Original timer update logic
-        timerUpdateTimeline = new Timeline(
-                new KeyFrame(Duration.seconds(1), event -> updateTimerDisplay())
-        );
-        timerUpdateTimeline.setCycleCount(Timeline.INDEFINITE);
-        timerUpdateTimeline.play();
+        ticker.addListener(timerRefresh);
+        ticker.start();
     }
 
     /**
      * Stops the timer updates
      */
     public void stopTimerUpdates() {
-        if (timerUpdateTimeline != null) {
-            timerUpdateTimeline.stop();
-            timerUpdateTimeline = null;
-        }
+        ticker.removeListener(timerRefresh);
     }
 
     /**
-     * Updates the timer display
+     * Updates the timer display; must be called on the JavaFX application thread
      */
     public void updateTimerDisplay() {
-        Platform.runLater(() -> {
-            if (game.getTimer().isCountdown()) {
-                long seconds = game.getTimer().getRemainingTime() / 1000;
-                timeLabel.setText(String.format("Time Left: %02d:%02d", seconds / 60, seconds % 60));
-
-                // Check for time-up in timed games (original logic)
-                if (game.getTimer().isTimeUp() && !game.isGameOver()) {
-                    game.endGame();
-                    stopTimerUpdates();
-                    ((GameBoardUI)game.getBoard().getObserver()).showGameOverMessage();
-                }
-            } else {
-                long seconds = game.getTimer().getElapsedTime() / 1000;
-                timeLabel.setText(String.format("Time: %02d:%02d", seconds / 60, seconds % 60));
-            }
-        });
+        if (game.getTimer().isCountdown()) {
+            long seconds = game.getTimer().getRemainingTime() / 1000;
+            timeLabel.setText(String.format("Time Left: %02d:%02d", seconds / 60, seconds % 60));
+        } else {
+            long seconds = game.getTimer().getElapsedTime() / 1000;
+            timeLabel.setText(String.format("Time: %02d:%02d", seconds / 60, seconds % 60));
+        }
     }
 }
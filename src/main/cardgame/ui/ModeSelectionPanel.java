@@ -7,6 +7,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import main.cardgame.game.SnapshotStore;
 
 /**
  * Mode selection screen for the Memory Card Game.
@@ -61,13 +62,22 @@ public class ModeSelectionPanel {
         timedButton.setOnAction(e -> gameBoard.showDifficultySelection(primaryStage, "Timed Mode"));
         backButton.setOnAction(e -> gameBoard.returnToMainMenu(primaryStage));
 
-        // Original layout
-        VBox vbox = new VBox(25, modeLabel, endlessButton, timedButton, backButton);
+        // Original layout, with a resume option when a game was saved on exit
+        VBox vbox = new VBox(25, modeLabel, endlessButton, timedButton);
+        if (SnapshotStore.exists(GameBoardUI.getSaveOwner(), SnapshotStore.AUTOSAVE)) {
+            Button resumeButton = new Button("Resume Game");
+            resumeButton.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-background-color: #2e8b57; -fx-text-fill: white; -fx-background-radius: 10;");
+            resumeButton.setPrefSize(180, 60);
+            ButtonEffectManager.addButtonHoverEffect(resumeButton);
+            resumeButton.setOnAction(e -> gameBoard.resumeSavedGame(primaryStage));
+            vbox.getChildren().add(resumeButton);
+        }
+        vbox.getChildren().add(backButton);
         vbox.setAlignment(Pos.CENTER);
         vbox.setPadding(new Insets(PADDING));
         vbox.setStyle("-fx-background-color: linear-gradient(to bottom, #f0f8ff, #87cefa);");
 
-        Scene scene = new Scene(vbox, 400, 350);
+        Scene scene = new Scene(vbox, 400, vbox.getChildren().size() > 4 ? 440 : 350);
         primaryStage.setScene(scene);
         primaryStage.setTitle("Select Game Mode");
         primaryStage.show();
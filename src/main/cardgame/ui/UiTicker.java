@@ -0,0 +1,97 @@
+package main.cardgame.ui;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.util.Duration;
+import main.cardgame.time.Clock;
+import main.cardgame.time.TimingWheel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The single periodic tick of the user interface.
+ * One Timeline advances a shared {@link TimingWheel}, which fires due
+ * countdown deadlines, and then refreshes the registered displays.
+ * Everything runs on the JavaFX application thread, so deadline listeners
+ * and refresh listeners may touch the scene graph directly.
+ */
+
+public class UiTicker {
+    /** Interval between UI ticks in milliseconds */
+    private static final long TICK_MILLIS = 200;
+    /** Resolution of the timing wheel in milliseconds */
+    private static final long WHEEL_TICK_MILLIS = 10;
+
+    /** Timing wheel holding the countdown deadlines */
+    private final TimingWheel wheel;
+    /** Display refresh listeners, run after the wheel on every tick */
+    private final List<Runnable> listeners = new ArrayList<>();
+    /** Timeline driving the ticks while started */
+    private Timeline timeline;
+
+    /**
+     * Creates a ticker with a timing wheel on the system clock
+     */
+    public UiTicker() {
+        this.wheel = new TimingWheel(Clock.system(), WHEEL_TICK_MILLIS);
+    }
+
+    /**
+     * Gets the timing wheel advanced by this ticker
+     * @return The timing wheel
+     */
+    public TimingWheel getWheel() {
+        return wheel;
+    }
+
+    /**
+     * Adds a listener run on every tick; adding the same listener twice has no effect
+     * @param listener The listener to add
+     */
+    public void addListener(Runnable listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Removes a listener
+     * @param listener The listener to remove
+     */
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts ticking if not started yet
+     */
+    public void start() {
+        if (timeline == null) {
+            timeline = new Timeline(new KeyFrame(Duration.millis(TICK_MILLIS), event -> tick()));
+            timeline.setCycleCount(Timeline.INDEFINITE);
+            timeline.play();
+        }
+    }
+
+    /**
+     * Stops ticking; pending deadlines stay on the wheel
+     */
+    public void stop() {
+        if (timeline != null) {
+            timeline.stop();
+            timeline = null;
+        }
+    }
+
+    /**
+     * Fires due deadlines, then refreshes the displays
+     */
+    private void tick() {
+        wheel.advance();
+        // Copy so listeners can unregister themselves while running
+        for (Runnable listener : listeners.toArray(new Runnable[0])) {
+            listener.run();
+        }
+    }
+}